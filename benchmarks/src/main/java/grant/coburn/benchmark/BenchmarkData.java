@@ -0,0 +1,54 @@
+package grant.coburn.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import grant.coburn.model.Employee;
+import grant.coburn.model.TimeEntry;
+
+/**
+ * Builds the employees and time entries the benchmarks run against.
+ */
+final class BenchmarkData {
+    static final LocalDate PAY_PERIOD_START = LocalDate.of(2024, 1, 1);
+    static final LocalDate PAY_PERIOD_END = LocalDate.of(2024, 1, 14);
+
+    private BenchmarkData() {}
+
+    static Employee employee(String employeeId, Employee.PayType payType) {
+        return new Employee(
+            employeeId,
+            "IT",
+            "Engineer",
+            "Bench",
+            "Mark",
+            Employee.Status.ACTIVE,
+            LocalDate.of(1990, 1, 1),
+            LocalDate.of(2020, 1, 1),
+            payType,
+            payType == Employee.PayType.SALARY ? 65_000.0 : 27.5,
+            Employee.MedicalCoverage.FAMILY,
+            2
+        );
+    }
+
+    /**
+     * Create time entries spread across the pay period
+     * @param employeeId The employee the entries belong to
+     * @param count The number of entries
+     * @param overtime Whether the entries add up to more than a 40 hour week
+     * @return The time entries, with the last one marked as PTO when there is more than one
+     */
+    static List<TimeEntry> timeEntries(String employeeId, int count, boolean overtime) {
+        double totalHours = overtime ? 52.0 : 36.0;
+        double hoursPerEntry = totalHours / count;
+
+        List<TimeEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean pto = count > 1 && i == count - 1;
+            entries.add(new TimeEntry(employeeId, PAY_PERIOD_START.plusDays(i % 14), hoursPerEntry, pto));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,76 @@
+package grant.coburn.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import grant.coburn.model.Employee;
+import grant.coburn.model.TimeEntry;
+import grant.coburn.util.PayrollBatch;
+import grant.coburn.util.PayrollCalculator;
+
+/**
+ * Compares calculating payroll one employee at a time against the columnar batch calculation.
+ * Scores are per employee.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayrollBatchBenchmark {
+    private static final int EMPLOYEES = 10_000;
+
+    private final List<Employee> employees = new ArrayList<>(EMPLOYEES);
+    private final List<List<TimeEntry>> timeEntries = new ArrayList<>(EMPLOYEES);
+    private PayrollBatch batch;
+
+    @Setup
+    public void setUp() {
+        batch = new PayrollBatch(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            Employee employee = BenchmarkData.employee(
+                String.format("EMP%05d", i),
+                i % 2 == 0 ? Employee.PayType.SALARY : Employee.PayType.HOURLY
+            );
+            List<TimeEntry> entries = BenchmarkData.timeEntries(employee.getEmployeeId(), 10, i % 3 == 0);
+            employees.add(employee);
+            timeEntries.add(entries);
+            batch.add(employee, entries);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EMPLOYEES)
+    public void perEmployee(Blackhole blackhole) {
+        for (int i = 0; i < EMPLOYEES; i++) {
+            blackhole.consume(PayrollCalculator.calculatePayroll(
+                employees.get(i),
+                timeEntries.get(i),
+                BenchmarkData.PAY_PERIOD_START,
+                BenchmarkData.PAY_PERIOD_END
+            ));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EMPLOYEES)
+    public long[] columnarBatch() {
+        PayrollCalculator.calculatePayroll(batch, BenchmarkData.PAY_PERIOD_START, BenchmarkData.PAY_PERIOD_END);
+        return batch.netPay;
+    }
+}
@@ -0,0 +1,65 @@
+package grant.coburn.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import grant.coburn.model.Employee;
+import grant.coburn.model.TimeEntry;
+import grant.coburn.util.PayrollCalculator;
+import grant.coburn.util.PayrollCalculator.PayrollResult;
+
+/**
+ * Measures payroll calculation for a single employee.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayrollCalculatorBenchmark {
+    @Param({ "SALARY", "HOURLY" })
+    public Employee.PayType payType;
+
+    @Param({ "5", "10", "30" })
+    public int entriesPerPeriod;
+
+    @Param({ "false", "true" })
+    public boolean overtime;
+
+    private Employee employee;
+    private List<TimeEntry> timeEntries;
+
+    @Setup
+    public void setUp() {
+        employee = BenchmarkData.employee("EMP001", payType);
+        timeEntries = BenchmarkData.timeEntries(employee.getEmployeeId(), entriesPerPeriod, overtime);
+    }
+
+    @Benchmark
+    public PayrollResult calculatePayroll() {
+        return PayrollCalculator.calculatePayroll(
+            employee,
+            timeEntries,
+            BenchmarkData.PAY_PERIOD_START,
+            BenchmarkData.PAY_PERIOD_END
+        );
+    }
+
+    @Benchmark
+    public PayrollResult calculatePayrollPreview() {
+        return PayrollCalculator.calculatePayrollPreview(employee, timeEntries);
+    }
+}
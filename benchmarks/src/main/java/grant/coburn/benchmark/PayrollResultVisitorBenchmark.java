@@ -0,0 +1,128 @@
+package grant.coburn.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import grant.coburn.util.MonetaryRoundingVisitor;
+import grant.coburn.util.PayrollCalculator;
+import grant.coburn.util.PayrollCalculator.PayrollResult;
+import grant.coburn.util.PayrollResultValidationVisitor;
+import grant.coburn.util.RoundingValidationVisitor;
+import grant.coburn.util.ValidationMode;
+
+/**
+ * Measures the payroll result visitors. The visitors change the result they visit, so each
+ * benchmark visits a fresh copy of an unrounded result. {@link #copyOnly()} measures the copy
+ * on its own so it can be subtracted out.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PayrollResultVisitorBenchmark {
+    /** Whether the result passes validation. Failing results make the validators build messages */
+    @Param({ "true", "false" })
+    public boolean valid;
+
+    private PayrollResult template;
+    private final RoundingValidationVisitor fusedVisitor = new RoundingValidationVisitor(ValidationMode.LENIENT);
+
+    @Setup
+    public void setUp() {
+        template = new PayrollResult();
+        template.payPeriodStart = BenchmarkData.PAY_PERIOD_START;
+        template.payPeriodEnd = BenchmarkData.PAY_PERIOD_END;
+        template.regularPay = 2_500.4567;
+        template.overtimePay = 312.3333;
+        template.grossPay = template.regularPay + template.overtimePay;
+        template.stateTax = template.grossPay * PayrollCalculator.STATE_TAX_RATE;
+        template.federalTax = template.grossPay * PayrollCalculator.FEDERAL_TAX_RATE;
+        template.socialSecurityTax = template.grossPay * PayrollCalculator.SOCIAL_SECURITY_RATE;
+        template.medicareTax = template.grossPay * PayrollCalculator.MEDICARE_RATE;
+        template.employerSocialSecurityTax = template.socialSecurityTax;
+        template.employerMedicareTax = template.medicareTax;
+        template.medicalDeduction = 100.0;
+        template.dependentStipend = 90.0;
+        template.netPay = template.grossPay
+            - template.stateTax
+            - template.federalTax
+            - template.socialSecurityTax
+            - template.medicareTax
+            - template.medicalDeduction
+            + template.dependentStipend;
+
+        if (!valid) {
+            template.netPay += 25.0;
+            template.stateTax *= 2;
+        }
+    }
+
+    private PayrollResult copy() {
+        PayrollResult result = new PayrollResult();
+        result.payPeriodStart = template.payPeriodStart;
+        result.payPeriodEnd = template.payPeriodEnd;
+        result.regularPay = template.regularPay;
+        result.overtimePay = template.overtimePay;
+        result.grossPay = template.grossPay;
+        result.stateTax = template.stateTax;
+        result.federalTax = template.federalTax;
+        result.socialSecurityTax = template.socialSecurityTax;
+        result.medicareTax = template.medicareTax;
+        result.employerSocialSecurityTax = template.employerSocialSecurityTax;
+        result.employerMedicareTax = template.employerMedicareTax;
+        result.medicalDeduction = template.medicalDeduction;
+        result.dependentStipend = template.dependentStipend;
+        result.netPay = template.netPay;
+        return result;
+    }
+
+    @Benchmark
+    public PayrollResult copyOnly() {
+        return copy();
+    }
+
+    @Benchmark
+    public PayrollResult monetaryRounding() {
+        PayrollResult result = copy();
+        result.accept(new MonetaryRoundingVisitor());
+        return result;
+    }
+
+    @Benchmark
+    public String validation() {
+        PayrollResultValidationVisitor validator = new PayrollResultValidationVisitor();
+        copy().accept(validator);
+        return validator.hasErrors() ? validator.getErrors() : null;
+    }
+
+    /** Rounding followed by validation, as PayrollCalculator used to run them */
+    @Benchmark
+    public String roundingThenValidation() {
+        PayrollResult result = copy();
+        result.accept(new MonetaryRoundingVisitor());
+        PayrollResultValidationVisitor validator = new PayrollResultValidationVisitor();
+        result.accept(validator);
+        return validator.hasErrors() ? validator.getErrors() : null;
+    }
+
+    /** The fused visitor, keeping error codes without building messages */
+    @Benchmark
+    public int fusedRoundingValidation() {
+        PayrollResult result = copy();
+        result.accept(fusedVisitor);
+        return result.validationErrors;
+    }
+}
@@ -0,0 +1,257 @@
+package grant.coburn.benchmark;
+
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVWriter;
+import com.opencsv.exceptions.CsvValidationException;
+
+import grant.coburn.dao.StorageEngine;
+import grant.coburn.util.DatabaseUtil;
+import grant.coburn.util.H2TestDatabase;
+import grant.coburn.util.PayrollProcessingResult;
+import grant.coburn.util.PayrollProcessor;
+import grant.coburn.util.SchemaMigrator;
+
+/**
+ * Times a full payroll run against an embedded database at several headcounts.
+ *
+ * <p>For each scale a fresh H2 database in MySQL mode is created from schema.sql, seeded by
+ * {@link WorkforceGenerator} with two weeks of time entries, and then processed with
+ * {@link PayrollProcessor}. Timings for each phase are written to a CSV file. The run fails with
+ * exit code 1 if throughput drops below {@code --min-throughput}, or more than
+ * {@code --max-regression} below the same scale and mode in a {@code --baseline} results file.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar grant.coburn.benchmark.PayrollRunBenchmark \
+ *     --scales 1000,10000,100000 --mode parallel --output payroll-run.csv --baseline previous.csv
+ * </pre>
+ */
+public class PayrollRunBenchmark {
+    private static final LocalDate PAY_PERIOD_START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate PAY_PERIOD_END = LocalDate.of(2024, 1, 14);
+    private static final String[] HEADER = {
+        "scale", "mode", "employees", "time_entries", "seed_ms", "fetch_ms", "calculate_ms", "persist_ms",
+        "run_ms", "employees_per_second", "records_saved", "employees_with_errors"
+    };
+
+    private List<Integer> scales = List.of(1_000, 10_000, 100_000);
+    private String mode = "sequential";
+    private Path output = Paths.get("payroll-run-results.csv");
+    private Path baseline;
+    private double maxRegression = 0.20;
+    private double minThroughput = 0;
+    private int warmupEmployees = 1_000;
+    private long seed = 42;
+
+    public static void main(String[] args) throws Exception {
+        // Keep connection pool logging out of the results
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+
+        PayrollRunBenchmark benchmark = new PayrollRunBenchmark();
+        benchmark.parseArguments(args);
+        System.exit(benchmark.run() ? 0 : 1);
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--scales":
+                    scales = new ArrayList<>();
+                    for (String scale : value.split(",")) {
+                        scales.add(Integer.parseInt(scale.trim()));
+                    }
+                    break;
+                case "--mode":
+                    mode = value;
+                    break;
+                case "--output":
+                    output = Paths.get(value);
+                    break;
+                case "--baseline":
+                    baseline = Paths.get(value);
+                    break;
+                case "--max-regression":
+                    maxRegression = Double.parseDouble(value);
+                    break;
+                case "--min-throughput":
+                    minThroughput = Double.parseDouble(value);
+                    break;
+                case "--warmup":
+                    warmupEmployees = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+            i++;
+        }
+
+        if (!mode.equals("sequential") && !mode.equals("parallel") && !mode.equals("pipelined")) {
+            throw new IllegalArgumentException("Mode must be sequential, parallel or pipelined");
+        }
+    }
+
+    /**
+     * Run every scale, write the results and check them against the thresholds
+     * @return True if no scale regressed
+     */
+    private boolean run() throws Exception {
+        if (warmupEmployees > 0) {
+            System.out.printf("Warming up with %d employees%n", warmupEmployees);
+            runScale("warmup", warmupEmployees);
+        }
+
+        List<String[]> rows = new ArrayList<>();
+        for (int scale : scales) {
+            String[] row = runScale("scale" + scale, scale);
+            rows.add(row);
+            System.out.printf("%,d employees: seed %s ms, run %s ms, %s employees/s%n", scale, row[4], row[8], row[9]);
+        }
+
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (CSVWriter writer = new CSVWriter(new FileWriter(output.toFile()))) {
+            writer.writeNext(HEADER);
+            writer.writeAll(rows);
+        }
+        System.out.println("Results written to " + output.toAbsolutePath());
+
+        return checkThresholds(rows);
+    }
+
+    private String[] runScale(String name, int employees) throws Exception {
+        try (H2TestDatabase database = new H2TestDatabase("payroll_" + name)) {
+            DatabaseUtil databaseUtil = database.getDatabaseUtil();
+            new SchemaMigrator(databaseUtil).migrate();
+
+            long seedStart = System.nanoTime();
+            WorkforceGenerator generator = new WorkforceGenerator(databaseUtil, seed);
+            generator.setPasswordMode(WorkforceGenerator.PasswordMode.SKIP);
+            long timeEntries = generator.generate(employees, PAY_PERIOD_START, PAY_PERIOD_END).timeEntries;
+            long seedNanos = System.nanoTime() - seedStart;
+
+            PayrollProcessor processor = new PayrollProcessor(StorageEngine.jdbc(databaseUtil));
+
+            long runStart = System.nanoTime();
+            PayrollProcessingResult result = process(processor);
+            long runNanos = System.nanoTime() - runStart;
+
+            if (result.hasErrors()) {
+                System.err.printf("%d errors, first: %s%n", result.getErrors().size(), result.getErrors().get(0));
+            }
+
+            Map<String, Duration> stages = result.getStageTimings();
+            double throughput = result.getEmployeesProcessed() / (runNanos / 1e9);
+            return new String[] {
+                String.valueOf(employees),
+                mode,
+                String.valueOf(result.getEmployeesProcessed()),
+                String.valueOf(timeEntries),
+                String.valueOf(seedNanos / 1_000_000),
+                String.valueOf(stageMillis(stages, "fetch")),
+                String.valueOf(stageMillis(stages, "calculate")),
+                String.valueOf(stageMillis(stages, "persist")),
+                String.valueOf(runNanos / 1_000_000),
+                // Read back by the threshold and baseline checks, so keep a locale independent decimal point
+                String.format(Locale.ROOT, "%.1f", throughput),
+                String.valueOf(countPayrollRecords(databaseUtil)),
+                String.valueOf(result.getEmployeesWithErrors())
+            };
+        }
+    }
+
+    private PayrollProcessingResult process(PayrollProcessor processor) {
+        switch (mode) {
+            case "parallel":
+                ExecutorService executor = Executors.newFixedThreadPool(processor.getCalculationThreads());
+                try {
+                    return processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END, executor);
+                } finally {
+                    executor.shutdown();
+                }
+            case "pipelined":
+                return processor.processPayrollPipelined(PAY_PERIOD_START, PAY_PERIOD_END);
+            default:
+                return processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END);
+        }
+    }
+
+    private static long stageMillis(Map<String, Duration> stages, String stage) {
+        Duration duration = stages.get(stage);
+        return duration == null ? 0 : duration.toMillis();
+    }
+
+    private static long countPayrollRecords(DatabaseUtil databaseUtil) throws SQLException {
+        try (Connection conn = databaseUtil.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM payroll_records")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private boolean checkThresholds(List<String[]> rows) throws IOException, CsvValidationException {
+        Map<String, Double> baselineThroughput = baseline == null ? Map.of() : readThroughput(baseline);
+        boolean passed = true;
+
+        for (String[] row : rows) {
+            String scale = row[0];
+            double throughput = Double.parseDouble(row[9]);
+
+            if (Long.parseLong(row[10]) != Long.parseLong(row[2])) {
+                System.err.printf("FAIL %s employees: expected %s payroll records but found %s%n", scale, row[2], row[10]);
+                passed = false;
+            }
+
+            if (throughput < minThroughput) {
+                System.err.printf("FAIL %s employees: %.1f employees/s is below the minimum of %.1f%n", scale, throughput, minThroughput);
+                passed = false;
+            }
+
+            Double previous = baselineThroughput.get(scale + "/" + mode);
+            if (previous != null && throughput < previous * (1 - maxRegression)) {
+                System.err.printf("FAIL %s employees: %.1f employees/s is more than %.0f%% below the baseline of %.1f%n",
+                    scale, throughput, maxRegression * 100, previous);
+                passed = false;
+            }
+        }
+
+        return passed;
+    }
+
+    /** Read employees per second by scale and mode from an earlier results file */
+    private static Map<String, Double> readThroughput(Path resultsFile) throws IOException, CsvValidationException {
+        Map<String, Double> throughput = new HashMap<>();
+        try (CSVReader reader = new CSVReader(new FileReader(resultsFile.toFile()))) {
+            reader.readNext();  // Header
+            String[] row;
+            while ((row = reader.readNext()) != null) {
+                throughput.put(row[0] + "/" + row[1], Double.parseDouble(row[9]));
+            }
+        }
+        return throughput;
+    }
+}
@@ -0,0 +1,479 @@
+package grant.coburn.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Random;
+
+import grant.coburn.util.DBProperties;
+import grant.coburn.util.DatabaseUtil;
+import grant.coburn.util.PasswordUtil;
+
+/**
+ * Generates a synthetic workforce with time entries and loads it into the payroll database.
+ *
+ * <p>Employees are spread across departments with their own mix of salaried and hourly staff and
+ * their own pay levels. Hourly employees include a share of regular overtime workers, and every
+ * employee takes occasional PTO and misses the odd day. The same seed always produces the same data.
+ *
+ * <p>Rows are loaded with batched inserts, or by writing CSV files and loading them with
+ * {@code LOAD DATA LOCAL INFILE} on MySQL. Hashing a password per employee with BCrypt would take
+ * hours at this scale, so user accounts are either skipped or all given one precomputed hash.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar grant.coburn.benchmark.WorkforceGenerator \
+ *     --employees 200000 --start 2024-01-01 --end 2024-06-30 --seed 7 --passwords precomputed --load infile
+ * </pre>
+ */
+public class WorkforceGenerator {
+    /** How user accounts are created for generated employees */
+    public enum PasswordMode {
+        /** No user accounts are created */
+        SKIP,
+        /** Every employee gets an account with the hash of {@link #TEST_PASSWORD}, computed once */
+        PRECOMPUTED
+    }
+
+    /** How generated rows are loaded into the database */
+    public enum LoadMode {
+        /** Batched prepared statements, works with any database */
+        BATCH,
+        /** CSV files loaded with LOAD DATA LOCAL INFILE, MySQL only */
+        INFILE
+    }
+
+    /** Counts of the rows a generation run loaded */
+    public static class Summary {
+        public final long employees;
+        public final long users;
+        public final long timeEntries;
+
+        Summary(long employees, long users, long timeEntries) {
+            this.employees = employees;
+            this.users = users;
+            this.timeEntries = timeEntries;
+        }
+    }
+
+    public static final String TEST_PASSWORD = "password123";
+
+    private static final String[] EMPLOYEE_COLUMNS = {
+        "employee_id", "department", "job_title", "first_name", "last_name", "status", "date_of_birth",
+        "gender", "pay_type", "company_email", "address_line1", "city", "state", "zip", "hire_date",
+        "base_salary", "medical_coverage", "dependents_count"
+    };
+    private static final String[] USER_COLUMNS = {
+        "user_id", "password", "user_type", "email", "employee_id", "must_change_password"
+    };
+    private static final String[] TIME_ENTRY_COLUMNS = {
+        "employee_id", "work_date", "hours_worked", "is_pto", "is_locked"
+    };
+
+    private static final Department[] DEPARTMENTS = {
+        new Department("Operations", 22, 0.20, 50_000, 18.00, "Operations Specialist", "Warehouse Associate", "Operations Manager"),
+        new Department("Customer Service", 18, 0.15, 42_000, 17.00, "Customer Service Representative", "Customer Service Lead"),
+        new Department("Sales", 15, 0.50, 60_000, 22.00, "Sales Associate", "Account Executive", "Sales Manager"),
+        new Department("IT", 12, 0.80, 95_000, 35.00, "Software Engineer", "IT Support Specialist", "Senior Software Engineer"),
+        new Department("Administration", 10, 0.30, 48_000, 19.00, "Administrative Assistant", "Office Manager"),
+        new Department("Finance", 8, 0.75, 80_000, 30.00, "Financial Analyst", "Accountant"),
+        new Department("Marketing", 8, 0.60, 70_000, 26.00, "Marketing Specialist", "Marketing Manager"),
+        new Department("HR", 7, 0.60, 65_000, 24.00, "HR Coordinator", "HR Manager")
+    };
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+        "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+        "Daniel", "Lisa", "Matthew", "Nancy", "Anthony", "Sandra", "Mark", "Ashley", "Steven", "Emily"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+        "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+        "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson"
+    };
+    private static final String[] CITIES = { "Indianapolis", "Carmel", "Fishers", "Noblesville", "Westfield" };
+
+    private static final double TERMINATED_SHARE = 0.04;
+    private static final double FAMILY_COVERAGE_SHARE = 0.55;
+    private static final double OVERTIME_WORKER_SHARE = 0.15;
+    private static final double PTO_DAY_CHANCE = 0.03;
+    private static final double ABSENT_DAY_CHANCE = 0.02;
+
+    private final DatabaseUtil databaseUtil;
+    private final long seed;
+    private PasswordMode passwordMode = PasswordMode.PRECOMPUTED;
+    private LoadMode loadMode = LoadMode.BATCH;
+    private int batchSize = DBProperties.BATCH_SIZE;
+    private int firstEmployeeNumber = 1;
+
+    public WorkforceGenerator(DatabaseUtil databaseUtil, long seed) {
+        this.databaseUtil = databaseUtil;
+        this.seed = seed;
+    }
+
+    public void setPasswordMode(PasswordMode passwordMode) {
+        this.passwordMode = passwordMode;
+    }
+
+    /** Sets how rows are loaded. INFILE needs {@code allowLoadLocalInfile=true} on the MySQL connection URL */
+    public void setLoadMode(LoadMode loadMode) {
+        this.loadMode = loadMode;
+    }
+
+    /** Sets the number of employees whose rows are sent and committed together in BATCH mode */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /** Sets the number the generated employee IDs start from, so data can be added to a non-empty database */
+    public void setFirstEmployeeNumber(int firstEmployeeNumber) {
+        this.firstEmployeeNumber = firstEmployeeNumber;
+    }
+
+    /**
+     * Generate employees with time entries for every working day in a date range and load them
+     * @param employeeCount The number of employees to generate
+     * @param firstDay The first day to generate time entries for
+     * @param lastDay The last day to generate time entries for
+     * @return The number of rows loaded into each table
+     */
+    public Summary generate(int employeeCount, LocalDate firstDay, LocalDate lastDay) throws SQLException, IOException {
+        String passwordHash = passwordMode == PasswordMode.PRECOMPUTED ? PasswordUtil.bcryptPassword(TEST_PASSWORD) : null;
+        Random random = new Random(seed);
+
+        long users = 0;
+        long timeEntries = 0;
+
+        try (Connection conn = databaseUtil.getConnection();
+             TableWriter employeeWriter = openWriter(conn, "employees", EMPLOYEE_COLUMNS);
+             TableWriter userWriter = openWriter(conn, "users", USER_COLUMNS);
+             TableWriter timeEntryWriter = openWriter(conn, "time_entries", TIME_ENTRY_COLUMNS)) {
+            conn.setAutoCommit(false);
+
+            Object[] employee = new Object[EMPLOYEE_COLUMNS.length];
+            Object[] user = new Object[USER_COLUMNS.length];
+            Object[] timeEntry = new Object[TIME_ENTRY_COLUMNS.length];
+
+            for (int i = 0; i < employeeCount; i++) {
+                String employeeId = String.format("EMP%07d", firstEmployeeNumber + i);
+                Department department = pick(random);
+                boolean salaried = random.nextDouble() < department.salariedShare;
+                boolean active = random.nextDouble() >= TERMINATED_SHARE;
+                boolean family = random.nextDouble() < FAMILY_COVERAGE_SHARE;
+                String email = employeeId.toLowerCase() + "@company.com";
+
+                employee[0] = employeeId;
+                employee[1] = department.name;
+                employee[2] = department.jobTitles[random.nextInt(department.jobTitles.length)];
+                employee[3] = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                employee[4] = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                employee[5] = active ? "ACTIVE" : "TERMINATED";
+                employee[6] = firstDay.minusYears(20 + random.nextInt(46)).minusDays(random.nextInt(365));
+                employee[7] = random.nextBoolean() ? "MALE" : "FEMALE";
+                employee[8] = salaried ? "SALARY" : "HOURLY";
+                employee[9] = email;
+                employee[10] = (100 + random.nextInt(9_900)) + " Main St";
+                employee[11] = CITIES[random.nextInt(CITIES.length)];
+                employee[12] = "IN";
+                employee[13] = String.valueOf(46_000 + random.nextInt(300));
+                employee[14] = firstDay.minusDays(random.nextInt(15 * 365));
+                employee[15] = salaried
+                    ? BigDecimal.valueOf(Math.round(department.medianSalary * Math.exp(random.nextGaussian() * 0.25) / 100) * 100, 0)
+                    : BigDecimal.valueOf(Math.max(725, Math.round(department.medianHourlyRate * Math.exp(random.nextGaussian() * 0.15) * 100)), 2);
+                employee[16] = family ? "FAMILY" : "SINGLE";
+                employee[17] = family ? 1 + random.nextInt(4) : 0;
+                employeeWriter.write(employee);
+
+                if (passwordHash != null) {
+                    user[0] = employeeId;
+                    user[1] = passwordHash;
+                    user[2] = "EMPLOYEE";
+                    user[3] = email;
+                    user[4] = employeeId;
+                    user[5] = true;
+                    userWriter.write(user);
+                    users++;
+                }
+
+                if (active) {
+                    timeEntries += writeTimeEntries(timeEntryWriter, timeEntry, employeeId, salaried, firstDay, lastDay, random);
+                }
+
+                if ((i + 1) % batchSize == 0) {
+                    // Employees go first so the users and time entries can reference them
+                    employeeWriter.flush();
+                    userWriter.flush();
+                    timeEntryWriter.flush();
+                    conn.commit();
+                }
+            }
+
+            employeeWriter.flush();
+            userWriter.flush();
+            timeEntryWriter.flush();
+            employeeWriter.load();
+            userWriter.load();
+            timeEntryWriter.load();
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
+
+        return new Summary(employeeCount, users, timeEntries);
+    }
+
+    /**
+     * Write an employee's time entries, one per working day
+     * @return The number of time entries written
+     */
+    private static int writeTimeEntries(
+        TableWriter writer,
+        Object[] timeEntry,
+        String employeeId,
+        boolean salaried,
+        LocalDate firstDay,
+        LocalDate lastDay,
+        Random random
+    ) throws SQLException, IOException {
+        boolean overtimeWorker = !salaried && random.nextDouble() < OVERTIME_WORKER_SHARE;
+        int written = 0;
+
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY
+                || random.nextDouble() < ABSENT_DAY_CHANCE) {
+                continue;
+            }
+
+            boolean pto = random.nextDouble() < PTO_DAY_CHANCE;
+            int quarterHours;
+            if (pto || salaried) {
+                quarterHours = 32;
+            } else if (overtimeWorker) {
+                // 9 to 11 hours
+                quarterHours = 36 + random.nextInt(9);
+            } else {
+                // 7.5 to 8.5 hours
+                quarterHours = 30 + random.nextInt(5);
+            }
+
+            timeEntry[0] = employeeId;
+            timeEntry[1] = day;
+            timeEntry[2] = BigDecimal.valueOf(quarterHours * 25L, 2);
+            timeEntry[3] = pto;
+            timeEntry[4] = false;
+            writer.write(timeEntry);
+            written++;
+        }
+
+        return written;
+    }
+
+    private static Department pick(Random random) {
+        int roll = random.nextInt(100);
+        for (Department department : DEPARTMENTS) {
+            roll -= department.weight;
+            if (roll < 0) {
+                return department;
+            }
+        }
+        return DEPARTMENTS[DEPARTMENTS.length - 1];
+    }
+
+    private TableWriter openWriter(Connection conn, String table, String[] columns) throws SQLException, IOException {
+        return loadMode == LoadMode.INFILE
+            ? new InfileTableWriter(conn, table, columns)
+            : new BatchTableWriter(conn, table, columns);
+    }
+
+    private static class Department {
+        final String name;
+        final int weight;
+        final double salariedShare;
+        final double medianSalary;
+        final double medianHourlyRate;
+        final String[] jobTitles;
+
+        Department(String name, int weight, double salariedShare, double medianSalary, double medianHourlyRate, String... jobTitles) {
+            this.name = name;
+            this.weight = weight;
+            this.salariedShare = salariedShare;
+            this.medianSalary = medianSalary;
+            this.medianHourlyRate = medianHourlyRate;
+            this.jobTitles = jobTitles;
+        }
+    }
+
+    /**
+     * Writes rows into one table. Values are written in column order.
+     */
+    private interface TableWriter extends AutoCloseable {
+        void write(Object[] values) throws SQLException, IOException;
+
+        /** Send any rows held back so far to the database */
+        void flush() throws SQLException, IOException;
+
+        /** Load every row written, for writers that load once at the end */
+        void load() throws SQLException, IOException;
+
+        @Override
+        void close() throws SQLException, IOException;
+    }
+
+    /**
+     * Adds rows to a JDBC batch that is only sent on flush, so the generator controls the order
+     * tables are written in and rows never reach the database before the employee they reference.
+     */
+    private static class BatchTableWriter implements TableWriter {
+        private final PreparedStatement stmt;
+        private int pending;
+
+        BatchTableWriter(Connection conn, String table, String[] columns) throws SQLException {
+            String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+            this.stmt = conn.prepareStatement(
+                "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + placeholders + ")"
+            );
+        }
+
+        @Override
+        public void write(Object[] values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                stmt.setObject(i + 1, values[i]);
+            }
+            stmt.addBatch();
+            pending++;
+        }
+
+        @Override
+        public void flush() throws SQLException {
+            if (pending > 0) {
+                stmt.executeBatch();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void load() {
+            // Rows are loaded as they are flushed
+        }
+
+        @Override
+        public void close() throws SQLException {
+            stmt.close();
+        }
+    }
+
+    private static class InfileTableWriter implements TableWriter {
+        private final Connection conn;
+        private final String table;
+        private final String[] columns;
+        private final Path file;
+        private final BufferedWriter out;
+
+        InfileTableWriter(Connection conn, String table, String[] columns) throws IOException {
+            this.conn = conn;
+            this.table = table;
+            this.columns = columns;
+            this.file = Files.createTempFile(table + "-", ".csv");
+            this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                Object value = values[i];
+                if (value == null) {
+                    out.write("\\N");
+                } else if (value instanceof Boolean) {
+                    out.write((Boolean) value ? '1' : '0');
+                } else {
+                    // Generated values never contain commas, quotes or line breaks
+                    out.write(value.toString());
+                }
+            }
+            out.write('\n');
+        }
+
+        @Override
+        public void flush() {
+            // Everything is loaded at the end
+        }
+
+        @Override
+        public void load() throws SQLException, IOException {
+            out.close();
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("LOAD DATA LOCAL INFILE '" + file.toAbsolutePath().toString().replace("\\", "/") + "' " +
+                    "INTO TABLE " + table + " FIELDS TERMINATED BY ',' LINES TERMINATED BY '\\n' " +
+                    "(" + String.join(", ", columns) + ")");
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = DatabaseUtil.getSqlUrl(DBProperties.HOST, DBProperties.PORT, DBProperties.DB_NAME);
+        String user = DBProperties.USER;
+        String password = DBProperties.PASSWORD;
+        int employees = 10_000;
+        LocalDate start = LocalDate.now().withDayOfMonth(1);
+        LocalDate end = start.plusDays(13);
+        long seed = 42;
+        int firstEmployeeNumber = 1;
+        PasswordMode passwordMode = PasswordMode.PRECOMPUTED;
+        LoadMode loadMode = LoadMode.BATCH;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--url": url = value; break;
+                case "--user": user = value; break;
+                case "--password": password = value; break;
+                case "--employees": employees = Integer.parseInt(value); break;
+                case "--start": start = LocalDate.parse(value); break;
+                case "--end": end = LocalDate.parse(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--first-employee": firstEmployeeNumber = Integer.parseInt(value); break;
+                case "--passwords": passwordMode = PasswordMode.valueOf(value.toUpperCase()); break;
+                case "--load": loadMode = LoadMode.valueOf(value.toUpperCase()); break;
+                default: throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        if (loadMode == LoadMode.INFILE && !url.contains("allowLoadLocalInfile")) {
+            url += (url.contains("?") ? "&" : "?") + "allowLoadLocalInfile=true";
+        }
+
+        DatabaseUtil databaseUtil = new DatabaseUtil(url, user, password);
+        try {
+            WorkforceGenerator generator = new WorkforceGenerator(databaseUtil, seed);
+            generator.setPasswordMode(passwordMode);
+            generator.setLoadMode(loadMode);
+            generator.setFirstEmployeeNumber(firstEmployeeNumber);
+
+            long startTime = System.nanoTime();
+            Summary summary = generator.generate(employees, start, end);
+            System.out.printf("Loaded %,d employees, %,d users and %,d time entries in %.1f s%n",
+                summary.employees, summary.users, summary.timeEntries, (System.nanoTime() - startTime) / 1e9);
+        } finally {
+            databaseUtil.closeConnection();
+        }
+    }
+}
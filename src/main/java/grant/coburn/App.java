@@ -1,17 +1,21 @@
 package grant.coburn;
 
 import java.io.IOException;
+import java.sql.SQLException;
 
 import grant.coburn.dao.EmployeeDAO;
 import grant.coburn.dao.UserDAO;
 import grant.coburn.model.Employee;
 import grant.coburn.model.User;
+import grant.coburn.util.DatabaseUtil;
+import grant.coburn.util.SchemaMigrator;
 import grant.coburn.view.ChangePasswordView;
 import grant.coburn.view.CreateAccountView;
 import grant.coburn.view.LoginView;
 import grant.coburn.view.admin.AdminDashboardView;
 import grant.coburn.view.employee.EmployeeDashboardView;
 import javafx.application.Application;
+import javafx.scene.control.Alert;
 import javafx.scene.Scene;
 import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
@@ -22,9 +26,33 @@ public class App extends Application {
     private BorderPane rootLayout;
     private UserDAO userDAO;
     private static final String CSS_FILE = "/styles/global.css";
+    /** Why the schema couldn't be migrated, or null if it is up to date */
+    private String migrationError;
+
+    @Override
+    public void init() {
+        // Bring the schema up to date before anything reads from the database
+        try {
+            new SchemaMigrator(DatabaseUtil.shared).migrate();
+        } catch (SQLException | IOException | IllegalStateException e) {
+            System.err.println("Failed to migrate the database schema: " + e.getMessage());
+            migrationError = e.getMessage();
+        }
+    }
 
     @Override
     public void start(Stage stage) throws IOException {
+        // The DAOs depend on the migrated schema, so don't start against an outdated one
+        if (migrationError != null) {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Database Error");
+            alert.setHeaderText("Failed to migrate the database schema");
+            alert.setContentText(migrationError);
+            alert.showAndWait();
+            DatabaseUtil.shared.closeConnection();
+            System.exit(1);
+        }
+
         this.primaryStage = stage;
         this.userDAO = UserDAO.shared;
 
@@ -129,6 +157,11 @@ public class App extends Application {
         primaryStage.centerOnScreen();
     }
 
+    @Override
+    public void stop() {
+        DatabaseUtil.shared.closeConnection();
+    }
+
     public static void main(String[] args) {
         launch();
     }
@@ -0,0 +1,52 @@
+package grant.coburn.dao;
+
+/**
+ * Point-in-time snapshot of cache statistics.
+ */
+public class CacheMetrics {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final long invalidations;
+    private final int size;
+
+    public CacheMetrics(long hits, long misses, long evictions, long expirations, long invalidations, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+        this.size = size;
+    }
+
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+    public long getExpirations() { return expirations; }
+    public long getInvalidations() { return invalidations; }
+    public int getSize() { return size; }
+
+    /** Fraction of lookups answered from the cache, between 0 and 1 */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        if (lookups == 0) {
+            return 0;
+        }
+        return hits / (double) lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "CacheMetrics[hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, expirations=%d, invalidations=%d, size=%d]",
+            hits,
+            misses,
+            getHitRate() * 100,
+            evictions,
+            expirations,
+            invalidations,
+            size
+        );
+    }
+}
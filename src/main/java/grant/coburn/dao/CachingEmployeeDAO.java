@@ -0,0 +1,210 @@
+package grant.coburn.dao;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import grant.coburn.model.Employee;
+
+/**
+ * Caches employee lookups by ID in front of another {@link EmployeeDAO}. Report generation and
+ * the payroll table look up the same employees once per row, so this saves a query per row.
+ * The cache holds at most a fixed number of employees, evicting the least recently used, and
+ * entries expire after a fixed time so changes made outside this DAO are eventually picked up.
+ * Creating, updating and deleting employees through this DAO invalidates their cached entries.
+ * Lookups that find no employee aren't cached, since the delegate also returns null when the
+ * lookup failed and a brief outage would otherwise hide the employee for the whole TTL.
+ */
+public class CachingEmployeeDAO implements EmployeeDAO {
+    private static final class CacheEntry {
+        final Employee employee;
+        final long expiresAtNanos;
+
+        CacheEntry(Employee employee, long expiresAtNanos) {
+            this.employee = employee;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    private final EmployeeDAO delegate;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, CacheEntry> entries;
+
+    // Bumped on every invalidation so a lookup that raced with one doesn't cache what it loaded
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param delegate The DAO to load employees from
+     * @param maxSize The most employees to keep cached
+     * @param ttlMillis How long an employee stays cached after being loaded, in milliseconds
+     */
+    public CachingEmployeeDAO(EmployeeDAO delegate, int maxSize, long ttlMillis) {
+        this(delegate, maxSize, ttlMillis, System::nanoTime);
+    }
+
+    CachingEmployeeDAO(EmployeeDAO delegate, int maxSize, long ttlMillis, LongSupplier nanoClock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        if (ttlMillis < 1) {
+            throw new IllegalArgumentException("Cache TTL must be at least 1ms");
+        }
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                if (size() > CachingEmployeeDAO.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** Gets a snapshot of the cache's hit, miss and eviction counts */
+    public synchronized CacheMetrics getCacheMetrics() {
+        return new CacheMetrics(
+            hits.sum(),
+            misses.sum(),
+            evictions.sum(),
+            expirations.sum(),
+            invalidations.sum(),
+            entries.size()
+        );
+    }
+
+    /** Removes an employee from the cache so the next lookup reads it from the underlying DAO */
+    public synchronized void invalidate(String employeeId) {
+        generation++;
+        if (entries.remove(employeeId) != null) {
+            invalidations.increment();
+        }
+    }
+
+    /** Removes every employee from the cache */
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations.add(entries.size());
+        entries.clear();
+    }
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        return delegate.getAllEmployees();
+    }
+
+    @Override
+    public Employee getEmployeeById(String employeeId) {
+        Employee employee = getEmployee(employeeId);
+        if (employee == null || employee.getStatus() != Employee.Status.ACTIVE) {
+            return null;
+        }
+        return employee;
+    }
+
+    @Override
+    public Employee getEmployee(String employeeId) {
+        long loadGeneration;
+        synchronized (this) {
+            CacheEntry entry = entries.get(employeeId);
+            if (entry != null) {
+                if (nanoClock.getAsLong() - entry.expiresAtNanos < 0) {
+                    hits.increment();
+                    return new Employee(entry.employee);
+                }
+                entries.remove(employeeId);
+                expirations.increment();
+            }
+            misses.increment();
+            loadGeneration = generation;
+        }
+
+        // Load outside the lock so one slow query doesn't hold up lookups of other employees
+        Employee employee = delegate.getEmployee(employeeId);
+
+        if (employee == null) {
+            return null;
+        }
+
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                entries.put(employeeId, new CacheEntry(new Employee(employee), nanoClock.getAsLong() + ttlNanos));
+            }
+        }
+        return employee;
+    }
+
+    @Override
+    public EmployeeCredentials createEmployee(Employee employee) {
+        return createEmployee(employee, false);
+    }
+
+    @Override
+    public EmployeeCredentials createEmployee(Employee employee, boolean isTestEmployee) {
+        try {
+            return delegate.createEmployee(employee, isTestEmployee);
+        } finally {
+            invalidate(employee.getEmployeeId());
+        }
+    }
+
+    @Override
+    public boolean updateEmployee(Employee employee) {
+        try {
+            return delegate.updateEmployee(employee);
+        } finally {
+            invalidate(employee.getEmployeeId());
+        }
+    }
+
+    @Override
+    public boolean deleteEmployee(String employeeId) {
+        return deleteEmployee(employeeId, false);
+    }
+
+    @Override
+    public boolean deleteEmployee(String employeeId, boolean hardDelete) {
+        try {
+            return delegate.deleteEmployee(employeeId, hardDelete);
+        } finally {
+            invalidate(employeeId);
+        }
+    }
+
+    @Override
+    public void insertTestEmployees() {
+        try {
+            delegate.insertTestEmployees();
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    /** Removes expired employees from the cache. Expired employees are otherwise removed when next looked up. */
+    public synchronized void cleanUp() {
+        long now = nanoClock.getAsLong();
+        Iterator<CacheEntry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().expiresAtNanos >= 0) {
+                iterator.remove();
+                expirations.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package grant.coburn.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import grant.coburn.model.Employee;
+import grant.coburn.model.User;
+import grant.coburn.util.PasswordUtil;
+
+/**
+ * Keeps employees in memory. Used for tests and benchmarks that shouldn't need a database.
+ */
+public class InMemoryEmployeeDAO implements EmployeeDAO {
+    private final InMemoryStore store;
+    private final InMemoryUserDAO userDAO;
+    private final TestEmployees testEmployees = new TestEmployees();
+
+    InMemoryEmployeeDAO(InMemoryStore store, InMemoryUserDAO userDAO) {
+        this.store = store;
+        this.userDAO = userDAO;
+    }
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        List<Employee> employees = new ArrayList<>();
+        for (Employee employee : store.employees.values()) {
+            if (employee.getStatus() == Employee.Status.ACTIVE) {
+                employees.add(InMemoryStore.copy(employee));
+            }
+        }
+        return employees;
+    }
+
+    @Override
+    public Employee getEmployeeById(String employeeId) {
+        Employee employee = store.employees.get(employeeId);
+        if (employee == null || employee.getStatus() != Employee.Status.ACTIVE) {
+            return null;
+        }
+        return InMemoryStore.copy(employee);
+    }
+
+    @Override
+    public Employee getEmployee(String employeeId) {
+        Employee employee = store.employees.get(employeeId);
+        return employee == null ? null : InMemoryStore.copy(employee);
+    }
+
+    @Override
+    public EmployeeCredentials createEmployee(Employee employee) {
+        return createEmployee(employee, false);
+    }
+
+    @Override
+    public EmployeeCredentials createEmployee(Employee employee, boolean isTestEmployee) {
+        String tempPassword = isTestEmployee ? TestEmployees.PASSWORD : PasswordUtil.generateTemporaryPassword();
+        User newUser = new User(
+            employee.getEmployeeId(),
+            tempPassword,
+            User.UserType.EMPLOYEE,
+            employee.getCompanyEmail()
+        );
+        newUser.setEmployeeId(employee.getEmployeeId());
+
+        synchronized (store) {
+            if (store.employees.containsKey(employee.getEmployeeId()) || !userDAO.createUser(newUser)) {
+                return null;
+            }
+            store.employees.put(employee.getEmployeeId(), InMemoryStore.copy(employee));
+        }
+
+        return new EmployeeCredentials(employee.getEmployeeId(), tempPassword, employee.getFullName());
+    }
+
+    @Override
+    public boolean updateEmployee(Employee employee) {
+        return store.employees.computeIfPresent(employee.getEmployeeId(), (id, existing) -> InMemoryStore.copy(employee)) != null;
+    }
+
+    // For backward compatibility
+    @Override
+    public boolean deleteEmployee(String employeeId) {
+        return deleteEmployee(employeeId, false); // Default to soft delete
+    }
+
+    @Override
+    public boolean deleteEmployee(String employeeId, boolean hardDelete) {
+        if (hardDelete) {
+            return store.removeEmployee(employeeId);
+        }
+
+        return store.employees.computeIfPresent(employeeId, (id, existing) -> {
+            Employee terminated = InMemoryStore.copy(existing);
+            terminated.setStatus(Employee.Status.TERMINATED);
+            return terminated;
+        }) != null;
+    }
+
+    @Override
+    public void insertTestEmployees() {
+        TestEmployees.insertAll(this, testEmployees.create());
+    }
+}
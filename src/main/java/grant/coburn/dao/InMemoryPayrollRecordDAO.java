@@ -0,0 +1,174 @@
+package grant.coburn.dao;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import grant.coburn.model.Employee;
+import grant.coburn.model.PayrollRecord;
+import grant.coburn.model.PayrollReportRow;
+
+/**
+ * Keeps payroll records in memory, indexed by employee.
+ */
+public class InMemoryPayrollRecordDAO implements PayrollRecordDAO {
+    private static final Comparator<PayrollRecord> LATEST_FIRST =
+        Comparator.comparing(PayrollRecord::getPayPeriodStart).reversed();
+
+    private final InMemoryStore store;
+
+    InMemoryPayrollRecordDAO(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean savePayrollRecord(PayrollRecord record) {
+        if (!store.employees.containsKey(record.getEmployeeId())) {
+            return false;
+        }
+
+        synchronized (store) {
+            // An employee has one record per pay period, so replace the existing one like the database's unique key does
+            PayrollRecord existing = findPayrollRecord(record.getEmployeeId(), record.getPayPeriodStart(), record.getPayPeriodEnd());
+            PayrollRecord stored = InMemoryStore.copy(record);
+            if (existing != null) {
+                stored.setRecordId(existing.getRecordId());
+                stored.setCreationDate(existing.getCreationDate());
+            } else {
+                stored.setRecordId(store.nextPayrollRecordId());
+            }
+            store.payrollRecords.put(stored.getRecordId(), stored);
+            store.indexPayrollRecord(stored);
+            return true;
+        }
+    }
+
+    private PayrollRecord findPayrollRecord(String employeeId, LocalDate startDate, LocalDate endDate) {
+        Set<Long> recordIds = store.payrollRecordsByEmployee.get(employeeId);
+        if (recordIds == null) {
+            return null;
+        }
+        for (Long recordId : recordIds) {
+            PayrollRecord record = store.payrollRecords.get(recordId);
+            if (record != null && record.getPayPeriodStart().equals(startDate) && record.getPayPeriodEnd().equals(endDate)) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int savePayrollRecords(Collection<PayrollRecord> records) {
+        synchronized (store) {
+            // Check every record first so nothing is saved if one would fail, like the database's transaction
+            for (PayrollRecord record : records) {
+                if (!store.employees.containsKey(record.getEmployeeId())) {
+                    return 0;
+                }
+            }
+            for (PayrollRecord record : records) {
+                savePayrollRecord(record);
+            }
+            return records.size();
+        }
+    }
+
+    @Override
+    public List<PayrollRecord> getPayrollRecordsByEmployee(String employeeId) {
+        List<PayrollRecord> records = new ArrayList<>();
+        Set<Long> recordIds = store.payrollRecordsByEmployee.get(employeeId);
+        if (recordIds != null) {
+            for (Long recordId : recordIds) {
+                PayrollRecord record = store.payrollRecords.get(recordId);
+                if (record != null) {
+                    records.add(InMemoryStore.copy(record));
+                }
+            }
+        }
+        records.sort(LATEST_FIRST);
+        return records;
+    }
+
+    @Override
+    public List<PayrollRecord> getPayrollRecordsByDateRange(LocalDate startDate, LocalDate endDate) {
+        List<PayrollRecord> records = new ArrayList<>();
+        for (PayrollRecord record : store.payrollRecords.values()) {
+            if (!record.getPayPeriodStart().isBefore(startDate) && !record.getPayPeriodEnd().isAfter(endDate)) {
+                records.add(InMemoryStore.copy(record));
+            }
+        }
+        records.sort(LATEST_FIRST);
+        return records;
+    }
+
+    @Override
+    public int countPayrollRecordsByDateRange(LocalDate startDate, LocalDate endDate) {
+        int count = 0;
+        for (PayrollRecord record : store.payrollRecords.values()) {
+            if (!record.getPayPeriodStart().isBefore(startDate) && !record.getPayPeriodEnd().isAfter(endDate)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Map<String, String> getInputFingerprints(LocalDate startDate, LocalDate endDate) {
+        Map<String, String> fingerprints = new HashMap<>();
+        for (PayrollRecord record : store.payrollRecords.values()) {
+            if (record.getPayPeriodStart().equals(startDate) && record.getPayPeriodEnd().equals(endDate)) {
+                fingerprints.put(record.getEmployeeId(), record.getInputFingerprint());
+            }
+        }
+        return fingerprints;
+    }
+
+    @Override
+    public List<PayrollReportRow> getPayrollReportRowsByDateRange(LocalDate startDate, LocalDate endDate) {
+        List<PayrollReportRow> rows = new ArrayList<>();
+        for (PayrollRecord record : getPayrollRecordsByDateRange(startDate, endDate)) {
+            Employee employee = store.employees.get(record.getEmployeeId());
+            rows.add(employee == null
+                ? new PayrollReportRow(record, null, null, null)
+                : new PayrollReportRow(record, employee.getFirstName(), employee.getLastName(), employee.getDepartment()));
+        }
+        return rows;
+    }
+
+    @Override
+    public boolean streamPayrollReportRowsByDateRange(LocalDate startDate, LocalDate endDate, Consumer<PayrollReportRow> consumer) {
+        getPayrollReportRowsByDateRange(startDate, endDate).forEach(consumer);
+        return true;
+    }
+
+    @Override
+    public PayrollRecord getLatestPayrollRecord(String employeeId) {
+        List<PayrollRecord> records = getPayrollRecordsByEmployee(employeeId);
+        return records.isEmpty() ? null : records.get(0);
+    }
+
+    @Override
+    public boolean deletePayrollRecord(String employeeId, LocalDate startDate, LocalDate endDate) {
+        Set<Long> recordIds = store.payrollRecordsByEmployee.get(employeeId);
+        if (recordIds == null) {
+            return false;
+        }
+
+        boolean deleted = false;
+        for (Long recordId : recordIds) {
+            PayrollRecord record = store.payrollRecords.get(recordId);
+            if (record != null && record.getPayPeriodStart().equals(startDate) && record.getPayPeriodEnd().equals(endDate)) {
+                store.payrollRecords.remove(recordId);
+                recordIds.remove(recordId);
+                deleted = true;
+            }
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,57 @@
+package grant.coburn.dao;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps payroll run checkpoints in memory, indexed by pay period.
+ */
+public class InMemoryPayrollRunDAO implements PayrollRunDAO {
+    private final InMemoryStore store;
+
+    InMemoryPayrollRunDAO(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Set<String> getCompletedEmployeeIds(LocalDate startDate, LocalDate endDate) {
+        Set<String> employeeIds = new HashSet<>();
+        Map<String, Status> statuses = store.payrollRuns.get(InMemoryStore.payPeriodKey(startDate, endDate));
+        if (statuses != null) {
+            statuses.forEach((employeeId, status) -> {
+                if (status == Status.COMPLETED) {
+                    employeeIds.add(employeeId);
+                }
+            });
+        }
+        return employeeIds;
+    }
+
+    @Override
+    public Status getEmployeeStatus(String employeeId, LocalDate startDate, LocalDate endDate) {
+        Map<String, Status> statuses = store.payrollRuns.get(InMemoryStore.payPeriodKey(startDate, endDate));
+        return statuses == null ? null : statuses.get(employeeId);
+    }
+
+    @Override
+    public int saveEmployeeStatuses(LocalDate startDate, LocalDate endDate, Collection<String> employeeIds, Status status) {
+        Map<String, Status> statuses = store.payrollRuns.computeIfAbsent(
+            InMemoryStore.payPeriodKey(startDate, endDate),
+            key -> new ConcurrentHashMap<>()
+        );
+        for (String employeeId : employeeIds) {
+            statuses.put(employeeId, status);
+        }
+        return employeeIds.size();
+    }
+
+    @Override
+    public boolean deleteEmployeeStatus(String employeeId, LocalDate startDate, LocalDate endDate) {
+        Map<String, Status> statuses = store.payrollRuns.get(InMemoryStore.payPeriodKey(startDate, endDate));
+        return statuses != null && statuses.remove(employeeId) != null;
+    }
+}
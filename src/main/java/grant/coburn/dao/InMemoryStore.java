@@ -0,0 +1,147 @@
+package grant.coburn.dao;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import grant.coburn.model.Employee;
+import grant.coburn.model.PayrollRecord;
+import grant.coburn.model.TimeEntry;
+import grant.coburn.model.User;
+
+/**
+ * The tables behind the in-memory DAOs. Rows are keyed the same way as the database tables and
+ * time entries are also indexed by employee and work date, so the per-employee date range lookups
+ * used by payroll don't need to scan every entry.
+ * Objects are copied on the way in and on the way out, so callers can't change stored rows
+ * without going through a DAO, just like with the database.
+ */
+final class InMemoryStore {
+    /**
+     * A row of the users table.
+     */
+    static final class UserRow {
+        final String userId;
+        final String passwordHash;
+        final User.UserType userType;
+        final String email;
+        final String employeeId;
+        final boolean mustChangePassword;
+
+        UserRow(String userId, String passwordHash, User.UserType userType, String email, String employeeId, boolean mustChangePassword) {
+            this.userId = userId;
+            this.passwordHash = passwordHash;
+            this.userType = userType;
+            this.email = email;
+            this.employeeId = employeeId;
+            this.mustChangePassword = mustChangePassword;
+        }
+    }
+
+    final NavigableMap<String, Employee> employees = new ConcurrentSkipListMap<>();
+    final Map<Long, TimeEntry> timeEntries = new ConcurrentHashMap<>();
+    final Map<String, NavigableMap<LocalDate, Set<Long>>> timeEntriesByEmployee = new ConcurrentHashMap<>();
+    final Map<Long, PayrollRecord> payrollRecords = new ConcurrentHashMap<>();
+    final Map<String, Set<Long>> payrollRecordsByEmployee = new ConcurrentHashMap<>();
+    final Map<String, UserRow> users = new ConcurrentHashMap<>();
+    /** Payroll run checkpoints, keyed by {@link #payPeriodKey} and then by employee */
+    final Map<String, Map<String, PayrollRunDAO.Status>> payrollRuns = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextTimeEntryId = new AtomicLong(1);
+    private final AtomicLong nextPayrollRecordId = new AtomicLong(1);
+
+    long nextTimeEntryId() {
+        return nextTimeEntryId.getAndIncrement();
+    }
+
+    long nextPayrollRecordId() {
+        return nextPayrollRecordId.getAndIncrement();
+    }
+
+    static String payPeriodKey(LocalDate startDate, LocalDate endDate) {
+        return startDate + "/" + endDate;
+    }
+
+    void indexTimeEntry(TimeEntry entry) {
+        timeEntriesByEmployee
+            .computeIfAbsent(entry.getEmployeeId(), id -> new ConcurrentSkipListMap<>())
+            .computeIfAbsent(entry.getWorkDate(), date -> new ConcurrentSkipListSet<>())
+            .add(entry.getEntryId());
+    }
+
+    void unindexTimeEntry(TimeEntry entry) {
+        NavigableMap<LocalDate, Set<Long>> byDate = timeEntriesByEmployee.get(entry.getEmployeeId());
+        if (byDate == null) {
+            return;
+        }
+        Set<Long> ids = byDate.get(entry.getWorkDate());
+        if (ids != null) {
+            ids.remove(entry.getEntryId());
+        }
+    }
+
+    void indexPayrollRecord(PayrollRecord record) {
+        payrollRecordsByEmployee
+            .computeIfAbsent(record.getEmployeeId(), id -> new ConcurrentSkipListSet<>())
+            .add(record.getRecordId());
+    }
+
+    /**
+     * Remove an employee along with their time entries, payroll records and user account.
+     * @return true if the employee existed
+     */
+    synchronized boolean removeEmployee(String employeeId) {
+        NavigableMap<LocalDate, Set<Long>> byDate = timeEntriesByEmployee.remove(employeeId);
+        if (byDate != null) {
+            byDate.values().forEach(ids -> ids.forEach(timeEntries::remove));
+        }
+
+        Set<Long> recordIds = payrollRecordsByEmployee.remove(employeeId);
+        if (recordIds != null) {
+            recordIds.forEach(payrollRecords::remove);
+        }
+
+        users.values().removeIf(user -> employeeId.equals(user.employeeId));
+        payrollRuns.values().forEach(statuses -> statuses.remove(employeeId));
+
+        return employees.remove(employeeId) != null;
+    }
+
+    static Employee copy(Employee employee) {
+        return new Employee(employee);
+    }
+
+    static TimeEntry copy(TimeEntry entry) {
+        TimeEntry copy = new TimeEntry(entry.getEmployeeId(), entry.getWorkDate(), entry.getHoursWorked(), entry.isPto());
+        copy.setEntryId(entry.getEntryId());
+        copy.setLocked(entry.isLocked());
+        return copy;
+    }
+
+    static PayrollRecord copy(PayrollRecord record) {
+        PayrollRecord copy = PayrollRecord.ofCents(
+            record.getEmployeeId(),
+            record.getPayPeriodStart(),
+            record.getPayPeriodEnd(),
+            record.getGrossPayCents(),
+            record.getNetPayCents(),
+            record.getMedicalDeductionCents(),
+            record.getDependentStipendCents(),
+            record.getStateTaxCents(),
+            record.getFederalTaxCents(),
+            record.getSocialSecurityTaxCents(),
+            record.getMedicareTaxCents(),
+            record.getEmployerSocialSecurityCents(),
+            record.getEmployerMedicareCents()
+        );
+        copy.setRecordId(record.getRecordId());
+        copy.setCreationDate(record.getCreationDate());
+        copy.setInputFingerprint(record.getInputFingerprint());
+        return copy;
+    }
+}
@@ -0,0 +1,245 @@
+package grant.coburn.dao;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+import grant.coburn.model.Employee;
+import grant.coburn.model.TimeEntry;
+import grant.coburn.model.TimeEntryTotals;
+
+/**
+ * Keeps time entries in memory, indexed by employee and work date.
+ */
+public class InMemoryTimeEntryDAO implements TimeEntryDAO {
+    private final InMemoryStore store;
+
+    InMemoryTimeEntryDAO(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public List<TimeEntry> getTimeEntriesByEmployeeId(String employeeId) {
+        List<TimeEntry> entries = new ArrayList<>();
+        NavigableMap<LocalDate, Set<Long>> byDate = store.timeEntriesByEmployee.get(employeeId);
+        if (byDate != null) {
+            collect(byDate.descendingMap(), entry -> true, entries);
+        }
+        return entries;
+    }
+
+    @Override
+    public boolean saveTimeEntry(TimeEntry entry) {
+        if (!store.employees.containsKey(entry.getEmployeeId())) {
+            System.err.println("Error saving time entry: no employee " + entry.getEmployeeId());
+            return false;
+        }
+
+        TimeEntry stored = InMemoryStore.copy(entry);
+        stored.setEntryId(store.nextTimeEntryId());
+        store.timeEntries.put(stored.getEntryId(), stored);
+        store.indexTimeEntry(stored);
+        return true;
+    }
+
+    @Override
+    public boolean updateTimeEntry(TimeEntry entry) {
+        if (entry.getEntryId() == null) {
+            return false;
+        }
+
+        synchronized (store) {
+            TimeEntry existing = store.timeEntries.get(entry.getEntryId());
+            if (existing == null || !existing.getEmployeeId().equals(entry.getEmployeeId())) {
+                return false;
+            }
+
+            TimeEntry stored = InMemoryStore.copy(entry);
+            store.unindexTimeEntry(existing);
+            store.timeEntries.put(stored.getEntryId(), stored);
+            store.indexTimeEntry(stored);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean deleteTimeEntry(TimeEntry entry) {
+        if (entry.getEntryId() == null) {
+            return false;
+        }
+
+        synchronized (store) {
+            TimeEntry existing = store.timeEntries.get(entry.getEntryId());
+            if (existing == null || existing.isLocked() || !existing.getEmployeeId().equals(entry.getEmployeeId())) {
+                return false;
+            }
+
+            store.timeEntries.remove(existing.getEntryId());
+            store.unindexTimeEntry(existing);
+            return true;
+        }
+    }
+
+    @Override
+    public int lockTimeEntries(Collection<Long> entryIds) {
+        return setLockedByEntryIds(entryIds, true);
+    }
+
+    @Override
+    public int unlockTimeEntries(Collection<Long> entryIds) {
+        return setLockedByEntryIds(entryIds, false);
+    }
+
+    @Override
+    public int lockTimeEntries(Collection<String> employeeIds, LocalDate startDate, LocalDate endDate) {
+        return setLockedByEmployees(employeeIds, startDate, endDate, true);
+    }
+
+    @Override
+    public int unlockTimeEntries(Collection<String> employeeIds, LocalDate startDate, LocalDate endDate) {
+        return setLockedByEmployees(employeeIds, startDate, endDate, false);
+    }
+
+    private int setLockedByEntryIds(Collection<Long> entryIds, boolean locked) {
+        int updated = 0;
+        for (Long entryId : entryIds) {
+            if (setLocked(entryId, locked)) {
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    private int setLockedByEmployees(Collection<String> employeeIds, LocalDate startDate, LocalDate endDate, boolean locked) {
+        int updated = 0;
+        for (String employeeId : employeeIds) {
+            NavigableMap<LocalDate, Set<Long>> byDate = store.timeEntriesByEmployee.get(employeeId);
+            if (byDate == null) {
+                continue;
+            }
+            for (Set<Long> entryIds : byDate.subMap(startDate, true, endDate, true).values()) {
+                updated += setLockedByEntryIds(entryIds, locked);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Replace a stored entry with a copy that has the given lock state, so readers never see a
+     * half-updated entry.
+     * @return true if the entry existed and its lock state changed
+     */
+    private boolean setLocked(Long entryId, boolean locked) {
+        boolean[] changed = new boolean[1];
+        store.timeEntries.computeIfPresent(entryId, (id, existing) -> {
+            if (existing.isLocked() == locked) {
+                return existing;
+            }
+            TimeEntry updated = InMemoryStore.copy(existing);
+            updated.setLocked(locked);
+            changed[0] = true;
+            return updated;
+        });
+        return changed[0];
+    }
+
+    @Override
+    public List<TimeEntry> getTimeEntriesByEmployeeIdAndDateRange(String employeeId, LocalDate startDate, LocalDate endDate) {
+        List<TimeEntry> entries = new ArrayList<>();
+        NavigableMap<LocalDate, Set<Long>> byDate = store.timeEntriesByEmployee.get(employeeId);
+        if (byDate != null) {
+            collect(byDate.subMap(startDate, true, endDate, true), entry -> !entry.isLocked(), entries);
+        }
+        return entries;
+    }
+
+    /**
+     * Get all unlocked time entries within a date range for every active employee, grouped by employee.
+     * @param startDate The start date of the period
+     * @param endDate The end date of the period
+     * @return Map of employee ID to that employee's time entries, in employee ID order, or null if the
+     * entries couldn't be read
+     */
+    @Override
+    public Map<String, List<TimeEntry>> getUnlockedTimeEntriesForActiveEmployees(LocalDate startDate, LocalDate endDate) {
+        Map<String, List<TimeEntry>> entriesByEmployee = new LinkedHashMap<>();
+        streamUnlockedTimeEntriesForActiveEmployees(startDate, endDate, entriesByEmployee::put);
+        return entriesByEmployee;
+    }
+
+    @Override
+    public boolean streamUnlockedTimeEntriesForActiveEmployees(
+        LocalDate startDate,
+        LocalDate endDate,
+        BiConsumer<String, List<TimeEntry>> consumer
+    ) {
+        for (Employee employee : store.employees.values()) {
+            if (employee.getStatus() != Employee.Status.ACTIVE) {
+                continue;
+            }
+            List<TimeEntry> entries = getTimeEntriesByEmployeeIdAndDateRange(employee.getEmployeeId(), startDate, endDate);
+            if (!entries.isEmpty()) {
+                consumer.accept(employee.getEmployeeId(), entries);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Map<String, TimeEntryTotals> getUnlockedTimeEntryTotalsForActiveEmployees(LocalDate startDate, LocalDate endDate) {
+        Map<String, TimeEntryTotals> totalsByEmployee = new LinkedHashMap<>();
+        streamUnlockedTimeEntriesForActiveEmployees(startDate, endDate, (employeeId, entries) ->
+            totalsByEmployee.put(employeeId, TimeEntryTotals.of(employeeId, entries)));
+        return totalsByEmployee;
+    }
+
+    @Override
+    public Map<String, TimeEntryTotals> getTimeEntryTotalsForActiveEmployees(LocalDate startDate, LocalDate endDate) {
+        Map<String, TimeEntryTotals> totalsByEmployee = new LinkedHashMap<>();
+        for (Employee employee : store.employees.values()) {
+            if (employee.getStatus() != Employee.Status.ACTIVE) {
+                continue;
+            }
+            NavigableMap<LocalDate, Set<Long>> byDate = store.timeEntriesByEmployee.get(employee.getEmployeeId());
+            if (byDate == null) {
+                continue;
+            }
+            List<TimeEntry> entries = new ArrayList<>();
+            collect(byDate.subMap(startDate, true, endDate, true), entry -> true, entries);
+            if (!entries.isEmpty()) {
+                totalsByEmployee.put(employee.getEmployeeId(), TimeEntryTotals.of(employee.getEmployeeId(), entries));
+            }
+        }
+        return totalsByEmployee;
+    }
+
+    @Override
+    public TimeEntry getTimeEntryByEmployeeIdAndDate(String employeeId, LocalDate workDate) {
+        NavigableMap<LocalDate, Set<Long>> byDate = store.timeEntriesByEmployee.get(employeeId);
+        if (byDate == null) {
+            return null;
+        }
+        List<TimeEntry> entries = new ArrayList<>();
+        collect(Collections.singletonMap(workDate, byDate.getOrDefault(workDate, Collections.emptySet())), entry -> true, entries);
+        return entries.isEmpty() ? null : entries.get(0);
+    }
+
+    private void collect(Map<LocalDate, Set<Long>> byDate, Predicate<TimeEntry> filter, List<TimeEntry> entries) {
+        for (Set<Long> entryIds : byDate.values()) {
+            for (Long entryId : entryIds) {
+                TimeEntry entry = store.timeEntries.get(entryId);
+                if (entry != null && filter.test(entry)) {
+                    entries.add(InMemoryStore.copy(entry));
+                }
+            }
+        }
+    }
+}
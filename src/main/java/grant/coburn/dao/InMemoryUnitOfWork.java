@@ -0,0 +1,110 @@
+package grant.coburn.dao;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import grant.coburn.model.PayrollRecord;
+
+/**
+ * Applies payroll writes to the in-memory DAOs while holding the store's lock. Every write that could
+ * fail is checked first, so a unit of work that would fail changes nothing.
+ */
+public class InMemoryUnitOfWork implements UnitOfWork {
+    private final InMemoryStore store;
+    private final InMemoryPayrollRecordDAO payrollRecordDAO;
+    private final InMemoryPayrollRunDAO payrollRunDAO;
+    private final InMemoryTimeEntryDAO timeEntryDAO;
+    private final List<Runnable> operations = new ArrayList<>();
+    /** Checked before any write is applied, like the database's constraints */
+    private final List<BooleanSupplier> preconditions = new ArrayList<>();
+    private int pendingLocked;
+    private int timeEntriesLocked;
+
+    InMemoryUnitOfWork(
+        InMemoryStore store,
+        InMemoryPayrollRecordDAO payrollRecordDAO,
+        InMemoryPayrollRunDAO payrollRunDAO,
+        InMemoryTimeEntryDAO timeEntryDAO
+    ) {
+        this.store = store;
+        this.payrollRecordDAO = payrollRecordDAO;
+        this.payrollRunDAO = payrollRunDAO;
+        this.timeEntryDAO = timeEntryDAO;
+    }
+
+    @Override
+    public void savePayrollRecords(Collection<PayrollRecord> records) {
+        List<PayrollRecord> copy = new ArrayList<>(records);
+        // A record for an unknown employee fails, like the database's foreign key
+        for (PayrollRecord record : copy) {
+            preconditions.add(() -> store.employees.containsKey(record.getEmployeeId()));
+        }
+        operations.add(() -> payrollRecordDAO.savePayrollRecords(copy));
+    }
+
+    @Override
+    public void deletePayrollRecord(String employeeId, LocalDate startDate, LocalDate endDate) {
+        preconditions.add(() -> payrollRecordDAO.getPayrollRecordsByEmployee(employeeId).stream()
+            .anyMatch(record -> record.getPayPeriodStart().equals(startDate) && record.getPayPeriodEnd().equals(endDate)));
+        operations.add(() -> payrollRecordDAO.deletePayrollRecord(employeeId, startDate, endDate));
+    }
+
+    @Override
+    public void saveEmployeeStatuses(LocalDate startDate, LocalDate endDate, Collection<String> employeeIds, PayrollRunDAO.Status status) {
+        List<String> copy = new ArrayList<>(employeeIds);
+        operations.add(() -> payrollRunDAO.saveEmployeeStatuses(startDate, endDate, copy, status));
+    }
+
+    @Override
+    public void deleteEmployeeStatuses(LocalDate startDate, LocalDate endDate, Collection<String> employeeIds) {
+        List<String> copy = new ArrayList<>(employeeIds);
+        operations.add(() -> {
+            for (String employeeId : copy) {
+                payrollRunDAO.deleteEmployeeStatus(employeeId, startDate, endDate);
+            }
+        });
+    }
+
+    @Override
+    public void lockTimeEntries(Collection<Long> entryIds) {
+        List<Long> copy = new ArrayList<>(entryIds);
+        operations.add(() -> pendingLocked += timeEntryDAO.lockTimeEntries(copy));
+    }
+
+    @Override
+    public void unlockTimeEntries(Collection<String> employeeIds, LocalDate startDate, LocalDate endDate) {
+        List<String> copy = new ArrayList<>(employeeIds);
+        operations.add(() -> timeEntryDAO.unlockTimeEntries(copy, startDate, endDate));
+    }
+
+    @Override
+    public boolean commit() {
+        try {
+            synchronized (store) {
+                for (BooleanSupplier precondition : preconditions) {
+                    if (!precondition.getAsBoolean()) {
+                        return false;
+                    }
+                }
+
+                pendingLocked = 0;
+                for (Runnable operation : operations) {
+                    operation.run();
+                }
+                timeEntriesLocked = pendingLocked;
+                return true;
+            }
+        } finally {
+            operations.clear();
+            preconditions.clear();
+        }
+    }
+
+    @Override
+    public int getTimeEntriesLocked() {
+        return timeEntriesLocked;
+    }
+}
@@ -0,0 +1,90 @@
+package grant.coburn.dao;
+
+import grant.coburn.model.User;
+import grant.coburn.util.PasswordUtil;
+import grant.coburn.util.PasswordValidationException;
+
+/**
+ * Keeps user accounts in memory. Passwords are hashed with BCrypt the same way as in the database.
+ */
+public class InMemoryUserDAO implements UserDAO {
+    private final InMemoryStore store;
+
+    InMemoryUserDAO(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public User authenticateUser(String userId, String password) {
+        InMemoryStore.UserRow row = store.users.get(userId);
+        if (row == null || !PasswordUtil.bcryptCheckPassword(password, row.passwordHash)) {
+            return null;
+        }
+
+        User user = new User(row.userId, row.passwordHash, row.userType, row.email);
+        if (row.employeeId != null) {
+            user.setEmployeeId(row.employeeId);
+        }
+        return user;
+    }
+
+    @Override
+    public boolean createUser(User user) {
+        String hashedPassword = PasswordUtil.bcryptPassword(user.getPassword());
+        InMemoryStore.UserRow row = new InMemoryStore.UserRow(
+            user.getUserId(),
+            hashedPassword,
+            user.getUserType(),
+            user.getEmail(),
+            user.getEmployeeId(),
+            true
+        );
+
+        synchronized (store) {
+            boolean emailTaken = user.getEmail() != null
+                && store.users.values().stream().anyMatch(existing -> user.getEmail().equals(existing.email));
+            if (emailTaken) {
+                return false;
+            }
+            return store.users.putIfAbsent(user.getUserId(), row) == null;
+        }
+    }
+
+    @Override
+    public boolean deleteUser(String userId) {
+        return store.users.remove(userId) != null;
+    }
+
+    @Override
+    public boolean deleteAllUsers() {
+        boolean hadUsers = !store.users.isEmpty();
+        store.users.clear();
+        return hadUsers;
+    }
+
+    @Override
+    public boolean mustChangePassword(String userId) {
+        InMemoryStore.UserRow row = store.users.get(userId);
+        return row != null && row.mustChangePassword;
+    }
+
+    @Override
+    public boolean changePassword(String userId, String currentPassword, String newPassword) throws PasswordValidationException {
+        PasswordUtil.isValidPassword(newPassword);
+
+        InMemoryStore.UserRow row = store.users.get(userId);
+        if (row == null || !PasswordUtil.bcryptCheckPassword(currentPassword, row.passwordHash)) {
+            return false;
+        }
+
+        String newHashedPassword = PasswordUtil.bcryptPassword(newPassword);
+        return store.users.replace(userId, row, new InMemoryStore.UserRow(
+            row.userId,
+            newHashedPassword,
+            row.userType,
+            row.email,
+            row.employeeId,
+            false
+        ));
+    }
+}
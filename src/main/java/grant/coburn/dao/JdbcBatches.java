@@ -0,0 +1,25 @@
+package grant.coburn.dao;
+
+import java.sql.Statement;
+
+/**
+ * Helpers shared by the JDBC DAOs for reading the results of batched statements.
+ */
+final class JdbcBatches {
+    private JdbcBatches() {
+    }
+
+    /**
+     * Count the successful statements in a batch result. An upsert that leaves a row unchanged reports
+     * 0 rows, and rewritten batches report {@link Statement#SUCCESS_NO_INFO}.
+     */
+    static int countSuccessfulUpdates(int[] updateCounts) {
+        int count = 0;
+        for (int updateCount : updateCounts) {
+            if (updateCount != Statement.EXECUTE_FAILED) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
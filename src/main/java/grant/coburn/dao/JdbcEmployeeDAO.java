@@ -0,0 +1,362 @@
+package grant.coburn.dao;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import grant.coburn.model.Employee;
+import grant.coburn.model.User;
+import grant.coburn.util.DatabaseUtil;
+import grant.coburn.util.PasswordUtil;
+
+public class JdbcEmployeeDAO implements EmployeeDAO {
+    private final DatabaseUtil dbUtil;
+    private final JdbcUserDAO userDAO;
+    private final TestEmployees testEmployees = new TestEmployees();
+
+    public JdbcEmployeeDAO(DatabaseUtil dbUtil) {
+        this.dbUtil = dbUtil;
+        this.userDAO = new JdbcUserDAO(dbUtil);
+    }
+
+    /**
+     * Get all active employees.
+     * @return List of all employees
+     */
+    @Override
+    public List<Employee> getAllEmployees() {
+        List<Employee> employees = new ArrayList<>();
+        String sql = "SELECT * FROM employees WHERE status = 'ACTIVE'";
+        
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            while (rs.next()) {
+                employees.add(createEmployeeFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        
+        return employees;
+    }
+
+    /**
+     * Get an employee by their ID.
+     * @param employeeId The ID of the employee to retrieve
+     * @return The employee if found, null otherwise
+     */
+    @Override
+    public Employee getEmployeeById(String employeeId) {
+        String sql = "SELECT * FROM employees WHERE employee_id = ? AND status = 'ACTIVE'";
+        
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, employeeId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return createEmployeeFromResultSet(rs);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        
+        return null;
+    }
+
+    @Override
+    public Employee getEmployee(String employeeId) {
+        String sql = "SELECT * FROM employees WHERE employee_id = ?";
+
+        try (
+            Connection conn = dbUtil.getConnection();
+            PreparedStatement pstmt = conn.prepareStatement(sql)
+        ) {
+            pstmt.setString(1, employeeId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return createEmployeeFromResultSet(rs);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    @Override
+    public EmployeeCredentials createEmployee(Employee employee) {
+        return createEmployee(employee, false);
+    }
+
+    @Override
+    public EmployeeCredentials createEmployee(Employee employee, boolean isTestEmployee) {
+        try (Connection conn = dbUtil.getConnection()) {
+            conn.setAutoCommit(false);
+
+            String sql = "INSERT INTO employees (employee_id, department, job_title, first_name, last_name, " +
+                        "status, date_of_birth, hire_date, pay_type, base_salary, medical_coverage, dependents_count, " +
+                        "company_email, gender, address_line1, address_line2, city, state, zip, picture_path) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                setEmployeeParameters(pstmt, employee);
+                pstmt.executeUpdate();
+
+                String tempPassword = isTestEmployee ? TestEmployees.PASSWORD : PasswordUtil.generateTemporaryPassword();
+                User newUser = new User(
+                    employee.getEmployeeId(),
+                    tempPassword,
+                    User.UserType.EMPLOYEE,
+                    employee.getCompanyEmail()
+                );
+                newUser.setEmployeeId(employee.getEmployeeId());
+
+                try {
+                    boolean userCreated = userDAO.createUser(newUser, conn);
+                    if (!userCreated) {
+                        conn.rollback();
+                        return null;
+                    }
+                    conn.commit();
+                    return new EmployeeCredentials(
+                        employee.getEmployeeId(),
+                        tempPassword,
+                        employee.getFullName()
+                    );
+                } catch (SQLException e) {
+                    conn.rollback();
+                    e.printStackTrace();
+                    return null;
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    @Override
+    public boolean updateEmployee(Employee employee) {
+        String sql = "UPDATE employees SET department = ?, job_title = ?, first_name = ?, " +
+                    "last_name = ?, status = ?, date_of_birth = ?, hire_date = ?, pay_type = ?, " +
+                    "base_salary = ?, medical_coverage = ?, dependents_count = ?, " +
+                    "company_email = ?, gender = ?, address_line1 = ?, address_line2 = ?, " +
+                    "city = ?, state = ?, zip = ?, picture_path = ? " +
+                    "WHERE employee_id = ?";
+
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            // First 19 parameters
+            pstmt.setString(1, employee.getDepartment());
+            pstmt.setString(2, employee.getJobTitle());
+            pstmt.setString(3, employee.getFirstName());
+            pstmt.setString(4, employee.getLastName());
+            pstmt.setInt(5, employee.getStatus() == Employee.Status.ACTIVE ? 1 : 2);
+            pstmt.setDate(6, Date.valueOf(employee.getDateOfBirth()));
+            pstmt.setDate(7, Date.valueOf(employee.getHireDate()));
+            pstmt.setInt(8, employee.getPayType() == Employee.PayType.SALARY ? 1 : 2);
+            pstmt.setDouble(9, employee.getBaseSalary());
+            pstmt.setInt(10, employee.getMedicalCoverage() == Employee.MedicalCoverage.SINGLE ? 1 : 2);
+            pstmt.setInt(11, employee.getDependentsCount());
+            pstmt.setString(12, employee.getCompanyEmail());
+            pstmt.setInt(13, employee.getGender() == Employee.Gender.MALE ? 1 : 2);
+            pstmt.setString(14, employee.getAddressLine1());
+            pstmt.setString(15, employee.getAddressLine2());
+            pstmt.setString(16, employee.getCity());
+            pstmt.setString(17, employee.getState());
+            pstmt.setString(18, employee.getZip());
+            pstmt.setString(19, employee.getPicturePath());
+            
+            // WHERE clause parameter
+            pstmt.setString(20, employee.getEmployeeId());
+            
+            int rowsAffected = pstmt.executeUpdate();
+            return rowsAffected > 0;
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // For backward compatibility
+    @Override
+    public boolean deleteEmployee(String employeeId) {
+        return deleteEmployee(employeeId, false); // Default to soft delete
+    }
+
+    @Override
+    public boolean deleteEmployee(String employeeId, boolean hardDelete) {
+        if (hardDelete) {
+            return hardDeleteEmployee(employeeId);
+        } else {
+            return softDeleteEmployee(employeeId);
+        }
+    }
+
+    private boolean softDeleteEmployee(String employeeId) {
+        String updateEmployeeSql = "UPDATE employees SET status = 2 WHERE employee_id = ?";
+
+        try(
+            Connection conn = dbUtil.getConnection();
+            PreparedStatement updateEmployeePstmt = conn.prepareStatement(updateEmployeeSql)
+        ) {
+            conn.setAutoCommit(false);
+
+            try {
+                updateEmployeePstmt.setString(1, employeeId);
+                int employeeRowsAffected = updateEmployeePstmt.executeUpdate();
+
+                if (employeeRowsAffected > 0) {
+                    conn.commit();
+                    return true;
+                } else {
+                    conn.rollback();
+                    return false;
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private boolean hardDeleteEmployee(String employeeId) {
+        // Delete related records first
+        String deletePayrollRecordsSql = "DELETE FROM payroll_records WHERE employee_id = ?";
+        String deletePayrollRunsSql = "DELETE FROM payroll_runs WHERE employee_id = ?";
+        String deleteTimeEntriesSql = "DELETE FROM time_entries WHERE employee_id = ?";
+        String deleteUserSql = "DELETE FROM users WHERE employee_id = ?";
+        String deleteEmployeeSql = "DELETE FROM employees WHERE employee_id = ?";
+
+        try (Connection conn = dbUtil.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                // Delete payroll records
+                try (PreparedStatement pstmt = conn.prepareStatement(deletePayrollRecordsSql)) {
+                    pstmt.setString(1, employeeId);
+                    pstmt.executeUpdate();
+                }
+
+                // Delete payroll run checkpoints
+                try (PreparedStatement pstmt = conn.prepareStatement(deletePayrollRunsSql)) {
+                    pstmt.setString(1, employeeId);
+                    pstmt.executeUpdate();
+                }
+
+                // Delete time entries
+                try (PreparedStatement pstmt = conn.prepareStatement(deleteTimeEntriesSql)) {
+                    pstmt.setString(1, employeeId);
+                    pstmt.executeUpdate();
+                }
+
+                // Delete user account
+                try (PreparedStatement pstmt = conn.prepareStatement(deleteUserSql)) {
+                    pstmt.setString(1, employeeId);
+                    pstmt.executeUpdate();
+                }
+
+                // Finally, delete the employee
+                try (PreparedStatement pstmt = conn.prepareStatement(deleteEmployeeSql)) {
+                    pstmt.setString(1, employeeId);
+                    int rowsAffected = pstmt.executeUpdate();
+                    
+                    if (rowsAffected > 0) {
+                        conn.commit();
+                        return true;
+                    } else {
+                        conn.rollback();
+                        return false;
+                    }
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private Employee createEmployeeFromResultSet(ResultSet rs) throws SQLException {
+        Employee employee = new Employee(
+            rs.getString("employee_id"),
+            rs.getString("department"),
+            rs.getString("job_title"),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            Employee.Status.valueOf(rs.getString("status")),
+            rs.getDate("date_of_birth").toLocalDate(),
+            rs.getDate("hire_date").toLocalDate(),
+            Employee.PayType.valueOf(rs.getString("pay_type")),
+            rs.getDouble("base_salary"),
+            Employee.MedicalCoverage.valueOf(rs.getString("medical_coverage")),
+            rs.getInt("dependents_count")
+        );
+
+        // Set additional fields
+        employee.setCompanyEmail(rs.getString("company_email"));
+        employee.setGender(Employee.Gender.valueOf(rs.getString("gender")));
+        employee.setAddressLine1(rs.getString("address_line1"));
+        employee.setAddressLine2(rs.getString("address_line2"));
+        employee.setCity(rs.getString("city"));
+        employee.setState(rs.getString("state"));
+        employee.setZip(rs.getString("zip"));
+        employee.setPicturePath(rs.getString("picture_path"));
+
+        return employee;
+    }
+
+    private void setEmployeeParameters(PreparedStatement pstmt, Employee employee) throws SQLException {
+        pstmt.setString(1, employee.getEmployeeId());
+        pstmt.setString(2, employee.getDepartment());
+        pstmt.setString(3, employee.getJobTitle());
+        pstmt.setString(4, employee.getFirstName());
+        pstmt.setString(5, employee.getLastName());
+        pstmt.setInt(6, employee.getStatus() == Employee.Status.ACTIVE ? 1 : 2);
+        pstmt.setDate(7, Date.valueOf(employee.getDateOfBirth()));
+        pstmt.setDate(8, Date.valueOf(employee.getHireDate()));
+        pstmt.setInt(9, employee.getPayType() == Employee.PayType.SALARY ? 1 : 2);
+        pstmt.setDouble(10, employee.getBaseSalary());
+        pstmt.setInt(11, employee.getMedicalCoverage() == Employee.MedicalCoverage.SINGLE ? 1 : 2);
+        pstmt.setInt(12, employee.getDependentsCount());
+        pstmt.setString(13, employee.getCompanyEmail());
+        pstmt.setInt(14, employee.getGender() == Employee.Gender.MALE ? 1 : 2);
+        pstmt.setString(15, employee.getAddressLine1());
+        pstmt.setString(16, employee.getAddressLine2());
+        pstmt.setString(17, employee.getCity());
+        pstmt.setString(18, employee.getState());
+        pstmt.setString(19, employee.getZip());
+        pstmt.setString(20, employee.getPicturePath());
+    }
+
+    private void setUserAsAdmin(String employeeId) {
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "UPDATE users SET user_type = 'ADMIN' WHERE employee_id = ?")) {
+            stmt.setString(1, employeeId);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Failed to set admin role: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void insertTestEmployees() {
+        TestEmployees.insertAll(this, testEmployees.create());
+    }
+}
@@ -0,0 +1,358 @@
+package grant.coburn.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import grant.coburn.model.PayrollRecord;
+import grant.coburn.model.PayrollReportRow;
+import grant.coburn.util.DBProperties;
+import grant.coburn.util.DatabaseUtil;
+import grant.coburn.util.Money;
+
+public class JdbcPayrollRecordDAO implements PayrollRecordDAO {
+    // An employee has one record per pay period, saving it again replaces the amounts
+    private static final String UPSERT_PAYROLL_RECORD_SQL = "INSERT INTO payroll_records (employee_id, pay_period_start, pay_period_end, " +
+                "gross_pay, net_pay, medical_deduction, dependent_stipend, state_tax, " +
+                "federal_tax, social_security_tax, medicare_tax, employer_social_security, " +
+                "employer_medicare, input_fingerprint) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE gross_pay = VALUES(gross_pay), net_pay = VALUES(net_pay), " +
+                "medical_deduction = VALUES(medical_deduction), dependent_stipend = VALUES(dependent_stipend), " +
+                "state_tax = VALUES(state_tax), federal_tax = VALUES(federal_tax), " +
+                "social_security_tax = VALUES(social_security_tax), medicare_tax = VALUES(medicare_tax), " +
+                "employer_social_security = VALUES(employer_social_security), employer_medicare = VALUES(employer_medicare), " +
+                "input_fingerprint = VALUES(input_fingerprint)";
+
+    static final String SELECT_REPORT_ROWS_SQL = "SELECT r.record_id, r.employee_id, r.pay_period_start, r.pay_period_end, " +
+                "r.gross_pay, r.net_pay, r.medical_deduction, r.dependent_stipend, r.state_tax, " +
+                "r.federal_tax, r.social_security_tax, r.medicare_tax, r.employer_social_security, " +
+                "r.employer_medicare, r.creation_date, r.input_fingerprint, e.first_name, e.last_name, e.department " +
+                "FROM payroll_records r LEFT JOIN employees e ON e.employee_id = r.employee_id " +
+                "WHERE r.pay_period_start >= ? AND r.pay_period_end <= ? " +
+                "ORDER BY r.pay_period_start DESC";
+
+    static final String SELECT_BY_EMPLOYEE_SQL = "SELECT * FROM payroll_records WHERE employee_id = ? ORDER BY pay_period_start DESC";
+    static final String SELECT_BY_DATE_RANGE_SQL = "SELECT * FROM payroll_records WHERE pay_period_start >= ? AND pay_period_end <= ? " +
+                "ORDER BY pay_period_start DESC";
+    static final String COUNT_BY_DATE_RANGE_SQL = "SELECT COUNT(*) FROM payroll_records WHERE pay_period_start >= ? AND pay_period_end <= ?";
+    static final String SELECT_LATEST_BY_EMPLOYEE_SQL = "SELECT * FROM payroll_records WHERE employee_id = ? ORDER BY pay_period_start DESC LIMIT 1";
+    static final String SELECT_FINGERPRINTS_BY_PERIOD_SQL = "SELECT employee_id, input_fingerprint FROM payroll_records " +
+                "WHERE pay_period_start = ? AND pay_period_end = ?";
+    static final String DELETE_BY_EMPLOYEE_AND_PERIOD_SQL = "DELETE FROM payroll_records WHERE employee_id = ? AND pay_period_start = ? AND pay_period_end = ?";
+
+    private final DatabaseUtil dbUtil;
+    private int batchSize = DBProperties.BATCH_SIZE;
+
+    public JdbcPayrollRecordDAO(DatabaseUtil dbUtil) {
+        this.dbUtil = dbUtil;
+    }
+
+    @Override
+    public boolean savePayrollRecord(PayrollRecord record) {
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(UPSERT_PAYROLL_RECORD_SQL)) {
+            
+            setPayrollRecordParameters(stmt, record);
+
+            // An upsert that leaves the record unchanged reports 0 rows
+            stmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Save many payroll records using JDBC batching. Records are sent in chunks of
+     * {@link #getBatchSize()} statements so a large pay run doesn't need one round trip per record,
+     * and committed once at the end, so either every record is saved or none are.
+     * @param records The payroll records to save
+     * @return The number of records saved, 0 if saving failed
+     */
+    @Override
+    public int savePayrollRecords(Collection<PayrollRecord> records) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        try (Connection conn = dbUtil.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                int saved = savePayrollRecords(conn, records, batchSize);
+                conn.commit();
+                return saved;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Save payroll records on the given connection in JDBC batches, leaving the transaction to the caller.
+     * @return The number of records saved
+     */
+    static int savePayrollRecords(Connection conn, Collection<PayrollRecord> records, int batchSize) throws SQLException {
+        int saved = 0;
+
+        try (PreparedStatement stmt = conn.prepareStatement(UPSERT_PAYROLL_RECORD_SQL)) {
+            int pending = 0;
+            for (PayrollRecord record : records) {
+                setPayrollRecordParameters(stmt, record);
+                stmt.addBatch();
+                pending++;
+
+                if (pending == batchSize) {
+                    saved += JdbcBatches.countSuccessfulUpdates(stmt.executeBatch());
+                    pending = 0;
+                }
+            }
+
+            if (pending > 0) {
+                saved += JdbcBatches.countSuccessfulUpdates(stmt.executeBatch());
+            }
+        }
+
+        return saved;
+    }
+
+    /** Gets the number of statements sent to the database per batch */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /** Sets the number of statements sent to the database per batch */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    private static void setPayrollRecordParameters(PreparedStatement stmt, PayrollRecord record) throws SQLException {
+        stmt.setString(1, record.getEmployeeId());
+        stmt.setDate(2, java.sql.Date.valueOf(record.getPayPeriodStart()));
+        stmt.setDate(3, java.sql.Date.valueOf(record.getPayPeriodEnd()));
+        stmt.setBigDecimal(4, Money.toDecimal(record.getGrossPayCents()));
+        stmt.setBigDecimal(5, Money.toDecimal(record.getNetPayCents()));
+        stmt.setBigDecimal(6, Money.toDecimal(record.getMedicalDeductionCents()));
+        stmt.setBigDecimal(7, Money.toDecimal(record.getDependentStipendCents()));
+        stmt.setBigDecimal(8, Money.toDecimal(record.getStateTaxCents()));
+        stmt.setBigDecimal(9, Money.toDecimal(record.getFederalTaxCents()));
+        stmt.setBigDecimal(10, Money.toDecimal(record.getSocialSecurityTaxCents()));
+        stmt.setBigDecimal(11, Money.toDecimal(record.getMedicareTaxCents()));
+        stmt.setBigDecimal(12, Money.toDecimal(record.getEmployerSocialSecurityCents()));
+        stmt.setBigDecimal(13, Money.toDecimal(record.getEmployerMedicareCents()));
+        stmt.setString(14, record.getInputFingerprint());
+    }
+
+    @Override
+    public List<PayrollRecord> getPayrollRecordsByEmployee(String employeeId) {
+        List<PayrollRecord> records = new ArrayList<>();
+
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_BY_EMPLOYEE_SQL)) {
+            
+            stmt.setString(1, employeeId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    records.add(createPayrollRecordFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return records;
+    }
+
+    @Override
+    public List<PayrollRecord> getPayrollRecordsByDateRange(LocalDate startDate, LocalDate endDate) {
+        List<PayrollRecord> records = new ArrayList<>();
+
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_BY_DATE_RANGE_SQL)) {
+            
+            stmt.setDate(1, java.sql.Date.valueOf(startDate));
+            stmt.setDate(2, java.sql.Date.valueOf(endDate));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    records.add(createPayrollRecordFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return records;
+    }
+
+    @Override
+    public int countPayrollRecordsByDateRange(LocalDate startDate, LocalDate endDate) {
+
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(COUNT_BY_DATE_RANGE_SQL)) {
+
+            stmt.setDate(1, java.sql.Date.valueOf(startDate));
+            stmt.setDate(2, java.sql.Date.valueOf(endDate));
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return -1;
+    }
+
+    @Override
+    public Map<String, String> getInputFingerprints(LocalDate startDate, LocalDate endDate) {
+        Map<String, String> fingerprints = new HashMap<>();
+
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_FINGERPRINTS_BY_PERIOD_SQL)) {
+
+            stmt.setDate(1, java.sql.Date.valueOf(startDate));
+            stmt.setDate(2, java.sql.Date.valueOf(endDate));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    fingerprints.put(rs.getString("employee_id"), rs.getString("input_fingerprint"));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        return fingerprints;
+    }
+
+    /**
+     * Get the payroll records for pay periods within a date range, joined with the employees table
+     * so names don't need a query per record.
+     */
+    @Override
+    public List<PayrollReportRow> getPayrollReportRowsByDateRange(LocalDate startDate, LocalDate endDate) {
+        List<PayrollReportRow> rows = new ArrayList<>();
+        streamPayrollReportRowsByDateRange(startDate, endDate, rows::add);
+        return rows;
+    }
+
+    /**
+     * Stream the payroll records for pay periods within a date range, joined with the employees table.
+     * Rows are read through a forward-only result set {@link DBProperties#FETCH_SIZE} at a time,
+     * so memory use doesn't grow with the size of the date range.
+     */
+    @Override
+    public boolean streamPayrollReportRowsByDateRange(LocalDate startDate, LocalDate endDate, Consumer<PayrollReportRow> consumer) {
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_REPORT_ROWS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setDate(1, java.sql.Date.valueOf(startDate));
+            stmt.setDate(2, java.sql.Date.valueOf(endDate));
+            stmt.setFetchSize(DBProperties.FETCH_SIZE);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(new PayrollReportRow(
+                        createPayrollRecordFromResultSet(rs),
+                        rs.getString("first_name"),
+                        rs.getString("last_name"),
+                        rs.getString("department")
+                    ));
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    public PayrollRecord getLatestPayrollRecord(String employeeId) {
+
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_LATEST_BY_EMPLOYEE_SQL)) {
+            
+            stmt.setString(1, employeeId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return createPayrollRecordFromResultSet(rs);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    private PayrollRecord createPayrollRecordFromResultSet(ResultSet rs) throws SQLException {
+        PayrollRecord record = PayrollRecord.ofCents(
+            rs.getString("employee_id"),
+            rs.getDate("pay_period_start").toLocalDate(),
+            rs.getDate("pay_period_end").toLocalDate(),
+            Money.fromDecimal(rs.getBigDecimal("gross_pay")),
+            Money.fromDecimal(rs.getBigDecimal("net_pay")),
+            Money.fromDecimal(rs.getBigDecimal("medical_deduction")),
+            Money.fromDecimal(rs.getBigDecimal("dependent_stipend")),
+            Money.fromDecimal(rs.getBigDecimal("state_tax")),
+            Money.fromDecimal(rs.getBigDecimal("federal_tax")),
+            Money.fromDecimal(rs.getBigDecimal("social_security_tax")),
+            Money.fromDecimal(rs.getBigDecimal("medicare_tax")),
+            Money.fromDecimal(rs.getBigDecimal("employer_social_security")),
+            Money.fromDecimal(rs.getBigDecimal("employer_medicare"))
+        );
+        record.setRecordId(rs.getLong("record_id"));
+        record.setCreationDate(rs.getTimestamp("creation_date").toLocalDateTime());
+        record.setInputFingerprint(rs.getString("input_fingerprint"));
+        return record;
+    }
+
+    /**
+     * Delete a payroll record for an employee within a specific pay period.
+     * @param employeeId The ID of the employee
+     * @param startDate The start date of the pay period
+     * @param endDate The end date of the pay period
+     * @return true if the record was deleted successfully, false otherwise
+     */
+    @Override
+    public boolean deletePayrollRecord(String employeeId, LocalDate startDate, LocalDate endDate) {
+        
+        try (Connection conn = dbUtil.getConnection()) {
+            return deletePayrollRecord(conn, employeeId, startDate, endDate) > 0;
+        } catch (SQLException e) {
+            System.err.println("Error deleting payroll record: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Delete an employee's payroll record for a pay period on the given connection, leaving the transaction to the caller.
+     * @return The number of records deleted
+     */
+    static int deletePayrollRecord(Connection conn, String employeeId, LocalDate startDate, LocalDate endDate) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(DELETE_BY_EMPLOYEE_AND_PERIOD_SQL)) {
+            stmt.setString(1, employeeId);
+            stmt.setDate(2, java.sql.Date.valueOf(startDate));
+            stmt.setDate(3, java.sql.Date.valueOf(endDate));
+            return stmt.executeUpdate();
+        }
+    }
+} 
\ No newline at end of file
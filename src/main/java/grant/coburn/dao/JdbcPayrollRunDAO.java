@@ -0,0 +1,185 @@
+package grant.coburn.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import grant.coburn.util.DBProperties;
+import grant.coburn.util.DatabaseUtil;
+
+public class JdbcPayrollRunDAO implements PayrollRunDAO {
+    static final String SELECT_COMPLETED_SQL = "SELECT employee_id FROM payroll_runs " +
+                "WHERE pay_period_start = ? AND pay_period_end = ? AND status = 'COMPLETED'";
+    static final String SELECT_STATUS_SQL = "SELECT status FROM payroll_runs " +
+                "WHERE pay_period_start = ? AND pay_period_end = ? AND employee_id = ?";
+    static final String UPSERT_STATUS_SQL = "INSERT INTO payroll_runs (pay_period_start, pay_period_end, employee_id, status) " +
+                "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE status = VALUES(status), updated_at = CURRENT_TIMESTAMP";
+    static final String DELETE_STATUS_SQL = "DELETE FROM payroll_runs " +
+                "WHERE pay_period_start = ? AND pay_period_end = ? AND employee_id = ?";
+
+    private final DatabaseUtil dbUtil;
+
+    public JdbcPayrollRunDAO(DatabaseUtil dbUtil) {
+        this.dbUtil = dbUtil;
+    }
+
+    @Override
+    public Set<String> getCompletedEmployeeIds(LocalDate startDate, LocalDate endDate) {
+        Set<String> employeeIds = new HashSet<>();
+
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_COMPLETED_SQL)) {
+
+            stmt.setDate(1, java.sql.Date.valueOf(startDate));
+            stmt.setDate(2, java.sql.Date.valueOf(endDate));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    employeeIds.add(rs.getString("employee_id"));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        return employeeIds;
+    }
+
+    @Override
+    public Status getEmployeeStatus(String employeeId, LocalDate startDate, LocalDate endDate) {
+
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_STATUS_SQL)) {
+
+            stmt.setDate(1, java.sql.Date.valueOf(startDate));
+            stmt.setDate(2, java.sql.Date.valueOf(endDate));
+            stmt.setString(3, employeeId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Status.valueOf(rs.getString("status"));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    /**
+     * Record the status of many employees for a pay period using JDBC batching, in chunks of
+     * {@link DBProperties#BATCH_SIZE} statements committed once at the end.
+     */
+    @Override
+    public int saveEmployeeStatuses(LocalDate startDate, LocalDate endDate, Collection<String> employeeIds, Status status) {
+        if (employeeIds.isEmpty()) {
+            return 0;
+        }
+
+        try (Connection conn = dbUtil.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                int saved = saveEmployeeStatuses(conn, startDate, endDate, employeeIds, status);
+                conn.commit();
+                return saved;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Record the status of many employees on the given connection, leaving the transaction to the caller.
+     * @return The number of employees recorded
+     */
+    static int saveEmployeeStatuses(
+        Connection conn,
+        LocalDate startDate,
+        LocalDate endDate,
+        Collection<String> employeeIds,
+        Status status
+    ) throws SQLException {
+        int saved = 0;
+
+        try (PreparedStatement stmt = conn.prepareStatement(UPSERT_STATUS_SQL)) {
+            int pending = 0;
+            for (String employeeId : employeeIds) {
+                stmt.setDate(1, java.sql.Date.valueOf(startDate));
+                stmt.setDate(2, java.sql.Date.valueOf(endDate));
+                stmt.setString(3, employeeId);
+                stmt.setString(4, status.name());
+                stmt.addBatch();
+                pending++;
+
+                if (pending == DBProperties.BATCH_SIZE) {
+                    saved += JdbcBatches.countSuccessfulUpdates(stmt.executeBatch());
+                    pending = 0;
+                }
+            }
+
+            if (pending > 0) {
+                saved += JdbcBatches.countSuccessfulUpdates(stmt.executeBatch());
+            }
+        }
+
+        return saved;
+    }
+
+    @Override
+    public boolean deleteEmployeeStatus(String employeeId, LocalDate startDate, LocalDate endDate) {
+
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DELETE_STATUS_SQL)) {
+
+            stmt.setDate(1, java.sql.Date.valueOf(startDate));
+            stmt.setDate(2, java.sql.Date.valueOf(endDate));
+            stmt.setString(3, employeeId);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Remove the checkpoints of many employees for a pay period on the given connection, leaving the
+     * transaction to the caller.
+     */
+    static void deleteEmployeeStatuses(
+        Connection conn,
+        LocalDate startDate,
+        LocalDate endDate,
+        Collection<String> employeeIds
+    ) throws SQLException {
+
+        try (PreparedStatement stmt = conn.prepareStatement(DELETE_STATUS_SQL)) {
+            int pending = 0;
+            for (String employeeId : employeeIds) {
+                stmt.setDate(1, java.sql.Date.valueOf(startDate));
+                stmt.setDate(2, java.sql.Date.valueOf(endDate));
+                stmt.setString(3, employeeId);
+                stmt.addBatch();
+                pending++;
+
+                if (pending == DBProperties.BATCH_SIZE) {
+                    stmt.executeBatch();
+                    pending = 0;
+                }
+            }
+
+            if (pending > 0) {
+                stmt.executeBatch();
+            }
+        }
+    }
+}
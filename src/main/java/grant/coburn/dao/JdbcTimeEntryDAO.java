@@ -0,0 +1,557 @@
+package grant.coburn.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import grant.coburn.model.TimeEntry;
+import grant.coburn.model.TimeEntryTotals;
+import grant.coburn.util.DBProperties;
+import grant.coburn.util.DatabaseUtil;
+
+public class JdbcTimeEntryDAO implements TimeEntryDAO {
+    static final String SELECT_BY_EMPLOYEE_SQL = "SELECT * FROM time_entries WHERE employee_id = ? ORDER BY work_date DESC";
+    static final String DELETE_UNLOCKED_SQL = "DELETE FROM time_entries WHERE entry_id = ? AND employee_id = ? AND is_locked = FALSE";
+    static final String SELECT_UNLOCKED_BY_EMPLOYEE_AND_DATE_RANGE_SQL = "SELECT * FROM time_entries WHERE employee_id = ? AND work_date BETWEEN ? AND ? AND is_locked = false";
+    static final String SELECT_UNLOCKED_FOR_ACTIVE_EMPLOYEES_SQL = "SELECT t.* FROM time_entries t " +
+                "JOIN employees e ON e.employee_id = t.employee_id " +
+                "WHERE e.status = 'ACTIVE' AND t.work_date BETWEEN ? AND ? AND t.is_locked = false " +
+                "ORDER BY t.employee_id, t.work_date";
+    static final String SELECT_UNLOCKED_TOTALS_FOR_ACTIVE_EMPLOYEES_SQL = "SELECT t.employee_id, " +
+                "SUM(CASE WHEN t.is_pto = true THEN 0 ELSE t.hours_worked END) AS regular_hours, " +
+                "SUM(CASE WHEN t.is_pto = true THEN t.hours_worked ELSE 0 END) AS pto_hours, " +
+                "COUNT(*) AS entry_count, " +
+                "GROUP_CONCAT(t.entry_id ORDER BY t.entry_id SEPARATOR ',') AS entry_ids " +
+                "FROM time_entries t " +
+                "JOIN employees e ON e.employee_id = t.employee_id " +
+                "WHERE e.status = 'ACTIVE' AND t.work_date BETWEEN ? AND ? AND t.is_locked = false " +
+                "GROUP BY t.employee_id " +
+                "ORDER BY t.employee_id";
+    static final String SELECT_TOTALS_FOR_ACTIVE_EMPLOYEES_SQL = "SELECT t.employee_id, " +
+                "SUM(CASE WHEN t.is_pto = true THEN 0 ELSE t.hours_worked END) AS regular_hours, " +
+                "SUM(CASE WHEN t.is_pto = true THEN t.hours_worked ELSE 0 END) AS pto_hours, " +
+                "COUNT(*) AS entry_count, " +
+                "GROUP_CONCAT(t.entry_id ORDER BY t.entry_id SEPARATOR ',') AS entry_ids " +
+                "FROM time_entries t " +
+                "JOIN employees e ON e.employee_id = t.employee_id " +
+                "WHERE e.status = 'ACTIVE' AND t.work_date BETWEEN ? AND ? " +
+                "GROUP BY t.employee_id " +
+                "ORDER BY t.employee_id";
+    static final String SELECT_BY_EMPLOYEE_AND_DATE_SQL = "SELECT * FROM time_entries WHERE employee_id = ? AND work_date = ?";
+
+    // GROUP_CONCAT results are cut off at 1024 bytes by default, about 90 entry IDs
+    private static final String RAISE_GROUP_CONCAT_LIMIT_SQL = "SET SESSION group_concat_max_len = 1048576";
+
+    private final DatabaseUtil dbUtil;
+
+    public JdbcTimeEntryDAO(DatabaseUtil dbUtil) {
+        this.dbUtil = dbUtil;
+    }
+
+    @Override
+    public List<TimeEntry> getTimeEntriesByEmployeeId(String employeeId) {
+        List<TimeEntry> entries = new ArrayList<>();
+
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_BY_EMPLOYEE_SQL)) {
+            
+            stmt.setString(1, employeeId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    TimeEntry entry = new TimeEntry(
+                        rs.getString("employee_id"),
+                        rs.getDate("work_date").toLocalDate(),
+                        rs.getDouble("hours_worked"),
+                        rs.getBoolean("is_pto")
+                    );
+                    entry.setEntryId(rs.getLong("entry_id"));
+                    entry.setLocked(rs.getBoolean("is_locked"));
+                    entries.add(entry);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error fetching time entries: " + e.getMessage());
+        }
+
+        return entries;
+    }
+
+    @Override
+    public boolean saveTimeEntry(TimeEntry entry) {
+        String sql = "INSERT INTO time_entries (employee_id, work_date, hours_worked, is_pto, is_locked) " +
+                    "VALUES (?, ?, ?, ?, ?)";
+
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, entry.getEmployeeId());
+            stmt.setDate(2, java.sql.Date.valueOf(entry.getWorkDate()));
+            stmt.setDouble(3, entry.getHoursWorked());
+            stmt.setBoolean(4, entry.isPto());
+            stmt.setBoolean(5, entry.isLocked());
+
+            int rowsAffected = stmt.executeUpdate();
+            return rowsAffected > 0;
+        } catch (SQLException e) {
+            System.err.println("Error saving time entry: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean updateTimeEntry(TimeEntry entry) {
+        String sql = "UPDATE time_entries SET work_date = ?, hours_worked = ?, is_pto = ?, is_locked = ? " +
+                    "WHERE entry_id = ? AND employee_id = ?";
+
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setDate(1, java.sql.Date.valueOf(entry.getWorkDate()));
+            stmt.setDouble(2, entry.getHoursWorked());
+            stmt.setBoolean(3, entry.isPto());
+            stmt.setBoolean(4, entry.isLocked());
+            stmt.setLong(5, entry.getEntryId());
+            stmt.setString(6, entry.getEmployeeId());
+
+            int rowsAffected = stmt.executeUpdate();
+            return rowsAffected > 0;
+        } catch (SQLException e) {
+            System.err.println("Error updating time entry: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean deleteTimeEntry(TimeEntry entry) {
+
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DELETE_UNLOCKED_SQL)) {
+            
+            stmt.setLong(1, entry.getEntryId());
+            stmt.setString(2, entry.getEmployeeId());
+
+            int rowsAffected = stmt.executeUpdate();
+            return rowsAffected > 0;
+        } catch (SQLException e) {
+            System.err.println("Error deleting time entry: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Lock the given time entries so they can no longer be edited.
+     * @param entryIds The IDs of the time entries to lock
+     * @return The number of time entries updated
+     */
+    @Override
+    public int lockTimeEntries(Collection<Long> entryIds) {
+        return setLockedByEntryIds(entryIds, true);
+    }
+
+    /**
+     * Unlock the given time entries so they can be edited again.
+     * @param entryIds The IDs of the time entries to unlock
+     * @return The number of time entries updated
+     */
+    @Override
+    public int unlockTimeEntries(Collection<Long> entryIds) {
+        return setLockedByEntryIds(entryIds, false);
+    }
+
+    /**
+     * Lock every time entry for the given employees within a date range.
+     * @param employeeIds The IDs of the employees
+     * @param startDate The start date of the period
+     * @param endDate The end date of the period
+     * @return The number of time entries updated
+     */
+    @Override
+    public int lockTimeEntries(Collection<String> employeeIds, LocalDate startDate, LocalDate endDate) {
+        return setLockedByEmployees(employeeIds, startDate, endDate, true);
+    }
+
+    /**
+     * Unlock every time entry for the given employees within a date range.
+     * @param employeeIds The IDs of the employees
+     * @param startDate The start date of the period
+     * @param endDate The end date of the period
+     * @return The number of time entries updated
+     */
+    @Override
+    public int unlockTimeEntries(Collection<String> employeeIds, LocalDate startDate, LocalDate endDate) {
+        return setLockedByEmployees(employeeIds, startDate, endDate, false);
+    }
+
+    /**
+     * Set the locked flag on time entries by ID, one UPDATE per chunk of IDs, committed once at the end.
+     */
+    private int setLockedByEntryIds(Collection<Long> entryIds, boolean locked) {
+        if (entryIds.isEmpty()) {
+            return 0;
+        }
+
+        try (Connection conn = dbUtil.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                int rowsAffected = setLockedByEntryIds(conn, entryIds, locked);
+                conn.commit();
+                return rowsAffected;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error updating time entry locks: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Set the locked flag on time entries by ID on the given connection, leaving the transaction to the caller.
+     * @return The number of time entries updated
+     */
+    static int setLockedByEntryIds(Connection conn, Collection<Long> entryIds, boolean locked) throws SQLException {
+        List<Long> ids = new ArrayList<>(entryIds);
+        int rowsAffected = 0;
+
+        for (int from = 0; from < ids.size(); from += DBProperties.BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + DBProperties.BATCH_SIZE, ids.size()));
+            try (PreparedStatement stmt = conn.prepareStatement(setLockedByEntryIdsSql(chunk.size()))) {
+                stmt.setBoolean(1, locked);
+                stmt.setBoolean(2, locked);
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setLong(i + 3, chunk.get(i));
+                }
+                rowsAffected += stmt.executeUpdate();
+            }
+        }
+
+        return rowsAffected;
+    }
+
+    /**
+     * Set the locked flag on all time entries for a set of employees within a date range, one UPDATE per
+     * chunk of employees, committed once at the end.
+     */
+    private int setLockedByEmployees(Collection<String> employeeIds, LocalDate startDate, LocalDate endDate, boolean locked) {
+        if (employeeIds.isEmpty()) {
+            return 0;
+        }
+
+        try (Connection conn = dbUtil.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                int rowsAffected = setLockedByEmployees(conn, employeeIds, startDate, endDate, locked);
+                conn.commit();
+                return rowsAffected;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error updating time entry locks: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Set the locked flag on all time entries for a set of employees within a date range on the given
+     * connection, leaving the transaction to the caller.
+     * @return The number of time entries updated
+     */
+    static int setLockedByEmployees(
+        Connection conn,
+        Collection<String> employeeIds,
+        LocalDate startDate,
+        LocalDate endDate,
+        boolean locked
+    ) throws SQLException {
+        List<String> ids = new ArrayList<>(employeeIds);
+        int rowsAffected = 0;
+
+        for (int from = 0; from < ids.size(); from += DBProperties.BATCH_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + DBProperties.BATCH_SIZE, ids.size()));
+            try (PreparedStatement stmt = conn.prepareStatement(setLockedByEmployeesSql(chunk.size()))) {
+                stmt.setBoolean(1, locked);
+                stmt.setBoolean(2, locked);
+                stmt.setDate(3, java.sql.Date.valueOf(startDate));
+                stmt.setDate(4, java.sql.Date.valueOf(endDate));
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setString(i + 5, chunk.get(i));
+                }
+                rowsAffected += stmt.executeUpdate();
+            }
+        }
+
+        return rowsAffected;
+    }
+
+    static String setLockedByEntryIdsSql(int entryCount) {
+        return "UPDATE time_entries SET is_locked = ? WHERE is_locked <> ? AND entry_id IN (" +
+                placeholders(entryCount) + ")";
+    }
+
+    static String setLockedByEmployeesSql(int employeeCount) {
+        return "UPDATE time_entries SET is_locked = ? WHERE is_locked <> ? " +
+                "AND work_date BETWEEN ? AND ? AND employee_id IN (" + placeholders(employeeCount) + ")";
+    }
+
+    /** Build a comma separated list of JDBC placeholders for an IN clause */
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Get time entries for an employee within a specific date range that are not locked.
+     * @param employeeId The ID of the employee
+     * @param startDate The start date of the period
+     * @param endDate The end date of the period
+     * @return List of time entries
+     */
+    @Override
+    public List<TimeEntry> getTimeEntriesByEmployeeIdAndDateRange(String employeeId, LocalDate startDate, LocalDate endDate) {
+        List<TimeEntry> entries = new ArrayList<>();
+        
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_UNLOCKED_BY_EMPLOYEE_AND_DATE_RANGE_SQL)) {
+            
+            stmt.setString(1, employeeId);
+            stmt.setDate(2, java.sql.Date.valueOf(startDate));
+            stmt.setDate(3, java.sql.Date.valueOf(endDate));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(extractTimeEntryFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        
+        return entries;
+    }
+
+    /**
+     * Get all unlocked time entries within a date range for every active employee, grouped by employee.
+     * The entries are read with a single query instead of one query per employee.
+     * @param startDate The start date of the period
+     * @param endDate The end date of the period
+     * @return Map of employee ID to that employee's time entries, in employee ID order, or null if the
+     * entries couldn't be read
+     */
+    @Override
+    public Map<String, List<TimeEntry>> getUnlockedTimeEntriesForActiveEmployees(LocalDate startDate, LocalDate endDate) {
+        Map<String, List<TimeEntry>> entriesByEmployee = new LinkedHashMap<>();
+        if (!streamUnlockedTimeEntriesForActiveEmployees(startDate, endDate, entriesByEmployee::put)) {
+            return null;
+        }
+        return entriesByEmployee;
+    }
+
+    /**
+     * Stream all unlocked time entries within a date range for every active employee. Rows are read in
+     * employee ID order through a server side cursor {@link DBProperties#FETCH_SIZE} at a time (the
+     * connection URL sets useCursorFetch) and handed to the consumer one employee at a time, so only
+     * one fetch of rows and a single employee's entries are held in memory.
+     * @param startDate The start date of the period
+     * @param endDate The end date of the period
+     * @param consumer Receives each employee ID along with that employee's time entries
+     * @return true if every entry was read, false if reading failed partway through
+     */
+    @Override
+    public boolean streamUnlockedTimeEntriesForActiveEmployees(
+        LocalDate startDate,
+        LocalDate endDate,
+        BiConsumer<String, List<TimeEntry>> consumer
+    ) {
+
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_UNLOCKED_FOR_ACTIVE_EMPLOYEES_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setDate(1, java.sql.Date.valueOf(startDate));
+            stmt.setDate(2, java.sql.Date.valueOf(endDate));
+            stmt.setFetchSize(DBProperties.FETCH_SIZE);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                String currentEmployeeId = null;
+                List<TimeEntry> currentEntries = null;
+
+                while (rs.next()) {
+                    TimeEntry entry = extractTimeEntryFromResultSet(rs);
+
+                    if (!entry.getEmployeeId().equals(currentEmployeeId)) {
+                        if (currentEmployeeId != null) {
+                            consumer.accept(currentEmployeeId, currentEntries);
+                        }
+                        currentEmployeeId = entry.getEmployeeId();
+                        currentEntries = new ArrayList<>();
+                    }
+                    currentEntries.add(entry);
+                }
+
+                if (currentEmployeeId != null) {
+                    consumer.accept(currentEmployeeId, currentEntries);
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Sum the unlocked time entries within a date range for every active employee into regular and
+     * PTO hours. The database does the summing and sends one row per employee with the entry IDs
+     * joined into a list, rather than a row per time entry. Hours are stored with two decimal places,
+     * so the database's sums are exact.
+     * @param startDate The start date of the period
+     * @param endDate The end date of the period
+     * @return Map of employee ID to that employee's totals, in employee ID order
+     */
+    @Override
+    public Map<String, TimeEntryTotals> getUnlockedTimeEntryTotalsForActiveEmployees(LocalDate startDate, LocalDate endDate) {
+        Map<String, TimeEntryTotals> totalsByEmployee = new LinkedHashMap<>();
+
+        try {
+            readTimeEntryTotals(SELECT_UNLOCKED_TOTALS_FOR_ACTIVE_EMPLOYEES_SQL, startDate, endDate, totalsByEmployee);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        return totalsByEmployee;
+    }
+
+    @Override
+    public Map<String, TimeEntryTotals> getTimeEntryTotalsForActiveEmployees(LocalDate startDate, LocalDate endDate) {
+        Map<String, TimeEntryTotals> totalsByEmployee = new LinkedHashMap<>();
+
+        try {
+            readTimeEntryTotals(SELECT_TOTALS_FOR_ACTIVE_EMPLOYEES_SQL, startDate, endDate, totalsByEmployee);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        return totalsByEmployee;
+    }
+
+    /**
+     * Run one of the totals queries for a date range, adding a row per employee to the given map.
+     */
+    private void readTimeEntryTotals(
+        String sql,
+        LocalDate startDate,
+        LocalDate endDate,
+        Map<String, TimeEntryTotals> totalsByEmployee
+    ) throws SQLException {
+
+        try (Connection conn = dbUtil.getConnection()) {
+            if ("MySQL".equals(conn.getMetaData().getDatabaseProductName())) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(RAISE_GROUP_CONCAT_LIMIT_SQL);
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setDate(1, java.sql.Date.valueOf(startDate));
+                stmt.setDate(2, java.sql.Date.valueOf(endDate));
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        String employeeId = rs.getString("employee_id");
+                        List<Long> entryIds = parseEntryIds(employeeId, rs.getString("entry_ids"), rs.getInt("entry_count"));
+                        totalsByEmployee.put(employeeId, new TimeEntryTotals(
+                            employeeId,
+                            rs.getDouble("regular_hours"),
+                            rs.getDouble("pto_hours"),
+                            entryIds
+                        ));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Split a comma separated list of entry IDs from GROUP_CONCAT.
+     * @throws SQLException If the list holds fewer IDs than the employee has entries, i.e. it was truncated
+     */
+    static List<Long> parseEntryIds(String employeeId, String entryIds, int entryCount) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        if (entryIds != null && !entryIds.isEmpty()) {
+            for (String id : entryIds.split(",")) {
+                ids.add(Long.parseLong(id.trim()));
+            }
+        }
+        if (ids.size() != entryCount) {
+            throw new SQLException("Time entry IDs for employee " + employeeId + " were truncated");
+        }
+        return ids;
+    }
+
+    /**
+     * Extract a TimeEntry object from a ResultSet.
+     * @param rs The ResultSet containing the time entry data
+     * @return A TimeEntry object
+     * @throws SQLException if there's an error reading from the ResultSet
+     */
+    private TimeEntry extractTimeEntryFromResultSet(ResultSet rs) throws SQLException {
+        TimeEntry entry = new TimeEntry(
+            rs.getString("employee_id"),
+            rs.getDate("work_date").toLocalDate(),
+            rs.getDouble("hours_worked"),
+            rs.getBoolean("is_pto")
+        );
+        entry.setEntryId(rs.getLong("entry_id"));
+        entry.setLocked(rs.getBoolean("is_locked"));
+        return entry;
+    }
+
+    /**
+     * Check if a time entry exists for a given employee on a specific date.
+     * @param employeeId The ID of the employee
+     * @param workDate The date to check
+     * @return The existing time entry if found, null otherwise
+     */
+    @Override
+    public TimeEntry getTimeEntryByEmployeeIdAndDate(String employeeId, LocalDate workDate) {
+        
+        try (Connection conn = dbUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_BY_EMPLOYEE_AND_DATE_SQL)) {
+            
+            stmt.setString(1, employeeId);
+            stmt.setDate(2, java.sql.Date.valueOf(workDate));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return extractTimeEntryFromResultSet(rs);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error checking for existing time entry: " + e.getMessage());
+        }
+        
+        return null;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,123 @@
+package grant.coburn.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import grant.coburn.model.PayrollRecord;
+import grant.coburn.util.DatabaseUtil;
+
+/**
+ * Applies payroll writes over a single connection with auto-commit turned off, so a batch of records,
+ * their checkpoints and their time entry locks cost one commit instead of one per statement.
+ */
+public class JdbcUnitOfWork implements UnitOfWork {
+    /**
+     * A write waiting to be applied on the transaction's connection.
+     */
+    private interface Operation {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private final DatabaseUtil dbUtil;
+    private final int batchSize;
+    private final List<Operation> operations = new ArrayList<>();
+    private int pendingLocked;
+    private int timeEntriesLocked;
+
+    /**
+     * @param dbUtil The connection pool to take the transaction's connection from
+     * @param batchSize The number of records sent to the database per JDBC batch
+     */
+    public JdbcUnitOfWork(DatabaseUtil dbUtil, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.dbUtil = dbUtil;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void savePayrollRecords(Collection<PayrollRecord> records) {
+        List<PayrollRecord> copy = new ArrayList<>(records);
+        operations.add(conn -> {
+            int saved = JdbcPayrollRecordDAO.savePayrollRecords(conn, copy, batchSize);
+            if (saved != copy.size()) {
+                throw new SQLException(String.format("Saved %d of %d payroll records", saved, copy.size()));
+            }
+        });
+    }
+
+    @Override
+    public void deletePayrollRecord(String employeeId, LocalDate startDate, LocalDate endDate) {
+        operations.add(conn -> {
+            if (JdbcPayrollRecordDAO.deletePayrollRecord(conn, employeeId, startDate, endDate) == 0) {
+                throw new SQLException(String.format("No payroll record for %s from %s to %s", employeeId, startDate, endDate));
+            }
+        });
+    }
+
+    @Override
+    public void saveEmployeeStatuses(LocalDate startDate, LocalDate endDate, Collection<String> employeeIds, PayrollRunDAO.Status status) {
+        List<String> copy = new ArrayList<>(employeeIds);
+        operations.add(conn -> {
+            int saved = JdbcPayrollRunDAO.saveEmployeeStatuses(conn, startDate, endDate, copy, status);
+            if (saved != copy.size()) {
+                throw new SQLException(String.format("Recorded %d of %d payroll run statuses", saved, copy.size()));
+            }
+        });
+    }
+
+    @Override
+    public void deleteEmployeeStatuses(LocalDate startDate, LocalDate endDate, Collection<String> employeeIds) {
+        List<String> copy = new ArrayList<>(employeeIds);
+        operations.add(conn -> JdbcPayrollRunDAO.deleteEmployeeStatuses(conn, startDate, endDate, copy));
+    }
+
+    @Override
+    public void lockTimeEntries(Collection<Long> entryIds) {
+        List<Long> copy = new ArrayList<>(entryIds);
+        operations.add(conn -> pendingLocked += JdbcTimeEntryDAO.setLockedByEntryIds(conn, copy, true));
+    }
+
+    @Override
+    public void unlockTimeEntries(Collection<String> employeeIds, LocalDate startDate, LocalDate endDate) {
+        List<String> copy = new ArrayList<>(employeeIds);
+        operations.add(conn -> JdbcTimeEntryDAO.setLockedByEmployees(conn, copy, startDate, endDate, false));
+    }
+
+    @Override
+    public boolean commit() {
+        pendingLocked = 0;
+
+        try (Connection conn = dbUtil.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                for (Operation operation : operations) {
+                    operation.apply(conn);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            operations.clear();
+        }
+
+        timeEntriesLocked = pendingLocked;
+        return true;
+    }
+
+    @Override
+    public int getTimeEntriesLocked() {
+        return timeEntriesLocked;
+    }
+}
@@ -1,135 +1,78 @@
 package grant.coburn.dao;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import grant.coburn.model.PayrollRecord;
+import grant.coburn.model.PayrollReportRow;
 import grant.coburn.util.DatabaseUtil;
 
-public class PayrollRecordDAO {
-    public static final PayrollRecordDAO shared = new PayrollRecordDAO(DatabaseUtil.shared);
-    private final DatabaseUtil dbUtil;
+/**
+ * Stores processed payroll records.
+ */
+public interface PayrollRecordDAO {
+    PayrollRecordDAO shared = new JdbcPayrollRecordDAO(DatabaseUtil.shared);
 
-    private PayrollRecordDAO(DatabaseUtil dbUtil) {
-        this.dbUtil = dbUtil;
-    }
-
-    public boolean savePayrollRecord(PayrollRecord record) {
-        String sql = "INSERT INTO payroll_records (employee_id, pay_period_start, pay_period_end, " +
-                    "gross_pay, net_pay, medical_deduction, dependent_stipend, state_tax, " +
-                    "federal_tax, social_security_tax, medicare_tax, employer_social_security, " +
-                    "employer_medicare) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-        try (Connection conn = dbUtil.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, record.getEmployeeId());
-            stmt.setDate(2, java.sql.Date.valueOf(record.getPayPeriodStart()));
-            stmt.setDate(3, java.sql.Date.valueOf(record.getPayPeriodEnd()));
-            stmt.setDouble(4, record.getGrossPay());
-            stmt.setDouble(5, record.getNetPay());
-            stmt.setDouble(6, record.getMedicalDeduction());
-            stmt.setDouble(7, record.getDependentStipend());
-            stmt.setDouble(8, record.getStateTax());
-            stmt.setDouble(9, record.getFederalTax());
-            stmt.setDouble(10, record.getSocialSecurityTax());
-            stmt.setDouble(11, record.getMedicareTax());
-            stmt.setDouble(12, record.getEmployerSocialSecurity());
-            stmt.setDouble(13, record.getEmployerMedicare());
-
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
-        }
-    }
-
-    public List<PayrollRecord> getPayrollRecordsByEmployee(String employeeId) {
-        List<PayrollRecord> records = new ArrayList<>();
-        String sql = "SELECT * FROM payroll_records WHERE employee_id = ? ORDER BY pay_period_start DESC";
-
-        try (Connection conn = dbUtil.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, employeeId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    records.add(createPayrollRecordFromResultSet(rs));
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    /**
+     * Save a payroll record. An employee has one record per pay period, so saving a record for a pay
+     * period the employee already has replaces that record's amounts.
+     */
+    boolean savePayrollRecord(PayrollRecord record);
 
-        return records;
-    }
+    /**
+     * Save many payroll records at once, replacing the amounts of any the employees already have for the same pay period.
+     * Either every record is saved or none are.
+     * @param records The payroll records to save
+     * @return The number of records given if they were all saved, 0 if saving failed and nothing was saved
+     */
+    int savePayrollRecords(Collection<PayrollRecord> records);
 
-    public List<PayrollRecord> getPayrollRecordsByDateRange(LocalDate startDate, LocalDate endDate) {
-        List<PayrollRecord> records = new ArrayList<>();
-        String sql = "SELECT * FROM payroll_records WHERE pay_period_start >= ? AND pay_period_end <= ? " +
-                    "ORDER BY pay_period_start DESC";
+    /**
+     * Get an employee's payroll records, latest pay period first.
+     */
+    List<PayrollRecord> getPayrollRecordsByEmployee(String employeeId);
 
-        try (Connection conn = dbUtil.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setDate(1, java.sql.Date.valueOf(startDate));
-            stmt.setDate(2, java.sql.Date.valueOf(endDate));
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    records.add(createPayrollRecordFromResultSet(rs));
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    /**
+     * Get the payroll records for pay periods within a date range, latest pay period first.
+     */
+    List<PayrollRecord> getPayrollRecordsByDateRange(LocalDate startDate, LocalDate endDate);
 
-        return records;
-    }
+    /**
+     * Count the payroll records for pay periods within a date range.
+     * @return The number of records, or -1 if they couldn't be counted
+     */
+    int countPayrollRecordsByDateRange(LocalDate startDate, LocalDate endDate);
 
-    public PayrollRecord getLatestPayrollRecord(String employeeId) {
-        String sql = "SELECT * FROM payroll_records WHERE employee_id = ? ORDER BY pay_period_start DESC LIMIT 1";
+    /**
+     * Get the input fingerprint of every payroll record saved for exactly the given pay period.
+     * @return Map of employee ID to the fingerprint of their record, which is null for records saved
+     *         without one, or null if the records couldn't be read
+     */
+    Map<String, String> getInputFingerprints(LocalDate startDate, LocalDate endDate);
 
-        try (Connection conn = dbUtil.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, employeeId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return createPayrollRecordFromResultSet(rs);
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    /**
+     * Get the payroll records for pay periods within a date range along with each employee's name
+     * and department, latest pay period first.
+     */
+    List<PayrollReportRow> getPayrollReportRowsByDateRange(LocalDate startDate, LocalDate endDate);
 
-        return null;
-    }
+    /**
+     * Stream the payroll records for pay periods within a date range along with each employee's name
+     * and department, latest pay period first. Rows are handed to the consumer as they are read, so
+     * only a single row needs to be held in memory.
+     * @param consumer Receives each row
+     * @return true if every row was read, false if reading failed partway through
+     */
+    boolean streamPayrollReportRowsByDateRange(LocalDate startDate, LocalDate endDate, Consumer<PayrollReportRow> consumer);
 
-    private PayrollRecord createPayrollRecordFromResultSet(ResultSet rs) throws SQLException {
-        PayrollRecord record = new PayrollRecord(
-            rs.getString("employee_id"),
-            rs.getDate("pay_period_start").toLocalDate(),
-            rs.getDate("pay_period_end").toLocalDate(),
-            rs.getDouble("gross_pay"),
-            rs.getDouble("net_pay"),
-            rs.getDouble("medical_deduction"),
-            rs.getDouble("dependent_stipend"),
-            rs.getDouble("state_tax"),
-            rs.getDouble("federal_tax"),
-            rs.getDouble("social_security_tax"),
-            rs.getDouble("medicare_tax"),
-            rs.getDouble("employer_social_security"),
-            rs.getDouble("employer_medicare")
-        );
-        record.setRecordId(rs.getLong("record_id"));
-        record.setCreationDate(rs.getTimestamp("creation_date").toLocalDateTime());
-        return record;
-    }
+    /**
+     * Get an employee's payroll record for their latest pay period.
+     * @return The payroll record, or null if the employee has none
+     */
+    PayrollRecord getLatestPayrollRecord(String employeeId);
 
     /**
      * Delete a payroll record for an employee within a specific pay period.
@@ -138,22 +81,5 @@ public class PayrollRecordDAO {
      * @param endDate The end date of the pay period
      * @return true if the record was deleted successfully, false otherwise
      */
-    public boolean deletePayrollRecord(String employeeId, LocalDate startDate, LocalDate endDate) {
-        String sql = "DELETE FROM payroll_records WHERE employee_id = ? AND pay_period_start = ? AND pay_period_end = ?";
-        
-        try (Connection conn = dbUtil.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, employeeId);
-            stmt.setDate(2, java.sql.Date.valueOf(startDate));
-            stmt.setDate(3, java.sql.Date.valueOf(endDate));
-            
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            System.err.println("Error deleting payroll record: " + e.getMessage());
-            return false;
-        }
-    }
-} 
\ No newline at end of file
+    boolean deletePayrollRecord(String employeeId, LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,54 @@
+package grant.coburn.dao;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Set;
+
+import grant.coburn.util.DatabaseUtil;
+
+/**
+ * Keeps a ledger of whose payroll has been processed for each pay period, one checkpoint per employee.
+ * A payroll run that stops partway through can be run again for the same pay period and only the
+ * employees without a completed checkpoint are processed.
+ */
+public interface PayrollRunDAO {
+    PayrollRunDAO shared = new JdbcPayrollRunDAO(DatabaseUtil.shared);
+
+    enum Status {
+        /** The employee's payroll record was saved and their time entries locked */
+        COMPLETED,
+        /** The employee's payroll couldn't be calculated or saved, they are processed again next run */
+        FAILED;
+    }
+
+    /**
+     * Get the employees whose payroll has been completed for a pay period.
+     * @param startDate The start date of the pay period
+     * @param endDate The end date of the pay period
+     * @return The IDs of the completed employees, or null if the ledger couldn't be read. Callers must not
+     * treat a failed read as no employees completed, which would process everyone again
+     */
+    Set<String> getCompletedEmployeeIds(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Get an employee's checkpoint for a pay period.
+     * @return The employee's status, or null if the employee hasn't been processed for the pay period
+     */
+    Status getEmployeeStatus(String employeeId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Record the status of many employees for a pay period, replacing any status they already have.
+     * @param startDate The start date of the pay period
+     * @param endDate The end date of the pay period
+     * @param employeeIds The IDs of the employees
+     * @param status The status to record
+     * @return The number of employees recorded, which is less than the number given if some failed
+     */
+    int saveEmployeeStatuses(LocalDate startDate, LocalDate endDate, Collection<String> employeeIds, Status status);
+
+    /**
+     * Remove an employee's checkpoint for a pay period, so their payroll is processed again next run.
+     * @return true if the employee had a checkpoint
+     */
+    boolean deleteEmployeeStatus(String employeeId, LocalDate startDate, LocalDate endDate);
+}
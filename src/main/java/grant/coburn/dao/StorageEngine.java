@@ -0,0 +1,110 @@
+package grant.coburn.dao;
+
+import java.util.function.Supplier;
+
+import grant.coburn.util.DBProperties;
+import grant.coburn.util.DatabaseUtil;
+
+/**
+ * The set of DAOs the payroll processor and report generators read from and write to. The shared
+ * engine uses the MySQL database; an in-memory engine can be swapped in for tests and benchmarks.
+ */
+public final class StorageEngine {
+    private static StorageEngine instance;
+
+    private final EmployeeDAO employeeDAO;
+    private final TimeEntryDAO timeEntryDAO;
+    private final PayrollRecordDAO payrollRecordDAO;
+    private final PayrollRunDAO payrollRunDAO;
+    private final UserDAO userDAO;
+    private final Supplier<UnitOfWork> unitOfWorkFactory;
+
+    public StorageEngine(
+        EmployeeDAO employeeDAO,
+        TimeEntryDAO timeEntryDAO,
+        PayrollRecordDAO payrollRecordDAO,
+        PayrollRunDAO payrollRunDAO,
+        UserDAO userDAO,
+        Supplier<UnitOfWork> unitOfWorkFactory
+    ) {
+        this.employeeDAO = employeeDAO;
+        this.timeEntryDAO = timeEntryDAO;
+        this.payrollRecordDAO = payrollRecordDAO;
+        this.payrollRunDAO = payrollRunDAO;
+        this.userDAO = userDAO;
+        this.unitOfWorkFactory = unitOfWorkFactory;
+    }
+
+    /**
+     * Get the storage engine backed by the shared DAOs. It is created on first use so that
+     * in-memory storage can be used without connecting to the database.
+     */
+    public static synchronized StorageEngine shared() {
+        if (instance == null) {
+            JdbcPayrollRecordDAO payrollRecordDAO = (JdbcPayrollRecordDAO) PayrollRecordDAO.shared;
+            instance = new StorageEngine(
+                EmployeeDAO.shared,
+                TimeEntryDAO.shared,
+                payrollRecordDAO,
+                PayrollRunDAO.shared,
+                UserDAO.shared,
+                () -> new JdbcUnitOfWork(DatabaseUtil.shared, payrollRecordDAO.getBatchSize())
+            );
+        }
+        return instance;
+    }
+
+    /**
+     * Create a storage engine backed by the database behind the given connection pool.
+     * Employee lookups by ID are cached. Units of work batch their writes by the payroll record DAO's batch size.
+     */
+    public static StorageEngine jdbc(DatabaseUtil dbUtil) {
+        JdbcPayrollRecordDAO payrollRecordDAO = new JdbcPayrollRecordDAO(dbUtil);
+        return new StorageEngine(
+            new CachingEmployeeDAO(
+                new JdbcEmployeeDAO(dbUtil),
+                DBProperties.EMPLOYEE_CACHE_MAX_SIZE,
+                DBProperties.EMPLOYEE_CACHE_TTL_MS
+            ),
+            new JdbcTimeEntryDAO(dbUtil),
+            payrollRecordDAO,
+            new JdbcPayrollRunDAO(dbUtil),
+            new JdbcUserDAO(dbUtil),
+            () -> new JdbcUnitOfWork(dbUtil, payrollRecordDAO.getBatchSize())
+        );
+    }
+
+    /**
+     * Create an empty storage engine that keeps everything in memory.
+     */
+    public static StorageEngine inMemory() {
+        InMemoryStore store = new InMemoryStore();
+        InMemoryUserDAO userDAO = new InMemoryUserDAO(store);
+        InMemoryTimeEntryDAO timeEntryDAO = new InMemoryTimeEntryDAO(store);
+        InMemoryPayrollRecordDAO payrollRecordDAO = new InMemoryPayrollRecordDAO(store);
+        InMemoryPayrollRunDAO payrollRunDAO = new InMemoryPayrollRunDAO(store);
+        return new StorageEngine(
+            new InMemoryEmployeeDAO(store, userDAO),
+            timeEntryDAO,
+            payrollRecordDAO,
+            payrollRunDAO,
+            userDAO,
+            () -> new InMemoryUnitOfWork(store, payrollRecordDAO, payrollRunDAO, timeEntryDAO)
+        );
+    }
+
+    public EmployeeDAO getEmployeeDAO() { return employeeDAO; }
+
+    public TimeEntryDAO getTimeEntryDAO() { return timeEntryDAO; }
+
+    public PayrollRecordDAO getPayrollRecordDAO() { return payrollRecordDAO; }
+
+    public PayrollRunDAO getPayrollRunDAO() { return payrollRunDAO; }
+
+    public UserDAO getUserDAO() { return userDAO; }
+
+    /**
+     * Start a unit of work whose writes are committed together in one transaction.
+     */
+    public UnitOfWork beginUnitOfWork() { return unitOfWorkFactory.get(); }
+}
@@ -0,0 +1,245 @@
+package grant.coburn.dao;
+
+import grant.coburn.model.Employee;
+
+/**
+ * Sample employees for trying out the application, shared by the DAO implementations.
+ */
+class TestEmployees {
+    /** The password given to every test employee's user account */
+    static final String PASSWORD = "password123";
+
+    /**
+     * Create the sample employees, each with a new employee ID
+     */
+    Employee[] create() {
+        return new Employee[] {
+            // Salaried Employees
+            createTestEmployee(
+                "John", "Smith",
+                "IT", "Senior Software Engineer",
+                Employee.PayType.SALARY, 75000.00, 
+                "1985-01-15", 
+                Employee.Gender.MALE,
+                "123 Main St",
+                null,
+                "Indianapolis", "IN", "46201",
+                Employee.MedicalCoverage.FAMILY,
+                2
+            ),
+            createTestEmployee(
+                "Sarah", "Johnson", 
+                "HR", "HR Manager", 
+                Employee.PayType.SALARY, 85000.00, 
+                "1980-02-01", 
+                Employee.Gender.FEMALE,
+                "456 Oak Ave", 
+                null, 
+                "Carmel", "IN", "46032", 
+                Employee.MedicalCoverage.FAMILY, 
+                2
+            ),
+            createTestEmployee(
+                "Michael", "Brown", 
+                "Finance", "Financial Analyst", 
+                Employee.PayType.SALARY, 95000.00,
+                "1988-03-10",
+                Employee.Gender.MALE,
+                "789 Pine Rd", null, "Fishers", "IN", "46037", 
+                Employee.MedicalCoverage.SINGLE, 0
+            ),
+            createTestEmployee(
+                "Emily", "Davis", 
+                "Marketing", "Marketing Specialist", 
+                Employee.PayType.SALARY, 70000.00,
+                "1990-04-05", 
+                Employee.Gender.FEMALE,
+                "321 Maple Dr", null, 
+                "Noblesville", "IN", "46060", 
+                Employee.MedicalCoverage.FAMILY,
+                 1
+            ),
+            createTestEmployee(
+                "David", "Wilson", 
+                "Sales", "Sales Manager", 
+                Employee.PayType.SALARY, 80000.00, 
+                "1982-05-20", 
+                Employee.Gender.MALE,
+                "654 Elm St", 
+                null, 
+                "Westfield", "IN", "46074", 
+                Employee.MedicalCoverage.FAMILY, 
+                3
+            ),
+
+            // Hourly Employees
+            createTestEmployee(
+                "Lisa", "Anderson", 
+                "Operations", "Operations Specialist", 
+                Employee.PayType.HOURLY, 25.00, 
+                "1992-06-01", 
+                Employee.Gender.FEMALE,
+                "987 Cedar Ln", 
+                null, 
+                "Indianapolis", "IN", "46202", 
+                Employee.MedicalCoverage.SINGLE, 
+                0
+            ),
+            createTestEmployee(
+                "Robert", "Taylor", 
+                "Customer Service", "Customer Service Representative", 
+                Employee.PayType.HOURLY, 22.50, 
+                "1987-07-15", 
+                Employee.Gender.MALE,
+                "147 Birch Rd", 
+                null, 
+                "Carmel", "IN", "46032", 
+                Employee.MedicalCoverage.FAMILY, 
+                2
+            ),
+            createTestEmployee(
+                "Jennifer", "Martinez",
+                "Administration", "Administrative Assistant", 
+                Employee.PayType.HOURLY, 20.00, 
+                "1991-08-10", 
+                Employee.Gender.FEMALE,
+                "258 Spruce Ave", 
+                null, 
+                "Fishers", "IN", "46037", 
+                Employee.MedicalCoverage.FAMILY, 
+                1
+            ),
+            createTestEmployee(
+                "Thomas", "Garcia", 
+                "IT", "IT Support Specialist", 
+                Employee.PayType.HOURLY, 23.00, 
+                "1989-09-05", 
+                Employee.Gender.MALE,
+                "369 Willow St",
+                null, 
+                "Noblesville", "IN", "46060", 
+                Employee.MedicalCoverage.SINGLE, 
+                0
+            ),
+            createTestEmployee(
+                "Michelle", "Lee", 
+                "HR", "HR Coordinator", 
+                Employee.PayType.HOURLY, 21.50, 
+                "1993-10-01", 
+                Employee.Gender.FEMALE,
+                "741 Ash Dr", 
+                null,
+                "Westfield", "IN", "46074", 
+                Employee.MedicalCoverage.FAMILY,
+                1
+            ),
+
+            // Part-time Employees
+            createTestEmployee(
+                "James", "Rodriguez", 
+                "Customer Service", "Customer Service Representative", 
+                Employee.PayType.HOURLY, 18.00, 
+                "1994-11-15", 
+                Employee.Gender.MALE,
+                "852 Poplar Rd", 
+                null, 
+                "Indianapolis", "IN", "46203", 
+                Employee.MedicalCoverage.SINGLE, 
+                0
+            ),
+            createTestEmployee(
+                "Amanda", "White", 
+                "Administration", "Administrative Assistant", 
+                Employee.PayType.HOURLY, 17.50, 
+                "1995-12-01", 
+                Employee.Gender.FEMALE,
+                "963 Cherry Ln", 
+                null, 
+                "Carmel", "IN", "46032", 
+                Employee.MedicalCoverage.SINGLE, 
+                0
+            )
+        };
+    }
+
+    /**
+     * Create each employee with a user account that uses the test password
+     * @param employeeDAO The DAO to create the employees with
+     * @param employees The employees to create
+     */
+    static void insertAll(EmployeeDAO employeeDAO, Employee[] employees) {
+        int count = 0;
+        for (Employee employee : employees) {
+            try {
+                // Create employee with user account, specifying this is a test employee
+                EmployeeDAO.EmployeeCredentials credentials = employeeDAO.createEmployee(employee, true);
+                if (credentials != null) {
+                    System.out.println("Created employee: " + credentials.fullName + 
+                                     " (ID: " + credentials.userId + 
+                                     ", Password: " + PASSWORD +
+                                     ", Role: EMPLOYEE)");
+                    count++;
+                }
+            } catch (Exception e) {
+                System.err.println("Error creating employee " + employee.getFullName() + 
+                                 ": " + e.getMessage());
+            }
+        }
+        
+        if (count > 0) {
+            System.out.println("\nCreated " + count + " test employees successfully.");
+            System.out.println("All employees can log in with their email address and password: " + PASSWORD);
+        }
+    }
+
+    private Employee createTestEmployee(
+        String firstName, String lastName,
+        String department, String jobTitle,
+        Employee.PayType payType, double baseSalary,
+        String dateOfBirth, Employee.Gender gender,
+        String addressLine1, String addressLine2,
+        String city, String state, String zip,
+        Employee.MedicalCoverage medicalCoverage, 
+        int dependentsCount
+    ) {
+        
+        String employeeId = generateEmployeeId();
+        java.time.LocalDate dob = java.time.LocalDate.parse(dateOfBirth);
+        java.time.LocalDate hireDate = java.time.LocalDate.now();
+        
+        Employee employee = new Employee(
+            employeeId,
+            department,
+            jobTitle,
+            firstName,
+            lastName,
+            Employee.Status.ACTIVE,
+            dob,
+            hireDate,
+            payType,
+            baseSalary,
+            medicalCoverage,
+            dependentsCount
+        );
+        
+        employee.setCompanyEmail(firstName.toLowerCase() + "." + lastName.toLowerCase() + "@company.com");
+        employee.setGender(gender);
+        employee.setAddressLine1(addressLine1);
+        employee.setAddressLine2(addressLine2);
+        employee.setCity(city);
+        employee.setState(state);
+        employee.setZip(zip);
+        
+        return employee;
+    }
+
+    private int currentTestEmployeeId = 1;
+
+    private String generateEmployeeId() {
+        String leadingZeroes = currentTestEmployeeId < 10 ? "00" : currentTestEmployeeId < 100 ? "0" : "";
+        String id = "EMP" + leadingZeroes + currentTestEmployeeId;
+        currentTestEmployeeId++;
+
+        return id;
+    }
+}
@@ -1,112 +1,67 @@
 package grant.coburn.dao;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
 
 import grant.coburn.model.TimeEntry;
+import grant.coburn.model.TimeEntryTotals;
 import grant.coburn.util.DatabaseUtil;
 
-public class TimeEntryDAO {
-    public static final TimeEntryDAO shared = new TimeEntryDAO(DatabaseUtil.shared);
-    private final DatabaseUtil dbUtil;
-
-    private TimeEntryDAO(DatabaseUtil dbUtil) {
-        this.dbUtil = dbUtil;
-    }
-
-    public List<TimeEntry> getTimeEntriesByEmployeeId(String employeeId) {
-        List<TimeEntry> entries = new ArrayList<>();
-        String sql = "SELECT * FROM time_entries WHERE employee_id = ? ORDER BY work_date DESC";
-
-        try (Connection conn = dbUtil.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, employeeId);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    TimeEntry entry = new TimeEntry(
-                        rs.getString("employee_id"),
-                        rs.getDate("work_date").toLocalDate(),
-                        rs.getDouble("hours_worked"),
-                        rs.getBoolean("is_pto")
-                    );
-                    entry.setEntryId(rs.getLong("entry_id"));
-                    entry.setLocked(rs.getBoolean("is_locked"));
-                    entries.add(entry);
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error fetching time entries: " + e.getMessage());
-        }
-
-        return entries;
-    }
-
-    public boolean saveTimeEntry(TimeEntry entry) {
-        String sql = "INSERT INTO time_entries (employee_id, work_date, hours_worked, is_pto, is_locked) " +
-                    "VALUES (?, ?, ?, ?, ?)";
-
-        try (Connection conn = dbUtil.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, entry.getEmployeeId());
-            stmt.setDate(2, java.sql.Date.valueOf(entry.getWorkDate()));
-            stmt.setDouble(3, entry.getHoursWorked());
-            stmt.setBoolean(4, entry.isPto());
-            stmt.setBoolean(5, entry.isLocked());
-
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
-        } catch (SQLException e) {
-            System.err.println("Error saving time entry: " + e.getMessage());
-            return false;
-        }
-    }
-
-    public boolean updateTimeEntry(TimeEntry entry) {
-        String sql = "UPDATE time_entries SET work_date = ?, hours_worked = ?, is_pto = ?, is_locked = ? " +
-                    "WHERE entry_id = ? AND employee_id = ?";
-
-        try (Connection conn = dbUtil.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setDate(1, java.sql.Date.valueOf(entry.getWorkDate()));
-            stmt.setDouble(2, entry.getHoursWorked());
-            stmt.setBoolean(3, entry.isPto());
-            stmt.setBoolean(4, entry.isLocked());
-            stmt.setLong(5, entry.getEntryId());
-            stmt.setString(6, entry.getEmployeeId());
-
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
-        } catch (SQLException e) {
-            System.err.println("Error updating time entry: " + e.getMessage());
-            return false;
-        }
-    }
-
-    public boolean deleteTimeEntry(TimeEntry entry) {
-        String sql = "DELETE FROM time_entries WHERE entry_id = ? AND employee_id = ? AND is_locked = FALSE";
-
-        try (Connection conn = dbUtil.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setLong(1, entry.getEntryId());
-            stmt.setString(2, entry.getEmployeeId());
-
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
-        } catch (SQLException e) {
-            System.err.println("Error deleting time entry: " + e.getMessage());
-            return false;
-        }
-    }
+/**
+ * Stores employees' time entries. Entries are locked once payroll has been processed for them.
+ */
+public interface TimeEntryDAO {
+    TimeEntryDAO shared = new JdbcTimeEntryDAO(DatabaseUtil.shared);
+
+    /**
+     * Get every time entry for an employee, newest first.
+     */
+    List<TimeEntry> getTimeEntriesByEmployeeId(String employeeId);
+
+    boolean saveTimeEntry(TimeEntry entry);
+
+    boolean updateTimeEntry(TimeEntry entry);
+
+    /**
+     * Delete a time entry, unless it is locked.
+     * @return true if the entry was deleted
+     */
+    boolean deleteTimeEntry(TimeEntry entry);
+
+    /**
+     * Lock the given time entries so they can no longer be edited.
+     * @param entryIds The IDs of the time entries to lock
+     * @return The number of time entries updated
+     */
+    int lockTimeEntries(Collection<Long> entryIds);
+
+    /**
+     * Unlock the given time entries so they can be edited again.
+     * @param entryIds The IDs of the time entries to unlock
+     * @return The number of time entries updated
+     */
+    int unlockTimeEntries(Collection<Long> entryIds);
+
+    /**
+     * Lock every time entry for the given employees within a date range.
+     * @param employeeIds The IDs of the employees
+     * @param startDate The start date of the period
+     * @param endDate The end date of the period
+     * @return The number of time entries updated
+     */
+    int lockTimeEntries(Collection<String> employeeIds, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Unlock every time entry for the given employees within a date range.
+     * @param employeeIds The IDs of the employees
+     * @param startDate The start date of the period
+     * @param endDate The end date of the period
+     * @return The number of time entries updated
+     */
+    int unlockTimeEntries(Collection<String> employeeIds, LocalDate startDate, LocalDate endDate);
 
     /**
      * Get time entries for an employee within a specific date range that are not locked.
@@ -115,46 +70,52 @@ public class TimeEntryDAO {
      * @param endDate The end date of the period
      * @return List of time entries
      */
-    public List<TimeEntry> getTimeEntriesByEmployeeIdAndDateRange(String employeeId, LocalDate startDate, LocalDate endDate) {
-        List<TimeEntry> entries = new ArrayList<>();
-        String sql = "SELECT * FROM time_entries WHERE employee_id = ? AND work_date BETWEEN ? AND ? AND is_locked = false";
-        
-        try (Connection conn = dbUtil.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, employeeId);
-            stmt.setDate(2, java.sql.Date.valueOf(startDate));
-            stmt.setDate(3, java.sql.Date.valueOf(endDate));
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    entries.add(extractTimeEntryFromResultSet(rs));
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        
-        return entries;
-    }
+    List<TimeEntry> getTimeEntriesByEmployeeIdAndDateRange(String employeeId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Get all unlocked time entries within a date range for every active employee, grouped by employee.
+     * @param startDate The start date of the period
+     * @param endDate The end date of the period
+     * @return Map of employee ID to that employee's time entries, in employee ID order, or null if the
+     * entries couldn't be read
+     */
+    Map<String, List<TimeEntry>> getUnlockedTimeEntriesForActiveEmployees(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Stream all unlocked time entries within a date range for every active employee. Entries are
+     * handed to the consumer one employee at a time in employee ID order, each employee's entries
+     * in work date order.
+     * @param startDate The start date of the period
+     * @param endDate The end date of the period
+     * @param consumer Receives each employee ID along with that employee's time entries
+     * @return true if every entry was read, false if reading failed partway through. Employees not
+     * handed to the consumer by then may still have entries
+     */
+    boolean streamUnlockedTimeEntriesForActiveEmployees(
+        LocalDate startDate,
+        LocalDate endDate,
+        BiConsumer<String, List<TimeEntry>> consumer
+    );
+
+    /**
+     * Sum the unlocked time entries within a date range for every active employee into regular and
+     * PTO hours, which is all hourly payroll needs, instead of reading every entry.
+     * @param startDate The start date of the period
+     * @param endDate The end date of the period
+     * @return Map of employee ID to that employee's totals, in employee ID order, or null if the entries
+     * couldn't be read. Employees with no unlocked entries in the period are left out
+     */
+    Map<String, TimeEntryTotals> getUnlockedTimeEntryTotalsForActiveEmployees(LocalDate startDate, LocalDate endDate);
 
     /**
-     * Extract a TimeEntry object from a ResultSet.
-     * @param rs The ResultSet containing the time entry data
-     * @return A TimeEntry object
-     * @throws SQLException if there's an error reading from the ResultSet
+     * Sum every time entry within a date range for every active employee, locked or not, so payroll
+     * that was already processed can be compared against its current hours.
+     * @param startDate The start date of the period
+     * @param endDate The end date of the period
+     * @return Map of employee ID to that employee's totals, in employee ID order, or null if the entries
+     * couldn't be read. Employees with no entries in the period are left out
      */
-    private TimeEntry extractTimeEntryFromResultSet(ResultSet rs) throws SQLException {
-        TimeEntry entry = new TimeEntry(
-            rs.getString("employee_id"),
-            rs.getDate("work_date").toLocalDate(),
-            rs.getDouble("hours_worked"),
-            rs.getBoolean("is_pto")
-        );
-        entry.setEntryId(rs.getLong("entry_id"));
-        entry.setLocked(rs.getBoolean("is_locked"));
-        return entry;
-    }
+    Map<String, TimeEntryTotals> getTimeEntryTotalsForActiveEmployees(LocalDate startDate, LocalDate endDate);
 
     /**
      * Check if a time entry exists for a given employee on a specific date.
@@ -162,24 +123,5 @@ public class TimeEntryDAO {
      * @param workDate The date to check
      * @return The existing time entry if found, null otherwise
      */
-    public TimeEntry getTimeEntryByEmployeeIdAndDate(String employeeId, LocalDate workDate) {
-        String sql = "SELECT * FROM time_entries WHERE employee_id = ? AND work_date = ?";
-        
-        try (Connection conn = dbUtil.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, employeeId);
-            stmt.setDate(2, java.sql.Date.valueOf(workDate));
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return extractTimeEntryFromResultSet(rs);
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error checking for existing time entry: " + e.getMessage());
-        }
-        
-        return null;
-    }
-} 
\ No newline at end of file
+    TimeEntry getTimeEntryByEmployeeIdAndDate(String employeeId, LocalDate workDate);
+}
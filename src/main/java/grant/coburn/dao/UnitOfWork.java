@@ -0,0 +1,56 @@
+package grant.coburn.dao;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+import grant.coburn.model.PayrollRecord;
+
+/**
+ * Collects payroll writes so they are committed together in a single transaction: either every write
+ * is applied or none are. Writes are applied in the order they were registered when {@link #commit()}
+ * is called. A unit of work is used once and then discarded.
+ */
+public interface UnitOfWork {
+    /**
+     * Save payroll records, replacing any record an employee already has for the same pay period.
+     */
+    void savePayrollRecords(Collection<PayrollRecord> records);
+
+    /**
+     * Delete an employee's payroll record for a pay period. The commit fails if the employee has no
+     * record for the pay period.
+     */
+    void deletePayrollRecord(String employeeId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Record the status of many employees for a pay period.
+     * @see PayrollRunDAO#saveEmployeeStatuses
+     */
+    void saveEmployeeStatuses(LocalDate startDate, LocalDate endDate, Collection<String> employeeIds, PayrollRunDAO.Status status);
+
+    /**
+     * Remove the checkpoints of many employees for a pay period, so they are processed again next run.
+     */
+    void deleteEmployeeStatuses(LocalDate startDate, LocalDate endDate, Collection<String> employeeIds);
+
+    /**
+     * Lock time entries by ID.
+     */
+    void lockTimeEntries(Collection<Long> entryIds);
+
+    /**
+     * Unlock every time entry for the given employees within a date range.
+     */
+    void unlockTimeEntries(Collection<String> employeeIds, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Apply every registered write in one transaction.
+     * @return true if the transaction was committed, false if it was rolled back
+     */
+    boolean commit();
+
+    /**
+     * Gets the number of time entries locked by the last successful commit.
+     */
+    int getTimeEntriesLocked();
+}
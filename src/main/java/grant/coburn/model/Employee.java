@@ -70,6 +70,31 @@ public class Employee {
         this.dependentsCount = dependentsCount;
     }
 
+    // Copy constructor
+    public Employee(Employee other) {
+        this.employeeId = other.employeeId;
+        this.userId = other.userId;
+        this.department = other.department;
+        this.jobTitle = other.jobTitle;
+        this.firstName = other.firstName;
+        this.lastName = other.lastName;
+        this.status = other.status;
+        this.dateOfBirth = other.dateOfBirth;
+        this.gender = other.gender;
+        this.payType = other.payType;
+        this.companyEmail = other.companyEmail;
+        this.addressLine1 = other.addressLine1;
+        this.addressLine2 = other.addressLine2;
+        this.city = other.city;
+        this.state = other.state;
+        this.zip = other.zip;
+        this.picturePath = other.picturePath;
+        this.hireDate = other.hireDate;
+        this.baseSalary = other.baseSalary;
+        this.medicalCoverage = other.medicalCoverage;
+        this.dependentsCount = other.dependentsCount;
+    }
+
     // Getters and setters
     public String getEmployeeId() { return employeeId; }
     public void setEmployeeId(String employeeId) { this.employeeId = employeeId; }
@@ -3,23 +3,29 @@ package grant.coburn.model;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import grant.coburn.util.Money;
+
+/**
+ * A processed paycheck. Monetary amounts are stored as whole cents.
+ */
 public class PayrollRecord {
     private Long recordId;
     private String employeeId;
     private LocalDate payPeriodStart;
     private LocalDate payPeriodEnd;
-    private double grossPay;
-    private double netPay;
-    private double medicalDeduction;
-    private double dependentStipend;
-    private double stateTax;
-    private double federalTax;
-    private double socialSecurityTax;
-    private double medicareTax;
-    private double employerSocialSecurity;
-    private double employerMedicare;
-    private double overtimePay;
+    private long grossPay;
+    private long netPay;
+    private long medicalDeduction;
+    private long dependentStipend;
+    private long stateTax;
+    private long federalTax;
+    private long socialSecurityTax;
+    private long medicareTax;
+    private long employerSocialSecurity;
+    private long employerMedicare;
+    private long overtimePay;
     private LocalDateTime creationDate;
+    private String inputFingerprint;
 
     public PayrollRecord(
         String employeeId,
@@ -39,19 +45,58 @@ public class PayrollRecord {
         this.employeeId = employeeId;
         this.payPeriodStart = payPeriodStart;
         this.payPeriodEnd = payPeriodEnd;
-        this.grossPay = grossPay;
-        this.netPay = netPay;
-        this.medicalDeduction = medicalDeduction;
-        this.dependentStipend = dependentStipend;
-        this.stateTax = stateTax;
-        this.federalTax = federalTax;
-        this.socialSecurityTax = socialSecurityTax;
-        this.medicareTax = medicareTax;
-        this.employerSocialSecurity = employerSocialSecurity;
-        this.employerMedicare = employerMedicare;
+        this.grossPay = Money.toCents(grossPay);
+        this.netPay = Money.toCents(netPay);
+        this.medicalDeduction = Money.toCents(medicalDeduction);
+        this.dependentStipend = Money.toCents(dependentStipend);
+        this.stateTax = Money.toCents(stateTax);
+        this.federalTax = Money.toCents(federalTax);
+        this.socialSecurityTax = Money.toCents(socialSecurityTax);
+        this.medicareTax = Money.toCents(medicareTax);
+        this.employerSocialSecurity = Money.toCents(employerSocialSecurity);
+        this.employerMedicare = Money.toCents(employerMedicare);
+        this.creationDate = LocalDateTime.now();
+    }
+
+    private PayrollRecord(String employeeId, LocalDate payPeriodStart, LocalDate payPeriodEnd) {
+        this.employeeId = employeeId;
+        this.payPeriodStart = payPeriodStart;
+        this.payPeriodEnd = payPeriodEnd;
         this.creationDate = LocalDateTime.now();
     }
 
+    /**
+     * Create a payroll record from amounts in cents.
+     */
+    public static PayrollRecord ofCents(
+        String employeeId,
+        LocalDate payPeriodStart,
+        LocalDate payPeriodEnd,
+        long grossPay,
+        long netPay,
+        long medicalDeduction,
+        long dependentStipend,
+        long stateTax,
+        long federalTax,
+        long socialSecurityTax,
+        long medicareTax,
+        long employerSocialSecurity,
+        long employerMedicare
+    ) {
+        PayrollRecord record = new PayrollRecord(employeeId, payPeriodStart, payPeriodEnd);
+        record.grossPay = grossPay;
+        record.netPay = netPay;
+        record.medicalDeduction = medicalDeduction;
+        record.dependentStipend = dependentStipend;
+        record.stateTax = stateTax;
+        record.federalTax = federalTax;
+        record.socialSecurityTax = socialSecurityTax;
+        record.medicareTax = medicareTax;
+        record.employerSocialSecurity = employerSocialSecurity;
+        record.employerMedicare = employerMedicare;
+        return record;
+    }
+
     // Getters and setters
     public Long getRecordId() { return recordId; }
     public void setRecordId(Long recordId) { this.recordId = recordId; }
@@ -65,43 +110,62 @@ public class PayrollRecord {
     public LocalDate getPayPeriodEnd() { return payPeriodEnd; }
     public void setPayPeriodEnd(LocalDate payPeriodEnd) { this.payPeriodEnd = payPeriodEnd; }
     
-    public double getGrossPay() { return grossPay; }
-    public void setGrossPay(double grossPay) { this.grossPay = grossPay; }
+    public double getGrossPay() { return Money.toDollars(grossPay); }
+    public void setGrossPay(double grossPay) { this.grossPay = Money.toCents(grossPay); }
+    public long getGrossPayCents() { return grossPay; }
     
-    public double getNetPay() { return netPay; }
-    public void setNetPay(double netPay) { this.netPay = netPay; }
+    public double getNetPay() { return Money.toDollars(netPay); }
+    public void setNetPay(double netPay) { this.netPay = Money.toCents(netPay); }
+    public long getNetPayCents() { return netPay; }
     
-    public double getMedicalDeduction() { return medicalDeduction; }
-    public void setMedicalDeduction(double medicalDeduction) { this.medicalDeduction = medicalDeduction; }
+    public double getMedicalDeduction() { return Money.toDollars(medicalDeduction); }
+    public void setMedicalDeduction(double medicalDeduction) { this.medicalDeduction = Money.toCents(medicalDeduction); }
+    public long getMedicalDeductionCents() { return medicalDeduction; }
     
-    public double getDependentStipend() { return dependentStipend; }
-    public void setDependentStipend(double dependentStipend) { this.dependentStipend = dependentStipend; }
+    public double getDependentStipend() { return Money.toDollars(dependentStipend); }
+    public void setDependentStipend(double dependentStipend) { this.dependentStipend = Money.toCents(dependentStipend); }
+    public long getDependentStipendCents() { return dependentStipend; }
     
-    public double getStateTax() { return stateTax; }
-    public void setStateTax(double stateTax) { this.stateTax = stateTax; }
+    public double getStateTax() { return Money.toDollars(stateTax); }
+    public void setStateTax(double stateTax) { this.stateTax = Money.toCents(stateTax); }
+    public long getStateTaxCents() { return stateTax; }
     
-    public double getFederalTax() { return federalTax; }
-    public void setFederalTax(double federalTax) { this.federalTax = federalTax; }
+    public double getFederalTax() { return Money.toDollars(federalTax); }
+    public void setFederalTax(double federalTax) { this.federalTax = Money.toCents(federalTax); }
+    public long getFederalTaxCents() { return federalTax; }
     
-    public double getSocialSecurityTax() { return socialSecurityTax; }
-    public void setSocialSecurityTax(double socialSecurityTax) { this.socialSecurityTax = socialSecurityTax; }
+    public double getSocialSecurityTax() { return Money.toDollars(socialSecurityTax); }
+    public void setSocialSecurityTax(double socialSecurityTax) { this.socialSecurityTax = Money.toCents(socialSecurityTax); }
+    public long getSocialSecurityTaxCents() { return socialSecurityTax; }
     
-    public double getMedicareTax() { return medicareTax; }
-    public void setMedicareTax(double medicareTax) { this.medicareTax = medicareTax; }
+    public double getMedicareTax() { return Money.toDollars(medicareTax); }
+    public void setMedicareTax(double medicareTax) { this.medicareTax = Money.toCents(medicareTax); }
+    public long getMedicareTaxCents() { return medicareTax; }
     
-    public double getEmployerSocialSecurity() { return employerSocialSecurity; }
-    public void setEmployerSocialSecurity(double employerSocialSecurity) { this.employerSocialSecurity = employerSocialSecurity; }
+    public double getEmployerSocialSecurity() { return Money.toDollars(employerSocialSecurity); }
+    public void setEmployerSocialSecurity(double employerSocialSecurity) { this.employerSocialSecurity = Money.toCents(employerSocialSecurity); }
+    public long getEmployerSocialSecurityCents() { return employerSocialSecurity; }
     
-    public double getEmployerMedicare() { return employerMedicare; }
-    public void setEmployerMedicare(double employerMedicare) { this.employerMedicare = employerMedicare; }
+    public double getEmployerMedicare() { return Money.toDollars(employerMedicare); }
+    public void setEmployerMedicare(double employerMedicare) { this.employerMedicare = Money.toCents(employerMedicare); }
+    public long getEmployerMedicareCents() { return employerMedicare; }
 
-    public double getOvertimePay() { return overtimePay; }
-    public void setOvertimePay(double overtimePay) { this.overtimePay = overtimePay; }
+    public double getOvertimePay() { return Money.toDollars(overtimePay); }
+    public void setOvertimePay(double overtimePay) { this.overtimePay = Money.toCents(overtimePay); }
+    public long getOvertimePayCents() { return overtimePay; }
     
     public LocalDateTime getCreationDate() { return creationDate; }
     public void setCreationDate(LocalDateTime creationDate) { this.creationDate = creationDate; }
 
+    /** A hash of the hours and employee details the record was calculated from, or null for records saved before fingerprints were kept */
+    public String getInputFingerprint() { return inputFingerprint; }
+    public void setInputFingerprint(String inputFingerprint) { this.inputFingerprint = inputFingerprint; }
+
     public double getTotalDeductions() {
+        return Money.toDollars(getTotalDeductionsCents());
+    }
+
+    public long getTotalDeductionsCents() {
         return stateTax + federalTax + socialSecurityTax + medicareTax + medicalDeduction + dependentStipend;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,39 @@
+package grant.coburn.model;
+
+/**
+ * A payroll record along with the name and department of the employee it was paid to,
+ * as read by a single joined query for reports and the payroll table.
+ */
+public class PayrollReportRow {
+    private final PayrollRecord record;
+    private final String firstName;
+    private final String lastName;
+    private final String department;
+
+    public PayrollReportRow(PayrollRecord record, String firstName, String lastName, String department) {
+        this.record = record;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.department = department;
+    }
+
+    public PayrollRecord getRecord() { return record; }
+
+    public String getEmployeeId() { return record.getEmployeeId(); }
+
+    public String getFirstName() { return firstName; }
+
+    public String getLastName() { return lastName; }
+
+    public String getDepartment() { return department; }
+
+    /**
+     * @return The employee's full name, or null if the employee no longer exists
+     */
+    public String getEmployeeName() {
+        if (firstName == null && lastName == null) {
+            return null;
+        }
+        return firstName + " " + lastName;
+    }
+}
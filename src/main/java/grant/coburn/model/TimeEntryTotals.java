@@ -0,0 +1,59 @@
+package grant.coburn.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An employee's time entries for a pay period summed into regular and PTO hours, along with the IDs
+ * of the entries that were summed so they can be locked once payroll is saved.
+ */
+public class TimeEntryTotals {
+    private final String employeeId;
+    private final double regularHours;
+    private final double ptoHours;
+    private final List<Long> entryIds;
+
+    public TimeEntryTotals(String employeeId, double regularHours, double ptoHours, List<Long> entryIds) {
+        this.employeeId = employeeId;
+        this.regularHours = regularHours;
+        this.ptoHours = ptoHours;
+        this.entryIds = Collections.unmodifiableList(entryIds);
+    }
+
+    /**
+     * Totals for an employee with no time entries in the period
+     */
+    public static TimeEntryTotals none(String employeeId) {
+        return new TimeEntryTotals(employeeId, 0.0, 0.0, List.of());
+    }
+
+    /**
+     * Sum an employee's time entries, in the order given
+     * @param employeeId The ID of the employee
+     * @param timeEntries The employee's time entries for the period
+     * @return The summed hours and the IDs of the entries
+     */
+    public static TimeEntryTotals of(String employeeId, List<TimeEntry> timeEntries) {
+        double regular = 0.0;
+        double pto = 0.0;
+        List<Long> entryIds = new ArrayList<>(timeEntries.size());
+
+        for (TimeEntry entry : timeEntries) {
+            if (entry.isPto()) {
+                pto += entry.getRegularHours();
+            } else {
+                regular += entry.getRegularHours();
+            }
+            entryIds.add(entry.getEntryId());
+        }
+
+        return new TimeEntryTotals(employeeId, regular, pto, entryIds);
+    }
+
+    public String getEmployeeId() { return employeeId; }
+    /** Hours worked, excluding PTO */
+    public double getRegularHours() { return regularHours; }
+    public double getPtoHours() { return ptoHours; }
+    public List<Long> getEntryIds() { return entryIds; }
+}
@@ -1,23 +1,24 @@
 package grant.coburn.report;
 
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 import com.opencsv.CSVWriter;
 
-import grant.coburn.dao.PayrollRecordDAO;
-import grant.coburn.model.Employee;
+import grant.coburn.dao.StorageEngine;
 import grant.coburn.model.PayrollRecord;
-import grant.coburn.util.PayrollProcessor;
+import grant.coburn.model.PayrollReportRow;
 
 /**
  * Implementation of ReportGenerator for CSV format.
  */
 public class CSVReportGenerator implements ReportGenerator {
-    private final PayrollRecordDAO payrollRecordDAO;
+    private final ReportSource source;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
     private static final String[] HEADERS = {
         "Employee ID",
@@ -39,46 +40,104 @@ public class CSVReportGenerator implements ReportGenerator {
     };
 
     public CSVReportGenerator() {
-        this.payrollRecordDAO = PayrollRecordDAO.shared;
+        this(StorageEngine.shared());
+    }
+
+    public CSVReportGenerator(StorageEngine storage) {
+        // Names come from the same query as the records rather than a lookup per record
+        this.source = storage.getPayrollRecordDAO()::streamPayrollReportRowsByDateRange;
+    }
+
+    @Override
+    public ReportMetrics generateReport(String outputPath, LocalDate startDate, LocalDate endDate) throws IOException {
+        return generateReport(source, outputPath, startDate, endDate);
+    }
+
+    /**
+     * Writes the report to the given writer. Rows are written as they are read from the database
+     * rather than loading the whole date range first, so memory use stays the same however many
+     * records the report covers. The writer is flushed but not closed.
+     * @throws IOException If there is an error reading the records or writing the report
+     */
+    public ReportMetrics generateReport(Writer out, LocalDate startDate, LocalDate endDate) throws IOException {
+        CsvSink sink = new CsvSink(out, false);
+        if (!source.stream(startDate, endDate, sink::write)) {
+            throw new IOException("Failed to read payroll records after " + sink.rowsWritten + " rows");
+        }
+        return sink.finish();
     }
 
     @Override
-    public void generateReport(String outputPath, LocalDate startDate, LocalDate endDate) throws IOException {
-        List<PayrollRecord> records = payrollRecordDAO.getPayrollRecordsByDateRange(startDate, endDate);
+    public ReportSink openSink(String outputPath, LocalDate startDate, LocalDate endDate) throws IOException {
+        return new CsvSink(new BufferedWriter(new FileWriter(outputPath), WRITE_BUFFER_SIZE), true);
+    }
+
+    /**
+     * Writes each row to the underlying writer as soon as it is handed over.
+     */
+    private static class CsvSink implements ReportSink {
+        private final long start = System.nanoTime();
+        private final CSVWriter writer;
+        private final boolean ownsWriter;
+        private long rowsWritten;
 
-        try (CSVWriter writer = new CSVWriter(new FileWriter(outputPath))) {
-            // Write headers
+        /**
+         * @param ownsWriter Whether closing the sink should close the writer
+         */
+        CsvSink(Writer out, boolean ownsWriter) {
+            this.writer = new CSVWriter(out);
+            this.ownsWriter = ownsWriter;
             writer.writeNext(HEADERS);
+        }
+
+        @Override
+        public void write(PayrollReportRow row) {
+            writer.writeNext(toCsvRow(row));
+            rowsWritten++;
+        }
 
-            // Write data rows
-            for (PayrollRecord record : records) {
-                Employee employee = PayrollProcessor.shared().getEmployeeById(record.getEmployeeId());
-                String employeeName = employee != null ? employee.getFullName() : "Unknown";
-
-                String[] row = {
-                    record.getEmployeeId(),
-                    employeeName,
-                    record.getPayPeriodStart().format(DATE_FORMATTER),
-                    record.getPayPeriodEnd().format(DATE_FORMATTER),
-                    formatMoney(record.getGrossPay()),
-                    formatMoney(record.getNetPay()),
-                    formatMoney(record.getMedicalDeduction()),
-                    formatMoney(record.getDependentStipend()),
-                    formatMoney(record.getStateTax()),
-                    formatMoney(record.getFederalTax()),
-                    formatMoney(record.getSocialSecurityTax()),
-                    formatMoney(record.getMedicareTax()),
-                    formatMoney(record.getEmployerSocialSecurity()),
-                    formatMoney(record.getEmployerMedicare()),
-                    formatMoney(record.getOvertimePay()),
-                    formatMoney(record.getTotalDeductions())
-                };
-                writer.writeNext(row);
+        @Override
+        public ReportMetrics finish() throws IOException {
+            writer.flush();
+            if (writer.checkError()) {
+                throw new IOException("Failed to write CSV report");
             }
+            return new ReportMetrics(rowsWritten, System.nanoTime() - start);
         }
+
+        @Override
+        public void close() throws IOException {
+            if (ownsWriter) {
+                writer.close();
+            }
+        }
+    }
+
+    private static String[] toCsvRow(PayrollReportRow reportRow) {
+        PayrollRecord record = reportRow.getRecord();
+        String employeeName = reportRow.getEmployeeName() != null ? reportRow.getEmployeeName() : "Unknown";
+
+        return new String[] {
+            record.getEmployeeId(),
+            employeeName,
+            record.getPayPeriodStart().format(DATE_FORMATTER),
+            record.getPayPeriodEnd().format(DATE_FORMATTER),
+            formatMoney(record.getGrossPay()),
+            formatMoney(record.getNetPay()),
+            formatMoney(record.getMedicalDeduction()),
+            formatMoney(record.getDependentStipend()),
+            formatMoney(record.getStateTax()),
+            formatMoney(record.getFederalTax()),
+            formatMoney(record.getSocialSecurityTax()),
+            formatMoney(record.getMedicareTax()),
+            formatMoney(record.getEmployerSocialSecurity()),
+            formatMoney(record.getEmployerMedicare()),
+            formatMoney(record.getOvertimePay()),
+            formatMoney(record.getTotalDeductions())
+        };
     }
 
-    private String formatMoney(double amount) {
+    private static String formatMoney(double amount) {
         return String.format("%.2f", amount);
     }
 } 
\ No newline at end of file
@@ -3,7 +3,6 @@ package grant.coburn.report;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.colors.DeviceRgb;
@@ -17,6 +16,7 @@ import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.layout.Document;
+import com.itextpdf.layout.Style;
 import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
@@ -24,17 +24,19 @@ import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
 import com.itextpdf.layout.properties.VerticalAlignment;
 
-import grant.coburn.dao.PayrollRecordDAO;
-import grant.coburn.model.Employee;
+import grant.coburn.dao.StorageEngine;
 import grant.coburn.model.PayrollRecord;
-import grant.coburn.util.PayrollProcessor;
+import grant.coburn.model.PayrollReportRow;
+import grant.coburn.util.Money;
 
 /**
  * Implementation of ReportGenerator for PDF format.
  */
 public class PDFReportGenerator implements ReportGenerator {
-    private final PayrollRecordDAO payrollRecordDAO;
+    private final ReportSource source;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    // Rows added to the table between layout flushes, so only this many rows are held in memory
+    private static final int FLUSH_EVERY_ROWS = 100;
     private static final DeviceRgb ALTERNATE_ROW_COLOR = new DeviceRgb(240, 240, 240);
     private static final float[] COLUMN_WIDTHS = {
         1.0f,  // Employee ID
@@ -94,67 +96,107 @@ public class PDFReportGenerator implements ReportGenerator {
     };
 
     public PDFReportGenerator() {
-        this.payrollRecordDAO = PayrollRecordDAO.shared;
+        this(StorageEngine.shared());
+    }
+
+    public PDFReportGenerator(StorageEngine storage) {
+        // Names come from the same query as the records rather than a lookup per record
+        this.source = storage.getPayrollRecordDAO()::streamPayrollReportRowsByDateRange;
     }
 
     @Override
-    public void generateReport(String outputPath, LocalDate startDate, LocalDate endDate) throws IOException {
-        List<PayrollRecord> records = payrollRecordDAO.getPayrollRecordsByDateRange(startDate, endDate);
+    public ReportMetrics generateReport(String outputPath, LocalDate startDate, LocalDate endDate) throws IOException {
+        return generateReport(source, outputPath, startDate, endDate);
+    }
 
-        try (
-            PdfWriter writer = new PdfWriter(outputPath);
-            PdfDocument pdf = new PdfDocument(writer)
-        ) {
-            
-            Document document = new Document(pdf, PageSize.A4.rotate());
+    @Override
+    public ReportSink openSink(String outputPath, LocalDate startDate, LocalDate endDate) throws IOException {
+        return new PdfSink(outputPath, startDate, endDate);
+    }
+
+    /**
+     * Adds each row to a large table as it is handed over, totalling rows for the summary in the same pass.
+     */
+    private class PdfSink implements ReportSink {
+        private final long start = System.nanoTime();
+        private final PdfDocument pdf;
+        private final Document document;
+        private final Table table;
+        private final Style rowStyle;
+        private final Style alternateRowStyle;
+        private final SummaryTotals totals = new SummaryTotals();
+
+        PdfSink(String outputPath, LocalDate startDate, LocalDate endDate) throws IOException {
+            pdf = new PdfDocument(new PdfWriter(outputPath));
+
+            document = new Document(pdf, PageSize.A4.rotate());
             document.setMargins(20, 20, 20, 20);
 
-                // Add page number handler
+            // Add page number handler
             pdf.addEventHandler(PdfDocumentEvent.END_PAGE, new PageNumberHandler());
 
             // Add header
             addHeader(document, startDate, endDate);
 
-            // Create main table
-            Table table = new Table(UnitValue.createPercentArray(COLUMN_WIDTHS))
+            // Create main table as a large table so finished rows can be laid out and released as they are added
+            table = new Table(UnitValue.createPercentArray(COLUMN_WIDTHS), true)
                 .useAllAvailableWidth()
                 .setFontSize(8);
 
             // Add table headers
             addTableHeaders(table);
+            document.add(table);
 
-            // Add data rows
-            boolean alternate = false;
-            for (PayrollRecord record : records) {
-                Employee employee = PayrollProcessor.shared().getEmployeeById(record.getEmployeeId());
-                String employeeName = employee != null ? employee.getFullName() : "Unknown";
-
-                addCell(table, record.getEmployeeId(), alternate);
-                addCell(table, employeeName, alternate);
-                addCell(table, record.getPayPeriodStart().format(DATE_FORMATTER), alternate);
-                addCell(table, record.getPayPeriodEnd().format(DATE_FORMATTER), alternate);
-                addCell(table, formatMoney(record.getGrossPay()), alternate);
-                addCell(table, formatMoney(record.getNetPay()), alternate);
-                addCell(table, formatMoney(record.getMedicalDeduction()), alternate);
-                addCell(table, formatMoney(record.getDependentStipend()), alternate);
-                addCell(table, formatMoney(record.getStateTax()), alternate);
-                addCell(table, formatMoney(record.getFederalTax()), alternate);
-                addCell(table, formatMoney(record.getSocialSecurityTax()), alternate);
-                addCell(table, formatMoney(record.getMedicareTax()), alternate);
-                addCell(table, formatMoney(record.getEmployerSocialSecurity()), alternate);
-                addCell(table, formatMoney(record.getEmployerMedicare()), alternate);
-                addCell(table, formatMoney(record.getOvertimePay()), alternate);
-                addCell(table, formatMoney(record.getTotalDeductions()), alternate);
-                
-                alternate = !alternate;
+            // Styling is shared by every cell rather than set on each one
+            rowStyle = createRowStyle();
+            alternateRowStyle = createRowStyle().setBackgroundColor(ALTERNATE_ROW_COLOR);
+        }
+
+        @Override
+        public void write(PayrollReportRow reportRow) {
+            PayrollRecord record = reportRow.getRecord();
+            String employeeName = reportRow.getEmployeeName() != null ? reportRow.getEmployeeName() : "Unknown";
+            Style style = totals.records % 2 == 0 ? rowStyle : alternateRowStyle;
+
+            addCell(table, record.getEmployeeId(), style);
+            addCell(table, employeeName, style);
+            addCell(table, record.getPayPeriodStart().format(DATE_FORMATTER), style);
+            addCell(table, record.getPayPeriodEnd().format(DATE_FORMATTER), style);
+            addCell(table, formatMoney(record.getGrossPay()), style);
+            addCell(table, formatMoney(record.getNetPay()), style);
+            addCell(table, formatMoney(record.getMedicalDeduction()), style);
+            addCell(table, formatMoney(record.getDependentStipend()), style);
+            addCell(table, formatMoney(record.getStateTax()), style);
+            addCell(table, formatMoney(record.getFederalTax()), style);
+            addCell(table, formatMoney(record.getSocialSecurityTax()), style);
+            addCell(table, formatMoney(record.getMedicareTax()), style);
+            addCell(table, formatMoney(record.getEmployerSocialSecurity()), style);
+            addCell(table, formatMoney(record.getEmployerMedicare()), style);
+            addCell(table, formatMoney(record.getOvertimePay()), style);
+            addCell(table, formatMoney(record.getTotalDeductions()), style);
+
+            totals.add(record);
+            if (totals.records % FLUSH_EVERY_ROWS == 0) {
+                table.flush();
             }
+        }
 
-            document.add(table);
+        @Override
+        public ReportMetrics finish() throws IOException {
+            table.complete();
 
             // Add summary section
-            addSummarySection(document, records);
+            addSummarySection(document, totals);
 
             document.close();
+            return new ReportMetrics(totals.records, System.nanoTime() - start);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!pdf.isClosed()) {
+                pdf.close();
+            }
         }
     }
 
@@ -192,42 +234,22 @@ public class PDFReportGenerator implements ReportGenerator {
         return headerCell;
     }
 
-    private void addSummarySection(Document document, List<PayrollRecord> records) {
-        double totalGrossPay = 0;
-        double totalNetPay = 0;
-        double totalStateTax = 0;
-        double totalFederalTax = 0;
-        double totalSSTax = 0;
-        double totalMedicareTax = 0;
-        double totalEmployerSS = 0;
-        double totalEmployerMedicare = 0;
-
-        for (PayrollRecord record : records) {
-            totalGrossPay += record.getGrossPay();
-            totalNetPay += record.getNetPay();
-            totalStateTax += record.getStateTax();
-            totalFederalTax += record.getFederalTax();
-            totalSSTax += record.getSocialSecurityTax();
-            totalMedicareTax += record.getMedicareTax();
-            totalEmployerSS += record.getEmployerSocialSecurity();
-            totalEmployerMedicare += record.getEmployerMedicare();
-        }
-
+    private void addSummarySection(Document document, SummaryTotals totals) {
         Table summaryTable = new Table(new float[]{2, 1})
             .useAllAvailableWidth()
             .setMarginTop(10)
             .setMarginBottom(20)
             .setFontSize(10);
 
-        addSummaryRow(summaryTable, "Total Records:", String.valueOf(records.size()));
-        addSummaryRow(summaryTable, "Total Gross Pay:", formatMoney(totalGrossPay));
-        addSummaryRow(summaryTable, "Total Net Pay:", formatMoney(totalNetPay));
-        addSummaryRow(summaryTable, "Total State Tax:", formatMoney(totalStateTax));
-        addSummaryRow(summaryTable, "Total Federal Tax:", formatMoney(totalFederalTax));
-        addSummaryRow(summaryTable, "Total Social Security Tax:", formatMoney(totalSSTax));
-        addSummaryRow(summaryTable, "Total Medicare Tax:", formatMoney(totalMedicareTax));
-        addSummaryRow(summaryTable, "Total Employer SS:", formatMoney(totalEmployerSS));
-        addSummaryRow(summaryTable, "Total Employer Medicare:", formatMoney(totalEmployerMedicare));
+        addSummaryRow(summaryTable, "Total Records:", String.valueOf(totals.records));
+        addSummaryRow(summaryTable, "Total Gross Pay:", formatMoney(Money.toDollars(totals.grossPay)));
+        addSummaryRow(summaryTable, "Total Net Pay:", formatMoney(Money.toDollars(totals.netPay)));
+        addSummaryRow(summaryTable, "Total State Tax:", formatMoney(Money.toDollars(totals.stateTax)));
+        addSummaryRow(summaryTable, "Total Federal Tax:", formatMoney(Money.toDollars(totals.federalTax)));
+        addSummaryRow(summaryTable, "Total Social Security Tax:", formatMoney(Money.toDollars(totals.socialSecurityTax)));
+        addSummaryRow(summaryTable, "Total Medicare Tax:", formatMoney(Money.toDollars(totals.medicareTax)));
+        addSummaryRow(summaryTable, "Total Employer SS:", formatMoney(Money.toDollars(totals.employerSocialSecurity)));
+        addSummaryRow(summaryTable, "Total Employer Medicare:", formatMoney(Money.toDollars(totals.employerMedicare)));
 
         document.add(summaryTable);
     }
@@ -245,26 +267,52 @@ public class PDFReportGenerator implements ReportGenerator {
             .setBorder(null));
     }
 
-    private void addCell(Table table, String value, boolean isAlternate) {
-        Cell cell = new Cell()
-            .add(new Paragraph(value)
-                .setFixedLeading(20))
+    private Style createRowStyle() {
+        return new Style()
             .setTextAlignment(TextAlignment.CENTER)
             .setVerticalAlignment(VerticalAlignment.MIDDLE)
             .setHeight(20)
             .setPadding(2);
+    }
 
-        if (isAlternate) {
-            cell.setBackgroundColor(ALTERNATE_ROW_COLOR);
-        }
-
-        table.addCell(cell);
+    private void addCell(Table table, String value, Style style) {
+        table.addCell(new Cell()
+            .add(new Paragraph(value)
+                .setFixedLeading(20))
+            .addStyle(style));
     }
 
     private String formatMoney(double amount) {
         return String.format("$%,.2f", amount);
     }
 
+    /**
+     * Running totals for the summary section, summed in cents so they match the individual records exactly.
+     */
+    private static class SummaryTotals {
+        long records;
+        long grossPay;
+        long netPay;
+        long stateTax;
+        long federalTax;
+        long socialSecurityTax;
+        long medicareTax;
+        long employerSocialSecurity;
+        long employerMedicare;
+
+        void add(PayrollRecord record) {
+            records++;
+            grossPay += record.getGrossPayCents();
+            netPay += record.getNetPayCents();
+            stateTax += record.getStateTaxCents();
+            federalTax += record.getFederalTaxCents();
+            socialSecurityTax += record.getSocialSecurityTaxCents();
+            medicareTax += record.getMedicareTaxCents();
+            employerSocialSecurity += record.getEmployerSocialSecurityCents();
+            employerMedicare += record.getEmployerMedicareCents();
+        }
+    }
+
     private static class PageNumberHandler implements IEventHandler {
         private static final String COPYRIGHT = "© " + LocalDate.now().getYear() + " Payroll System - Grant Coburn";
 
@@ -0,0 +1,211 @@
+package grant.coburn.report;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import grant.coburn.dao.StorageEngine;
+import grant.coburn.model.PayrollReportRow;
+
+/**
+ * Generates reports in several formats from a single read of the payroll records. The calling
+ * thread reads the records once and hands each one to every report, and each report is written on
+ * its own thread. Reports are connected to the reader by queues holding at most
+ * {@link #QUEUE_CAPACITY} records, so a slow report holds back the reader rather than letting
+ * records pile up in memory. A report that fails is dropped without stopping the others.
+ */
+public class ReportFanOut {
+    static final int QUEUE_CAPACITY = 1_000;
+
+    // Marks the end of the records, and an aborted read after which reports are left unfinished
+    private static final PayrollReportRow END = new PayrollReportRow(null, null, null, null);
+    private static final PayrollReportRow ABORT = new PayrollReportRow(null, null, null, null);
+
+    private final ReportSource source;
+    private final StorageEngine storage;
+
+    public ReportFanOut() {
+        this(StorageEngine.shared());
+    }
+
+    public ReportFanOut(StorageEngine storage) {
+        this(storage, storage.getPayrollRecordDAO()::streamPayrollReportRowsByDateRange);
+    }
+
+    ReportFanOut(StorageEngine storage, ReportSource source) {
+        this.storage = storage;
+        this.source = source;
+    }
+
+    /**
+     * Writes one report per format.
+     * @param outputPaths The path to save each format's report to
+     * @param startDate The start date of the report period
+     * @param endDate The end date of the report period
+     * @return How many rows were written and how long it took for each format, in the order given
+     * @throws IOException If the records couldn't be read or any report failed. Reports that didn't fail are still completed
+     */
+    public Map<ReportFormat, ReportMetrics> generateReports(
+        Map<ReportFormat, String> outputPaths,
+        LocalDate startDate,
+        LocalDate endDate
+    ) throws IOException {
+        return generateReports(outputPaths, startDate, endDate, ReportProgress.NONE);
+    }
+
+    /**
+     * Writes one report per format, reporting each written row and stopping early if cancelled.
+     * @param outputPaths The path to save each format's report to
+     * @param startDate The start date of the report period
+     * @param endDate The end date of the report period
+     * @param progress Notified of each row written to each report
+     * @return How many rows were written and how long it took for each format, in the order given
+     * @throws IOException If the records couldn't be read or any report failed. Reports that didn't fail are still completed
+     * @throws CancellationException If the progress was cancelled. Every report is closed but left incomplete
+     */
+    public Map<ReportFormat, ReportMetrics> generateReports(
+        Map<ReportFormat, String> outputPaths,
+        LocalDate startDate,
+        LocalDate endDate,
+        ReportProgress progress
+    ) throws IOException {
+        List<ReportFormat> formats = new ArrayList<>(outputPaths.keySet());
+        List<SinkWorker> workers = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, formats.size()), runnable -> {
+            Thread thread = new Thread(runnable, "report-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            try {
+                for (ReportFormat format : formats) {
+                    ReportGenerator generator = ReportGeneratorFactory.createGenerator(format, storage);
+                    workers.add(new SinkWorker(generator.openSink(outputPaths.get(format), startDate, endDate), progress));
+                }
+            } catch (IOException | RuntimeException e) {
+                for (SinkWorker worker : workers) {
+                    worker.sink.close();
+                }
+                throw e;
+            }
+
+            List<Future<ReportMetrics>> futures = new ArrayList<>();
+            for (SinkWorker worker : workers) {
+                futures.add(executor.submit(worker::run));
+            }
+
+            boolean complete;
+            try {
+                complete = source.stream(startDate, endDate, row -> {
+                    if (progress.isCancelled()) {
+                        throw new CancellationException("Report generation was cancelled");
+                    }
+                    for (SinkWorker worker : workers) {
+                        worker.offer(row);
+                    }
+                });
+            } catch (CancellationException e) {
+                complete = false;
+            }
+            for (SinkWorker worker : workers) {
+                worker.offer(complete && !Thread.currentThread().isInterrupted() ? END : ABORT);
+            }
+
+            Map<ReportFormat, ReportMetrics> metrics = new LinkedHashMap<>();
+            IOException failure = complete ? null : new IOException("Failed to read payroll records");
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    ReportMetrics result = futures.get(i).get();
+                    if (result != null) {
+                        metrics.put(formats.get(i), result);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while generating reports", e);
+                } catch (ExecutionException e) {
+                    IOException reportFailure = new IOException(
+                        "Failed to generate " + formats.get(i) + " report: " + e.getCause().getMessage(),
+                        e.getCause()
+                    );
+                    if (failure == null) {
+                        failure = reportFailure;
+                    } else {
+                        failure.addSuppressed(reportFailure);
+                    }
+                }
+            }
+
+            if (progress.isCancelled()) {
+                throw new CancellationException("Report generation was cancelled");
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return metrics;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Writes the records queued for one report on a report writer thread.
+     */
+    private static class SinkWorker {
+        final ReportSink sink;
+        final ReportProgress progress;
+        final BlockingQueue<PayrollReportRow> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        volatile boolean stopped;
+
+        SinkWorker(ReportSink sink, ReportProgress progress) {
+            this.sink = sink;
+            this.progress = progress;
+        }
+
+        /**
+         * Queues a record, waiting for space unless the report has stopped.
+         */
+        void offer(PayrollReportRow row) {
+            try {
+                while (!stopped && !queue.offer(row, 100, TimeUnit.MILLISECONDS)) {
+                    // Keep waiting while the report is still consuming records
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopped = true;
+            }
+        }
+
+        /**
+         * @return The report's metrics, or null if the read was aborted or cancelled
+         */
+        ReportMetrics run() throws IOException, InterruptedException {
+            try (ReportSink s = sink) {
+                while (true) {
+                    PayrollReportRow row = queue.take();
+                    if (row == END) {
+                        return s.finish();
+                    }
+                    if (row == ABORT || progress.isCancelled()) {
+                        return null;
+                    }
+                    s.write(row);
+                    progress.rowWritten();
+                }
+            } finally {
+                stopped = true;
+            }
+        }
+    }
+}
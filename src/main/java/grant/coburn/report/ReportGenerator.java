@@ -13,7 +13,39 @@ public interface ReportGenerator {
      * @param outputPath The path where the report should be saved
      * @param startDate The start date of the report period
      * @param endDate The end date of the report period
+     * @return How many rows were written and how long it took
      * @throws IOException If there is an error writing the report
      */
-    void generateReport(String outputPath, LocalDate startDate, LocalDate endDate) throws IOException;
-} 
\ No newline at end of file
+    ReportMetrics generateReport(String outputPath, LocalDate startDate, LocalDate endDate) throws IOException;
+
+    /**
+     * Opens a report at the given path that records are written into one at a time.
+     * This lets one read of the payroll records be shared by reports in several formats.
+     *
+     * @param outputPath The path where the report should be saved
+     * @param startDate The start date of the report period
+     * @param endDate The end date of the report period
+     * @return A sink that must be finished to complete the report, and closed afterwards
+     * @throws IOException If the report can't be created
+     */
+    ReportSink openSink(String outputPath, LocalDate startDate, LocalDate endDate) throws IOException;
+
+    /**
+     * Generates a report from the records read from the given source.
+     *
+     * @param source The source to read payroll records from
+     * @param outputPath The path where the report should be saved
+     * @param startDate The start date of the report period
+     * @param endDate The end date of the report period
+     * @return How many rows were written and how long it took
+     * @throws IOException If there is an error reading the records or writing the report
+     */
+    default ReportMetrics generateReport(ReportSource source, String outputPath, LocalDate startDate, LocalDate endDate) throws IOException {
+        try (ReportSink sink = openSink(outputPath, startDate, endDate)) {
+            if (!source.stream(startDate, endDate, sink::write)) {
+                throw new IOException("Failed to read payroll records for " + outputPath);
+            }
+            return sink.finish();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package grant.coburn.report;
 
+import grant.coburn.dao.StorageEngine;
+
 /**
  * Factory class for creating report generators.
  */
@@ -11,11 +13,22 @@ public class ReportGeneratorFactory {
      * @return A report generator for the specified format
      */
     public static ReportGenerator createGenerator(ReportFormat format) {
+        return createGenerator(format, StorageEngine.shared());
+    }
+
+    /**
+     * Creates a report generator for the specified format that reads from the given storage.
+     *
+     * @param format The format of the report to generate
+     * @param storage The storage to read payroll records and employees from
+     * @return A report generator for the specified format
+     */
+    public static ReportGenerator createGenerator(ReportFormat format, StorageEngine storage) {
         switch (format) {
             case CSV:
-                return new CSVReportGenerator();
+                return new CSVReportGenerator(storage);
             case PDF:
-                return new PDFReportGenerator();
+                return new PDFReportGenerator(storage);
             default:
                 throw new IllegalArgumentException("Unsupported report format: " + format);
         }
@@ -0,0 +1,187 @@
+package grant.coburn.report;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A report generation submitted to a {@link ReportJobManager}, writing one report per format
+ * for a date range. Its status and progress can be read from any thread while it runs.
+ */
+public class ReportJob {
+    public enum Status {
+        QUEUED("Queued"),
+        RUNNING("Running"),
+        COMPLETED("Completed"),
+        FAILED("Failed"),
+        CANCELLED("Cancelled");
+
+        private final String displayName;
+
+        Status(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    private final long id;
+    private final Map<ReportFormat, String> outputPaths;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final LongAdder rowsWritten = new LongAdder();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile int totalRows = -1;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+    private volatile Map<ReportFormat, ReportMetrics> metrics = Collections.emptyMap();
+    private volatile String errorMessage;
+    Future<?> future;
+
+    ReportJob(long id, Map<ReportFormat, String> outputPaths, LocalDate startDate, LocalDate endDate) {
+        this.id = id;
+        this.outputPaths = Collections.unmodifiableMap(new LinkedHashMap<>(outputPaths));
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public long getId() { return id; }
+
+    public Map<ReportFormat, String> getOutputPaths() { return outputPaths; }
+
+    public LocalDate getStartDate() { return startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+
+    public Status getStatus() { return status; }
+
+    /**
+     * @return The number of payroll records in the report, or -1 if not known yet
+     */
+    public int getTotalRows() { return totalRows; }
+
+    /**
+     * @return The number of rows written so far, counted once across all of the job's formats
+     */
+    public long getRowsWritten() {
+        return rowsWritten.sum() / outputPaths.size();
+    }
+
+    /**
+     * @return The fraction of rows written, from 0 to 1, or -1 if the total isn't known yet
+     */
+    public double getProgress() {
+        if (status == Status.COMPLETED) {
+            return 1;
+        }
+        int total = totalRows;
+        if (total < 0) {
+            return -1;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        return Math.min(1, (double) rowsWritten.sum() / ((long) total * outputPaths.size()));
+    }
+
+    /**
+     * @return How long the job has been running, or ran for if it has finished
+     */
+    public Duration getDuration() {
+        long started = startedNanos;
+        if (started == 0) {
+            return Duration.ZERO;
+        }
+        long finished = finishedNanos;
+        return Duration.ofNanos((finished == 0 ? System.nanoTime() : finished) - started);
+    }
+
+    /**
+     * @return How many rows were written and how long it took for each format, once the job has completed
+     */
+    public Map<ReportFormat, ReportMetrics> getMetrics() { return metrics; }
+
+    /**
+     * @return Why the job failed, or null if it hasn't
+     */
+    public String getErrorMessage() { return errorMessage; }
+
+    /**
+     * Cancel the job. A queued job never starts, and a running job stops at the next row and
+     * deletes the reports it had started.
+     */
+    public void cancel() {
+        cancelRequested = true;
+        synchronized (this) {
+            if (status == Status.QUEUED) {
+                status = Status.CANCELLED;
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Move a queued job to running.
+     * @return false if the job was cancelled before it started
+     */
+    synchronized boolean start() {
+        if (status != Status.QUEUED) {
+            return false;
+        }
+        startedNanos = System.nanoTime();
+        status = Status.RUNNING;
+        return true;
+    }
+
+    void setTotalRows(int totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    ReportProgress progress() {
+        return new ReportProgress() {
+            @Override
+            public void rowWritten() {
+                rowsWritten.increment();
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return cancelRequested;
+            }
+        };
+    }
+
+    synchronized void complete(Map<ReportFormat, ReportMetrics> metrics) {
+        this.metrics = Collections.unmodifiableMap(new LinkedHashMap<>(metrics));
+        finish(Status.COMPLETED);
+    }
+
+    synchronized void fail(String errorMessage) {
+        this.errorMessage = errorMessage;
+        finish(Status.FAILED);
+    }
+
+    synchronized void cancelled() {
+        finish(Status.CANCELLED);
+    }
+
+    private void finish(Status status) {
+        finishedNanos = System.nanoTime();
+        this.status = status;
+    }
+}
@@ -0,0 +1,147 @@
+package grant.coburn.report;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import grant.coburn.dao.StorageEngine;
+import grant.coburn.util.DBProperties;
+
+/**
+ * Runs report jobs in the background so generating reports doesn't block the caller.
+ * At most a fixed number of jobs run at once and a fixed number more can wait in the queue;
+ * submitting beyond that is rejected rather than piling up work.
+ */
+public class ReportJobManager {
+    private static ReportJobManager shared;
+
+    private final StorageEngine storage;
+    private final ReportFanOut fanOut;
+    private final ThreadPoolExecutor executor;
+    private final List<ReportJob> jobs = new CopyOnWriteArrayList<>();
+    private final AtomicLong nextJobId = new AtomicLong(1);
+
+    /**
+     * @return The job manager for the shared storage engine, created on first use
+     */
+    public static synchronized ReportJobManager shared() {
+        if (shared == null) {
+            shared = new ReportJobManager(
+                StorageEngine.shared(),
+                DBProperties.REPORT_MAX_CONCURRENT_JOBS,
+                DBProperties.REPORT_MAX_QUEUED_JOBS
+            );
+        }
+        return shared;
+    }
+
+    /**
+     * @param maxConcurrentJobs The most jobs that may run at the same time
+     * @param maxQueuedJobs The most jobs that may wait for a free slot
+     */
+    public ReportJobManager(StorageEngine storage, int maxConcurrentJobs, int maxQueuedJobs) {
+        this(storage, new ReportFanOut(storage), maxConcurrentJobs, maxQueuedJobs);
+    }
+
+    ReportJobManager(StorageEngine storage, ReportFanOut fanOut, int maxConcurrentJobs, int maxQueuedJobs) {
+        this.storage = storage;
+        this.fanOut = fanOut;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            maxConcurrentJobs, maxConcurrentJobs,
+            0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(maxQueuedJobs),
+            runnable -> {
+                Thread thread = new Thread(runnable, "report-job-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+
+    /**
+     * Queue a job writing one report per format.
+     * @param outputPaths The path to save each format's report to
+     * @param startDate The start date of the report period
+     * @param endDate The end date of the report period
+     * @return The queued job
+     * @throws RejectedExecutionException If the queue is full
+     */
+    public ReportJob submit(Map<ReportFormat, String> outputPaths, LocalDate startDate, LocalDate endDate) {
+        if (outputPaths.isEmpty()) {
+            throw new IllegalArgumentException("At least one report format is required");
+        }
+
+        ReportJob job = new ReportJob(nextJobId.getAndIncrement(), outputPaths, startDate, endDate);
+        // Drop jobs cancelled while queued so they don't take up queue space
+        executor.purge();
+        synchronized (job) {
+            job.future = executor.submit(() -> run(job));
+        }
+        jobs.add(job);
+        return job;
+    }
+
+    /**
+     * @return Every job that hasn't been cleared, oldest first
+     */
+    public List<ReportJob> getJobs() {
+        return new ArrayList<>(jobs);
+    }
+
+    /**
+     * Remove finished jobs from the job list.
+     */
+    public void clearFinishedJobs() {
+        jobs.removeIf(job -> job.getStatus().isFinished());
+    }
+
+    /**
+     * Cancel every job and stop accepting new ones.
+     */
+    public void shutdown() {
+        for (ReportJob job : jobs) {
+            job.cancel();
+        }
+        executor.shutdown();
+    }
+
+    private void run(ReportJob job) {
+        if (!job.start()) {
+            return;
+        }
+
+        try {
+            job.setTotalRows(storage.getPayrollRecordDAO()
+                .countPayrollRecordsByDateRange(job.getStartDate(), job.getEndDate()));
+            job.complete(fanOut.generateReports(job.getOutputPaths(), job.getStartDate(), job.getEndDate(), job.progress()));
+        } catch (CancellationException e) {
+            deleteOutputs(job);
+            job.cancelled();
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            job.fail(e.getMessage());
+        }
+    }
+
+    private static void deleteOutputs(ReportJob job) {
+        for (String path : job.getOutputPaths().values()) {
+            File file = new File(path);
+            if (file.exists() && !file.delete()) {
+                System.err.println("Failed to delete cancelled report " + path);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package grant.coburn.report;
+
+/**
+ * How many rows a report contained and how long it took to write.
+ */
+public class ReportMetrics {
+    private final long rowsWritten;
+    private final long elapsedNanos;
+
+    public ReportMetrics(long rowsWritten, long elapsedNanos) {
+        this.rowsWritten = rowsWritten;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRowsWritten() { return rowsWritten; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    public double getElapsedMillis() {
+        return elapsedNanos / 1_000_000.0;
+    }
+
+    /** Rows written per second over the whole report, including reading from the database */
+    public double getRowsPerSecond() {
+        if (elapsedNanos == 0) {
+            return 0;
+        }
+        return rowsWritten / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d rows in %.0f ms (%,.0f rows/s)", rowsWritten, getElapsedMillis(), getRowsPerSecond());
+    }
+}
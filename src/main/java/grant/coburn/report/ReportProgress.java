@@ -0,0 +1,30 @@
+package grant.coburn.report;
+
+/**
+ * Follows a report as it is generated and lets it be cancelled partway through.
+ */
+public interface ReportProgress {
+    /**
+     * Progress that is never cancelled and ignores written rows.
+     */
+    ReportProgress NONE = new ReportProgress() {
+        @Override
+        public void rowWritten() {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    /**
+     * Called after a row has been written to one of the reports. Called from report writer threads.
+     */
+    void rowWritten();
+
+    /**
+     * @return true if generation should stop as soon as possible
+     */
+    boolean isCancelled();
+}
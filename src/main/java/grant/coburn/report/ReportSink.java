@@ -0,0 +1,24 @@
+package grant.coburn.report;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import grant.coburn.model.PayrollReportRow;
+
+/**
+ * Writes payroll records into a single report file as they are handed to it.
+ * A sink that is closed without being finished leaves an incomplete report behind.
+ */
+public interface ReportSink extends Closeable {
+    /**
+     * Adds a record to the report.
+     */
+    void write(PayrollReportRow row);
+
+    /**
+     * Writes anything that comes after the records, such as totals, and completes the report.
+     * @return How many rows were written and how long it took
+     * @throws IOException If there is an error writing the report
+     */
+    ReportMetrics finish() throws IOException;
+}
@@ -0,0 +1,19 @@
+package grant.coburn.report;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+import grant.coburn.model.PayrollReportRow;
+
+/**
+ * Where reports read their payroll records from, e.g.
+ * {@link grant.coburn.dao.PayrollRecordDAO#streamPayrollReportRowsByDateRange}.
+ */
+@FunctionalInterface
+public interface ReportSource {
+    /**
+     * Hands every payroll record for pay periods within the date range to the consumer, latest pay period first.
+     * @return true if every record was read, false if reading failed partway through
+     */
+    boolean stream(LocalDate startDate, LocalDate endDate, Consumer<PayrollReportRow> consumer);
+}
@@ -6,4 +6,27 @@ public class DBProperties {
     public static final String DB_NAME = "payroll_system";
     public static final String USER = "root";
     public static final String PASSWORD = "";
-}
\ No newline at end of file
+
+    // Connection pool settings
+    public static final int POOL_MAX_SIZE = 10;
+    public static final int POOL_MIN_IDLE = 2;
+    public static final long POOL_CONNECTION_TIMEOUT_MS = 30_000;
+    public static final long POOL_VALIDATION_TIMEOUT_MS = 5_000;
+    public static final long POOL_IDLE_TIMEOUT_MS = 600_000;
+    public static final long POOL_MAX_LIFETIME_MS = 1_800_000;
+
+    // Number of statements sent per JDBC batch
+    public static final int BATCH_SIZE = 500;
+
+    // Number of rows fetched per round trip when streaming large queries. The driver only honours
+    // this because the connection URL sets useCursorFetch, see DatabaseUtil.getSqlUrl
+    public static final int FETCH_SIZE = 1_000;
+
+    // Background report job settings. Each running job holds a pooled connection while it reads
+    public static final int REPORT_MAX_CONCURRENT_JOBS = 2;
+    public static final int REPORT_MAX_QUEUED_JOBS = 20;
+
+    // Employee lookup cache settings
+    public static final int EMPLOYEE_CACHE_MAX_SIZE = 10_000;
+    public static final long EMPLOYEE_CACHE_TTL_MS = 300_000;
+}
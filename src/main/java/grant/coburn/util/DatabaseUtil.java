@@ -1,44 +1,79 @@
 package grant.coburn.util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Hands out pooled JDBC connections. Closing a connection obtained from
+ * {@link #getConnection()} returns it to the pool rather than closing the
+ * underlying socket, so DAOs can keep using try-with-resources.
+ */
 public class DatabaseUtil {
-    private Connection connection;
+    private final HikariDataSource dataSource;
+    private final PoolMetricsTracker metricsTracker;
+
+    public static final DatabaseUtil shared = new DatabaseUtil(
+        getSqlUrl(DBProperties.HOST, DBProperties.PORT, DBProperties.DB_NAME),
+        DBProperties.USER,
+        DBProperties.PASSWORD
+    );
+
+    /**
+     * Creates a connection pool for the given database.
+     * @param url The JDBC URL of the database
+     * @param user The database user
+     * @param password The database password
+     */
+    public DatabaseUtil(String url, String user, String password) {
+        this.metricsTracker = new PoolMetricsTracker();
 
-    public static final DatabaseUtil shared = new DatabaseUtil();
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("payroll-pool");
+        config.setJdbcUrl(url);
+        config.setUsername(user);
+        config.setPassword(password);
+        config.setMaximumPoolSize(DBProperties.POOL_MAX_SIZE);
+        config.setMinimumIdle(DBProperties.POOL_MIN_IDLE);
+        config.setConnectionTimeout(DBProperties.POOL_CONNECTION_TIMEOUT_MS);
+        config.setValidationTimeout(DBProperties.POOL_VALIDATION_TIMEOUT_MS);
+        config.setIdleTimeout(DBProperties.POOL_IDLE_TIMEOUT_MS);
+        config.setMaxLifetime(DBProperties.POOL_MAX_LIFETIME_MS);
+        config.setMetricsTrackerFactory(metricsTracker);
 
-    private DatabaseUtil() {
-        try {
-            connection = getConnection();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        // Don't fail on startup if the database is unreachable, connections are retried on borrow
+        config.setInitializationFailTimeout(-1);
+
+        this.dataSource = new HikariDataSource(config);
     }
 
-    /** Gets the current database connection or creates a new one if needed */
+    /**
+     * Borrows a connection from the pool, waiting up to the configured timeout if none are free.
+     * The connection must be closed to return it to the pool.
+     */
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            String url = getSqlUrl(DBProperties.HOST, DBProperties.PORT, DBProperties.DB_NAME);
-            connection = DriverManager.getConnection(url, DBProperties.USER, DBProperties.PASSWORD);
-        }
-        return connection;
+        return dataSource.getConnection();
+    }
+
+    /** Gets a snapshot of the pool's current usage and wait time statistics */
+    public PoolMetrics getPoolMetrics() {
+        return metricsTracker.snapshot();
     }
 
-    /** Helper function to format a SQL URL string */
+    /**
+     * Helper function to format a SQL URL string. Batched statements are rewritten by the
+     * driver into multi-row statements so a batch is sent in a single round trip, and statements
+     * with a fetch size read their results through a server side cursor that many rows at a time
+     * instead of buffering the whole result in memory.
+     */
     public static String getSqlUrl(String host, int port, String dbName) {
-        return String.format("jdbc:mysql://%s:%d/%s", host, port, dbName);
+        return String.format("jdbc:mysql://%s:%d/%s?rewriteBatchedStatements=true&useCursorFetch=true", host, port, dbName);
     }
 
-    /** Closes the database connection */
+    /** Closes all pooled connections and shuts down the pool */
     public void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
-        }
+        dataSource.close();
     }
-} 
\ No newline at end of file
+}
@@ -20,6 +20,6 @@ public class MonetaryRoundingVisitor implements PayrollResultVisitor {
     }
 
     private double roundToCents(double amount) {
-        return Math.round(amount * 100.0) / 100.0;
+        return Money.roundToCents(amount);
     }
 } 
\ No newline at end of file
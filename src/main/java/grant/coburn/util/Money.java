@@ -0,0 +1,71 @@
+package grant.coburn.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Helpers for working with money as a whole number of cents held in a {@code long}.
+ * Cents add and subtract exactly, so sums and totals don't drift the way doubles do,
+ * and the arithmetic needs no objects.
+ */
+public final class Money {
+    private Money() {}
+
+    /**
+     * Convert a dollar amount to cents, rounding half up to the nearest cent.
+     * @param amount The amount in dollars
+     * @return The amount in cents
+     */
+    public static long toCents(double amount) {
+        return Math.round(amount * 100.0);
+    }
+
+    /**
+     * Convert cents to a dollar amount.
+     * @param cents The amount in cents
+     * @return The amount in dollars
+     */
+    public static double toDollars(long cents) {
+        return cents / 100.0;
+    }
+
+    /**
+     * Round a dollar amount to the nearest cent.
+     * @param amount The amount in dollars
+     * @return The amount in dollars, rounded to whole cents
+     */
+    public static double roundToCents(double amount) {
+        return toDollars(toCents(amount));
+    }
+
+    /**
+     * Apply a rate, such as a tax rate, to an amount and round to the nearest cent.
+     * @param cents The amount in cents
+     * @param rate The rate to apply
+     * @return The resulting amount in cents
+     */
+    public static long applyRate(long cents, double rate) {
+        return Math.round(cents * rate);
+    }
+
+    /**
+     * Convert cents to a decimal with two decimal places, e.g. for a {@code decimal(10,2)} column.
+     * @param cents The amount in cents
+     * @return The amount in dollars as a decimal
+     */
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Convert a decimal dollar amount to cents, rounding half up to the nearest cent.
+     * @param amount The amount in dollars, may be null
+     * @return The amount in cents, or 0 if the amount is null
+     */
+    public static long fromDecimal(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -3,6 +3,7 @@ package grant.coburn.util;
 import java.math.BigInteger;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 
 import org.mindrot.jbcrypt.BCrypt;
 
@@ -44,6 +45,22 @@ public class PasswordUtil {
         return BCrypt.hashpw(password, BCrypt.gensalt());
     }
 
+    /**
+     * Generates a random temporary password for a new user account.
+     * @return A random 12 character password.
+     */
+    public static String generateTemporaryPassword() {
+        String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$%^&*";
+        StringBuilder password = new StringBuilder();
+        SecureRandom random = new SecureRandom();
+
+        for (int i = 0; i < 12; i++) {
+            password.append(chars.charAt(random.nextInt(chars.length())));
+        }
+
+        return password.toString();
+    }
+
     /**
      * Checks if a password matches a hashed password using BCrypt.
      * @param password The password to check.
@@ -0,0 +1,126 @@
+package grant.coburn.util;
+
+import java.util.List;
+
+import grant.coburn.model.Employee;
+import grant.coburn.model.TimeEntry;
+
+/**
+ * Payroll inputs and outputs for many employees, held column by column in primitive arrays.
+ * Row {@code i} of every array belongs to the same employee. Fill the input columns, either
+ * directly or with {@link #add(Employee, List)}, then pass the batch to
+ * {@link PayrollCalculator#calculatePayroll(PayrollBatch, java.time.LocalDate, java.time.LocalDate)}
+ * to fill the output columns. All amounts are in cents.
+ */
+public final class PayrollBatch {
+    // Inputs
+    public final boolean[] salaried;
+    /** Annual salary for salaried employees, hourly rate for hourly employees */
+    public final double[] payRate;
+    public final int[] dependents;
+    public final boolean[] familyCoverage;
+    /** Hours worked, excluding PTO. Only used for hourly employees */
+    public final double[] regularHours;
+    /** PTO hours. Only used for hourly employees */
+    public final double[] ptoHours;
+
+    // Outputs
+    public final long[] regularPay;
+    public final long[] overtimePay;
+    public final long[] grossPay;
+    public final long[] stateTax;
+    public final long[] federalTax;
+    /** Social Security tax, the employer portion is the same amount */
+    public final long[] socialSecurityTax;
+    /** Medicare tax, the employer portion is the same amount */
+    public final long[] medicareTax;
+    public final long[] medicalDeduction;
+    public final long[] dependentStipend;
+    public final long[] netPay;
+
+    private int size;
+
+    /**
+     * Create an empty batch
+     * @param capacity The maximum number of employees in the batch
+     */
+    public PayrollBatch(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        salaried = new boolean[capacity];
+        payRate = new double[capacity];
+        dependents = new int[capacity];
+        familyCoverage = new boolean[capacity];
+        regularHours = new double[capacity];
+        ptoHours = new double[capacity];
+
+        regularPay = new long[capacity];
+        overtimePay = new long[capacity];
+        grossPay = new long[capacity];
+        stateTax = new long[capacity];
+        federalTax = new long[capacity];
+        socialSecurityTax = new long[capacity];
+        medicareTax = new long[capacity];
+        medicalDeduction = new long[capacity];
+        dependentStipend = new long[capacity];
+        netPay = new long[capacity];
+    }
+
+    public int getCapacity() {
+        return salaried.length;
+    }
+
+    /** Gets the number of employees in the batch */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sets the number of employees in the batch, for callers that fill the input columns directly
+     * @param size The number of rows to calculate, starting from row 0
+     */
+    public void setSize(int size) {
+        if (size < 0 || size > getCapacity()) {
+            throw new IllegalArgumentException("Size must be between 0 and " + getCapacity());
+        }
+        this.size = size;
+    }
+
+    /**
+     * Add an employee to the next row of the batch. Hours are summed in the same order
+     * as the single employee calculation so the results match it exactly.
+     * @param employee The employee to add
+     * @param timeEntries The employee's time entries for the pay period
+     * @return The row the employee was added to
+     */
+    public int add(Employee employee, List<TimeEntry> timeEntries) {
+        if (size == getCapacity()) {
+            throw new IllegalStateException("Payroll batch is full");
+        }
+
+        int row = size++;
+        salaried[row] = employee.getPayType() == Employee.PayType.SALARY;
+        payRate[row] = employee.getBaseSalary();
+        dependents[row] = employee.getDependentsCount();
+        familyCoverage[row] = employee.getMedicalCoverage() != Employee.MedicalCoverage.SINGLE;
+
+        double regular = 0.0;
+        double pto = 0.0;
+        for (TimeEntry entry : timeEntries) {
+            if (entry.isPto()) {
+                pto += entry.getRegularHours();
+            } else {
+                regular += entry.getRegularHours();
+            }
+        }
+        regularHours[row] = regular;
+        ptoHours[row] = pto;
+        return row;
+    }
+
+    /** Empty the batch so it can be refilled */
+    public void clear() {
+        size = 0;
+    }
+}
@@ -5,18 +5,23 @@ import java.util.List;
 
 import grant.coburn.model.Employee;
 import grant.coburn.model.TimeEntry;
+import grant.coburn.model.TimeEntryTotals;
 
 public class PayrollCalculator {
     public static final double STATE_TAX_RATE = 0.0315;  // IN 3.15%
     public static final double FEDERAL_TAX_RATE = 0.0765;  // 7.65%
     public static final double SOCIAL_SECURITY_RATE = 0.062;  // 6.2%
     public static final double MEDICARE_RATE = 0.0145;  // 1.45%
-    private static final double SINGLE_MEDICAL_RATE = 50.0;
-    private static final double FAMILY_MEDICAL_RATE = 100.0;
-    private static final double DEPENDENT_STIPEND = 45.0;
+    private static final long SINGLE_MEDICAL_RATE_CENTS = 5_000;  // $50.00
+    private static final long FAMILY_MEDICAL_RATE_CENTS = 10_000;  // $100.00
+    private static final long DEPENDENT_STIPEND_CENTS = 4_500;  // $45.00
     private static final double HOURLY_OVERTIME_RATE = 1.5;
     private static final double WORK_WEEK_HOURS = 40.0;
 
+    // Each calculating thread reuses one visitor rather than allocating per result
+    private static final ThreadLocal<RoundingValidationVisitor> VALIDATOR =
+        ThreadLocal.withInitial(RoundingValidationVisitor::new);
+
     /**
      * Class representing the result of the payroll calculation
      */
@@ -35,6 +40,8 @@ public class PayrollCalculator {
         public double netPay;
         public LocalDate payPeriodStart;
         public LocalDate payPeriodEnd;
+        /** Error codes from {@link RoundingValidationVisitor}, 0 when the result is valid */
+        public int validationErrors;
 
         public void accept(PayrollResultVisitor visitor) {
             visitor.visit(this);
@@ -74,58 +81,84 @@ public class PayrollCalculator {
                 weeklyRegularHours += entry.getRegularHours();
             }
         }
-        
+
+        determineHourlyRegularPay(hourlyRate, weeklyRegularHours, ptoHours, result);
+    }
+
+    /**
+     * Determine the regular pay for an hourly employee from their summed hours
+     * @param hourlyRate The hourly rate of the employee
+     * @param weeklyRegularHours The hours worked, excluding PTO
+     * @param ptoHours The PTO hours
+     * @param result The payroll result to calculate regular pay for
+     */
+    private static void determineHourlyRegularPay(double hourlyRate, double weeklyRegularHours, double ptoHours, PayrollResult result) {
         // Calculate regular pay for first 40 hours plus PTO
         double regularHoursPay = Math.min(weeklyRegularHours, WORK_WEEK_HOURS) * hourlyRate;
         double ptoPay = ptoHours * hourlyRate;
-        result.regularPay = regularHoursPay + ptoPay;
+        result.regularPay = Money.roundToCents(regularHoursPay + ptoPay);
         
         // Calculate overtime for hours over 40
         if (weeklyRegularHours > WORK_WEEK_HOURS) {
-            result.overtimePay = (weeklyRegularHours - WORK_WEEK_HOURS) * (hourlyRate * HOURLY_OVERTIME_RATE);
+            double overtimePay = (weeklyRegularHours - WORK_WEEK_HOURS) * (hourlyRate * HOURLY_OVERTIME_RATE);
+            result.overtimePay = Money.roundToCents(overtimePay);
         }
     }
 
     /**
-     * Calculate deductions and net pay for an employee. Assumes that the gross pay has already been calculated.
+     * Calculate gross pay, deductions and net pay for an employee. Assumes that the regular and overtime pay
+     * have already been calculated. Everything is worked out in whole cents so each amount is rounded once
+     * and net pay is exactly the sum of its parts.
      * @param result The payroll result to calculate deductions and net pay for
      * @param employee The employee to calculate deductions and net pay for
      */
     private static void calculateDeductionsAndNetPay(PayrollResult result, Employee employee) {
+        long grossPay = Money.toCents(result.regularPay) + Money.toCents(result.overtimePay);
+
         // Calculate deductions
-        result.stateTax = result.grossPay * STATE_TAX_RATE;
-        result.federalTax = result.grossPay * FEDERAL_TAX_RATE;
-        result.socialSecurityTax = result.grossPay * SOCIAL_SECURITY_RATE;
-        result.medicareTax = result.grossPay * MEDICARE_RATE;
-        
-        // Employer portions
-        result.employerSocialSecurityTax = result.grossPay * SOCIAL_SECURITY_RATE;
-        result.employerMedicareTax = result.grossPay * MEDICARE_RATE;
+        long stateTax = Money.applyRate(grossPay, STATE_TAX_RATE);
+        long federalTax = Money.applyRate(grossPay, FEDERAL_TAX_RATE);
+        long socialSecurityTax = Money.applyRate(grossPay, SOCIAL_SECURITY_RATE);
+        long medicareTax = Money.applyRate(grossPay, MEDICARE_RATE);
 
         // Medical and dependents
-        result.medicalDeduction = determineMedicalDeduction(employee);
-        result.dependentStipend = employee.getDependentsCount() * DEPENDENT_STIPEND;
+        long medicalDeduction = determineMedicalDeduction(employee);
+        long dependentStipend = employee.getDependentsCount() * DEPENDENT_STIPEND_CENTS;
 
         // Calculate net pay
-        result.netPay = result.grossPay 
-            - result.stateTax 
-            - result.federalTax 
-            - result.socialSecurityTax 
-            - result.medicareTax 
-            - result.medicalDeduction 
-            + result.dependentStipend;
+        long netPay = grossPay
+            - stateTax
+            - federalTax
+            - socialSecurityTax
+            - medicareTax
+            - medicalDeduction
+            + dependentStipend;
+
+        result.grossPay = Money.toDollars(grossPay);
+        result.stateTax = Money.toDollars(stateTax);
+        result.federalTax = Money.toDollars(federalTax);
+        result.socialSecurityTax = Money.toDollars(socialSecurityTax);
+        result.medicareTax = Money.toDollars(medicareTax);
+
+        // Employer portions match the employee portions
+        result.employerSocialSecurityTax = result.socialSecurityTax;
+        result.employerMedicareTax = result.medicareTax;
+
+        result.medicalDeduction = Money.toDollars(medicalDeduction);
+        result.dependentStipend = Money.toDollars(dependentStipend);
+        result.netPay = Money.toDollars(netPay);
     }
 
     /**
      * Determine the medical deduction for an employee
      * @param employee The employee to determine the medical deduction for
-     * @return The medical deduction for the employee
+     * @return The medical deduction for the employee in cents
      */
-    private static double determineMedicalDeduction(Employee employee) {
+    private static long determineMedicalDeduction(Employee employee) {
         // Salaried employees have a medical deduction
         if (employee.getPayType() == Employee.PayType.SALARY) {
             // Determine medical deduction based on medical coverage
-            return (employee.getMedicalCoverage() == Employee.MedicalCoverage.SINGLE) ? SINGLE_MEDICAL_RATE : FAMILY_MEDICAL_RATE;
+            return (employee.getMedicalCoverage() == Employee.MedicalCoverage.SINGLE) ? SINGLE_MEDICAL_RATE_CENTS : FAMILY_MEDICAL_RATE_CENTS;
         }
 
         // Hourly employees have no medical deduction
@@ -146,56 +179,163 @@ public class PayrollCalculator {
         LocalDate payPeriodStart,
         LocalDate payPeriodEnd
     ) {
+        return calculatePayroll(employee, timeEntries, payPeriodStart, payPeriodEnd, ValidationMode.LENIENT);
+    }
+
+    /**
+     * Calculate payroll for an employee
+     * @param employee The employee to calculate payroll for
+     * @param timeEntries The time entries to calculate payroll for
+     * @param payPeriodStart The start date of the pay period
+     * @param payPeriodEnd The end date of the pay period
+     * @param validationMode How validation failures are handled
+     * @return The calculated payroll result, with any validation error codes set
+     * @throws IllegalStateException if the mode is STRICT and the result fails validation
+     */
+    public static PayrollResult calculatePayroll(
+        Employee employee,
+        List<TimeEntry> timeEntries,
+        LocalDate payPeriodStart,
+        LocalDate payPeriodEnd,
+        ValidationMode validationMode
+    ) {
+        if (employee.getPayType() == Employee.PayType.SALARY) {
+            return calculateSalaryPayroll(employee, payPeriodStart, payPeriodEnd, validationMode);
+        }
+
         PayrollResult result = new PayrollResult();
         result.payPeriodStart = payPeriodStart;
         result.payPeriodEnd = payPeriodEnd;
+        determineHourlyRegularPay(employee.getBaseSalary(), timeEntries, result);
+        return finishPayroll(result, employee, validationMode);
+    }
 
-        double payRate = employee.getBaseSalary();
-
+    /**
+     * Calculate payroll for an employee from their time entries already summed into regular and PTO hours,
+     * e.g. by the database. Produces the same result as passing the entries themselves.
+     * @param employee The employee to calculate payroll for
+     * @param totals The employee's summed hours for the pay period, ignored for salaried employees
+     * @param payPeriodStart The start date of the pay period
+     * @param payPeriodEnd The end date of the pay period
+     * @param validationMode How validation failures are handled
+     * @return The calculated payroll result, with any validation error codes set
+     * @throws IllegalStateException if the mode is STRICT and the result fails validation
+     */
+    public static PayrollResult calculatePayroll(
+        Employee employee,
+        TimeEntryTotals totals,
+        LocalDate payPeriodStart,
+        LocalDate payPeriodEnd,
+        ValidationMode validationMode
+    ) {
         if (employee.getPayType() == Employee.PayType.SALARY) {
-            result.regularPay = determineSalaryRegularPay(
-                payRate,
-                payPeriodStart, 
-                payPeriodEnd
-            );
-
-            // Salaried employees don't have overtime
-            result.overtimePay = 0;
-        } else {
-            determineHourlyRegularPay(
-                payRate, 
-                timeEntries, 
-                result
-            );
+            return calculateSalaryPayroll(employee, payPeriodStart, payPeriodEnd, validationMode);
         }
 
-        result.grossPay = result.regularPay + result.overtimePay;
-        
+        PayrollResult result = new PayrollResult();
+        result.payPeriodStart = payPeriodStart;
+        result.payPeriodEnd = payPeriodEnd;
+        determineHourlyRegularPay(employee.getBaseSalary(), totals.getRegularHours(), totals.getPtoHours(), result);
+        return finishPayroll(result, employee, validationMode);
+    }
+
+    private static PayrollResult calculateSalaryPayroll(
+        Employee employee,
+        LocalDate payPeriodStart,
+        LocalDate payPeriodEnd,
+        ValidationMode validationMode
+    ) {
+        PayrollResult result = new PayrollResult();
+        result.payPeriodStart = payPeriodStart;
+        result.payPeriodEnd = payPeriodEnd;
+        result.regularPay = Money.roundToCents(determineSalaryRegularPay(
+            employee.getBaseSalary(),
+            payPeriodStart, 
+            payPeriodEnd
+        ));
+
+        // Salaried employees don't have overtime
+        result.overtimePay = 0;
+        return finishPayroll(result, employee, validationMode);
+    }
+
+    /**
+     * Work out deductions and net pay once regular and overtime pay are known, then validate the result
+     */
+    private static PayrollResult finishPayroll(PayrollResult result, Employee employee, ValidationMode validationMode) {
         calculateDeductionsAndNetPay(result, employee);
 
-        validatePayrollResult(result);
+        validatePayrollResult(result, validationMode);
 
         return result;
     }
     
     /**
-     * Validate the payroll result
-     * @param result The payroll result to validate
+     * Calculate payroll for every employee in a batch, filling its output columns.
+     * Produces the same amounts as {@link #calculatePayroll(Employee, List, LocalDate, LocalDate)}
+     * without creating an object per employee. Amounts are worked out in whole cents, so the
+     * results don't need the rounding and validation pass.
+     * @param batch The employees to calculate payroll for
+     * @param payPeriodStart The start date of the pay period
+     * @param payPeriodEnd The end date of the pay period
      */
-    private static void validatePayrollResult(PayrollResult result) {
-        // Round all monetary values using visitor
-        result.accept(new MonetaryRoundingVisitor());
+    public static void calculatePayroll(PayrollBatch batch, LocalDate payPeriodStart, LocalDate payPeriodEnd) {
+        int size = batch.size();
+        long daysInPeriod = payPeriodStart.until(payPeriodEnd.plusDays(1)).getDays();
 
-        // Validate calculations using validation visitor
-        PayrollResultValidationVisitor validator = new PayrollResultValidationVisitor();
-        
-        result.accept(validator);
+        // Regular and overtime pay
+        for (int i = 0; i < size; i++) {
+            double payRate = batch.payRate[i];
+            if (batch.salaried[i]) {
+                batch.regularPay[i] = Money.toCents(payRate / 365.0 * daysInPeriod);
+                batch.overtimePay[i] = 0;
+            } else {
+                double hours = batch.regularHours[i];
+                batch.regularPay[i] = Money.toCents(Math.min(hours, WORK_WEEK_HOURS) * payRate + batch.ptoHours[i] * payRate);
+                batch.overtimePay[i] = hours > WORK_WEEK_HOURS
+                    ? Money.toCents((hours - WORK_WEEK_HOURS) * (payRate * HOURLY_OVERTIME_RATE))
+                    : 0;
+            }
+        }
 
-        if (validator.hasErrors()) {
-            System.out.println("Payroll validation failed:\n" + validator.getErrors());
+        // Gross pay and taxes
+        for (int i = 0; i < size; i++) {
+            long grossPay = batch.regularPay[i] + batch.overtimePay[i];
+            batch.grossPay[i] = grossPay;
+            batch.stateTax[i] = Money.applyRate(grossPay, STATE_TAX_RATE);
+            batch.federalTax[i] = Money.applyRate(grossPay, FEDERAL_TAX_RATE);
+            batch.socialSecurityTax[i] = Money.applyRate(grossPay, SOCIAL_SECURITY_RATE);
+            batch.medicareTax[i] = Money.applyRate(grossPay, MEDICARE_RATE);
+        }
+
+        // Medical, dependents and net pay
+        for (int i = 0; i < size; i++) {
+            long medicalDeduction = !batch.salaried[i] ? 0
+                : batch.familyCoverage[i] ? FAMILY_MEDICAL_RATE_CENTS : SINGLE_MEDICAL_RATE_CENTS;
+            long dependentStipend = batch.dependents[i] * DEPENDENT_STIPEND_CENTS;
+            batch.medicalDeduction[i] = medicalDeduction;
+            batch.dependentStipend[i] = dependentStipend;
+            batch.netPay[i] = batch.grossPay[i]
+                - batch.stateTax[i]
+                - batch.federalTax[i]
+                - batch.socialSecurityTax[i]
+                - batch.medicareTax[i]
+                - medicalDeduction
+                + dependentStipend;
         }
     }
 
+    /**
+     * Round and validate the payroll result in a single pass
+     * @param result The payroll result to validate
+     * @param validationMode How validation failures are handled
+     */
+    private static void validatePayrollResult(PayrollResult result, ValidationMode validationMode) {
+        RoundingValidationVisitor validator = VALIDATOR.get();
+        validator.setMode(validationMode);
+        result.accept(validator);
+    }
+
     /**
      * Calculate a preview of payroll for time entry views
      * This method is used to show estimated pay when entering time
@@ -212,16 +352,14 @@ public class PayrollCalculator {
 
         if (employee.getPayType() == Employee.PayType.SALARY) {
             // For preview, just show the salary
-            result.regularPay = payRate;
+            result.regularPay = Money.roundToCents(payRate);
         } else {
             determineHourlyRegularPay(payRate, timeEntries, result);
         }
 
-        result.grossPay = result.regularPay + result.overtimePay;
-
         calculateDeductionsAndNetPay(result, employee);
 
-        validatePayrollResult(result);
+        validatePayrollResult(result, ValidationMode.LENIENT);
 
         return result;
     }
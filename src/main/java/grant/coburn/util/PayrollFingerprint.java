@@ -0,0 +1,52 @@
+package grant.coburn.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+import grant.coburn.model.Employee;
+import grant.coburn.model.TimeEntryTotals;
+
+/**
+ * Hashes everything an employee's payroll is calculated from: their pay details, their summed hours
+ * and the time entries behind them. A payroll record stores the fingerprint of its inputs, so an
+ * incremental run only recalculates the employees whose fingerprint no longer matches.
+ */
+public final class PayrollFingerprint {
+    private PayrollFingerprint() {}
+
+    /**
+     * Fingerprint an employee's payroll inputs for a pay period.
+     * @param employee The employee, whose pay type, salary or rate, coverage and dependents are hashed
+     * @param totals The employee's time entry totals for the pay period
+     * @return The SHA-256 of the inputs as 64 hex digits
+     */
+    public static String of(Employee employee, TimeEntryTotals totals) {
+        List<Long> entryIds = new ArrayList<>(totals.getEntryIds());
+        entryIds.sort(null);
+
+        // Hours are stored to the hundredth, so round away any difference in how the sums were added up
+        String inputs = employee.getEmployeeId() +
+            '|' + employee.getPayType() +
+            '|' + employee.getBaseSalary() +
+            '|' + employee.getMedicalCoverage() +
+            '|' + employee.getDependentsCount() +
+            '|' + Math.round(totals.getRegularHours() * 100.0) +
+            '|' + Math.round(totals.getPtoHours() * 100.0) +
+            '|' + entryIds;
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(inputs.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package grant.coburn.util;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import grant.coburn.dao.EmployeeDAO;
+import grant.coburn.dao.TimeEntryDAO;
+import grant.coburn.model.Employee;
+import grant.coburn.model.TimeEntry;
+import grant.coburn.model.TimeEntryTotals;
+import grant.coburn.util.PayrollProcessor.PendingPayroll;
+
+/**
+ * Runs a payroll as three overlapping stages connected by bounded queues:
+ * fetch (employees and time entries) -> calculate -> persist.
+ * A full queue blocks the stage feeding it, so slow database writes throttle
+ * reading instead of letting calculated payroll pile up in memory.
+ * If any stage fails, the others stop waiting on their queues and the run returns.
+ */
+class PayrollPipeline {
+    static final String FETCH_STAGE = "fetch";
+    static final String CALCULATE_STAGE = "calculate";
+    static final String PERSIST_STAGE = "persist";
+
+    /** Marks the end of the work sent to a queue */
+    private static final WorkItem END_OF_WORK = new WorkItem(null, null, null);
+    private static final PendingPayroll END_OF_RESULTS = new PendingPayroll(null, null, null);
+
+    private final PayrollProcessor processor;
+    private final EmployeeDAO employeeDAO;
+    private final TimeEntryDAO timeEntryDAO;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final Set<String> completedEmployees;
+    private final PayrollProcessingResult.Builder resultBuilder;
+    private final AtomicInteger employeesFetched = new AtomicInteger();
+    /** Set once a stage fails, so the other stages stop instead of waiting on queues nobody serves */
+    private volatile boolean stopped;
+
+    /**
+     * Thrown inside a stage that stops because another stage failed. The failure itself is reported
+     * by the stage it happened in.
+     */
+    private static class PipelineStoppedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        PipelineStoppedException() {
+            super("Payroll pipeline stopped after another stage failed");
+        }
+    }
+
+    /**
+     * An employee, the time entries to calculate their payroll from and the totals of every entry they have
+     * in the pay period, which their record's fingerprint is built from.
+     */
+    private static class WorkItem {
+        final Employee employee;
+        final List<TimeEntry> timeEntries;
+        final TimeEntryTotals periodTotals;
+
+        WorkItem(Employee employee, List<TimeEntry> timeEntries, TimeEntryTotals periodTotals) {
+            this.employee = employee;
+            this.timeEntries = timeEntries;
+            this.periodTotals = periodTotals;
+        }
+    }
+
+    PayrollPipeline(
+        PayrollProcessor processor,
+        EmployeeDAO employeeDAO,
+        TimeEntryDAO timeEntryDAO,
+        LocalDate startDate,
+        LocalDate endDate,
+        Set<String> completedEmployees,
+        PayrollProcessingResult.Builder resultBuilder
+    ) {
+        this.processor = processor;
+        this.employeeDAO = employeeDAO;
+        this.timeEntryDAO = timeEntryDAO;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.completedEmployees = completedEmployees;
+        this.resultBuilder = resultBuilder;
+    }
+
+    /**
+     * Run the pipeline to completion.
+     * @param calculationThreads The number of threads calculating payroll
+     * @param queueCapacity The maximum number of items waiting between two stages
+     * @param batchSize The number of records saved per batch
+     * @return The number of employees whose payroll was saved
+     */
+    int run(int calculationThreads, int queueCapacity, int batchSize) throws InterruptedException {
+        BlockingQueue<WorkItem> workQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<PendingPayroll> resultQueue = new ArrayBlockingQueue<>(queueCapacity);
+
+        ExecutorService executor = Executors.newFixedThreadPool(calculationThreads + 2);
+        try {
+            Future<?> fetch = executor.submit(stage(() -> {
+                fetch(workQueue, calculationThreads);
+                return null;
+            }));
+
+            List<Future<?>> calculations = new ArrayList<>();
+            for (int i = 0; i < calculationThreads; i++) {
+                calculations.add(executor.submit(stage(() -> {
+                    calculate(workQueue, resultQueue);
+                    return null;
+                })));
+            }
+
+            Future<Integer> persist = executor.submit(stage(() -> persist(resultQueue, calculationThreads, batchSize)));
+
+            awaitStage(fetch, FETCH_STAGE);
+            for (Future<?> calculation : calculations) {
+                awaitStage(calculation, CALCULATE_STAGE);
+            }
+
+            try {
+                return persist.get();
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof PipelineStoppedException)) {
+                    resultBuilder.addError("Payroll persist stage failed: " + e.getCause().getMessage());
+                }
+                return 0;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Wrap a stage so that its failure stops every other stage.
+     */
+    private <T> Callable<T> stage(Callable<T> body) {
+        return () -> {
+            try {
+                return body.call();
+            } catch (Exception | Error e) {
+                stopped = true;
+                throw e;
+            }
+        };
+    }
+
+    /** Gets the number of employees read by the fetch stage */
+    int getEmployeesFetched() {
+        return employeesFetched.get();
+    }
+
+    /**
+     * Fetch stage: stream each active employee with their unlocked time entries into the work queue.
+     * Employees without any time entries are sent once the time entries have been streamed.
+     */
+    private void fetch(BlockingQueue<WorkItem> workQueue, int consumers) {
+        long start = System.nanoTime();
+        long blocked = 0;
+        boolean failed = false;
+
+        try {
+            Map<String, Employee> employeesById = new LinkedHashMap<>();
+            for (Employee employee : employeeDAO.getAllEmployees()) {
+                employeesById.put(employee.getEmployeeId(), employee);
+            }
+            // Employees completed by an earlier run for the pay period are skipped, along with their entries
+            employeesById.keySet().removeAll(completedEmployees);
+            employeesFetched.set(employeesById.size());
+
+            Map<String, TimeEntryTotals> periodTotalsByEmployee = timeEntryDAO.getTimeEntryTotalsForActiveEmployees(startDate, endDate);
+            if (periodTotalsByEmployee == null) {
+                throw new IllegalStateException("Failed to read the time entries for this pay period");
+            }
+
+            long[] blockedNanos = new long[1];
+            boolean streamed = timeEntryDAO.streamUnlockedTimeEntriesForActiveEmployees(startDate, endDate, (employeeId, timeEntries) -> {
+                Employee employee = employeesById.remove(employeeId);
+                if (employee != null) {
+                    blockedNanos[0] += put(workQueue, new WorkItem(employee, timeEntries, periodTotals(periodTotalsByEmployee, employeeId)));
+                }
+            });
+            blocked += blockedNanos[0];
+            // The employees not streamed yet may have entries, so sending them without any would pay them for zero hours
+            if (!streamed) {
+                throw new IllegalStateException("Failed to read the time entries for this pay period");
+            }
+
+            for (Employee employee : employeesById.values()) {
+                blocked += put(workQueue, new WorkItem(employee, List.of(), periodTotals(periodTotalsByEmployee, employee.getEmployeeId())));
+            }
+        } catch (RuntimeException | Error e) {
+            // Stop the other stages before releasing them, and keep this failure as the one reported
+            failed = true;
+            stopped = true;
+            throw e;
+        } finally {
+            // Always release the calculation threads, even if fetching failed
+            try {
+                for (int i = 0; i < consumers; i++) {
+                    blocked += put(workQueue, END_OF_WORK);
+                }
+            } catch (PipelineStoppedException e) {
+                // Stopped stages don't need releasing, and rethrowing would hide why fetching failed
+                if (!failed) {
+                    throw e;
+                }
+            }
+            resultBuilder.addStageTiming(FETCH_STAGE, Duration.ofNanos(System.nanoTime() - start - blocked));
+        }
+    }
+
+    private static TimeEntryTotals periodTotals(Map<String, TimeEntryTotals> periodTotalsByEmployee, String employeeId) {
+        return periodTotalsByEmployee.getOrDefault(employeeId, TimeEntryTotals.none(employeeId));
+    }
+
+    /**
+     * Calculate stage: calculate payroll for each employee in the work queue and pass it on to be saved.
+     */
+    private void calculate(BlockingQueue<WorkItem> workQueue, BlockingQueue<PendingPayroll> resultQueue) {
+        long start = System.nanoTime();
+        long blocked = 0;
+
+        try {
+            while (true) {
+                long waitStart = System.nanoTime();
+                WorkItem item = take(workQueue);
+                blocked += System.nanoTime() - waitStart;
+
+                if (item == END_OF_WORK) {
+                    break;
+                }
+
+                PendingPayroll payroll = processor.calculateEmployeePayroll(
+                    item.employee,
+                    TimeEntryTotals.of(item.employee.getEmployeeId(), item.timeEntries),
+                    item.periodTotals,
+                    startDate,
+                    endDate,
+                    resultBuilder
+                );
+
+                if (payroll != null) {
+                    blocked += put(resultQueue, payroll);
+                }
+            }
+        } finally {
+            blocked += put(resultQueue, END_OF_RESULTS);
+            resultBuilder.addStageTiming(CALCULATE_STAGE, Duration.ofNanos(System.nanoTime() - start - blocked));
+        }
+    }
+
+    /**
+     * Persist stage: save calculated payroll and lock its time entries in batches.
+     * @return The number of employees whose payroll was saved
+     */
+    private int persist(BlockingQueue<PendingPayroll> resultQueue, int producers, int batchSize) {
+        long start = System.nanoTime();
+        long blocked = 0;
+        int saved = 0;
+        int producersFinished = 0;
+        List<PendingPayroll> pending = new ArrayList<>(batchSize);
+
+        try {
+            while (producersFinished < producers) {
+                long waitStart = System.nanoTime();
+                PendingPayroll payroll = take(resultQueue);
+                blocked += System.nanoTime() - waitStart;
+
+                if (payroll == END_OF_RESULTS) {
+                    producersFinished++;
+                    continue;
+                }
+
+                pending.add(payroll);
+                if (pending.size() >= batchSize) {
+                    saved += processor.flushPendingPayroll(pending, resultBuilder);
+                }
+            }
+
+            saved += processor.flushPendingPayroll(pending, resultBuilder);
+        } finally {
+            resultBuilder.addStageTiming(PERSIST_STAGE, Duration.ofNanos(System.nanoTime() - start - blocked));
+        }
+
+        return saved;
+    }
+
+    private void awaitStage(Future<?> stage, String stageName) throws InterruptedException {
+        try {
+            stage.get();
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof PipelineStoppedException)) {
+                resultBuilder.addError(String.format("Payroll %s stage failed: %s", stageName, e.getCause().getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Put an item on a queue, waiting for space if needed unless the pipeline has stopped.
+     * @return The time spent waiting, in nanoseconds
+     */
+    private <T> long put(BlockingQueue<T> queue, T item) {
+        long start = System.nanoTime();
+        try {
+            while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                if (stopped) {
+                    throw new PipelineStoppedException();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Payroll pipeline was interrupted", e);
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Take the next item from a queue, waiting for one if needed unless the pipeline has stopped.
+     */
+    private <T> T take(BlockingQueue<T> queue) {
+        try {
+            while (true) {
+                T item = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (item != null) {
+                    return item;
+                }
+                if (stopped) {
+                    throw new PipelineStoppedException();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Payroll pipeline was interrupted", e);
+        }
+    }
+}
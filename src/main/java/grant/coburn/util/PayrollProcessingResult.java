@@ -1,8 +1,11 @@
 package grant.coburn.util;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Represents the result of a payroll processing operation.
@@ -14,6 +17,8 @@ public class PayrollProcessingResult {
     private final List<String> warnings;
     private final int employeesProcessed;
     private final int employeesWithErrors;
+    private final boolean cancelled;
+    private final Map<String, Duration> stageTimings;
 
     private PayrollProcessingResult(Builder builder) {
         this.success = builder.success;
@@ -21,6 +26,8 @@ public class PayrollProcessingResult {
         this.warnings = Collections.unmodifiableList(new ArrayList<>(builder.warnings));
         this.employeesProcessed = builder.employeesProcessed;
         this.employeesWithErrors = builder.employeesWithErrors;
+        this.cancelled = builder.cancelled;
+        this.stageTimings = Collections.unmodifiableMap(new LinkedHashMap<>(builder.stageTimings));
     }
 
     public boolean isSuccess() {
@@ -43,6 +50,22 @@ public class PayrollProcessingResult {
         return employeesWithErrors;
     }
 
+    /**
+     * Whether processing was cancelled before every employee was processed.
+     * Employees processed before the cancellation are still saved.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Gets the time spent in each processing stage, in the order the stages were recorded.
+     * When a stage runs on several threads, this is the time summed across those threads.
+     */
+    public Map<String, Duration> getStageTimings() {
+        return stageTimings;
+    }
+
     public boolean hasErrors() {
         return !errors.isEmpty();
     }
@@ -51,35 +74,51 @@ public class PayrollProcessingResult {
         return !warnings.isEmpty();
     }
 
+    /**
+     * Builder for PayrollProcessingResult. All methods are synchronized so a single
+     * builder can collect results from several payroll worker threads.
+     */
     public static class Builder {
         private boolean success = true;
         private List<String> errors = new ArrayList<>();
         private List<String> warnings = new ArrayList<>();
         private int employeesProcessed = 0;
         private int employeesWithErrors = 0;
+        private boolean cancelled = false;
+        private Map<String, Duration> stageTimings = new LinkedHashMap<>();
 
-        public Builder addError(String error) {
+        public synchronized Builder addError(String error) {
             this.errors.add(error);
             this.success = false;
             return this;
         }
 
-        public Builder addWarning(String warning) {
+        public synchronized Builder addWarning(String warning) {
             this.warnings.add(warning);
             return this;
         }
 
-        public Builder setEmployeesProcessed(int count) {
+        public synchronized Builder setEmployeesProcessed(int count) {
             this.employeesProcessed = count;
             return this;
         }
 
-        public Builder incrementEmployeesWithErrors() {
+        public synchronized Builder incrementEmployeesWithErrors() {
             this.employeesWithErrors++;
             return this;
         }
 
-        public PayrollProcessingResult build() {
+        public synchronized Builder setCancelled(boolean cancelled) {
+            this.cancelled = cancelled;
+            return this;
+        }
+
+        public synchronized Builder addStageTiming(String stage, Duration duration) {
+            this.stageTimings.merge(stage, duration, Duration::plus);
+            return this;
+        }
+
+        public synchronized PayrollProcessingResult build() {
             return new PayrollProcessingResult(this);
         }
     }
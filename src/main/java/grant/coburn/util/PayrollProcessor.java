@@ -1,121 +1,433 @@
 package grant.coburn.util;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import grant.coburn.dao.EmployeeDAO;
 import grant.coburn.dao.PayrollRecordDAO;
+import grant.coburn.dao.PayrollRunDAO;
+import grant.coburn.dao.StorageEngine;
 import grant.coburn.dao.TimeEntryDAO;
+import grant.coburn.dao.UnitOfWork;
 import grant.coburn.model.Employee;
 import grant.coburn.model.PayrollRecord;
-import grant.coburn.model.TimeEntry;
+import grant.coburn.model.PayrollReportRow;
+import grant.coburn.model.TimeEntryTotals;
 import grant.coburn.util.PayrollCalculator.PayrollResult;
 
 public class PayrollProcessor {
+    private static final String ALREADY_PROCESSED_WARNING = "Payroll has already been processed for every employee in this pay period";
+
     private static PayrollProcessor instance;
+    private final StorageEngine storage;
     private final EmployeeDAO employeeDAO;
     private final TimeEntryDAO timeEntryDAO;
     private final PayrollRecordDAO payrollRecordDAO;
+    private final PayrollRunDAO payrollRunDAO;
+    private int batchSize = DBProperties.BATCH_SIZE;
+    private int calculationThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
+    private int pipelineQueueCapacity = 1_000;
+    private volatile ValidationMode validationMode = ValidationMode.LENIENT;
+
+    /**
+     * A calculated payroll record waiting to be saved, along with the IDs of the time entries it was calculated from.
+     */
+    static class PendingPayroll {
+        final Employee employee;
+        final PayrollRecord record;
+        final List<Long> entryIds;
+
+        PendingPayroll(Employee employee, PayrollRecord record, List<Long> entryIds) {
+            this.employee = employee;
+            this.record = record;
+            this.entryIds = entryIds;
+        }
+    }
+
+    /**
+     * Counts processed employees and reports them to a progress listener.
+     */
+    private static class ProgressTracker {
+        private final PayrollProgressListener listener;
+        private final int totalEmployees;
+        private final long startNanos = System.nanoTime();
+        private int employeesCompleted;
+        private int employeesWithErrors;
+
+        ProgressTracker(PayrollProgressListener listener, int totalEmployees) {
+            this.listener = listener;
+            this.totalEmployees = totalEmployees;
+        }
+
+        synchronized void employeeCalculated(boolean succeeded) {
+            if (succeeded) {
+                employeesCompleted++;
+            } else {
+                employeesWithErrors++;
+            }
+            publish();
+        }
+
+        /** Move employees whose payroll was calculated but couldn't be saved over to the errors */
+        synchronized void saveFailed(int employees) {
+            if (employees > 0) {
+                employeesCompleted -= employees;
+                employeesWithErrors += employees;
+                publish();
+            }
+        }
+
+        synchronized void publish() {
+            listener.progressUpdated(new PayrollProgress(
+                totalEmployees,
+                employeesCompleted,
+                employeesWithErrors,
+                System.nanoTime() - startNanos
+            ));
+        }
+
+        boolean isCancelled() {
+            return listener.isCancelled();
+        }
+    }
 
     private PayrollProcessor() {
-        this.employeeDAO = EmployeeDAO.shared;
-        this.timeEntryDAO = TimeEntryDAO.shared;
-        this.payrollRecordDAO = PayrollRecordDAO.shared;
+        this(StorageEngine.shared());
     }
 
-    public static PayrollProcessor shared() {
+    /**
+     * Create a payroll processor that works against the given storage rather than the shared database,
+     * e.g. for a benchmark database or in-memory storage in tests.
+     */
+    public PayrollProcessor(StorageEngine storage) {
+        this.storage = storage;
+        this.employeeDAO = storage.getEmployeeDAO();
+        this.timeEntryDAO = storage.getTimeEntryDAO();
+        this.payrollRecordDAO = storage.getPayrollRecordDAO();
+        this.payrollRunDAO = storage.getPayrollRunDAO();
+    }
+
+    public static synchronized PayrollProcessor shared() {
         if (instance == null) {
             instance = new PayrollProcessor();
         }
         return instance;
     }
 
+    /** Gets the number of employees processed and saved per batch while processing payroll */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /** Sets the number of employees processed and saved per batch while processing payroll, each batch is committed in one transaction */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /** Gets the number of threads calculating payroll in pipelined mode */
+    public int getCalculationThreads() {
+        return calculationThreads;
+    }
+
+    /** Sets the number of threads calculating payroll in pipelined mode */
+    public void setCalculationThreads(int calculationThreads) {
+        if (calculationThreads < 1) {
+            throw new IllegalArgumentException("Calculation threads must be at least 1");
+        }
+        this.calculationThreads = calculationThreads;
+    }
+
+    /** Gets the maximum number of items waiting between two stages in pipelined mode */
+    public int getPipelineQueueCapacity() {
+        return pipelineQueueCapacity;
+    }
+
+    /** Sets the maximum number of items waiting between two stages in pipelined mode */
+    public void setPipelineQueueCapacity(int pipelineQueueCapacity) {
+        if (pipelineQueueCapacity < 1) {
+            throw new IllegalArgumentException("Pipeline queue capacity must be at least 1");
+        }
+        this.pipelineQueueCapacity = pipelineQueueCapacity;
+    }
+
+    /** Gets how payroll results that fail validation are handled */
+    public ValidationMode getValidationMode() {
+        return validationMode;
+    }
+
     /**
-     * Process payroll for all employees for the given pay period
+     * Sets how payroll results that fail validation are handled. STRICT reports the employee
+     * as an error and skips them, LENIENT saves the record and adds a warning, OFF skips validation.
+     */
+    public void setValidationMode(ValidationMode validationMode) {
+        this.validationMode = Objects.requireNonNull(validationMode);
+    }
+
+    /**
+     * Process payroll for all employees for the given pay period. Each employee's progress is checkpointed
+     * in the payroll run ledger, so processing a pay period again resumes an interrupted run: employees
+     * completed by an earlier run are skipped and the rest are processed, replacing any payroll record
+     * they were part way through saving.
      * @param startDate The start date of the pay period
      * @param endDate The end date of the pay period
      * @return A PayrollProcessingResult containing the results of the operation
      */
     public PayrollProcessingResult processPayroll(LocalDate startDate, LocalDate endDate) {
-        PayrollProcessingResult.Builder resultBuilder = new PayrollProcessingResult.Builder();
+        return processPayroll(startDate, endDate, PayrollProgressListener.NONE);
+    }
 
-        if (startDate == null || endDate == null) {
-            return resultBuilder.addError("Start date and end date are required").build();
-        }
+    /**
+     * Process payroll for all employees for the given pay period, reporting progress as each employee
+     * is processed. Cancelling the listener stops processing before the next batch of {@link #getBatchSize()}
+     * employees, and the result is marked as cancelled.
+     * @param startDate The start date of the pay period
+     * @param endDate The end date of the pay period
+     * @param listener Receives progress and is checked for cancellation between batches
+     * @return A PayrollProcessingResult containing the results of the operation
+     */
+    public PayrollProcessingResult processPayroll(LocalDate startDate, LocalDate endDate, PayrollProgressListener listener) {
+        // Run every batch on the calling thread
+        return processPayroll(startDate, endDate, Runnable::run, listener, false);
+    }
 
-        if (endDate.isBefore(startDate)) {
-            return resultBuilder.addError("End date cannot be before start date").build();
+    /**
+     * Process payroll for all employees for the given pay period, spreading the work across an executor.
+     * Employees are partitioned into batches of {@link #getBatchSize()} and each batch is calculated,
+     * saved and locked by one of the executor's threads. The executor is not shut down by this method.
+     * Time spent fetching, calculating and saving is reported through {@link PayrollProcessingResult#getStageTimings()}.
+     * @param startDate The start date of the pay period
+     * @param endDate The end date of the pay period
+     * @param executor The executor to run batches on, e.g. a fixed thread pool or a ForkJoinPool
+     * @return A PayrollProcessingResult containing the results of the operation
+     */
+    public PayrollProcessingResult processPayroll(LocalDate startDate, LocalDate endDate, ExecutorService executor) {
+        return processPayroll(startDate, endDate, executor, PayrollProgressListener.NONE);
+    }
+
+    /**
+     * Process payroll for all employees for the given pay period across an executor, reporting progress
+     * and stopping before the next batch once the listener is cancelled.
+     * @see #processPayroll(LocalDate, LocalDate, ExecutorService)
+     * @see #processPayroll(LocalDate, LocalDate, PayrollProgressListener)
+     */
+    public PayrollProcessingResult processPayroll(
+        LocalDate startDate,
+        LocalDate endDate,
+        ExecutorService executor,
+        PayrollProgressListener listener
+    ) {
+        return processPayroll(startDate, endDate, (Executor) executor, listener, false);
+    }
+
+    /**
+     * Process payroll for the given pay period again after corrections, recalculating only the employees
+     * whose time entries or pay details changed since their payroll record was saved. Each record keeps a
+     * fingerprint of the inputs it was calculated from. Employees whose current inputs no longer match have
+     * their time entries unlocked and their checkpoint removed, then the run resumes as usual: the changed
+     * employees are recalculated and their records replaced, along with any employee who hasn't been
+     * processed for the pay period yet. Everyone else is skipped.
+     * @param startDate The start date of the pay period
+     * @param endDate The end date of the pay period
+     * @return A PayrollProcessingResult containing the results of the operation
+     */
+    public PayrollProcessingResult processPayrollIncremental(LocalDate startDate, LocalDate endDate) {
+        return processPayrollIncremental(startDate, endDate, PayrollProgressListener.NONE);
+    }
+
+    /**
+     * Process payroll again for only the employees whose inputs changed, reporting progress and stopping
+     * before the next batch once the listener is cancelled.
+     * @see #processPayrollIncremental(LocalDate, LocalDate)
+     * @see #processPayroll(LocalDate, LocalDate, PayrollProgressListener)
+     */
+    public PayrollProcessingResult processPayrollIncremental(LocalDate startDate, LocalDate endDate, PayrollProgressListener listener) {
+        return processPayroll(startDate, endDate, Runnable::run, listener, true);
+    }
+
+    private PayrollProcessingResult processPayroll(
+        LocalDate startDate,
+        LocalDate endDate,
+        Executor executor,
+        PayrollProgressListener listener,
+        boolean incremental
+    ) {
+        PayrollProcessingResult.Builder resultBuilder = new PayrollProcessingResult.Builder();
+
+        String payPeriodError = validatePayPeriod(startDate, endDate);
+        if (payPeriodError != null) {
+            return resultBuilder.addError(payPeriodError).build();
         }
 
+        long fetchStart = System.nanoTime();
         List<Employee> employees = employeeDAO.getAllEmployees();
         if (employees.isEmpty()) {
             return resultBuilder.addWarning("No employees found to process").build();
         }
 
+        if (incremental && !reopenChangedEmployees(employees, startDate, endDate, resultBuilder)) {
+            return resultBuilder.build();
+        }
+
+        Set<String> completedEmployees = getCompletedEmployees(startDate, endDate, resultBuilder);
+        if (completedEmployees == null) {
+            return resultBuilder.build();
+        }
+        if (!completedEmployees.isEmpty()) {
+            employees = new ArrayList<>(employees);
+            employees.removeIf(employee -> completedEmployees.contains(employee.getEmployeeId()));
+            if (employees.isEmpty()) {
+                return resultBuilder.addWarning(ALREADY_PROCESSED_WARNING).build();
+            }
+        }
+
+        // Fetch every employee's summed hours for the period up front rather than querying per employee.
+        // The database adds up the time entries, so only one row per employee is read
+        Map<String, TimeEntryTotals> totalsByEmployee = timeEntryDAO.getUnlockedTimeEntryTotalsForActiveEmployees(
+            startDate,
+            endDate
+        );
+        if (totalsByEmployee == null) {
+            // Paying everyone as if they had no hours would be worse than not running at all
+            return resultBuilder.addError("Failed to read the time entries for this pay period").build();
+        }
+        // Fingerprints cover every entry in the period, the same entries an incremental run compares them against
+        Map<String, TimeEntryTotals> periodTotalsByEmployee = timeEntryDAO.getTimeEntryTotalsForActiveEmployees(startDate, endDate);
+        if (periodTotalsByEmployee == null) {
+            return resultBuilder.addError("Failed to read the time entries for this pay period").build();
+        }
+        resultBuilder.addStageTiming(PayrollPipeline.FETCH_STAGE, Duration.ofNanos(System.nanoTime() - fetchStart));
+
         final int totalEmployees = employees.size();
         int successfullyProcessed = 0;
+        ProgressTracker progress = new ProgressTracker(listener, totalEmployees);
+        AtomicInteger employeesSkipped = new AtomicInteger();
+        progress.publish();
 
-        resultBuilder.setEmployeesProcessed(totalEmployees);
+        // Partition the employees into batches and hand each batch to the executor
+        List<List<Employee>> batches = new ArrayList<>();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int from = 0; from < totalEmployees; from += batchSize) {
+            List<Employee> batch = employees.subList(from, Math.min(from + batchSize, totalEmployees));
+            batches.add(batch);
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                // Cancellation only takes effect between batches, so every started batch is saved
+                if (progress.isCancelled()) {
+                    employeesSkipped.addAndGet(batch.size());
+                    return 0;
+                }
+                return processBatch(batch, totalsByEmployee, periodTotalsByEmployee, startDate, endDate, resultBuilder, progress);
+            }, executor));
+        }
 
-        for (Employee employee : employees) {
+        for (int i = 0; i < futures.size(); i++) {
             try {
-                List<TimeEntry> timeEntries = timeEntryDAO.getTimeEntriesByEmployeeIdAndDateRange(
-                    employee.getEmployeeId(), 
-                    startDate, 
-                    endDate
-                );
-
-                PayrollResult payrollResult = PayrollCalculator.calculatePayroll(
-                    employee,
-                    timeEntries,
-                    startDate,
-                    endDate
-                );
-
-                // Save the payroll record
-                PayrollRecord record = new PayrollRecord(
-                    employee.getEmployeeId(),
-                    startDate,
-                    endDate,
-                    payrollResult.grossPay,
-                    payrollResult.netPay,
-                    payrollResult.medicalDeduction,
-                    payrollResult.dependentStipend,
-                    payrollResult.stateTax,
-                    payrollResult.federalTax,
-                    payrollResult.socialSecurityTax,
-                    payrollResult.medicareTax,
-                    payrollResult.employerSocialSecurityTax,
-                    payrollResult.employerMedicareTax
-                );
-
-                payrollRecordDAO.savePayrollRecord(record);
-
-                // Lock all time entries for the employee for the pay period
-                lockTimeEntries(timeEntries);
-
-                successfullyProcessed++;
-            } catch (IllegalStateException e) {
-                // Validation errors from PayrollCalculator
-                resultBuilder.addError(String.format(
-                    "Error processing employee %s (%s): %s",
-                    employee.getFullName(),
-                    employee.getEmployeeId(),
-                    e.getMessage()
-                ));
-                resultBuilder.incrementEmployeesWithErrors();
-            } catch (Exception e) {
-                // Unexpected errors
-                resultBuilder.addError(String.format(
-                    "Unexpected error processing employee %s (%s): %s",
-                    employee.getFullName(),
-                    employee.getEmployeeId(),
-                    e.getMessage()
-                ));
-                resultBuilder.incrementEmployeesWithErrors();
+                successfullyProcessed += futures.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                resultBuilder.addError("Payroll processing was interrupted");
+                break;
+            } catch (ExecutionException e) {
+                // Unexpected errors that escaped the per-employee handling fail the whole batch
+                for (Employee employee : batches.get(i)) {
+                    resultBuilder.addError(String.format(
+                        "Unexpected error processing employee %s (%s): %s",
+                        employee.getFullName(),
+                        employee.getEmployeeId(),
+                        e.getCause().getMessage()
+                    ));
+                    resultBuilder.incrementEmployeesWithErrors();
+                }
             }
         }
 
+        int employeesProcessed = totalEmployees - employeesSkipped.get();
+        resultBuilder.setEmployeesProcessed(employeesProcessed);
+
+        if (employeesProcessed < totalEmployees) {
+            resultBuilder.setCancelled(true);
+            resultBuilder.addWarning(String.format(
+                "Payroll processing was cancelled: %d of %d employees were not processed",
+                totalEmployees - employeesProcessed,
+                totalEmployees
+            ));
+        }
+
+        if (successfullyProcessed < employeesProcessed) {
+            resultBuilder.addWarning(String.format(
+                "Completed with errors: %d of %d employees processed successfully",
+                successfullyProcessed,
+                employeesProcessed
+            ));
+        }
+
+        return resultBuilder.build();
+    }
+
+    /**
+     * Process payroll for all employees for the given pay period as a pipeline of overlapping stages.
+     * One thread streams employees and time entries from the database, calculation threads compute
+     * payroll, and one thread saves records and locks entries in batches. Stages are connected by
+     * queues holding at most {@link #getPipelineQueueCapacity()} items, so a slow stage holds back
+     * the stage feeding it. Time spent in each stage is reported through
+     * {@link PayrollProcessingResult#getStageTimings()}.
+     * @param startDate The start date of the pay period
+     * @param endDate The end date of the pay period
+     * @return A PayrollProcessingResult containing the results of the operation
+     */
+    public PayrollProcessingResult processPayrollPipelined(LocalDate startDate, LocalDate endDate) {
+        PayrollProcessingResult.Builder resultBuilder = new PayrollProcessingResult.Builder();
+
+        String payPeriodError = validatePayPeriod(startDate, endDate);
+        if (payPeriodError != null) {
+            return resultBuilder.addError(payPeriodError).build();
+        }
+
+        Set<String> completedEmployees = getCompletedEmployees(startDate, endDate, resultBuilder);
+        if (completedEmployees == null) {
+            return resultBuilder.build();
+        }
+
+        PayrollPipeline pipeline = new PayrollPipeline(
+            this,
+            employeeDAO,
+            timeEntryDAO,
+            startDate,
+            endDate,
+            completedEmployees,
+            resultBuilder
+        );
+
+        int totalEmployees;
+        int successfullyProcessed;
+        try {
+            successfullyProcessed = pipeline.run(calculationThreads, pipelineQueueCapacity, batchSize);
+            totalEmployees = pipeline.getEmployeesFetched();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return resultBuilder.addError("Payroll processing was interrupted").build();
+        }
+
+        if (totalEmployees == 0) {
+            return resultBuilder.addWarning(
+                completedEmployees.isEmpty() ? "No employees found to process" : ALREADY_PROCESSED_WARNING
+            ).build();
+        }
+
+        resultBuilder.setEmployeesProcessed(totalEmployees);
+
         if (successfullyProcessed < totalEmployees) {
             resultBuilder.addWarning(String.format(
                 "Completed with errors: %d of %d employees processed successfully",
@@ -127,11 +439,286 @@ public class PayrollProcessor {
         return resultBuilder.build();
     }
 
-    private  void lockTimeEntries(List<TimeEntry> timeEntries) {
-        for (TimeEntry timeEntry : timeEntries) {
-            timeEntry.setLocked(true);
-            timeEntryDAO.updateTimeEntry(timeEntry);
+    /**
+     * Look up the employees an earlier run already completed for the pay period, so they can be skipped.
+     * @return The IDs of the completed employees, or null if an error was reported
+     */
+    private Set<String> getCompletedEmployees(LocalDate startDate, LocalDate endDate, PayrollProcessingResult.Builder resultBuilder) {
+        Set<String> completedEmployees = payrollRunDAO.getCompletedEmployeeIds(startDate, endDate);
+        if (completedEmployees == null) {
+            // Processing everyone again would replace completed payroll with records for their already locked, zero hours
+            resultBuilder.addError("Failed to read which employees were already processed for this pay period");
+            return null;
         }
+        if (!completedEmployees.isEmpty()) {
+            resultBuilder.addWarning(String.format(
+                "Skipped %d employees whose payroll was already processed for this pay period",
+                completedEmployees.size()
+            ));
+        }
+        return completedEmployees;
+    }
+
+    /**
+     * Compare the fingerprint stored with each employee's payroll record against their current hours and
+     * pay details, and reopen the employees that changed: their time entries for the pay period are unlocked
+     * and their checkpoint removed in one transaction, so the run that follows recalculates them.
+     * Employees without a record for the pay period are left alone, the run processes them anyway.
+     * @return true if the changed employees were reopened, false if an error was reported
+     */
+    private boolean reopenChangedEmployees(
+        List<Employee> employees,
+        LocalDate startDate,
+        LocalDate endDate,
+        PayrollProcessingResult.Builder resultBuilder
+    ) {
+        Map<String, String> fingerprints = payrollRecordDAO.getInputFingerprints(startDate, endDate);
+        if (fingerprints == null) {
+            resultBuilder.addError("Failed to read the payroll records saved for this pay period");
+            return false;
+        }
+        if (fingerprints.isEmpty()) {
+            return true;
+        }
+
+        Map<String, TimeEntryTotals> totalsByEmployee = timeEntryDAO.getTimeEntryTotalsForActiveEmployees(startDate, endDate);
+        if (totalsByEmployee == null) {
+            resultBuilder.addError("Failed to read the time entries for this pay period");
+            return false;
+        }
+
+        List<String> changedEmployees = new ArrayList<>();
+        for (Employee employee : employees) {
+            String employeeId = employee.getEmployeeId();
+            if (!fingerprints.containsKey(employeeId)) {
+                continue;
+            }
+
+            String current = PayrollFingerprint.of(employee, totalsByEmployee.getOrDefault(employeeId, TimeEntryTotals.none(employeeId)));
+            // Records saved before fingerprints were kept have none and are recalculated once
+            if (!current.equals(fingerprints.get(employeeId))) {
+                changedEmployees.add(employeeId);
+            }
+        }
+
+        if (changedEmployees.isEmpty()) {
+            return true;
+        }
+
+        UnitOfWork unitOfWork = storage.beginUnitOfWork();
+        unitOfWork.unlockTimeEntries(changedEmployees, startDate, endDate);
+        unitOfWork.deleteEmployeeStatuses(startDate, endDate, changedEmployees);
+        if (!unitOfWork.commit()) {
+            resultBuilder.addError(String.format(
+                "Failed to reopen payroll for %d employees whose time entries or pay details changed",
+                changedEmployees.size()
+            ));
+            return false;
+        }
+
+        resultBuilder.addWarning(String.format(
+            "Recalculating %d employees whose time entries or pay details changed since payroll was processed",
+            changedEmployees.size()
+        ));
+        return true;
+    }
+
+    /**
+     * Check that a pay period is complete and in order.
+     * @return An error message describing the problem, or null if the pay period is valid
+     */
+    private String validatePayPeriod(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            return "Start date and end date are required";
+        }
+
+        if (endDate.isBefore(startDate)) {
+            return "End date cannot be before start date";
+        }
+
+        return null;
+    }
+
+    /**
+     * Calculate payroll for a batch of employees, then save the records and lock the time entries as one batch.
+     * Errors are reported per employee so one bad employee doesn't stop the rest of the batch.
+     * @return The number of employees in the batch whose payroll was saved
+     */
+    private int processBatch(
+        List<Employee> employees,
+        Map<String, TimeEntryTotals> totalsByEmployee,
+        Map<String, TimeEntryTotals> periodTotalsByEmployee,
+        LocalDate startDate,
+        LocalDate endDate,
+        PayrollProcessingResult.Builder resultBuilder,
+        ProgressTracker progress
+    ) {
+        List<PendingPayroll> pending = new ArrayList<>(employees.size());
+        long calculateStart = System.nanoTime();
+
+        for (Employee employee : employees) {
+            PendingPayroll payroll = calculateEmployeePayroll(
+                employee,
+                totalsByEmployee.getOrDefault(employee.getEmployeeId(), TimeEntryTotals.none(employee.getEmployeeId())),
+                periodTotalsByEmployee.getOrDefault(employee.getEmployeeId(), TimeEntryTotals.none(employee.getEmployeeId())),
+                startDate,
+                endDate,
+                resultBuilder
+            );
+
+            // Queue the payroll record to be saved with the rest of the batch
+            if (payroll != null) {
+                pending.add(payroll);
+            }
+            progress.employeeCalculated(payroll != null);
+        }
+
+        long persistStart = System.nanoTime();
+        resultBuilder.addStageTiming(PayrollPipeline.CALCULATE_STAGE, Duration.ofNanos(persistStart - calculateStart));
+
+        int calculated = pending.size();
+        int flushed = flushPendingPayroll(pending, resultBuilder);
+        progress.saveFailed(calculated - flushed);
+        resultBuilder.addStageTiming(PayrollPipeline.PERSIST_STAGE, Duration.ofNanos(System.nanoTime() - persistStart));
+        return flushed;
+    }
+
+    /**
+     * Calculate payroll for a single employee, reporting any failure to the result builder.
+     * @param totals The employee's unlocked time entries, which they are paid for
+     * @param periodTotals Every time entry the employee has in the pay period, locked or not, which the record's
+     * fingerprint is built from so it matches what {@link #processPayrollIncremental} compares it against
+     * @return The calculated payroll waiting to be saved, or null if the calculation failed
+     */
+    PendingPayroll calculateEmployeePayroll(
+        Employee employee,
+        TimeEntryTotals totals,
+        TimeEntryTotals periodTotals,
+        LocalDate startDate,
+        LocalDate endDate,
+        PayrollProcessingResult.Builder resultBuilder
+    ) {
+        try {
+            PayrollResult payrollResult = PayrollCalculator.calculatePayroll(
+                employee,
+                totals,
+                startDate,
+                endDate,
+                validationMode
+            );
+
+            if (payrollResult.validationErrors != 0) {
+                resultBuilder.addWarning(String.format(
+                    "Payroll validation failed for employee %s (%s):\n%s",
+                    employee.getFullName(),
+                    employee.getEmployeeId(),
+                    RoundingValidationVisitor.describeErrors(payrollResult)
+                ));
+            }
+
+            PayrollRecord record = createPayrollRecord(employee, payrollResult, startDate, endDate);
+            record.setInputFingerprint(PayrollFingerprint.of(employee, periodTotals));
+            return new PendingPayroll(employee, record, totals.getEntryIds());
+        } catch (IllegalStateException e) {
+            // Validation errors from PayrollCalculator
+            resultBuilder.addError(String.format(
+                "Error processing employee %s (%s): %s",
+                employee.getFullName(),
+                employee.getEmployeeId(),
+                e.getMessage()
+            ));
+            resultBuilder.incrementEmployeesWithErrors();
+            payrollRunDAO.saveEmployeeStatuses(startDate, endDate, List.of(employee.getEmployeeId()), PayrollRunDAO.Status.FAILED);
+        } catch (Exception e) {
+            // Unexpected errors
+            resultBuilder.addError(String.format(
+                "Unexpected error processing employee %s (%s): %s",
+                employee.getFullName(),
+                employee.getEmployeeId(),
+                e.getMessage()
+            ));
+            resultBuilder.incrementEmployeesWithErrors();
+            payrollRunDAO.saveEmployeeStatuses(startDate, endDate, List.of(employee.getEmployeeId()), PayrollRunDAO.Status.FAILED);
+        }
+
+        return null;
+    }
+
+    /**
+     * Save the pending payroll records, checkpoint their employees as completed and lock the time entries
+     * they were calculated from, all in one transaction. A record is never saved without its entries being
+     * locked, and the batch costs one commit rather than one per statement.
+     * If the batch can't be saved, every employee in it is reported as an error and their entries stay unlocked.
+     * @param pending The payroll waiting to be saved, cleared once flushed
+     * @param resultBuilder The result builder to report errors to
+     * @return The number of employees whose payroll was saved
+     */
+    int flushPendingPayroll(List<PendingPayroll> pending, PayrollProcessingResult.Builder resultBuilder) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<PayrollRecord> records = new ArrayList<>(pending.size());
+        List<String> employeeIds = new ArrayList<>(pending.size());
+        List<Long> entryIds = new ArrayList<>();
+        for (PendingPayroll payroll : pending) {
+            records.add(payroll.record);
+            employeeIds.add(payroll.employee.getEmployeeId());
+            entryIds.addAll(payroll.entryIds);
+        }
+
+        // Every record in a run is for the same pay period
+        LocalDate startDate = records.get(0).getPayPeriodStart();
+        LocalDate endDate = records.get(0).getPayPeriodEnd();
+
+        UnitOfWork unitOfWork = storage.beginUnitOfWork();
+        unitOfWork.savePayrollRecords(records);
+        unitOfWork.saveEmployeeStatuses(startDate, endDate, employeeIds, PayrollRunDAO.Status.COMPLETED);
+        unitOfWork.lockTimeEntries(entryIds);
+        int flushed = 0;
+
+        if (!unitOfWork.commit()) {
+            for (PendingPayroll payroll : pending) {
+                resultBuilder.addError(String.format(
+                    "Failed to save payroll record for employee %s (%s)",
+                    payroll.employee.getFullName(),
+                    payroll.employee.getEmployeeId()
+                ));
+                resultBuilder.incrementEmployeesWithErrors();
+            }
+            payrollRunDAO.saveEmployeeStatuses(startDate, endDate, employeeIds, PayrollRunDAO.Status.FAILED);
+        } else {
+            int locked = unitOfWork.getTimeEntriesLocked();
+            if (locked != entryIds.size()) {
+                resultBuilder.addWarning(String.format(
+                    "Expected to lock %d time entries but %d were locked",
+                    entryIds.size(),
+                    locked
+                ));
+            }
+            flushed = pending.size();
+        }
+
+        pending.clear();
+        return flushed;
+    }
+
+    private PayrollRecord createPayrollRecord(Employee employee, PayrollResult payrollResult, LocalDate startDate, LocalDate endDate) {
+        return PayrollRecord.ofCents(
+            employee.getEmployeeId(),
+            startDate,
+            endDate,
+            Money.toCents(payrollResult.grossPay),
+            Money.toCents(payrollResult.netPay),
+            Money.toCents(payrollResult.medicalDeduction),
+            Money.toCents(payrollResult.dependentStipend),
+            Money.toCents(payrollResult.stateTax),
+            Money.toCents(payrollResult.federalTax),
+            Money.toCents(payrollResult.socialSecurityTax),
+            Money.toCents(payrollResult.medicareTax),
+            Money.toCents(payrollResult.employerSocialSecurityTax),
+            Money.toCents(payrollResult.employerMedicareTax)
+        );
     }
 
     /**
@@ -147,6 +734,19 @@ public class PayrollProcessor {
         return payrollRecordDAO.getPayrollRecordsByDateRange(startDate, endDate);
     }
 
+    /**
+     * Get payroll records for a specific date range along with each employee's name and department.
+     * @param startDate The start date of the pay period
+     * @param endDate The end date of the pay period
+     * @return List of payroll records joined with their employees
+     */
+    public List<PayrollReportRow> getPayrollReportRows(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            return List.of();
+        }
+        return payrollRecordDAO.getPayrollReportRowsByDateRange(startDate, endDate);
+    }
+
     /**
      * Get all active employees.
      * @return List of all employees
@@ -165,24 +765,19 @@ public class PayrollProcessor {
     }
 
     /**
-     * Delete a payroll record for an employee within a specific pay period.
+     * Delete a payroll record for an employee within a specific pay period. The employee's time entries
+     * for the period are unlocked and their checkpoint removed in the same transaction, so the next run
+     * processes them again.
      * @param employeeId The ID of the employee
      * @param startDate The start date of the pay period
      * @param endDate The end date of the pay period
      * @return true if the record was deleted successfully, false otherwise
      */
     public boolean deletePayrollRecord(String employeeId, LocalDate startDate, LocalDate endDate) {
-        // First, unlock any time entries for this period
-        List<TimeEntry> timeEntries = timeEntryDAO.getTimeEntriesByEmployeeIdAndDateRange(
-            employeeId, startDate, endDate
-        );
-        
-        for (TimeEntry entry : timeEntries) {
-            entry.setLocked(false);
-            timeEntryDAO.updateTimeEntry(entry);
-        }
-
-        // Then delete the payroll record
-        return payrollRecordDAO.deletePayrollRecord(employeeId, startDate, endDate);
+        UnitOfWork unitOfWork = storage.beginUnitOfWork();
+        unitOfWork.unlockTimeEntries(List.of(employeeId), startDate, endDate);
+        unitOfWork.deleteEmployeeStatuses(startDate, endDate, List.of(employeeId));
+        unitOfWork.deletePayrollRecord(employeeId, startDate, endDate);
+        return unitOfWork.commit();
     }
 } 
\ No newline at end of file
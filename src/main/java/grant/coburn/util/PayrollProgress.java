@@ -0,0 +1,76 @@
+package grant.coburn.util;
+
+import java.time.Duration;
+
+/**
+ * Point-in-time snapshot of how far a payroll run has got.
+ */
+public class PayrollProgress {
+    private final int totalEmployees;
+    private final int employeesCompleted;
+    private final int employeesWithErrors;
+    private final long elapsedNanos;
+
+    public PayrollProgress(int totalEmployees, int employeesCompleted, int employeesWithErrors, long elapsedNanos) {
+        this.totalEmployees = totalEmployees;
+        this.employeesCompleted = employeesCompleted;
+        this.employeesWithErrors = employeesWithErrors;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getTotalEmployees() { return totalEmployees; }
+    /** Employees whose payroll has been calculated without errors */
+    public int getEmployeesCompleted() { return employeesCompleted; }
+    public int getEmployeesWithErrors() { return employeesWithErrors; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    /** Employees whose payroll has been calculated, with or without errors */
+    public int getEmployeesProcessed() {
+        return employeesCompleted + employeesWithErrors;
+    }
+
+    public int getEmployeesRemaining() {
+        return Math.max(0, totalEmployees - getEmployeesProcessed());
+    }
+
+    /** Fraction of employees processed, from 0 to 1 */
+    public double getFractionDone() {
+        if (totalEmployees == 0) {
+            return 1;
+        }
+        return Math.min(1, getEmployeesProcessed() / (double) totalEmployees);
+    }
+
+    public double getEmployeesPerSecond() {
+        if (elapsedNanos == 0) {
+            return 0;
+        }
+        return getEmployeesProcessed() * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Estimate the time left at the throughput so far.
+     * @return The estimated time remaining, or null if nothing has been processed yet
+     */
+    public Duration getEstimatedTimeRemaining() {
+        int processed = getEmployeesProcessed();
+        if (processed == 0) {
+            return null;
+        }
+        return Duration.ofNanos((long) (elapsedNanos / (double) processed * getEmployeesRemaining()));
+    }
+
+    @Override
+    public String toString() {
+        Duration eta = getEstimatedTimeRemaining();
+        return String.format(
+            "%,d of %,d employees processed, %,d errors, %,d remaining (%,.0f employees/s, ETA %s)",
+            getEmployeesProcessed(),
+            totalEmployees,
+            employeesWithErrors,
+            getEmployeesRemaining(),
+            getEmployeesPerSecond(),
+            eta == null ? "unknown" : String.format("%d:%02d", eta.toMinutes(), eta.toSecondsPart())
+        );
+    }
+}
@@ -0,0 +1,32 @@
+package grant.coburn.util;
+
+/**
+ * Follows a payroll run as employees are processed and lets it be cancelled between batches.
+ */
+public interface PayrollProgressListener {
+    /**
+     * A listener that ignores progress and never cancels.
+     */
+    PayrollProgressListener NONE = new PayrollProgressListener() {
+        @Override
+        public void progressUpdated(PayrollProgress progress) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    /**
+     * Called after each employee is processed. Called from the threads processing payroll,
+     * so UI listeners need to hand the progress over to their UI thread.
+     */
+    void progressUpdated(PayrollProgress progress);
+
+    /**
+     * Checked before each batch of employees. Batches already started are finished and saved.
+     * @return true if no more batches should be started
+     */
+    boolean isCancelled();
+}
@@ -0,0 +1,67 @@
+package grant.coburn.util;
+
+/**
+ * Point-in-time snapshot of connection pool statistics.
+ */
+public class PoolMetrics {
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int totalConnections;
+    private final int threadsAwaitingConnection;
+    private final long connectionsAcquired;
+    private final long connectionTimeouts;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+
+    public PoolMetrics(
+        int activeConnections,
+        int idleConnections,
+        int totalConnections,
+        int threadsAwaitingConnection,
+        long connectionsAcquired,
+        long connectionTimeouts,
+        long totalWaitNanos,
+        long maxWaitNanos
+    ) {
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.totalConnections = totalConnections;
+        this.threadsAwaitingConnection = threadsAwaitingConnection;
+        this.connectionsAcquired = connectionsAcquired;
+        this.connectionTimeouts = connectionTimeouts;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+    }
+
+    public int getActiveConnections() { return activeConnections; }
+    public int getIdleConnections() { return idleConnections; }
+    public int getTotalConnections() { return totalConnections; }
+    public int getThreadsAwaitingConnection() { return threadsAwaitingConnection; }
+    public long getConnectionsAcquired() { return connectionsAcquired; }
+    public long getConnectionTimeouts() { return connectionTimeouts; }
+    public long getTotalWaitNanos() { return totalWaitNanos; }
+    public long getMaxWaitNanos() { return maxWaitNanos; }
+
+    /** Average time spent waiting to borrow a connection, in milliseconds */
+    public double getAverageWaitMillis() {
+        if (connectionsAcquired == 0) {
+            return 0;
+        }
+        return totalWaitNanos / (double) connectionsAcquired / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "PoolMetrics[active=%d, idle=%d, total=%d, waiting=%d, acquired=%d, timeouts=%d, avgWait=%.3fms, maxWait=%.3fms]",
+            activeConnections,
+            idleConnections,
+            totalConnections,
+            threadsAwaitingConnection,
+            connectionsAcquired,
+            connectionTimeouts,
+            getAverageWaitMillis(),
+            maxWaitNanos / 1_000_000.0
+        );
+    }
+}
@@ -0,0 +1,52 @@
+package grant.coburn.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * Collects borrow wait times from the pool and combines them with the pool's
+ * live connection counts to build {@link PoolMetrics} snapshots.
+ */
+class PoolMetricsTracker implements MetricsTrackerFactory, IMetricsTracker {
+    private final LongAdder connectionsAcquired = new LongAdder();
+    private final LongAdder connectionTimeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return this;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        connectionsAcquired.increment();
+        totalWaitNanos.add(elapsedAcquiredNanos);
+        maxWaitNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        connectionTimeouts.increment();
+    }
+
+    PoolMetrics snapshot() {
+        PoolStats stats = poolStats;
+        return new PoolMetrics(
+            stats != null ? stats.getActiveConnections() : 0,
+            stats != null ? stats.getIdleConnections() : 0,
+            stats != null ? stats.getTotalConnections() : 0,
+            stats != null ? stats.getPendingThreads() : 0,
+            connectionsAcquired.sum(),
+            connectionTimeouts.sum(),
+            totalWaitNanos.sum(),
+            maxWaitNanos.get()
+        );
+    }
+}
@@ -0,0 +1,266 @@
+package grant.coburn.util;
+
+import grant.coburn.util.PayrollCalculator.PayrollResult;
+
+/**
+ * Rounds and validates a payroll result in a single pass over its fields.
+ * Produces the same rounding as {@link MonetaryRoundingVisitor} and the same checks as
+ * {@link PayrollResultValidationVisitor}, with validation applied to the amounts as they
+ * were before rounding. Failures are kept as a bit mask of error codes, and messages are
+ * only built when asked for, so a visitor can be reused across a bulk run without allocating.
+ */
+public class RoundingValidationVisitor implements PayrollResultVisitor {
+    // Error codes, one bit per failed check
+    public static final int GROSS_PAY_MISMATCH = 1;
+    public static final int NET_PAY_MISMATCH = 1 << 1;
+    public static final int STATE_TAX_RATE_INCORRECT = 1 << 2;
+    public static final int FEDERAL_TAX_RATE_INCORRECT = 1 << 3;
+    public static final int SOCIAL_SECURITY_TAX_RATE_INCORRECT = 1 << 4;
+    public static final int MEDICARE_TAX_RATE_INCORRECT = 1 << 5;
+    public static final int EMPLOYER_SOCIAL_SECURITY_MISMATCH = 1 << 6;
+    public static final int EMPLOYER_MEDICARE_MISMATCH = 1 << 7;
+    public static final int PAY_PERIOD_END_BEFORE_START = 1 << 8;
+    /** The first of the ten "cannot be negative" codes, one per amount in {@link #FIELD_NAMES} order */
+    public static final int NEGATIVE_REGULAR_PAY = 1 << 9;
+
+    // Indexes of the amounts held in the values array
+    private static final int REGULAR_PAY = 0;
+    private static final int OVERTIME_PAY = 1;
+    private static final int GROSS_PAY = 2;
+    private static final int NET_PAY = 3;
+    private static final int STATE_TAX = 4;
+    private static final int FEDERAL_TAX = 5;
+    private static final int SOCIAL_SECURITY_TAX = 6;
+    private static final int MEDICARE_TAX = 7;
+    private static final int MEDICAL_DEDUCTION = 8;
+    private static final int DEPENDENT_STIPEND = 9;
+    private static final int EMPLOYER_SOCIAL_SECURITY_TAX = 10;
+    private static final int EMPLOYER_MEDICARE_TAX = 11;
+    private static final int FIELD_COUNT = 12;
+
+    private static final String[] FIELD_NAMES = {
+        "Regular pay",
+        "Overtime pay",
+        "Gross pay",
+        "Net pay",
+        "State tax",
+        "Federal tax",
+        "Social Security tax",
+        "Medicare tax",
+        "Medical deduction",
+        "Dependent stipend"
+    };
+
+    private static final int[] TAX_FIELDS = { STATE_TAX, FEDERAL_TAX, SOCIAL_SECURITY_TAX, MEDICARE_TAX };
+    private static final double[] TAX_RATES = {
+        PayrollCalculator.STATE_TAX_RATE,
+        PayrollCalculator.FEDERAL_TAX_RATE,
+        PayrollCalculator.SOCIAL_SECURITY_RATE,
+        PayrollCalculator.MEDICARE_RATE
+    };
+    private static final String[] TAX_NAMES = { "State tax", "Federal tax", "Social Security tax", "Medicare tax" };
+    private static final int[] TAX_RATE_ERRORS = {
+        STATE_TAX_RATE_INCORRECT,
+        FEDERAL_TAX_RATE_INCORRECT,
+        SOCIAL_SECURITY_TAX_RATE_INCORRECT,
+        MEDICARE_TAX_RATE_INCORRECT
+    };
+
+    /** The amounts of the last visited result as they were before rounding */
+    private final double[] values = new double[FIELD_COUNT];
+    private ValidationMode mode;
+    private int errorCodes;
+
+    public RoundingValidationVisitor() {
+        this(ValidationMode.LENIENT);
+    }
+
+    public RoundingValidationVisitor(ValidationMode mode) {
+        this.mode = mode;
+    }
+
+    public ValidationMode getMode() {
+        return mode;
+    }
+
+    public void setMode(ValidationMode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Round and validate the result. The error codes are also stored on the result.
+     * @throws IllegalStateException if the mode is STRICT and validation fails
+     */
+    @Override
+    public void visit(PayrollResult result) {
+        values[REGULAR_PAY] = result.regularPay;
+        values[OVERTIME_PAY] = result.overtimePay;
+        values[GROSS_PAY] = result.grossPay;
+        values[NET_PAY] = result.netPay;
+        values[STATE_TAX] = result.stateTax;
+        values[FEDERAL_TAX] = result.federalTax;
+        values[SOCIAL_SECURITY_TAX] = result.socialSecurityTax;
+        values[MEDICARE_TAX] = result.medicareTax;
+        values[MEDICAL_DEDUCTION] = result.medicalDeduction;
+        values[DEPENDENT_STIPEND] = result.dependentStipend;
+        values[EMPLOYER_SOCIAL_SECURITY_TAX] = result.employerSocialSecurityTax;
+        values[EMPLOYER_MEDICARE_TAX] = result.employerMedicareTax;
+
+        errorCodes = 0;
+        if (mode != ValidationMode.OFF) {
+            errorCodes = validate(values);
+
+            if (result.payPeriodStart != null && result.payPeriodEnd != null
+                && result.payPeriodEnd.isBefore(result.payPeriodStart)) {
+                errorCodes |= PAY_PERIOD_END_BEFORE_START;
+            }
+        }
+
+        result.regularPay = Money.roundToCents(values[REGULAR_PAY]);
+        result.overtimePay = Money.roundToCents(values[OVERTIME_PAY]);
+        result.grossPay = Money.roundToCents(values[GROSS_PAY]);
+        result.netPay = Money.roundToCents(values[NET_PAY]);
+        result.stateTax = Money.roundToCents(values[STATE_TAX]);
+        result.federalTax = Money.roundToCents(values[FEDERAL_TAX]);
+        result.socialSecurityTax = Money.roundToCents(values[SOCIAL_SECURITY_TAX]);
+        result.medicareTax = Money.roundToCents(values[MEDICARE_TAX]);
+        result.medicalDeduction = Money.roundToCents(values[MEDICAL_DEDUCTION]);
+        result.dependentStipend = Money.roundToCents(values[DEPENDENT_STIPEND]);
+        result.employerSocialSecurityTax = Money.roundToCents(values[EMPLOYER_SOCIAL_SECURITY_TAX]);
+        result.employerMedicareTax = Money.roundToCents(values[EMPLOYER_MEDICARE_TAX]);
+        result.validationErrors = errorCodes;
+
+        if (mode == ValidationMode.STRICT && errorCodes != 0) {
+            throw new IllegalStateException("Payroll validation failed:\n" + getErrors());
+        }
+    }
+
+    /**
+     * Check the amounts of a payroll result, everything except the pay period dates.
+     * @return The error codes of every failed check
+     */
+    private static int validate(double[] values) {
+        int errors = 0;
+
+        // Validate gross pay calculation
+        if (Math.abs(values[REGULAR_PAY] + values[OVERTIME_PAY] - values[GROSS_PAY]) > 0.01) {
+            errors |= GROSS_PAY_MISMATCH;
+        }
+
+        // Validate net pay calculation
+        double calculatedNetPay = values[GROSS_PAY]
+            - values[STATE_TAX]
+            - values[FEDERAL_TAX]
+            - values[SOCIAL_SECURITY_TAX]
+            - values[MEDICARE_TAX]
+            - values[MEDICAL_DEDUCTION]
+            + values[DEPENDENT_STIPEND];
+        if (Math.abs(calculatedNetPay - values[NET_PAY]) > 0.01) {
+            errors |= NET_PAY_MISMATCH;
+        }
+
+        // Validate tax calculations
+        if (values[GROSS_PAY] > 0) {
+            for (int i = 0; i < TAX_FIELDS.length; i++) {
+                double actualRate = values[TAX_FIELDS[i]] / values[GROSS_PAY];
+                if (Math.abs(actualRate - TAX_RATES[i]) > 0.0001) {
+                    errors |= TAX_RATE_ERRORS[i];
+                }
+            }
+        }
+
+        // Validate employer portions match employee portions
+        if (Math.abs(values[SOCIAL_SECURITY_TAX] - values[EMPLOYER_SOCIAL_SECURITY_TAX]) > 0.01) {
+            errors |= EMPLOYER_SOCIAL_SECURITY_MISMATCH;
+        }
+        if (Math.abs(values[MEDICARE_TAX] - values[EMPLOYER_MEDICARE_TAX]) > 0.01) {
+            errors |= EMPLOYER_MEDICARE_MISMATCH;
+        }
+
+        // Validate no negative values
+        for (int field = 0; field < FIELD_NAMES.length; field++) {
+            if (values[field] < 0) {
+                errors |= NEGATIVE_REGULAR_PAY << field;
+            }
+        }
+
+        return errors;
+    }
+
+    public boolean hasErrors() {
+        return errorCodes != 0;
+    }
+
+    /** Gets the error codes of the last visited result, 0 if it was valid */
+    public int getErrorCodes() {
+        return errorCodes;
+    }
+
+    /**
+     * Gets the validation messages for the last visited result, worded the same as
+     * {@link PayrollResultValidationVisitor#getErrors()}.
+     */
+    public String getErrors() {
+        return describe(errorCodes, values);
+    }
+
+    /**
+     * Build the validation messages for a result that was visited in LENIENT mode.
+     * Amounts in the messages are the rounded amounts held by the result.
+     * @param result A payroll result with validation error codes
+     * @return The validation messages, empty if the result has no errors
+     */
+    public static String describeErrors(PayrollResult result) {
+        double[] values = new double[FIELD_COUNT];
+        values[REGULAR_PAY] = result.regularPay;
+        values[OVERTIME_PAY] = result.overtimePay;
+        values[GROSS_PAY] = result.grossPay;
+        values[NET_PAY] = result.netPay;
+        values[STATE_TAX] = result.stateTax;
+        values[FEDERAL_TAX] = result.federalTax;
+        values[SOCIAL_SECURITY_TAX] = result.socialSecurityTax;
+        values[MEDICARE_TAX] = result.medicareTax;
+        values[MEDICAL_DEDUCTION] = result.medicalDeduction;
+        values[DEPENDENT_STIPEND] = result.dependentStipend;
+        values[EMPLOYER_SOCIAL_SECURITY_TAX] = result.employerSocialSecurityTax;
+        values[EMPLOYER_MEDICARE_TAX] = result.employerMedicareTax;
+        return describe(result.validationErrors, values);
+    }
+
+    private static String describe(int errorCodes, double[] values) {
+        if (errorCodes == 0) {
+            return "";
+        }
+
+        StringBuilder errors = new StringBuilder();
+
+        if ((errorCodes & GROSS_PAY_MISMATCH) != 0) {
+            errors.append("Gross pay does not match sum of regular and overtime pay\n");
+        }
+        if ((errorCodes & NET_PAY_MISMATCH) != 0) {
+            errors.append("Net pay calculation is incorrect\n");
+        }
+        for (int i = 0; i < TAX_FIELDS.length; i++) {
+            if ((errorCodes & TAX_RATE_ERRORS[i]) != 0) {
+                errors.append(String.format("%s rate is incorrect (expected %.4f, got %.4f)\n",
+                    TAX_NAMES[i], TAX_RATES[i], values[TAX_FIELDS[i]] / values[GROSS_PAY]));
+            }
+        }
+        if ((errorCodes & EMPLOYER_SOCIAL_SECURITY_MISMATCH) != 0) {
+            errors.append("Employer Social Security tax does not match employee portion\n");
+        }
+        if ((errorCodes & EMPLOYER_MEDICARE_MISMATCH) != 0) {
+            errors.append("Employer Medicare tax does not match employee portion\n");
+        }
+        if ((errorCodes & PAY_PERIOD_END_BEFORE_START) != 0) {
+            errors.append("Pay period end date is before start date\n");
+        }
+        for (int field = 0; field < FIELD_NAMES.length; field++) {
+            if ((errorCodes & (NEGATIVE_REGULAR_PAY << field)) != 0) {
+                errors.append(String.format("%s cannot be negative (got %.2f)\n", FIELD_NAMES[field], values[field]));
+            }
+        }
+
+        return errors.toString();
+    }
+}
@@ -0,0 +1,277 @@
+package grant.coburn.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Brings the database schema up to date by applying versioned SQL migrations in order.
+ * Each migration is a script named {@code V<version>__<description>.sql} under {@code /db/migration}.
+ * Applied migrations are recorded in a {@code schema_migrations} table along with a checksum of their
+ * script, so a migration is only ever applied once and editing one after it was applied is caught
+ * rather than silently ignored. Add new migrations to the end of {@link #MIGRATIONS}.
+ *
+ * <p>A migration can have a precondition: a query that lists rows which have to be fixed by hand before
+ * the migration can be applied, e.g. duplicates that would break a new unique key. The migration fails
+ * listing those rows rather than changing or deleting data on its own.
+ *
+ * <p>MySQL commits DDL statements immediately, so a migration that fails partway through is left
+ * partly applied and has to be fixed by hand. Keep each migration small.
+ */
+public class SchemaMigrator {
+    static final List<String> MIGRATIONS = List.of(
+        "V1__index_time_entry_queries.sql",
+        "V2__index_payroll_record_queries.sql",
+        "V3__payroll_run_ledger.sql",
+        "V4__payroll_input_fingerprint.sql"
+    );
+
+    /**
+     * Payroll records that share an employee and pay period. Re-running a pay period used to save a second
+     * record, sometimes for $0 because the entries were already locked, so the one to keep can't be guessed.
+     */
+    private static final String DUPLICATE_PAYROLL_RECORDS_SQL = "SELECT employee_id, pay_period_start, pay_period_end, " +
+                "GROUP_CONCAT(record_id ORDER BY record_id SEPARATOR ' ') AS record_ids " +
+                "FROM payroll_records " +
+                "GROUP BY employee_id, pay_period_start, pay_period_end " +
+                "HAVING COUNT(*) > 1 " +
+                "ORDER BY employee_id, pay_period_start";
+
+    /** Preconditions by migration version */
+    private static final Map<Integer, Precondition> PRECONDITIONS = Map.of(
+        3, new Precondition(
+            "each employee must have at most one payroll record per pay period. Delete the duplicate records " +
+                "that aren't the employee's real pay, then migrate again",
+            DUPLICATE_PAYROLL_RECORDS_SQL
+        )
+    );
+
+    private static final String MIGRATION_DIRECTORY = "/db/migration/";
+    private static final Pattern MIGRATION_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private static final String CREATE_HISTORY_TABLE_SQL = "CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                "version int NOT NULL, " +
+                "description varchar(200) NOT NULL, " +
+                "checksum char(64) NOT NULL, " +
+                "applied_at timestamp NULL DEFAULT CURRENT_TIMESTAMP, " +
+                "PRIMARY KEY (version))";
+
+    private final DatabaseUtil dbUtil;
+    private final List<String> migrations;
+
+    /**
+     * A migration script and the version and description parsed from its name.
+     */
+    static class Migration {
+        final int version;
+        final String description;
+        final String script;
+        final String checksum;
+
+        Migration(String fileName, String script) {
+            Matcher matcher = MIGRATION_NAME.matcher(fileName);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Migration " + fileName + " is not named V<version>__<description>.sql");
+            }
+            this.version = Integer.parseInt(matcher.group(1));
+            this.description = matcher.group(2).replace('_', ' ');
+            this.script = script;
+            this.checksum = checksum(script);
+        }
+    }
+
+    /**
+     * A query that must return no rows before a migration is applied, and what to do about the rows it returns.
+     */
+    static class Precondition {
+        final String description;
+        final String sql;
+
+        Precondition(String description, String sql) {
+            this.description = description;
+            this.sql = sql;
+        }
+    }
+
+    public SchemaMigrator(DatabaseUtil dbUtil) {
+        this(dbUtil, MIGRATIONS);
+    }
+
+    SchemaMigrator(DatabaseUtil dbUtil, List<String> migrations) {
+        this.dbUtil = dbUtil;
+        this.migrations = migrations;
+    }
+
+    /**
+     * Apply every migration that hasn't been applied yet, oldest first.
+     * @return The number of migrations applied
+     * @throws SQLException If a migration couldn't be applied. Migrations before it stay applied
+     * @throws IOException If a migration script couldn't be read
+     * @throws IllegalStateException If an applied migration's script has changed since it was applied
+     */
+    public int migrate() throws SQLException, IOException {
+        List<Migration> pending = new ArrayList<>();
+
+        try (Connection conn = dbUtil.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(CREATE_HISTORY_TABLE_SQL);
+            }
+
+            Map<Integer, String> appliedChecksums = getAppliedChecksums(conn);
+            int lastVersion = 0;
+            for (String fileName : migrations) {
+                Migration migration = new Migration(fileName, readScript(fileName));
+                if (migration.version <= lastVersion) {
+                    throw new IllegalStateException("Migration " + fileName + " is out of order");
+                }
+                lastVersion = migration.version;
+
+                String appliedChecksum = appliedChecksums.get(migration.version);
+                if (appliedChecksum == null) {
+                    pending.add(migration);
+                } else if (!appliedChecksum.equals(migration.checksum)) {
+                    throw new IllegalStateException("Migration " + fileName + " has been changed since it was applied");
+                }
+            }
+
+            for (Migration migration : pending) {
+                apply(conn, migration);
+            }
+        }
+
+        return pending.size();
+    }
+
+    private static Map<Integer, String> getAppliedChecksums(Connection conn) throws SQLException {
+        Map<Integer, String> checksums = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_migrations")) {
+            while (rs.next()) {
+                checksums.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        }
+        return checksums;
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        checkPrecondition(conn, migration);
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : splitStatements(migration.script)) {
+                stmt.execute(sql);
+            }
+        } catch (SQLException e) {
+            throw new SQLException(String.format(
+                "Failed to apply migration V%d (%s): %s", migration.version, migration.description, e.getMessage()
+            ), e);
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO schema_migrations (version, description, checksum) VALUES (?, ?, ?)")) {
+            stmt.setInt(1, migration.version);
+            stmt.setString(2, migration.description);
+            stmt.setString(3, migration.checksum);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Run a migration's precondition, if it has one.
+     * @throws SQLException If the precondition returned rows, listing every row so they can be fixed by hand
+     */
+    private static void checkPrecondition(Connection conn, Migration migration) throws SQLException {
+        Precondition precondition = PRECONDITIONS.get(migration.version);
+        if (precondition == null) {
+            return;
+        }
+
+        List<String> rows = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(precondition.sql)) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                StringBuilder row = new StringBuilder();
+                for (int i = 1; i <= columns; i++) {
+                    if (i > 1) {
+                        row.append(", ");
+                    }
+                    row.append(rs.getMetaData().getColumnLabel(i).toLowerCase()).append('=').append(rs.getString(i));
+                }
+                rows.add(row.toString());
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            throw new SQLException(String.format(
+                "Cannot apply migration V%d (%s): %s. Rows to review:%n  %s",
+                migration.version,
+                migration.description,
+                precondition.description,
+                String.join(String.format("%n  "), rows)
+            ));
+        }
+    }
+
+    private static String readScript(String fileName) throws IOException {
+        try (InputStream in = SchemaMigrator.class.getResourceAsStream(MIGRATION_DIRECTORY + fileName)) {
+            if (in == null) {
+                throw new IOException("Migration " + fileName + " was not found on the classpath");
+            }
+            // Normalize line endings so the checksum doesn't depend on how the script was checked out
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+        }
+    }
+
+    /**
+     * Split a script into statements ending with a semicolon at the end of a line, skipping comment lines.
+     */
+    static List<String> splitStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder statement = new StringBuilder();
+
+        for (String line : script.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+
+            statement.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                statements.add(statement.substring(0, statement.lastIndexOf(";")).trim());
+                statement.setLength(0);
+            }
+        }
+
+        if (statement.toString().trim().length() > 0) {
+            statements.add(statement.toString().trim());
+        }
+        return statements;
+    }
+
+    static String checksum(String script) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(script.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
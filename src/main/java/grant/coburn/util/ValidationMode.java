@@ -0,0 +1,13 @@
+package grant.coburn.util;
+
+/**
+ * How strictly a payroll result is validated after it is calculated.
+ */
+public enum ValidationMode {
+    /** Validation failures throw an IllegalStateException */
+    STRICT,
+    /** Validation failures are recorded on the result as error codes */
+    LENIENT,
+    /** Amounts are rounded but not validated */
+    OFF
+}
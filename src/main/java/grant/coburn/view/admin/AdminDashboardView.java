@@ -10,7 +10,6 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
-import javafx.stage.Modality;
 import javafx.stage.Stage;
 
 public class AdminDashboardView extends VBox {
@@ -138,15 +137,16 @@ public class AdminDashboardView extends VBox {
     }
 
     private void handleReports() {
+        // Not modal, since reports are generated in the background while the admin keeps working
         GenerateReportView reportView = new GenerateReportView();
-        Scene scene = new Scene(reportView, 600, 400);
+        Scene scene = new Scene(reportView, 900, 550);
         scene.getStylesheets().addAll(stage.getScene().getStylesheets());
         Stage reportStage = new Stage();
-        reportStage.initModality(Modality.APPLICATION_MODAL);
         reportStage.initOwner(stage);
         reportStage.setTitle("Generate Reports");
         reportStage.setScene(scene);
-        reportStage.showAndWait();
+        reportStage.setOnHidden(e -> reportView.stopRefreshing());
+        reportStage.show();
     }
 
     private void handleLogout() {
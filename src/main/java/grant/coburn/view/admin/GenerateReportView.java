@@ -3,11 +3,20 @@ package grant.coburn.view.admin;
 import java.io.File;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 import grant.coburn.report.ReportFormat;
-import grant.coburn.report.ReportGenerator;
-import grant.coburn.report.ReportGeneratorFactory;
+import grant.coburn.report.ReportJob;
+import grant.coburn.report.ReportJobManager;
+import grant.coburn.report.ReportMetrics;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Alert;
@@ -15,19 +24,30 @@ import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.ProgressBarTableCell;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
+import javafx.util.Duration;
 
 /**
- * View for generating payroll reports.
+ * View for generating payroll reports. Reports are generated as background jobs, listed with
+ * their progress in a table that refreshes while the view is open.
  */
 public class GenerateReportView extends VBox {
     private final DatePicker startDatePicker;
     private final DatePicker endDatePicker;
     private final VBox formatSelectionBox;
     private final List<CheckBox> formatCheckBoxes;
+    private final ReportJobManager jobManager;
+    private final TableView<ReportJob> jobTable;
+    private final Timeline refreshTimeline;
 
     public GenerateReportView() {
+        this.jobManager = ReportJobManager.shared();
+
         setAlignment(Pos.TOP_CENTER);
         setPadding(new Insets(20));
         setSpacing(10);
@@ -65,12 +85,43 @@ public class GenerateReportView extends VBox {
         Button generateButton = new Button("Generate Reports");
         generateButton.setOnAction(e -> generateReport());
 
+        // Report jobs
+        jobTable = new TableView<>();
+        jobTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        jobTable.setPlaceholder(new Label("No reports have been generated"));
+        setupJobTable();
+        VBox.setVgrow(jobTable, Priority.ALWAYS);
+
+        Button cancelButton = new Button("Cancel Selected");
+        cancelButton.setDisable(true);
+        cancelButton.setOnAction(e -> cancelSelectedJob());
+        jobTable.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) ->
+            cancelButton.setDisable(newSelection == null));
+
+        Button clearButton = new Button("Clear Finished");
+        clearButton.setOnAction(e -> {
+            jobManager.clearFinishedJobs();
+            refreshJobs();
+        });
+
+        HBox jobButtonBox = new HBox(10);
+        jobButtonBox.setAlignment(Pos.CENTER_RIGHT);
+        jobButtonBox.getChildren().addAll(cancelButton, clearButton);
+
         getChildren().addAll(
             titleLabel,
             dateBox,
             formatSelectionBox,
-            generateButton
+            generateButton,
+            new Label("Report Jobs"),
+            jobTable,
+            jobButtonBox
         );
+
+        refreshTimeline = new Timeline(new KeyFrame(Duration.millis(500), e -> refreshJobs()));
+        refreshTimeline.setCycleCount(Animation.INDEFINITE);
+        refreshJobs();
+        refreshTimeline.play();
     }
 
     private void generateReport() {
@@ -103,29 +154,100 @@ public class GenerateReportView extends VBox {
             return; // User cancelled
         }
 
-        List<String> generatedFiles = new ArrayList<>();
+        Map<ReportFormat, String> outputPaths = new LinkedHashMap<>();
+        for (ReportFormat format : selectedFormats) {
+            String baseFileName = "payroll_report_" + 
+                startDate.toString() + "_to_" + endDate.toString();
+            String filePath = outputDir.getAbsolutePath() + 
+                File.separator + baseFileName + 
+                format.getFileExtension();
+            outputPaths.put(format, filePath);
+        }
+
+        // Reports are written in the background so the window stays responsive
         try {
-            for (ReportFormat format : selectedFormats) {
-                String baseFileName = "payroll_report_" + 
-                    startDate.toString() + "_to_" + endDate.toString();
-                String filePath = outputDir.getAbsolutePath() + 
-                    File.separator + baseFileName + 
-                    format.getFileExtension();
-
-                ReportGenerator generator = ReportGeneratorFactory.createGenerator(format);
-                generator.generateReport(filePath, startDate, endDate);
-                generatedFiles.add(filePath);
+            jobManager.submit(outputPaths, startDate, endDate);
+        } catch (RejectedExecutionException e) {
+            showError("Too many reports are waiting to be generated. Please try again once some have finished.");
+            return;
+        }
+        refreshJobs();
+    }
+
+    /**
+     * Stop refreshing the job list. Jobs keep running in the background.
+     */
+    public void stopRefreshing() {
+        refreshTimeline.stop();
+    }
+
+    private void refreshJobs() {
+        List<ReportJob> jobs = jobManager.getJobs();
+        if (!jobTable.getItems().equals(jobs)) {
+            jobTable.getItems().setAll(jobs);
+        }
+        jobTable.refresh();
+    }
+
+    private void cancelSelectedJob() {
+        ReportJob job = jobTable.getSelectionModel().getSelectedItem();
+        if (job != null) {
+            job.cancel();
+            refreshJobs();
+        }
+    }
+
+    private void setupJobTable() {
+        TableColumn<ReportJob, String> periodCol = new TableColumn<>("Report Period");
+        periodCol.setCellValueFactory(cellData -> new SimpleStringProperty(
+            cellData.getValue().getStartDate() + " to " + cellData.getValue().getEndDate()));
+
+        TableColumn<ReportJob, String> formatsCol = new TableColumn<>("Formats");
+        formatsCol.setCellValueFactory(cellData -> new SimpleStringProperty(
+            cellData.getValue().getOutputPaths().keySet().toString()));
+
+        TableColumn<ReportJob, String> statusCol = new TableColumn<>("Status");
+        statusCol.setCellValueFactory(cellData -> new SimpleStringProperty(
+            cellData.getValue().getStatus().toString()));
+
+        TableColumn<ReportJob, Double> progressCol = new TableColumn<>("Progress");
+        progressCol.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().getProgress()));
+        progressCol.setCellFactory(ProgressBarTableCell.forTableColumn());
+
+        TableColumn<ReportJob, String> rowsCol = new TableColumn<>("Rows");
+        rowsCol.setCellValueFactory(cellData -> {
+            ReportJob job = cellData.getValue();
+            int total = job.getTotalRows();
+            return new SimpleStringProperty(total < 0
+                ? String.format("%,d", job.getRowsWritten())
+                : String.format("%,d / %,d", job.getRowsWritten(), total));
+        });
+
+        TableColumn<ReportJob, String> durationCol = new TableColumn<>("Duration");
+        durationCol.setCellValueFactory(cellData -> {
+            long millis = cellData.getValue().getDuration().toMillis();
+            return new SimpleStringProperty(String.format("%d:%02d.%d", millis / 60_000, millis / 1_000 % 60, millis / 100 % 10));
+        });
+
+        TableColumn<ReportJob, String> detailsCol = new TableColumn<>("Details");
+        detailsCol.setCellValueFactory(cellData -> {
+            ReportJob job = cellData.getValue();
+            if (job.getStatus() == ReportJob.Status.FAILED) {
+                return new SimpleStringProperty(job.getErrorMessage());
             }
-            
-            // Show success message with all generated file paths
-            StringBuilder message = new StringBuilder("Reports generated successfully!\nLocations:\n");
-            for (String path : generatedFiles) {
-                message.append(path).append("\n");
+            StringBuilder details = new StringBuilder();
+            for (Map.Entry<ReportFormat, ReportMetrics> entry : job.getMetrics().entrySet()) {
+                if (details.length() > 0) {
+                    details.append("; ");
+                }
+                details.append(job.getOutputPaths().get(entry.getKey())).append(" (").append(entry.getValue()).append(")");
             }
-            showSuccess(message.toString());
-        } catch (Exception e) {
-            showError("Failed to generate report: " + e.getMessage());
-        }
+            return new SimpleStringProperty(details.toString());
+        });
+
+        jobTable.getColumns().addAll(
+            periodCol, formatsCol, statusCol, progressCol, rowsCol, durationCol, detailsCol
+        );
     }
 
     private List<ReportFormat> getSelectedFormats() {
@@ -145,12 +267,4 @@ public class GenerateReportView extends VBox {
         alert.setContentText(message);
         alert.showAndWait();
     }
-
-    private void showSuccess(String message) {
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setTitle("Success");
-        alert.setHeaderText(null);
-        alert.setContentText(message);
-        alert.showAndWait();
-    }
 } 
\ No newline at end of file
@@ -7,9 +7,13 @@ import java.util.Locale;
 
 import grant.coburn.model.Employee;
 import grant.coburn.model.PayrollRecord;
+import grant.coburn.model.PayrollReportRow;
 import grant.coburn.util.PayrollProcessingResult;
 import grant.coburn.util.PayrollProcessor;
+import grant.coburn.util.PayrollProgress;
+import grant.coburn.util.PayrollProgressListener;
 import grant.coburn.view.PaycheckView;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -17,6 +21,7 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.Separator;
 import javafx.scene.control.TableColumn;
@@ -33,12 +38,17 @@ public class PayrollProcessingView extends VBox {
     private final Stage stage;
     private DatePicker startDatePicker;
     private DatePicker endDatePicker;
-    private TableView<PayrollRecord> payrollTable;
+    private TableView<PayrollReportRow> payrollTable;
     private Button processButton;
     private Button viewPaycheckButton;
     private Button deleteButton;
     private Button backButton;
+    private HBox progressBox;
+    private ProgressBar progressBar;
+    private Label progressLabel;
+    private Button cancelButton;
     private Runnable onBack;
+    private volatile boolean cancelRequested;
 
     public PayrollProcessingView(Stage stage) {
         this.stage = stage;
@@ -107,6 +117,18 @@ public class PayrollProcessingView extends VBox {
         buttonBox.setAlignment(Pos.CENTER);
         buttonBox.getChildren().addAll(processButton, viewPaycheckButton, deleteButton, backButton);
 
+        // Progress of a running payroll, hidden until processing starts
+        progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(200);
+        progressLabel = new Label();
+        cancelButton = new Button("Cancel");
+        cancelButton.getStyleClass().add("button-secondary");
+        progressBox = new HBox(10);
+        progressBox.setAlignment(Pos.CENTER);
+        progressBox.getChildren().addAll(progressBar, progressLabel, cancelButton);
+        progressBox.setVisible(false);
+        progressBox.setManaged(false);
+
         // Add all components to main VBox
         this.getChildren().addAll(
             title,
@@ -115,16 +137,18 @@ public class PayrollProcessingView extends VBox {
             new Separator(),
             new Label("Payroll Records"),
             new ScrollPane(payrollTable),
+            progressBox,
             buttonBox
         );
     }
 
     private void handleViewPaycheck() {
-        PayrollRecord selectedRecord = payrollTable.getSelectionModel().getSelectedItem();
-        if (selectedRecord == null) {
+        PayrollReportRow selectedRow = payrollTable.getSelectionModel().getSelectedItem();
+        if (selectedRow == null) {
             showError("Please select a payroll record to view.");
             return;
         }
+        PayrollRecord selectedRecord = selectedRow.getRecord();
 
         // Get employee details
         Employee employee = PayrollProcessor.shared().getEmployeeById(selectedRecord.getEmployeeId());
@@ -148,15 +172,15 @@ public class PayrollProcessingView extends VBox {
     }
 
     private void handleDeleteRecord() {
-        PayrollRecord selectedRecord = payrollTable.getSelectionModel().getSelectedItem();
-        if (selectedRecord == null) {
+        PayrollReportRow selectedRow = payrollTable.getSelectionModel().getSelectedItem();
+        if (selectedRow == null) {
             showError("Please select a payroll record to delete.");
             return;
         }
+        PayrollRecord selectedRecord = selectedRow.getRecord();
 
-        // Get employee details for confirmation message
-        Employee employee = PayrollProcessor.shared().getEmployeeById(selectedRecord.getEmployeeId());
-        String employeeName = employee != null ? employee.getFullName() : selectedRecord.getEmployeeId();
+        // Employee name for confirmation message
+        String employeeName = selectedRow.getEmployeeName() != null ? selectedRow.getEmployeeName() : selectedRecord.getEmployeeId();
 
         // Show confirmation dialog
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
@@ -190,58 +214,59 @@ public class PayrollProcessingView extends VBox {
         payrollTable.setPrefHeight(500);
 
         // Create columns with minimum widths
-        TableColumn<PayrollRecord, String> employeeIdCol = new TableColumn<>("Employee ID");
+        TableColumn<PayrollReportRow, String> employeeIdCol = new TableColumn<>("Employee ID");
         employeeIdCol.setMinWidth(80);
         employeeIdCol.setPrefWidth(100);
         employeeIdCol.setCellValueFactory(new PropertyValueFactory<>("employeeId"));
 
         // Employee Name Column
-        TableColumn<PayrollRecord, String> employeeNameCol = new TableColumn<>("Employee Name");
+        TableColumn<PayrollReportRow, String> employeeNameCol = new TableColumn<>("Employee Name");
         employeeNameCol.setMinWidth(150);
         employeeNameCol.setPrefWidth(200);
         employeeNameCol.setCellValueFactory(cellData -> {
-            Employee employee = PayrollProcessor.shared().getEmployeeById(cellData.getValue().getEmployeeId());
+            // The name is loaded with the record, so rendering a cell never queries the database
+            String employeeName = cellData.getValue().getEmployeeName();
             return new javafx.beans.property.SimpleStringProperty(
-                employee != null ? employee.getFullName() : "Unknown"
+                employeeName != null ? employeeName : "Unknown"
             );
         });
 
-        TableColumn<PayrollRecord, String> periodCol = new TableColumn<>("Pay Period");
+        TableColumn<PayrollReportRow, String> periodCol = new TableColumn<>("Pay Period");
         periodCol.setMinWidth(150);
         periodCol.setPrefWidth(200);
         periodCol.setCellValueFactory(cellData -> {
-            PayrollRecord record = cellData.getValue();
+            PayrollRecord record = cellData.getValue().getRecord();
             return new javafx.beans.property.SimpleStringProperty(
                 record.getPayPeriodStart().format(DateTimeFormatter.ofPattern("MM/dd/yyyy")) + " - " +
                 record.getPayPeriodEnd().format(DateTimeFormatter.ofPattern("MM/dd/yyyy"))
             );
         });
 
-        TableColumn<PayrollRecord, String> grossPayCol = new TableColumn<>("Gross Pay");
+        TableColumn<PayrollReportRow, String> grossPayCol = new TableColumn<>("Gross Pay");
         grossPayCol.setMinWidth(100);
         grossPayCol.setPrefWidth(120);
         grossPayCol.setCellValueFactory(cellData -> {
-            PayrollRecord record = cellData.getValue();
+            PayrollRecord record = cellData.getValue().getRecord();
             return new javafx.beans.property.SimpleStringProperty(
                 String.format(Locale.US, "$%,.2f", record.getGrossPay())
             );
         });
 
-        TableColumn<PayrollRecord, String> netPayCol = new TableColumn<>("Net Pay");
+        TableColumn<PayrollReportRow, String> netPayCol = new TableColumn<>("Net Pay");
         netPayCol.setMinWidth(100);
         netPayCol.setPrefWidth(120);
         netPayCol.setCellValueFactory(cellData -> {
-            PayrollRecord record = cellData.getValue();
+            PayrollRecord record = cellData.getValue().getRecord();
             return new javafx.beans.property.SimpleStringProperty(
                 String.format(Locale.US, "$%,.2f", record.getNetPay())
             );
         });
 
-        TableColumn<PayrollRecord, String> creationDateCol = new TableColumn<>("Created");
+        TableColumn<PayrollReportRow, String> creationDateCol = new TableColumn<>("Created");
         creationDateCol.setMinWidth(150);
         creationDateCol.setPrefWidth(200);
         creationDateCol.setCellValueFactory(cellData -> {
-            PayrollRecord record = cellData.getValue();
+            PayrollRecord record = cellData.getValue().getRecord();
             return new javafx.beans.property.SimpleStringProperty(
                 record.getCreationDate().format(DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm"))
             );
@@ -282,9 +307,77 @@ public class PayrollProcessingView extends VBox {
             return;
         }
 
-        // Process payroll using the PayrollProcessor
-        PayrollProcessingResult result = PayrollProcessor.shared().processPayroll(startDate, endDate);
-        
+        // Process payroll in the background so the window stays responsive, showing progress as it goes
+        Task<PayrollProcessingResult> task = new Task<>() {
+            @Override
+            protected PayrollProcessingResult call() {
+                updateMessage("Loading employees...");
+                return PayrollProcessor.shared().processPayroll(startDate, endDate, new PayrollProgressListener() {
+                    @Override
+                    public void progressUpdated(PayrollProgress progress) {
+                        // Task coalesces these updates, so the FX thread isn't flooded with one per employee
+                        updateProgress(progress.getEmployeesProcessed(), progress.getTotalEmployees());
+                        updateMessage(progress.toString());
+                    }
+
+                    @Override
+                    public boolean isCancelled() {
+                        return cancelRequested;
+                    }
+                });
+            }
+        };
+
+        progressBar.progressProperty().bind(task.progressProperty());
+        progressLabel.textProperty().bind(task.messageProperty());
+        cancelRequested = false;
+        cancelButton.setDisable(false);
+        cancelButton.setOnAction(e -> {
+            // Stop at the next batch; the batches already processed are still saved and reported
+            cancelRequested = true;
+            cancelButton.setDisable(true);
+        });
+        setProcessing(true);
+
+        // Both handlers run on the FX thread
+        task.setOnSucceeded(e -> {
+            setProcessing(false);
+            showProcessingResult(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            setProcessing(false);
+            showErrorDialog("Payroll processing failed:\n\n" + task.getException().getMessage());
+            refreshPayrollTable();
+        });
+
+        Thread thread = new Thread(task, "payroll-processing");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void setProcessing(boolean processing) {
+        if (!processing) {
+            progressBar.progressProperty().unbind();
+            progressLabel.textProperty().unbind();
+        }
+        progressBox.setVisible(processing);
+        progressBox.setManaged(processing);
+        processButton.setDisable(processing);
+        backButton.setDisable(processing);
+        startDatePicker.setDisable(processing);
+        endDatePicker.setDisable(processing);
+    }
+
+    private void showProcessingResult(PayrollProcessingResult result) {
+        if (result.isCancelled() && result.isSuccess()) {
+            showSuccessDialog(
+                String.format("Payroll processing was cancelled after processing %d employees", 
+                result.getEmployeesProcessed())
+            );
+            refreshPayrollTable();
+            return;
+        }
+
         if (result.isSuccess()) {
             showSuccessDialog(
                 String.format("Successfully processed payroll for %d employees", 
@@ -322,8 +415,8 @@ public class PayrollProcessingView extends VBox {
 
         if (startDate != null && endDate != null) {
             payrollTable.getItems().clear();
-            List<PayrollRecord> records = PayrollProcessor.shared().getPayrollRecords(startDate, endDate);
-            payrollTable.getItems().addAll(records);
+            List<PayrollReportRow> rows = PayrollProcessor.shared().getPayrollReportRows(startDate, endDate);
+            payrollTable.getItems().addAll(rows);
         }
     }
 
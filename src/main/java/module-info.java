@@ -4,6 +4,7 @@ module grant.coburn {
     requires javafx.graphics;
     requires javafx.base;
     requires java.sql;
+    requires com.zaxxer.hikari;
     requires jbcrypt;
     requires com.opencsv;
     requires io;
@@ -0,0 +1,4 @@
+-- Time entries are looked up by employee and work date, usually filtered to unlocked entries.
+-- Payroll runs join every active employee to their unlocked entries for the pay period through
+-- the same index, one employee at a time.
+CREATE INDEX idx_time_entries_employee_date_locked ON time_entries (employee_id, work_date, is_locked);
@@ -0,0 +1,5 @@
+-- Payroll records are looked up by employee, latest pay period first, and deleted by employee and pay period.
+CREATE INDEX idx_payroll_records_employee_period ON payroll_records (employee_id, pay_period_start, pay_period_end);
+
+-- Reports read every record whose pay period falls within a date range.
+CREATE INDEX idx_payroll_records_period ON payroll_records (pay_period_start, pay_period_end);
@@ -0,0 +1,20 @@
+-- An employee has at most one payroll record per pay period. The unique key replaces the index on the same columns.
+-- Re-running a pay period used to save a second record for the same employee, and which one is real can only be
+-- decided by hand, so SchemaMigrator refuses to apply this migration while any duplicates remain.
+DROP INDEX idx_payroll_records_employee_period ON payroll_records;
+CREATE UNIQUE INDEX uq_payroll_records_employee_period ON payroll_records (employee_id, pay_period_start, pay_period_end);
+
+-- Checkpoints of each employee's payroll within a pay period, so an interrupted run can be resumed
+-- without processing the employees it already finished.
+CREATE TABLE payroll_runs (
+  pay_period_start date NOT NULL,
+  pay_period_end date NOT NULL,
+  employee_id varchar(10) NOT NULL,
+  status varchar(20) NOT NULL,
+  updated_at timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (pay_period_start, pay_period_end, employee_id)
+);
+
+-- Payroll saved before the ledger existed counts as completed.
+INSERT INTO payroll_runs (pay_period_start, pay_period_end, employee_id, status)
+SELECT DISTINCT pay_period_start, pay_period_end, employee_id, 'COMPLETED' FROM payroll_records;
@@ -0,0 +1,4 @@
+-- A hash of the hours and employee details each payroll record was calculated from, so a correction
+-- run can tell which employees changed. Records saved before this migration have no fingerprint and
+-- are recalculated by the first incremental run.
+ALTER TABLE payroll_records ADD COLUMN input_fingerprint char(64) NULL;
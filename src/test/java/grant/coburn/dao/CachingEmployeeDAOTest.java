@@ -0,0 +1,144 @@
+package grant.coburn.dao;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import grant.coburn.model.Employee;
+
+class CachingEmployeeDAOTest {
+    private static final long TTL_MS = 1_000;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private InMemoryEmployeeDAO delegate;
+    private CachingEmployeeDAO cache;
+
+    private static Employee employee(String employeeId) {
+        Employee employee = new Employee(
+            employeeId,
+            "IT",
+            "Engineer",
+            "First",
+            employeeId,
+            Employee.Status.ACTIVE,
+            LocalDate.of(1990, 1, 1),
+            LocalDate.of(2020, 1, 1),
+            Employee.PayType.HOURLY,
+            20.0,
+            Employee.MedicalCoverage.SINGLE,
+            0
+        );
+        employee.setCompanyEmail(employeeId.toLowerCase() + "@example.com");
+        return employee;
+    }
+
+    @BeforeEach
+    void setUp() {
+        InMemoryStore store = new InMemoryStore();
+        delegate = new InMemoryEmployeeDAO(store, new InMemoryUserDAO(store)) {
+            @Override
+            public Employee getEmployee(String employeeId) {
+                loads.incrementAndGet();
+                // JdbcEmployeeDAO returns null when the query fails
+                if (failures.getAndUpdate(remaining -> Math.max(remaining - 1, 0)) > 0) {
+                    return null;
+                }
+                return super.getEmployee(employeeId);
+            }
+        };
+        for (int i = 1; i <= 3; i++) {
+            store.employees.put("EMP000" + i, employee("EMP000" + i));
+        }
+        cache = new CachingEmployeeDAO(delegate, 2, TTL_MS, clock::get);
+    }
+
+    @Test
+    void testRepeatedLookupsHitCache() {
+        for (int i = 0; i < 100; i++) {
+            assertNotNull(cache.getEmployee("EMP0001"));
+        }
+
+        assertEquals(1, loads.get());
+        CacheMetrics metrics = cache.getCacheMetrics();
+        assertEquals(99, metrics.getHits());
+        assertEquals(1, metrics.getMisses());
+    }
+
+    @Test
+    void testCachedEmployeesCantBeChangedByCallers() {
+        cache.getEmployee("EMP0001").setFirstName("Changed");
+
+        assertEquals("First", cache.getEmployee("EMP0001").getFirstName());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEmployeeIsEvicted() {
+        cache.getEmployee("EMP0001");
+        cache.getEmployee("EMP0002");
+        cache.getEmployee("EMP0001");
+        cache.getEmployee("EMP0003");
+
+        loads.set(0);
+        cache.getEmployee("EMP0001");
+        assertEquals(0, loads.get());
+        cache.getEmployee("EMP0002");
+        assertEquals(1, loads.get());
+        assertTrue(cache.getCacheMetrics().getEvictions() >= 1);
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        cache.getEmployee("EMP0001");
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(TTL_MS) - 1);
+        cache.getEmployee("EMP0001");
+        assertEquals(1, loads.get());
+
+        clock.addAndGet(1);
+        cache.getEmployee("EMP0001");
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getCacheMetrics().getExpirations());
+    }
+
+    @Test
+    void testWritesInvalidateCachedEmployee() {
+        Employee employee = cache.getEmployee("EMP0001");
+        employee.setFirstName("Updated");
+        assertTrue(cache.updateEmployee(employee));
+        assertEquals("Updated", cache.getEmployee("EMP0001").getFirstName());
+
+        assertTrue(cache.deleteEmployee("EMP0001"));
+        assertNull(cache.getEmployeeById("EMP0001"));
+        assertEquals(Employee.Status.TERMINATED, cache.getEmployee("EMP0001").getStatus());
+    }
+
+    @Test
+    void testMissingEmployeesAreNotCached() {
+        assertNull(cache.getEmployee("EMP0004"));
+        assertNull(cache.getEmployee("EMP0004"));
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getCacheMetrics().getSize());
+
+        assertNotNull(cache.createEmployee(employee("EMP0004"), true));
+        assertNotNull(cache.getEmployee("EMP0004"));
+    }
+
+    @Test
+    void testFailedLookupIsRetriedOnceTheDelegateRecovers() {
+        failures.set(1);
+        assertNull(cache.getEmployee("EMP0001"));
+
+        assertNotNull(cache.getEmployee("EMP0001"));
+        assertNotNull(cache.getEmployeeById("EMP0001"));
+        assertEquals(2, loads.get());
+    }
+}
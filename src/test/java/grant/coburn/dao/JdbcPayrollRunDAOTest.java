@@ -0,0 +1,149 @@
+package grant.coburn.dao;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import grant.coburn.model.PayrollRecord;
+import grant.coburn.model.TimeEntry;
+import grant.coburn.util.H2TestDatabase;
+import grant.coburn.util.Money;
+import grant.coburn.util.PayrollProcessingResult;
+import grant.coburn.util.PayrollProcessor;
+import grant.coburn.util.SchemaMigrator;
+
+class JdbcPayrollRunDAOTest {
+    private static final LocalDate PAY_PERIOD_START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate PAY_PERIOD_END = LocalDate.of(2024, 1, 7);
+
+    private H2TestDatabase database;
+    private StorageEngine storage;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        database = new H2TestDatabase("jdbc_payroll_run_dao_test");
+        new SchemaMigrator(database.getDatabaseUtil()).migrate();
+        storage = StorageEngine.jdbc(database.getDatabaseUtil());
+
+        for (String employeeId : List.of("EMP0001", "EMP0002")) {
+            addHourlyEmployee(employeeId);
+            for (int day = 0; day < 5; day++) {
+                assertTrue(storage.getTimeEntryDAO().saveTimeEntry(new TimeEntry(employeeId, PAY_PERIOD_START.plusDays(day), 8.0, false)));
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testStatusesAreReplacedAndDeleted() {
+        PayrollRunDAO runs = storage.getPayrollRunDAO();
+
+        assertEquals(2, runs.saveEmployeeStatuses(PAY_PERIOD_START, PAY_PERIOD_END, List.of("EMP0001", "EMP0002"), PayrollRunDAO.Status.FAILED));
+        assertEquals(1, runs.saveEmployeeStatuses(PAY_PERIOD_START, PAY_PERIOD_END, List.of("EMP0001"), PayrollRunDAO.Status.COMPLETED));
+        assertEquals(1, runs.saveEmployeeStatuses(PAY_PERIOD_START, PAY_PERIOD_END, List.of("EMP0001"), PayrollRunDAO.Status.COMPLETED));
+
+        assertEquals(Set.of("EMP0001"), runs.getCompletedEmployeeIds(PAY_PERIOD_START, PAY_PERIOD_END));
+        assertEquals(PayrollRunDAO.Status.FAILED, runs.getEmployeeStatus("EMP0002", PAY_PERIOD_START, PAY_PERIOD_END));
+        assertTrue(runs.getCompletedEmployeeIds(PAY_PERIOD_START.plusWeeks(1), PAY_PERIOD_END.plusWeeks(1)).isEmpty());
+
+        assertTrue(runs.deleteEmployeeStatus("EMP0002", PAY_PERIOD_START, PAY_PERIOD_END));
+        assertFalse(runs.deleteEmployeeStatus("EMP0002", PAY_PERIOD_START, PAY_PERIOD_END));
+        assertNull(runs.getEmployeeStatus("EMP0002", PAY_PERIOD_START, PAY_PERIOD_END));
+    }
+
+    @Test
+    void testInterruptedRunIsResumedWithoutDuplicates() {
+        // An earlier run saved a record for each employee but only checkpointed the first one
+        for (String employeeId : List.of("EMP0001", "EMP0002")) {
+            assertTrue(storage.getPayrollRecordDAO().savePayrollRecord(PayrollRecord.ofCents(
+                employeeId, PAY_PERIOD_START, PAY_PERIOD_END, 1, 1, 0, 0, 0, 0, 0, 0, 0, 0
+            )));
+        }
+        storage.getPayrollRunDAO().saveEmployeeStatuses(PAY_PERIOD_START, PAY_PERIOD_END, List.of("EMP0001"), PayrollRunDAO.Status.COMPLETED);
+
+        PayrollProcessingResult result = new PayrollProcessor(storage).processPayroll(PAY_PERIOD_START, PAY_PERIOD_END);
+
+        assertTrue(result.isSuccess(), () -> String.join("\n", result.getErrors()));
+        assertEquals(1, result.getEmployeesProcessed());
+        assertEquals(2, storage.getPayrollRecordDAO().countPayrollRecordsByDateRange(PAY_PERIOD_START, PAY_PERIOD_END));
+        assertEquals(1, storage.getPayrollRecordDAO().getLatestPayrollRecord("EMP0001").getGrossPayCents());
+        assertEquals(Money.toCents(800.0), storage.getPayrollRecordDAO().getLatestPayrollRecord("EMP0002").getGrossPayCents());
+        assertEquals(Set.of("EMP0001", "EMP0002"), storage.getPayrollRunDAO().getCompletedEmployeeIds(PAY_PERIOD_START, PAY_PERIOD_END));
+        assertTrue(storage.getTimeEntryDAO().getTimeEntriesByEmployeeId("EMP0002").stream().allMatch(TimeEntry::isLocked));
+    }
+
+    @Test
+    void testIncrementalRunRewritesOnlyChangedEmployees() {
+        PayrollProcessor processor = new PayrollProcessor(storage);
+        assertTrue(processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END).isSuccess());
+        PayrollRecord unchanged = storage.getPayrollRecordDAO().getLatestPayrollRecord("EMP0001");
+        assertEquals(64, unchanged.getInputFingerprint().length());
+
+        // A late timesheet for EMP0002 arrives after payroll was processed
+        assertTrue(storage.getTimeEntryDAO().saveTimeEntry(new TimeEntry("EMP0002", PAY_PERIOD_START.plusDays(5), 4.0, false)));
+
+        PayrollProcessingResult result = processor.processPayrollIncremental(PAY_PERIOD_START, PAY_PERIOD_END);
+
+        assertTrue(result.isSuccess(), () -> String.join("\n", result.getErrors()));
+        assertEquals(1, result.getEmployeesProcessed());
+        // 40 regular hours plus 4 overtime hours at time and a half
+        assertEquals(Money.toCents(920.0), storage.getPayrollRecordDAO().getLatestPayrollRecord("EMP0002").getGrossPayCents());
+        assertEquals(2, storage.getPayrollRecordDAO().countPayrollRecordsByDateRange(PAY_PERIOD_START, PAY_PERIOD_END));
+        assertTrue(storage.getTimeEntryDAO().getTimeEntriesByEmployeeId("EMP0002").stream().allMatch(TimeEntry::isLocked));
+        assertEquals(unchanged.getInputFingerprint(), storage.getPayrollRecordDAO().getLatestPayrollRecord("EMP0001").getInputFingerprint());
+        assertEquals(Set.of("EMP0001", "EMP0002"), storage.getPayrollRunDAO().getCompletedEmployeeIds(PAY_PERIOD_START, PAY_PERIOD_END));
+
+        assertEquals(0, processor.processPayrollIncremental(PAY_PERIOD_START, PAY_PERIOD_END).getEmployeesProcessed());
+    }
+
+    @Test
+    void testRunFailsWhenLedgerCannotBeRead() throws SQLException {
+        PayrollProcessor processor = new PayrollProcessor(storage);
+        assertTrue(processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END).isSuccess());
+
+        try (Connection conn = database.getDatabaseUtil().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("ALTER TABLE payroll_runs RENAME TO payroll_runs_unavailable")) {
+            stmt.executeUpdate();
+        }
+        assertNull(storage.getPayrollRunDAO().getCompletedEmployeeIds(PAY_PERIOD_START, PAY_PERIOD_END));
+
+        // Without the ledger both employees would be processed again with no unlocked hours
+        assertFalse(processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END).isSuccess());
+        assertFalse(processor.processPayrollPipelined(PAY_PERIOD_START, PAY_PERIOD_END).isSuccess());
+        for (String employeeId : List.of("EMP0001", "EMP0002")) {
+            assertEquals(Money.toCents(800.0), storage.getPayrollRecordDAO().getLatestPayrollRecord(employeeId).getGrossPayCents());
+        }
+    }
+
+    private void addHourlyEmployee(String employeeId) {
+        try (Connection conn = database.getDatabaseUtil().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "INSERT INTO employees (employee_id, department, job_title, first_name, last_name, status, " +
+                 "date_of_birth, gender, pay_type, company_email, address_line1, city, state, zip, hire_date, " +
+                 "base_salary, medical_coverage, dependents_count) " +
+                 "VALUES (?, 'IT', 'Engineer', 'First', 'Last', 'ACTIVE', '1990-01-01', 'FEMALE', 'HOURLY', ?, " +
+                 "'', '', '', '', '2020-01-01', 20.00, 'SINGLE', 0)")) {
+            stmt.setString(1, employeeId);
+            stmt.setString(2, employeeId + "@example.com");
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package grant.coburn.dao;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import grant.coburn.model.TimeEntry;
+import grant.coburn.model.TimeEntryTotals;
+import grant.coburn.util.H2TestDatabase;
+
+class JdbcTimeEntryDAOTest {
+    private static final LocalDate PERIOD_START = LocalDate.of(2024, 3, 4);
+    private static final LocalDate PERIOD_END = LocalDate.of(2024, 3, 17);
+
+    private H2TestDatabase database;
+    private JdbcTimeEntryDAO timeEntryDAO;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        database = new H2TestDatabase("jdbc_time_entry_dao_test");
+        timeEntryDAO = new JdbcTimeEntryDAO(database.getDatabaseUtil());
+        addEmployee("EMP0001", "ACTIVE");
+        addEmployee("EMP0002", "ACTIVE");
+        addEmployee("EMP0003", "TERMINATED");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testTotalsMatchSummingTheEntries() {
+        for (int day = 0; day < 10; day++) {
+            save("EMP0001", PERIOD_START.plusDays(day), 7.25 + day * 0.5, day % 4 == 3);
+            save("EMP0002", PERIOD_START.plusDays(day), 8.0, false);
+        }
+
+        Map<String, List<TimeEntry>> entries = timeEntryDAO.getUnlockedTimeEntriesForActiveEmployees(PERIOD_START, PERIOD_END);
+        Map<String, TimeEntryTotals> totals = timeEntryDAO.getUnlockedTimeEntryTotalsForActiveEmployees(PERIOD_START, PERIOD_END);
+
+        assertEquals(List.copyOf(entries.keySet()), List.copyOf(totals.keySet()));
+        for (Map.Entry<String, List<TimeEntry>> employee : entries.entrySet()) {
+            TimeEntryTotals expected = TimeEntryTotals.of(employee.getKey(), employee.getValue());
+            TimeEntryTotals actual = totals.get(employee.getKey());
+
+            assertEquals(expected.getRegularHours(), actual.getRegularHours(), 1e-9);
+            assertEquals(expected.getPtoHours(), actual.getPtoHours(), 1e-9);
+            assertEquals(sorted(expected.getEntryIds()), actual.getEntryIds());
+        }
+        assertEquals(19.5, totals.get("EMP0001").getPtoHours(), 1e-9);
+    }
+
+    @Test
+    void testTotalsLeaveOutLockedEntriesOtherPeriodsAndInactiveEmployees() {
+        save("EMP0001", PERIOD_START, 8.0, false);
+        save("EMP0001", PERIOD_START.plusDays(1), 6.5, false);
+        save("EMP0001", PERIOD_START.minusDays(1), 8.0, false);
+        save("EMP0001", PERIOD_END.plusDays(1), 8.0, false);
+        save("EMP0003", PERIOD_START, 8.0, false);
+
+        TimeEntry locked = timeEntryDAO.getTimeEntryByEmployeeIdAndDate("EMP0001", PERIOD_START.plusDays(1));
+        assertEquals(1, timeEntryDAO.lockTimeEntries(List.of(locked.getEntryId())));
+
+        Map<String, TimeEntryTotals> totals = timeEntryDAO.getUnlockedTimeEntryTotalsForActiveEmployees(PERIOD_START, PERIOD_END);
+
+        assertEquals(List.of("EMP0001"), List.copyOf(totals.keySet()));
+        TimeEntryTotals employee = totals.get("EMP0001");
+        assertEquals(8.0, employee.getRegularHours(), 1e-9);
+        assertEquals(0.0, employee.getPtoHours(), 1e-9);
+        assertEquals(List.of(timeEntryDAO.getTimeEntryByEmployeeIdAndDate("EMP0001", PERIOD_START).getEntryId()), employee.getEntryIds());
+    }
+
+    @Test
+    void testTotalsForProcessedPayrollIncludeLockedEntries() {
+        save("EMP0001", PERIOD_START, 8.0, false);
+        save("EMP0001", PERIOD_START.plusDays(1), 4.0, true);
+        save("EMP0003", PERIOD_START, 8.0, false);
+
+        TimeEntry locked = timeEntryDAO.getTimeEntryByEmployeeIdAndDate("EMP0001", PERIOD_START);
+        assertEquals(1, timeEntryDAO.lockTimeEntries(List.of(locked.getEntryId())));
+
+        Map<String, TimeEntryTotals> totals = timeEntryDAO.getTimeEntryTotalsForActiveEmployees(PERIOD_START, PERIOD_END);
+
+        assertEquals(List.of("EMP0001"), List.copyOf(totals.keySet()));
+        assertEquals(8.0, totals.get("EMP0001").getRegularHours(), 1e-9);
+        assertEquals(4.0, totals.get("EMP0001").getPtoHours(), 1e-9);
+        assertEquals(2, totals.get("EMP0001").getEntryIds().size());
+    }
+
+    @Test
+    void testTruncatedEntryIdsAreRejected() throws SQLException {
+        assertEquals(List.of(3L, 5L), JdbcTimeEntryDAO.parseEntryIds("EMP0001", "3,5", 2));
+        assertEquals(List.of(), JdbcTimeEntryDAO.parseEntryIds("EMP0001", null, 0));
+
+        // GROUP_CONCAT cut the list off partway through the second ID
+        assertThrows(SQLException.class, () -> JdbcTimeEntryDAO.parseEntryIds("EMP0001", "3,5", 3));
+    }
+
+    private void save(String employeeId, LocalDate workDate, double hours, boolean pto) {
+        assertTrue(timeEntryDAO.saveTimeEntry(new TimeEntry(employeeId, workDate, hours, pto)));
+    }
+
+    private void addEmployee(String employeeId, String status) throws SQLException {
+        try (Connection conn = database.getDatabaseUtil().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "INSERT INTO employees (employee_id, department, job_title, first_name, last_name, status, " +
+                 "date_of_birth, gender, pay_type, company_email, address_line1, city, state, zip, hire_date) " +
+                 "VALUES (?, 'IT', 'Engineer', 'First', 'Last', ?, '1990-01-01', 'FEMALE', 'HOURLY', ?, '', '', '', '', '2020-01-01')")) {
+            stmt.setString(1, employeeId);
+            stmt.setString(2, status);
+            stmt.setString(3, employeeId + "@example.com");
+            stmt.executeUpdate();
+        }
+    }
+
+    private static List<Long> sorted(List<Long> ids) {
+        List<Long> sorted = new ArrayList<>(ids);
+        sorted.sort(null);
+        return sorted;
+    }
+}
@@ -0,0 +1,126 @@
+package grant.coburn.dao;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import grant.coburn.model.PayrollRecord;
+import grant.coburn.model.TimeEntry;
+import grant.coburn.util.H2TestDatabase;
+import grant.coburn.util.SchemaMigrator;
+
+class JdbcUnitOfWorkTest {
+    private static final LocalDate PAY_PERIOD_START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate PAY_PERIOD_END = LocalDate.of(2024, 1, 7);
+
+    private H2TestDatabase database;
+    private StorageEngine storage;
+    private List<Long> entryIds;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        database = new H2TestDatabase("jdbc_unit_of_work_test");
+        new SchemaMigrator(database.getDatabaseUtil()).migrate();
+        storage = StorageEngine.jdbc(database.getDatabaseUtil());
+        addEmployee("EMP0001");
+
+        entryIds = new ArrayList<>();
+        for (int day = 0; day < 5; day++) {
+            assertTrue(storage.getTimeEntryDAO().saveTimeEntry(new TimeEntry("EMP0001", PAY_PERIOD_START.plusDays(day), 8.0, false)));
+        }
+        for (TimeEntry entry : storage.getTimeEntryDAO().getTimeEntriesByEmployeeId("EMP0001")) {
+            entryIds.add(entry.getEntryId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testCommitAppliesEveryWrite() {
+        UnitOfWork unitOfWork = storage.beginUnitOfWork();
+        unitOfWork.savePayrollRecords(List.of(record("EMP0001")));
+        unitOfWork.saveEmployeeStatuses(PAY_PERIOD_START, PAY_PERIOD_END, List.of("EMP0001"), PayrollRunDAO.Status.COMPLETED);
+        unitOfWork.lockTimeEntries(entryIds);
+
+        assertTrue(unitOfWork.commit());
+        assertEquals(entryIds.size(), unitOfWork.getTimeEntriesLocked());
+        assertEquals(1, storage.getPayrollRecordDAO().countPayrollRecordsByDateRange(PAY_PERIOD_START, PAY_PERIOD_END));
+        assertEquals(PayrollRunDAO.Status.COMPLETED, storage.getPayrollRunDAO().getEmployeeStatus("EMP0001", PAY_PERIOD_START, PAY_PERIOD_END));
+        assertTrue(storage.getTimeEntryDAO().getTimeEntriesByEmployeeId("EMP0001").stream().allMatch(TimeEntry::isLocked));
+    }
+
+    @Test
+    void testFailedWriteRollsBackTheWholeUnit() {
+        UnitOfWork unitOfWork = storage.beginUnitOfWork();
+        unitOfWork.lockTimeEntries(entryIds);
+        // The second record's employee doesn't exist, so its insert fails the foreign key
+        unitOfWork.savePayrollRecords(List.of(record("EMP0001"), record("EMP9999")));
+        unitOfWork.saveEmployeeStatuses(PAY_PERIOD_START, PAY_PERIOD_END, List.of("EMP0001", "EMP9999"), PayrollRunDAO.Status.COMPLETED);
+
+        assertFalse(unitOfWork.commit());
+        assertEquals(0, storage.getPayrollRecordDAO().countPayrollRecordsByDateRange(PAY_PERIOD_START, PAY_PERIOD_END));
+        assertTrue(storage.getPayrollRunDAO().getCompletedEmployeeIds(PAY_PERIOD_START, PAY_PERIOD_END).isEmpty());
+        assertTrue(storage.getTimeEntryDAO().getTimeEntriesByEmployeeId("EMP0001").stream().noneMatch(TimeEntry::isLocked));
+    }
+
+    @Test
+    void testRecordsAreSavedAcrossSeveralBatches() throws SQLException {
+        addEmployee("EMP0002");
+        addEmployee("EMP0003");
+        ((JdbcPayrollRecordDAO) storage.getPayrollRecordDAO()).setBatchSize(2);
+
+        UnitOfWork unitOfWork = storage.beginUnitOfWork();
+        unitOfWork.savePayrollRecords(List.of(record("EMP0001"), record("EMP0002"), record("EMP0003")));
+
+        assertTrue(unitOfWork.commit());
+        assertEquals(3, storage.getPayrollRecordDAO().countPayrollRecordsByDateRange(PAY_PERIOD_START, PAY_PERIOD_END));
+    }
+
+    @Test
+    void testDeletingAMissingRecordKeepsTheLedgerAndLocks() {
+        UnitOfWork processed = storage.beginUnitOfWork();
+        processed.saveEmployeeStatuses(PAY_PERIOD_START, PAY_PERIOD_END, List.of("EMP0001"), PayrollRunDAO.Status.COMPLETED);
+        processed.lockTimeEntries(entryIds);
+        assertTrue(processed.commit());
+
+        // Reopening the employee only goes ahead along with the record's delete
+        UnitOfWork reopen = storage.beginUnitOfWork();
+        reopen.unlockTimeEntries(List.of("EMP0001"), PAY_PERIOD_START, PAY_PERIOD_END);
+        reopen.deleteEmployeeStatuses(PAY_PERIOD_START, PAY_PERIOD_END, List.of("EMP0001"));
+        reopen.deletePayrollRecord("EMP0001", PAY_PERIOD_START, PAY_PERIOD_END);
+
+        assertFalse(reopen.commit());
+        assertEquals(PayrollRunDAO.Status.COMPLETED, storage.getPayrollRunDAO().getEmployeeStatus("EMP0001", PAY_PERIOD_START, PAY_PERIOD_END));
+        assertTrue(storage.getTimeEntryDAO().getTimeEntriesByEmployeeId("EMP0001").stream().allMatch(TimeEntry::isLocked));
+    }
+
+    private static PayrollRecord record(String employeeId) {
+        return PayrollRecord.ofCents(employeeId, PAY_PERIOD_START, PAY_PERIOD_END, 80000, 60000, 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    private void addEmployee(String employeeId) throws SQLException {
+        try (Connection conn = database.getDatabaseUtil().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "INSERT INTO employees (employee_id, department, job_title, first_name, last_name, status, " +
+                 "date_of_birth, gender, pay_type, company_email, address_line1, city, state, zip, hire_date) " +
+                 "VALUES (?, 'IT', 'Engineer', 'First', 'Last', 'ACTIVE', '1990-01-01', 'FEMALE', 'HOURLY', ?, '', '', '', '', '2020-01-01')")) {
+            stmt.setString(1, employeeId);
+            stmt.setString(2, employeeId + "@example.com");
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package grant.coburn.dao;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import grant.coburn.util.H2TestDatabase;
+import grant.coburn.util.SchemaMigrator;
+
+/**
+ * Checks with EXPLAIN that the time entry and payroll record queries read their tables through
+ * an index rather than scanning them, and that queries filtering on more than the employee use
+ * the composite indexes added by the migrations.
+ */
+class QueryPlanTest {
+    private static H2TestDatabase database;
+
+    @BeforeAll
+    static void setUp() throws SQLException, IOException {
+        database = new H2TestDatabase("query_plan_test");
+        new SchemaMigrator(database.getDatabaseUtil()).migrate();
+        addHistory();
+    }
+
+    /**
+     * Add a few months of history and gather statistics, so the planner can tell a selective index
+     * from one that only narrows the search down to an employee.
+     */
+    private static void addHistory() throws SQLException {
+        try (Connection conn = database.getDatabaseUtil().getConnection();
+             PreparedStatement employee = conn.prepareStatement(
+                 "INSERT INTO employees (employee_id, department, job_title, first_name, last_name, status, " +
+                 "date_of_birth, gender, pay_type, company_email, address_line1, city, state, zip, hire_date) " +
+                 "VALUES (?, 'IT', 'Engineer', 'First', 'Last', 'ACTIVE', '1990-01-01', 'FEMALE', 'HOURLY', ?, '', '', '', '', '2020-01-01')");
+             PreparedStatement entry = conn.prepareStatement(
+                 "INSERT INTO time_entries (employee_id, work_date, hours_worked, is_pto, is_locked) VALUES (?, ?, 8, false, ?)");
+             PreparedStatement record = conn.prepareStatement(
+                 "INSERT INTO payroll_records (employee_id, pay_period_start, pay_period_end, gross_pay, net_pay) VALUES (?, ?, ?, 800, 600)")) {
+
+            LocalDate firstDay = LocalDate.of(2024, 1, 1);
+            for (int e = 0; e < 50; e++) {
+                String employeeId = String.format("EMP%04d", e);
+                employee.setString(1, employeeId);
+                employee.setString(2, employeeId + "@example.com");
+                employee.executeUpdate();
+
+                for (int day = 0; day < 120; day++) {
+                    entry.setString(1, employeeId);
+                    entry.setDate(2, java.sql.Date.valueOf(firstDay.plusDays(day)));
+                    entry.setBoolean(3, day < 112);
+                    entry.addBatch();
+                }
+                entry.executeBatch();
+
+                for (int week = 0; week < 16; week++) {
+                    record.setString(1, employeeId);
+                    record.setDate(2, java.sql.Date.valueOf(firstDay.plusWeeks(week)));
+                    record.setDate(3, java.sql.Date.valueOf(firstDay.plusWeeks(week).plusDays(6)));
+                    record.addBatch();
+                }
+                record.executeBatch();
+            }
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ANALYZE");
+            }
+        }
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testTimeEntryQueriesUseIndexes() throws SQLException {
+        assertNoTableScan(JdbcTimeEntryDAO.SELECT_BY_EMPLOYEE_SQL);
+        assertUsesIndex(JdbcTimeEntryDAO.SELECT_UNLOCKED_BY_EMPLOYEE_AND_DATE_RANGE_SQL, "idx_time_entries_employee_date_locked");
+        assertUsesIndex(JdbcTimeEntryDAO.SELECT_BY_EMPLOYEE_AND_DATE_SQL, "idx_time_entries_employee_date_locked");
+        assertUsesIndex(JdbcTimeEntryDAO.SELECT_UNLOCKED_FOR_ACTIVE_EMPLOYEES_SQL, "idx_time_entries_employee_date_locked");
+        assertUsesIndex(JdbcTimeEntryDAO.SELECT_UNLOCKED_TOTALS_FOR_ACTIVE_EMPLOYEES_SQL, "idx_time_entries_employee_date_locked");
+        assertUsesIndex(JdbcTimeEntryDAO.SELECT_TOTALS_FOR_ACTIVE_EMPLOYEES_SQL, "idx_time_entries_employee_date_locked");
+        assertUsesIndex(JdbcTimeEntryDAO.setLockedByEmployeesSql(3), "idx_time_entries_employee_date_locked");
+        assertNoTableScan(JdbcTimeEntryDAO.setLockedByEntryIdsSql(3));
+        assertNoTableScan(JdbcTimeEntryDAO.DELETE_UNLOCKED_SQL);
+    }
+
+    @Test
+    void testPayrollRecordQueriesUseIndexes() throws SQLException {
+        assertNoTableScan(JdbcPayrollRecordDAO.SELECT_BY_EMPLOYEE_SQL);
+        assertNoTableScan(JdbcPayrollRecordDAO.SELECT_LATEST_BY_EMPLOYEE_SQL);
+        assertUsesIndex(JdbcPayrollRecordDAO.DELETE_BY_EMPLOYEE_AND_PERIOD_SQL, "uq_payroll_records_employee_period");
+        assertUsesIndex(JdbcPayrollRecordDAO.SELECT_BY_DATE_RANGE_SQL, "idx_payroll_records_period");
+        assertUsesIndex(JdbcPayrollRecordDAO.COUNT_BY_DATE_RANGE_SQL, "idx_payroll_records_period");
+        assertUsesIndex(JdbcPayrollRecordDAO.SELECT_REPORT_ROWS_SQL, "idx_payroll_records_period");
+        assertUsesIndex(JdbcPayrollRecordDAO.SELECT_FINGERPRINTS_BY_PERIOD_SQL, "idx_payroll_records_period");
+    }
+
+    @Test
+    void testPayrollRunQueriesUseIndexes() throws SQLException {
+        assertNoTableScan(JdbcPayrollRunDAO.SELECT_COMPLETED_SQL);
+        assertNoTableScan(JdbcPayrollRunDAO.SELECT_STATUS_SQL);
+        assertNoTableScan(JdbcPayrollRunDAO.DELETE_STATUS_SQL);
+    }
+
+    private static void assertUsesIndex(String sql, String index) throws SQLException {
+        String plan = explain(sql);
+        assertTrue(plan.contains("." + index), () -> "Expected " + index + " in plan:\n" + plan);
+        assertNoTableScan(sql);
+    }
+
+    /**
+     * Employees may still be scanned when every active employee is read, so only the time entry,
+     * payroll record and payroll run tables are checked.
+     */
+    private static void assertNoTableScan(String sql) throws SQLException {
+        String plan = explain(sql);
+        assertFalse(plan.contains("time_entries.tableScan"), () -> "Expected no time entry scan in plan:\n" + plan);
+        assertFalse(plan.contains("payroll_records.tableScan"), () -> "Expected no payroll record scan in plan:\n" + plan);
+        assertFalse(plan.contains("payroll_runs.tableScan"), () -> "Expected no payroll run scan in plan:\n" + plan);
+    }
+
+    private static String explain(String sql) throws SQLException {
+        try (Connection conn = database.getDatabaseUtil().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            // The plan doesn't depend on parameter values, but every parameter needs one
+            for (int i = 1; i <= stmt.getParameterMetaData().getParameterCount(); i++) {
+                stmt.setObject(i, null);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+                return plan.toString();
+            }
+        }
+    }
+}
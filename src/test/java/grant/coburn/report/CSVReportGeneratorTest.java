@@ -0,0 +1,74 @@
+package grant.coburn.report;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import grant.coburn.dao.StorageEngine;
+import grant.coburn.model.Employee;
+import grant.coburn.model.PayrollRecord;
+
+class CSVReportGeneratorTest {
+    private static final LocalDate FIRST_PERIOD_START = LocalDate.of(2024, 1, 1);
+
+    private StorageEngine storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = StorageEngine.inMemory();
+
+        Employee employee = new Employee(
+            "EMP0001",
+            "IT",
+            "Engineer",
+            "Jane",
+            "Doe",
+            Employee.Status.ACTIVE,
+            LocalDate.of(1990, 1, 1),
+            LocalDate.of(2020, 1, 1),
+            Employee.PayType.HOURLY,
+            20.0,
+            Employee.MedicalCoverage.SINGLE,
+            0
+        );
+        employee.setCompanyEmail("jane.doe@example.com");
+        assertNotNull(storage.getEmployeeDAO().createEmployee(employee, true));
+
+        for (int week = 0; week < 3; week++) {
+            LocalDate start = FIRST_PERIOD_START.plusWeeks(week);
+            assertTrue(storage.getPayrollRecordDAO().savePayrollRecord(PayrollRecord.ofCents(
+                "EMP0001", start, start.plusDays(6),
+                80_000 + week, 60_000, 5_000, 0, 2_500, 8_000, 4_960, 1_160, 4_960, 1_160
+            )));
+        }
+    }
+
+    @Test
+    void testWritesEveryRecordLatestFirst() throws IOException {
+        StringWriter out = new StringWriter();
+
+        ReportMetrics metrics = new CSVReportGenerator(storage).generateReport(out, FIRST_PERIOD_START, FIRST_PERIOD_START.plusWeeks(3));
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(4, lines.length);
+        assertEquals(3, metrics.getRowsWritten());
+        assertTrue(lines[0].startsWith("\"Employee ID\",\"Employee Name\""));
+        assertTrue(lines[1].startsWith("\"EMP0001\",\"Jane Doe\",\"01/15/2024\",\"01/21/2024\",\"800.02\""));
+        assertTrue(lines[3].startsWith("\"EMP0001\",\"Jane Doe\",\"01/01/2024\""));
+    }
+
+    @Test
+    void testOnlyIncludesPayPeriodsInsideRange() throws IOException {
+        StringWriter out = new StringWriter();
+
+        ReportMetrics metrics = new CSVReportGenerator(storage).generateReport(out, FIRST_PERIOD_START.plusWeeks(1), FIRST_PERIOD_START.plusWeeks(2).plusDays(6));
+
+        assertEquals(2, metrics.getRowsWritten());
+    }
+}
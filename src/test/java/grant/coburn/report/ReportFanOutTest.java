@@ -0,0 +1,95 @@
+package grant.coburn.report;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import grant.coburn.dao.StorageEngine;
+import grant.coburn.model.Employee;
+import grant.coburn.model.PayrollRecord;
+
+class ReportFanOutTest {
+    private static final LocalDate FIRST_PERIOD_START = LocalDate.of(2024, 1, 1);
+    private static final int WEEKS = 5;
+
+    @TempDir
+    Path outputDir;
+
+    private StorageEngine storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = StorageEngine.inMemory();
+
+        Employee employee = new Employee(
+            "EMP0001",
+            "IT",
+            "Engineer",
+            "Jane",
+            "Doe",
+            Employee.Status.ACTIVE,
+            LocalDate.of(1990, 1, 1),
+            LocalDate.of(2020, 1, 1),
+            Employee.PayType.HOURLY,
+            20.0,
+            Employee.MedicalCoverage.SINGLE,
+            0
+        );
+        employee.setCompanyEmail("jane.doe@example.com");
+        assertNotNull(storage.getEmployeeDAO().createEmployee(employee, true));
+
+        for (int week = 0; week < WEEKS; week++) {
+            LocalDate start = FIRST_PERIOD_START.plusWeeks(week);
+            assertTrue(storage.getPayrollRecordDAO().savePayrollRecord(PayrollRecord.ofCents(
+                "EMP0001", start, start.plusDays(6),
+                80_000, 60_000, 5_000, 0, 2_500, 8_000, 4_960, 1_160, 4_960, 1_160
+            )));
+        }
+    }
+
+    @Test
+    void testReadsRecordsOnceForEveryFormat() throws IOException {
+        AtomicInteger reads = new AtomicInteger();
+        ReportSource source = (start, end, consumer) -> {
+            reads.incrementAndGet();
+            return storage.getPayrollRecordDAO().streamPayrollReportRowsByDateRange(start, end, consumer);
+        };
+        Map<ReportFormat, String> outputPaths = new LinkedHashMap<>();
+        outputPaths.put(ReportFormat.CSV, outputDir.resolve("report.csv").toString());
+        outputPaths.put(ReportFormat.PDF, outputDir.resolve("report.pdf").toString());
+
+        Map<ReportFormat, ReportMetrics> metrics = new ReportFanOut(storage, source)
+            .generateReports(outputPaths, FIRST_PERIOD_START, FIRST_PERIOD_START.plusWeeks(WEEKS));
+
+        assertEquals(1, reads.get());
+        assertEquals(List.of(ReportFormat.CSV, ReportFormat.PDF), List.copyOf(metrics.keySet()));
+        assertEquals(WEEKS, metrics.get(ReportFormat.CSV).getRowsWritten());
+        assertEquals(WEEKS, metrics.get(ReportFormat.PDF).getRowsWritten());
+
+        List<String> csvLines = Files.readAllLines(outputDir.resolve("report.csv"));
+        assertEquals(WEEKS + 1, csvLines.size());
+        assertTrue(Files.size(outputDir.resolve("report.pdf")) > 0);
+    }
+
+    @Test
+    void testFailedReadIsReported() {
+        ReportSource source = (start, end, consumer) -> false;
+        Map<ReportFormat, String> outputPaths = Map.of(ReportFormat.CSV, outputDir.resolve("report.csv").toString());
+
+        assertThrows(IOException.class, () -> new ReportFanOut(storage, source)
+            .generateReports(outputPaths, FIRST_PERIOD_START, FIRST_PERIOD_START.plusWeeks(WEEKS)));
+    }
+}
@@ -0,0 +1,173 @@
+package grant.coburn.report;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import grant.coburn.dao.StorageEngine;
+import grant.coburn.model.Employee;
+import grant.coburn.model.PayrollRecord;
+
+class ReportJobManagerTest {
+    private static final LocalDate FIRST_PERIOD_START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate LAST_PERIOD_END = FIRST_PERIOD_START.plusWeeks(5);
+    private static final int WEEKS = 5;
+
+    @TempDir
+    Path outputDir;
+
+    private StorageEngine storage;
+    private CountDownLatch readStarted;
+    private CountDownLatch releaseRead;
+    private ReportJobManager manager;
+
+    @BeforeEach
+    void setUp() {
+        storage = StorageEngine.inMemory();
+
+        Employee employee = new Employee(
+            "EMP0001",
+            "IT",
+            "Engineer",
+            "Jane",
+            "Doe",
+            Employee.Status.ACTIVE,
+            LocalDate.of(1990, 1, 1),
+            LocalDate.of(2020, 1, 1),
+            Employee.PayType.HOURLY,
+            20.0,
+            Employee.MedicalCoverage.SINGLE,
+            0
+        );
+        employee.setCompanyEmail("jane.doe@example.com");
+        assertNotNull(storage.getEmployeeDAO().createEmployee(employee, true));
+
+        for (int week = 0; week < WEEKS; week++) {
+            LocalDate start = FIRST_PERIOD_START.plusWeeks(week);
+            assertTrue(storage.getPayrollRecordDAO().savePayrollRecord(PayrollRecord.ofCents(
+                "EMP0001", start, start.plusDays(6),
+                80_000, 60_000, 5_000, 0, 2_500, 8_000, 4_960, 1_160, 4_960, 1_160
+            )));
+        }
+
+        // Each read hands over its first row, then waits until the test releases it
+        readStarted = new CountDownLatch(1);
+        releaseRead = new CountDownLatch(0);
+        ReportSource source = (start, end, consumer) -> {
+            boolean[] first = { true };
+            return storage.getPayrollRecordDAO().streamPayrollReportRowsByDateRange(start, end, row -> {
+                consumer.accept(row);
+                if (first[0]) {
+                    first[0] = false;
+                    readStarted.countDown();
+                    try {
+                        releaseRead.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        };
+        manager = new ReportJobManager(storage, new ReportFanOut(storage, source), 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseRead.countDown();
+        manager.shutdown();
+    }
+
+    @Test
+    void testCompletedJobReportsProgressAndMetrics() throws Exception {
+        Path csv = outputDir.resolve("report.csv");
+        ReportJob job = manager.submit(Map.of(ReportFormat.CSV, csv.toString()), FIRST_PERIOD_START, LAST_PERIOD_END);
+
+        awaitStatus(job, ReportJob.Status.COMPLETED);
+        assertEquals(WEEKS, job.getTotalRows());
+        assertEquals(WEEKS, job.getRowsWritten());
+        assertEquals(1.0, job.getProgress());
+        assertEquals(WEEKS, job.getMetrics().get(ReportFormat.CSV).getRowsWritten());
+        assertTrue(Files.exists(csv));
+    }
+
+    @Test
+    void testJobsBeyondConcurrencyLimitWaitAndFullQueueIsRejected() throws Exception {
+        releaseRead = new CountDownLatch(1);
+        ReportJob running = manager.submit(Map.of(ReportFormat.CSV, outputDir.resolve("a.csv").toString()), FIRST_PERIOD_START, LAST_PERIOD_END);
+        assertTrue(readStarted.await(5, TimeUnit.SECONDS));
+        ReportJob queued = manager.submit(Map.of(ReportFormat.CSV, outputDir.resolve("b.csv").toString()), FIRST_PERIOD_START, LAST_PERIOD_END);
+
+        assertEquals(ReportJob.Status.RUNNING, running.getStatus());
+        assertEquals(ReportJob.Status.QUEUED, queued.getStatus());
+        assertThrows(RejectedExecutionException.class, () ->
+            manager.submit(Map.of(ReportFormat.CSV, outputDir.resolve("c.csv").toString()), FIRST_PERIOD_START, LAST_PERIOD_END));
+
+        releaseRead.countDown();
+        awaitStatus(running, ReportJob.Status.COMPLETED);
+        awaitStatus(queued, ReportJob.Status.COMPLETED);
+        assertEquals(2, manager.getJobs().size());
+
+        manager.clearFinishedJobs();
+        assertTrue(manager.getJobs().isEmpty());
+    }
+
+    @Test
+    void testCancelledRunningJobDeletesItsReports() throws Exception {
+        releaseRead = new CountDownLatch(1);
+        Path csv = outputDir.resolve("report.csv");
+        Path pdf = outputDir.resolve("report.pdf");
+        ReportJob job = manager.submit(
+            Map.of(ReportFormat.CSV, csv.toString(), ReportFormat.PDF, pdf.toString()),
+            FIRST_PERIOD_START, LAST_PERIOD_END
+        );
+        assertTrue(readStarted.await(5, TimeUnit.SECONDS));
+
+        job.cancel();
+        releaseRead.countDown();
+
+        awaitStatus(job, ReportJob.Status.CANCELLED);
+        assertFalse(Files.exists(csv));
+        assertFalse(Files.exists(pdf));
+    }
+
+    @Test
+    void testCancelledQueuedJobNeverRuns() throws Exception {
+        releaseRead = new CountDownLatch(1);
+        ReportJob running = manager.submit(Map.of(ReportFormat.CSV, outputDir.resolve("a.csv").toString()), FIRST_PERIOD_START, LAST_PERIOD_END);
+        assertTrue(readStarted.await(5, TimeUnit.SECONDS));
+        Path queuedCsv = outputDir.resolve("b.csv");
+        ReportJob queued = manager.submit(Map.of(ReportFormat.CSV, queuedCsv.toString()), FIRST_PERIOD_START, LAST_PERIOD_END);
+
+        queued.cancel();
+        assertEquals(ReportJob.Status.CANCELLED, queued.getStatus());
+
+        releaseRead.countDown();
+        awaitStatus(running, ReportJob.Status.COMPLETED);
+        assertFalse(Files.exists(queuedCsv));
+    }
+
+    private static void awaitStatus(ReportJob job, ReportJob.Status status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (job.getStatus() != status) {
+            if (System.nanoTime() > deadline) {
+                fail("Job stayed " + job.getStatus() + " instead of becoming " + status);
+            }
+            Thread.sleep(10);
+        }
+    }
+}
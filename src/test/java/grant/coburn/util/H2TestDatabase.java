@@ -0,0 +1,112 @@
+package grant.coburn.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An in-memory H2 database in MySQL mode with the tables from schema.sql, for tests and benchmarks
+ * that need real SQL. The mysqldump's MySQL-only statements and table options are dropped and its
+ * keys are created once every table exists. Migrations are not applied.
+ */
+public final class H2TestDatabase implements AutoCloseable {
+    private static final Pattern CREATE_TABLE = Pattern.compile("CREATE TABLE `(\\w+)`.*");
+    private static final Pattern KEY = Pattern.compile("\\s*(UNIQUE )?KEY `(\\w+)` (\\(.*\\)),?");
+    private static final Pattern FOREIGN_KEY = Pattern.compile("\\s*CONSTRAINT `(\\w+)` (FOREIGN KEY .*?),?");
+    private static final Pattern TABLE_OPTIONS = Pattern.compile("\\)\\s*ENGINE=.*;");
+
+    private final DatabaseUtil databaseUtil;
+
+    /**
+     * @param name A name for the database, unique among the databases open at the same time
+     */
+    public H2TestDatabase(String name) throws SQLException, IOException {
+        String url = "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        databaseUtil = new DatabaseUtil(url, "sa", "");
+
+        try (Connection conn = databaseUtil.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String sql : toH2Statements(readSchema())) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    public DatabaseUtil getDatabaseUtil() {
+        return databaseUtil;
+    }
+
+    private static String readSchema() throws IOException {
+        try (InputStream in = DatabaseUtil.class.getResourceAsStream("/schema.sql")) {
+            if (in == null) {
+                throw new IOException("schema.sql was not found on the classpath");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Convert the table definitions in a mysqldump into statements H2 accepts. Dumped rows are skipped.
+     */
+    static List<String> toH2Statements(String dump) {
+        List<String> statements = new ArrayList<>();
+        List<String> deferred = new ArrayList<>();
+        StringBuilder statement = new StringBuilder();
+        String table = null;
+
+        for (String line : dump.split("\\R")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--") || trimmed.startsWith("/*!")
+                || trimmed.startsWith("LOCK TABLES") || trimmed.startsWith("UNLOCK TABLES")
+                || trimmed.startsWith("INSERT INTO") || trimmed.startsWith("DROP TABLE")) {
+                continue;
+            }
+
+            Matcher matcher;
+            if ((matcher = CREATE_TABLE.matcher(trimmed)).matches()) {
+                table = matcher.group(1);
+            } else if (table != null && (matcher = KEY.matcher(line)).matches()) {
+                deferred.add(String.format("CREATE %sINDEX idx_%s_%s ON %s %s",
+                    matcher.group(1) == null ? "" : "UNIQUE ", table, matcher.group(2), table, matcher.group(3)));
+                continue;
+            } else if (table != null && (matcher = FOREIGN_KEY.matcher(line)).matches()) {
+                deferred.add(String.format("ALTER TABLE %s ADD CONSTRAINT %s %s", table, matcher.group(1), matcher.group(2)));
+                continue;
+            } else if (table != null && TABLE_OPTIONS.matcher(trimmed).matches()) {
+                // Drop the trailing comma left behind by the removed keys
+                String columns = statement.toString().stripTrailing();
+                if (columns.endsWith(",")) {
+                    columns = columns.substring(0, columns.length() - 1);
+                }
+                statements.add(columns + "\n)");
+                statement.setLength(0);
+                table = null;
+                continue;
+            }
+
+            statement.append(line).append('\n');
+        }
+
+        statements.addAll(deferred);
+        return statements;
+    }
+
+    /** Drop the database and close its connection pool */
+    @Override
+    public void close() {
+        try (Connection conn = databaseUtil.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        } catch (SQLException e) {
+            System.err.println("Failed to drop test database: " + e.getMessage());
+        }
+        databaseUtil.closeConnection();
+    }
+}
@@ -0,0 +1,42 @@
+package grant.coburn.util;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+    @Test
+    void testToCentsRoundsHalfUp() {
+        assertEquals(10056, Money.toCents(100.555));
+        assertEquals(10055, Money.toCents(100.554));
+        assertEquals(0, Money.toCents(0.004));
+    }
+
+    @Test
+    void testApplyRate() {
+        // $1,994.52 * 3.15% = $62.82738
+        assertEquals(6283, Money.applyRate(199452, PayrollCalculator.STATE_TAX_RATE));
+        // $1,000.00 * 7.65% = $76.50
+        assertEquals(7650, Money.applyRate(100000, PayrollCalculator.FEDERAL_TAX_RATE));
+    }
+
+    @Test
+    void testDecimalRoundTrip() {
+        assertEquals(new BigDecimal("1234.56"), Money.toDecimal(123456));
+        assertEquals(123456, Money.fromDecimal(new BigDecimal("1234.56")));
+        assertEquals(123457, Money.fromDecimal(new BigDecimal("1234.565")));
+        assertEquals(0, Money.fromDecimal(null));
+    }
+
+    @Test
+    void testSumsDoNotDrift() {
+        // Adding ten cents a thousand times drifts as a double but not as cents
+        long totalCents = 0;
+        for (int i = 0; i < 1000; i++) {
+            totalCents += Money.toCents(0.10);
+        }
+        assertEquals(10000, totalCents);
+        assertEquals(100.0, Money.toDollars(totalCents));
+    }
+}
@@ -0,0 +1,107 @@
+package grant.coburn.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import grant.coburn.model.Employee;
+import grant.coburn.model.TimeEntry;
+import grant.coburn.util.PayrollCalculator.PayrollResult;
+
+class PayrollBatchTest {
+    private static final LocalDate PAY_PERIOD_START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate PAY_PERIOD_END = LocalDate.of(2024, 1, 7);
+
+    private static Employee employee(int n, Employee.PayType payType, double payRate, Employee.MedicalCoverage coverage, int dependents) {
+        return new Employee(
+            String.format("EMP%04d", n),
+            "IT",
+            "Engineer",
+            "First" + n,
+            "Last" + n,
+            Employee.Status.ACTIVE,
+            LocalDate.of(1990, 1, 1),
+            LocalDate.of(2020, 1, 1),
+            payType,
+            payRate,
+            coverage,
+            dependents
+        );
+    }
+
+    @Test
+    void testMatchesSingleEmployeeCalculation() {
+        Random random = new Random(42);
+        int count = 2_000;
+        PayrollBatch batch = new PayrollBatch(count);
+        List<Employee> employees = new ArrayList<>();
+        List<List<TimeEntry>> entries = new ArrayList<>();
+
+        for (int n = 0; n < count; n++) {
+            boolean salaried = random.nextBoolean();
+            Employee employee = employee(
+                n,
+                salaried ? Employee.PayType.SALARY : Employee.PayType.HOURLY,
+                salaried ? 30_000 + random.nextInt(150_000) + random.nextInt(100) / 100.0 : 10 + random.nextInt(9_000) / 100.0,
+                random.nextBoolean() ? Employee.MedicalCoverage.SINGLE : Employee.MedicalCoverage.FAMILY,
+                random.nextInt(5)
+            );
+
+            List<TimeEntry> timeEntries = new ArrayList<>();
+            for (int day = 0; day < 7; day++) {
+                if (random.nextInt(4) > 0) {
+                    double hours = random.nextInt(48) / 4.0;
+                    timeEntries.add(new TimeEntry(employee.getEmployeeId(), PAY_PERIOD_START.plusDays(day), hours, random.nextInt(6) == 0));
+                }
+            }
+
+            employees.add(employee);
+            entries.add(timeEntries);
+            batch.add(employee, timeEntries);
+        }
+
+        PayrollCalculator.calculatePayroll(batch, PAY_PERIOD_START, PAY_PERIOD_END);
+
+        for (int i = 0; i < count; i++) {
+            PayrollResult expected = PayrollCalculator.calculatePayroll(employees.get(i), entries.get(i), PAY_PERIOD_START, PAY_PERIOD_END);
+            String row = "row " + i;
+            assertEquals(expected.regularPay, Money.toDollars(batch.regularPay[i]), row);
+            assertEquals(expected.overtimePay, Money.toDollars(batch.overtimePay[i]), row);
+            assertEquals(expected.grossPay, Money.toDollars(batch.grossPay[i]), row);
+            assertEquals(expected.stateTax, Money.toDollars(batch.stateTax[i]), row);
+            assertEquals(expected.federalTax, Money.toDollars(batch.federalTax[i]), row);
+            assertEquals(expected.socialSecurityTax, Money.toDollars(batch.socialSecurityTax[i]), row);
+            assertEquals(expected.medicareTax, Money.toDollars(batch.medicareTax[i]), row);
+            assertEquals(expected.employerSocialSecurityTax, Money.toDollars(batch.socialSecurityTax[i]), row);
+            assertEquals(expected.employerMedicareTax, Money.toDollars(batch.medicareTax[i]), row);
+            assertEquals(expected.medicalDeduction, Money.toDollars(batch.medicalDeduction[i]), row);
+            assertEquals(expected.dependentStipend, Money.toDollars(batch.dependentStipend[i]), row);
+            assertEquals(expected.netPay, Money.toDollars(batch.netPay[i]), row);
+        }
+    }
+
+    @Test
+    void testOnlyCalculatesFilledRows() {
+        PayrollBatch batch = new PayrollBatch(3);
+        batch.add(employee(1, Employee.PayType.HOURLY, 20.0, Employee.MedicalCoverage.SINGLE, 0),
+            List.of(new TimeEntry("EMP0001", PAY_PERIOD_START, 10.0, false)));
+
+        PayrollCalculator.calculatePayroll(batch, PAY_PERIOD_START, PAY_PERIOD_END);
+
+        assertEquals(20_000, batch.grossPay[0]);
+        assertEquals(0, batch.grossPay[1]);
+    }
+
+    @Test
+    void testFullBatchRejectsAdd() {
+        PayrollBatch batch = new PayrollBatch(1);
+        Employee employee = employee(1, Employee.PayType.HOURLY, 20.0, Employee.MedicalCoverage.SINGLE, 0);
+        batch.add(employee, List.of());
+        assertThrows(IllegalStateException.class, () -> batch.add(employee, List.of()));
+    }
+}
@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 
 import grant.coburn.model.Employee;
 import grant.coburn.model.TimeEntry;
+import grant.coburn.model.TimeEntryTotals;
 
 class PayrollCalculatorTest {
     private Employee salariedEmployee;
@@ -271,4 +272,29 @@ class PayrollCalculatorTest {
             - (expectedGrossPay * PayrollCalculator.MEDICARE_RATE);
         assertEquals(expectedNetPay, result.netPay, 0.01);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testSummedHoursMatchTimeEntries() {
+        // 44 regular hours and 8 PTO hours, with overtime
+        List<TimeEntry> timeEntries = Arrays.asList(
+            new TimeEntry(hourlyEmployee.getEmployeeId(), payPeriodStart, 9.5, false),
+            new TimeEntry(hourlyEmployee.getEmployeeId(), payPeriodStart.plusDays(1), 8.75, false),
+            new TimeEntry(hourlyEmployee.getEmployeeId(), payPeriodStart.plusDays(2), 8.0, true),
+            new TimeEntry(hourlyEmployee.getEmployeeId(), payPeriodStart.plusDays(3), 12.25, false),
+            new TimeEntry(hourlyEmployee.getEmployeeId(), payPeriodStart.plusDays(4), 13.5, false)
+        );
+        TimeEntryTotals totals = new TimeEntryTotals(hourlyEmployee.getEmployeeId(), 44.0, 8.0, List.of(1L, 2L, 3L, 4L, 5L));
+
+        for (Employee employee : List.of(hourlyEmployee, salariedEmployee)) {
+            PayrollCalculator.PayrollResult fromEntries = PayrollCalculator.calculatePayroll(
+                employee, timeEntries, payPeriodStart, payPeriodEnd, ValidationMode.STRICT);
+            PayrollCalculator.PayrollResult fromTotals = PayrollCalculator.calculatePayroll(
+                employee, totals, payPeriodStart, payPeriodEnd, ValidationMode.STRICT);
+
+            assertEquals(fromEntries.regularPay, fromTotals.regularPay);
+            assertEquals(fromEntries.overtimePay, fromTotals.overtimePay);
+            assertEquals(fromEntries.grossPay, fromTotals.grossPay);
+            assertEquals(fromEntries.netPay, fromTotals.netPay);
+        }
+    }
+}
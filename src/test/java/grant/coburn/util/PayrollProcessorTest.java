@@ -0,0 +1,459 @@
+package grant.coburn.util;
+
+import java.time.Duration;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import grant.coburn.dao.PayrollRunDAO;
+import grant.coburn.dao.StorageEngine;
+import grant.coburn.dao.TimeEntryDAO;
+import grant.coburn.model.Employee;
+import grant.coburn.model.PayrollRecord;
+import grant.coburn.model.PayrollReportRow;
+import grant.coburn.model.TimeEntry;
+
+class PayrollProcessorTest {
+    private static final LocalDate PAY_PERIOD_START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate PAY_PERIOD_END = LocalDate.of(2024, 1, 7);
+
+    private StorageEngine storage;
+    private PayrollProcessor processor;
+
+    private static Employee employee(String employeeId, Employee.PayType payType, double payRate, Employee.Status status) {
+        Employee employee = new Employee(
+            employeeId,
+            "IT",
+            "Engineer",
+            "First",
+            employeeId,
+            status,
+            LocalDate.of(1990, 1, 1),
+            LocalDate.of(2020, 1, 1),
+            payType,
+            payRate,
+            Employee.MedicalCoverage.SINGLE,
+            0
+        );
+        employee.setCompanyEmail(employeeId.toLowerCase() + "@example.com");
+        return employee;
+    }
+
+    private void addWorkWeek(String employeeId, double hoursPerDay) {
+        for (int day = 0; day < 5; day++) {
+            assertTrue(storage.getTimeEntryDAO().saveTimeEntry(
+                new TimeEntry(employeeId, PAY_PERIOD_START.plusDays(day), hoursPerDay, false)
+            ));
+        }
+    }
+
+    /**
+     * Wrap the time entry DAO so that calls to one of its methods are answered by the given handler.
+     */
+    private PayrollProcessor processorWithTimeEntryMethod(String methodName, InvocationHandler handler) {
+        TimeEntryDAO timeEntries = storage.getTimeEntryDAO();
+        TimeEntryDAO replaced = (TimeEntryDAO) Proxy.newProxyInstance(
+            TimeEntryDAO.class.getClassLoader(),
+            new Class<?>[] { TimeEntryDAO.class },
+            (proxy, method, args) -> {
+                if (method.getName().equals(methodName)) {
+                    return handler.invoke(proxy, method, args);
+                }
+                try {
+                    return method.invoke(timeEntries, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        );
+        return new PayrollProcessor(new StorageEngine(
+            storage.getEmployeeDAO(),
+            replaced,
+            storage.getPayrollRecordDAO(),
+            storage.getPayrollRunDAO(),
+            storage.getUserDAO(),
+            storage::beginUnitOfWork
+        ));
+    }
+
+    @BeforeEach
+    void setUp() {
+        storage = StorageEngine.inMemory();
+        processor = new PayrollProcessor(storage);
+
+        assertNotNull(storage.getEmployeeDAO().createEmployee(employee("EMP0001", Employee.PayType.HOURLY, 20.0, Employee.Status.ACTIVE), true));
+        assertNotNull(storage.getEmployeeDAO().createEmployee(employee("EMP0002", Employee.PayType.HOURLY, 30.0, Employee.Status.ACTIVE), true));
+        assertNotNull(storage.getEmployeeDAO().createEmployee(employee("EMP0003", Employee.PayType.HOURLY, 25.0, Employee.Status.TERMINATED), true));
+
+        addWorkWeek("EMP0001", 8.0);
+        addWorkWeek("EMP0002", 10.0);
+        addWorkWeek("EMP0003", 8.0);
+    }
+
+    @Test
+    void testProcessesActiveEmployeesAndLocksTheirEntries() {
+        PayrollProcessingResult result = processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END);
+
+        assertTrue(result.isSuccess(), () -> String.join("\n", result.getErrors()));
+        assertEquals(2, result.getEmployeesProcessed());
+
+        PayrollRecord record = storage.getPayrollRecordDAO().getLatestPayrollRecord("EMP0001");
+        assertNotNull(record);
+        assertEquals(Money.toCents(800.0), record.getGrossPayCents());
+        assertNotNull(storage.getPayrollRecordDAO().getLatestPayrollRecord("EMP0002"));
+        assertEquals(null, storage.getPayrollRecordDAO().getLatestPayrollRecord("EMP0003"));
+
+        List<TimeEntry> entries = storage.getTimeEntryDAO().getTimeEntriesByEmployeeId("EMP0001");
+        assertEquals(5, entries.size());
+        assertTrue(entries.stream().allMatch(TimeEntry::isLocked));
+        assertTrue(storage.getTimeEntryDAO().getTimeEntriesByEmployeeId("EMP0003").stream().noneMatch(TimeEntry::isLocked));
+    }
+
+    @Test
+    void testLockedEntriesAreNotPaidTwice() {
+        processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END);
+        processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END);
+
+        long totalGrossPay = storage.getPayrollRecordDAO().getPayrollRecordsByEmployee("EMP0001").stream()
+            .mapToLong(PayrollRecord::getGrossPayCents)
+            .sum();
+        assertEquals(Money.toCents(800.0), totalGrossPay);
+    }
+
+    @Test
+    void testParallelAndPipelinedRunsMatchSequentialRun() {
+        processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END);
+        List<PayrollRecord> sequential = storage.getPayrollRecordDAO().getPayrollRecordsByDateRange(PAY_PERIOD_START, PAY_PERIOD_END);
+
+        deletePayrollRecords(sequential);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            processor.setBatchSize(1);
+            assertTrue(processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END, executor).isSuccess());
+        } finally {
+            executor.shutdown();
+        }
+        assertRecordsMatch(sequential);
+
+        deletePayrollRecords(sequential);
+        assertTrue(processor.processPayrollPipelined(PAY_PERIOD_START, PAY_PERIOD_END).isSuccess());
+        assertRecordsMatch(sequential);
+    }
+
+    private void deletePayrollRecords(List<PayrollRecord> records) {
+        for (PayrollRecord record : records) {
+            assertTrue(processor.deletePayrollRecord(record.getEmployeeId(), record.getPayPeriodStart(), record.getPayPeriodEnd()));
+        }
+    }
+
+    private void assertRecordsMatch(List<PayrollRecord> expectedRecords) {
+        for (PayrollRecord expected : expectedRecords) {
+            List<PayrollRecord> records = storage.getPayrollRecordDAO().getPayrollRecordsByEmployee(expected.getEmployeeId());
+            assertEquals(1, records.size());
+            assertEquals(expected.getGrossPayCents(), records.get(0).getGrossPayCents());
+            assertEquals(expected.getNetPayCents(), records.get(0).getNetPayCents());
+        }
+    }
+
+    @Test
+    void testResumedRunSkipsCompletedEmployees() {
+        processor.setBatchSize(1);
+        PayrollProcessingResult cancelled = processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END, new PayrollProgressListener() {
+            @Override
+            public void progressUpdated(PayrollProgress progress) {
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return storage.getPayrollRunDAO().getCompletedEmployeeIds(PAY_PERIOD_START, PAY_PERIOD_END).size() == 1;
+            }
+        });
+        assertTrue(cancelled.isCancelled());
+        assertEquals(Set.of("EMP0001"), storage.getPayrollRunDAO().getCompletedEmployeeIds(PAY_PERIOD_START, PAY_PERIOD_END));
+
+        PayrollProcessingResult resumed = processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END);
+
+        assertTrue(resumed.isSuccess(), () -> String.join("\n", resumed.getErrors()));
+        assertEquals(1, resumed.getEmployeesProcessed());
+        assertEquals(Set.of("EMP0001", "EMP0002"), storage.getPayrollRunDAO().getCompletedEmployeeIds(PAY_PERIOD_START, PAY_PERIOD_END));
+        assertEquals(1, storage.getPayrollRecordDAO().getPayrollRecordsByEmployee("EMP0001").size());
+        assertEquals(1, storage.getPayrollRecordDAO().getPayrollRecordsByEmployee("EMP0002").size());
+
+        PayrollProcessingResult again = processor.processPayrollPipelined(PAY_PERIOD_START, PAY_PERIOD_END);
+        assertEquals(0, again.getEmployeesProcessed());
+        assertEquals(2, storage.getPayrollRecordDAO().getPayrollRecordsByDateRange(PAY_PERIOD_START, PAY_PERIOD_END).size());
+    }
+
+    @Test
+    void testRecordSavedWithoutCheckpointIsReplaced() {
+        // A run that stopped after saving a record but before checkpointing the employee
+        assertTrue(storage.getPayrollRecordDAO().savePayrollRecord(PayrollRecord.ofCents(
+            "EMP0001", PAY_PERIOD_START, PAY_PERIOD_END, 1, 1, 0, 0, 0, 0, 0, 0, 0, 0
+        )));
+
+        assertTrue(processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END).isSuccess());
+
+        List<PayrollRecord> records = storage.getPayrollRecordDAO().getPayrollRecordsByEmployee("EMP0001");
+        assertEquals(1, records.size());
+        assertEquals(Money.toCents(800.0), records.get(0).getGrossPayCents());
+        assertEquals(PayrollRunDAO.Status.COMPLETED,
+            storage.getPayrollRunDAO().getEmployeeStatus("EMP0001", PAY_PERIOD_START, PAY_PERIOD_END));
+    }
+
+    @Test
+    void testIncrementalRunRecalculatesOnlyChangedEmployees() {
+        assertTrue(processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END).isSuccess());
+        PayrollRecord unchanged = storage.getPayrollRecordDAO().getLatestPayrollRecord("EMP0001");
+        long grossBefore = storage.getPayrollRecordDAO().getLatestPayrollRecord("EMP0002").getGrossPayCents();
+
+        // Correct one of EMP0002's locked entries after payroll was processed
+        TimeEntry monday = storage.getTimeEntryDAO().getTimeEntryByEmployeeIdAndDate("EMP0002", PAY_PERIOD_START);
+        TimeEntry corrected = new TimeEntry("EMP0002", PAY_PERIOD_START, 6.0, false);
+        corrected.setEntryId(monday.getEntryId());
+        corrected.setLocked(true);
+        assertTrue(storage.getTimeEntryDAO().updateTimeEntry(corrected));
+
+        PayrollProcessingResult result = processor.processPayrollIncremental(PAY_PERIOD_START, PAY_PERIOD_END);
+
+        assertTrue(result.isSuccess(), () -> String.join("\n", result.getErrors()));
+        assertEquals(1, result.getEmployeesProcessed());
+        assertTrue(storage.getPayrollRecordDAO().getLatestPayrollRecord("EMP0002").getGrossPayCents() < grossBefore);
+        assertEquals(1, storage.getPayrollRecordDAO().getPayrollRecordsByEmployee("EMP0002").size());
+        assertTrue(storage.getTimeEntryDAO().getTimeEntriesByEmployeeId("EMP0002").stream().allMatch(TimeEntry::isLocked));
+
+        PayrollRecord untouched = storage.getPayrollRecordDAO().getLatestPayrollRecord("EMP0001");
+        assertEquals(unchanged.getInputFingerprint(), untouched.getInputFingerprint());
+        assertEquals(unchanged.getCreationDate(), untouched.getCreationDate());
+
+        assertEquals(0, processor.processPayrollIncremental(PAY_PERIOD_START, PAY_PERIOD_END).getEmployeesProcessed());
+    }
+
+    @Test
+    void testIncrementalRunRecalculatesChangedPayDetails() {
+        assertTrue(processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END).isSuccess());
+
+        Employee employee = storage.getEmployeeDAO().getEmployee("EMP0001");
+        employee.setBaseSalary(22.0);
+        assertTrue(storage.getEmployeeDAO().updateEmployee(employee));
+
+        PayrollProcessingResult result = processor.processPayrollIncremental(PAY_PERIOD_START, PAY_PERIOD_END);
+
+        assertTrue(result.isSuccess(), () -> String.join("\n", result.getErrors()));
+        assertEquals(1, result.getEmployeesProcessed());
+        assertEquals(Money.toCents(880.0), storage.getPayrollRecordDAO().getLatestPayrollRecord("EMP0001").getGrossPayCents());
+    }
+
+    @Test
+    void testIncrementalRunSkipsEmployeesWithEntriesLockedBeforeTheirRun() {
+        assertUnchangedAfterRunWithPreLockedEntry(() -> processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END));
+    }
+
+    @Test
+    void testIncrementalRunSkipsEmployeesWithEntriesLockedBeforeTheirPipelinedRun() {
+        assertUnchangedAfterRunWithPreLockedEntry(() -> processor.processPayrollPipelined(PAY_PERIOD_START, PAY_PERIOD_END));
+    }
+
+    /**
+     * Lock one of EMP0001's entries before the first run, which then doesn't pay it, and check that an
+     * incremental run afterwards finds nothing changed.
+     */
+    private void assertUnchangedAfterRunWithPreLockedEntry(Supplier<PayrollProcessingResult> firstRun) {
+        assertTrue(storage.getTimeEntryDAO().saveTimeEntry(new TimeEntry("EMP0001", PAY_PERIOD_START.plusDays(5), 4.0, false)));
+        TimeEntry saturday = storage.getTimeEntryDAO().getTimeEntryByEmployeeIdAndDate("EMP0001", PAY_PERIOD_START.plusDays(5));
+        assertEquals(1, storage.getTimeEntryDAO().lockTimeEntries(List.of(saturday.getEntryId())));
+
+        PayrollProcessingResult first = firstRun.get();
+        assertTrue(first.isSuccess(), () -> String.join("\n", first.getErrors()));
+        PayrollRecord record = storage.getPayrollRecordDAO().getLatestPayrollRecord("EMP0001");
+        assertEquals(Money.toCents(800.0), record.getGrossPayCents());
+
+        PayrollProcessingResult result = processor.processPayrollIncremental(PAY_PERIOD_START, PAY_PERIOD_END);
+
+        assertTrue(result.isSuccess(), () -> String.join("\n", result.getErrors()));
+        assertEquals(0, result.getEmployeesProcessed());
+        assertEquals(record.getCreationDate(), storage.getPayrollRecordDAO().getLatestPayrollRecord("EMP0001").getCreationDate());
+        assertEquals(Money.toCents(800.0), storage.getPayrollRecordDAO().getLatestPayrollRecord("EMP0001").getGrossPayCents());
+    }
+
+    @Test
+    void testPipelineReturnsWhenPersistStageFails() {
+        for (int i = 10; i < 20; i++) {
+            String employeeId = "EMP00" + i;
+            assertNotNull(storage.getEmployeeDAO().createEmployee(employee(employeeId, Employee.PayType.HOURLY, 20.0, Employee.Status.ACTIVE), true));
+            addWorkWeek(employeeId, 8.0);
+        }
+        StorageEngine failingStorage = new StorageEngine(
+            storage.getEmployeeDAO(),
+            storage.getTimeEntryDAO(),
+            storage.getPayrollRecordDAO(),
+            storage.getPayrollRunDAO(),
+            storage.getUserDAO(),
+            () -> {
+                throw new IllegalStateException("Database is unavailable");
+            }
+        );
+        PayrollProcessor failingProcessor = new PayrollProcessor(failingStorage);
+        failingProcessor.setBatchSize(1);
+        failingProcessor.setPipelineQueueCapacity(1);
+
+        // The calculation threads would block forever on the full result queue if the failure didn't stop them
+        PayrollProcessingResult result = assertTimeoutPreemptively(
+            Duration.ofSeconds(10),
+            () -> failingProcessor.processPayrollPipelined(PAY_PERIOD_START, PAY_PERIOD_END)
+        );
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getErrors().stream().anyMatch(error -> error.contains("Database is unavailable")),
+            () -> String.join("\n", result.getErrors()));
+        assertTrue(storage.getPayrollRecordDAO().getPayrollRecordsByDateRange(PAY_PERIOD_START, PAY_PERIOD_END).isEmpty());
+    }
+
+    @Test
+    void testRunFailsWhenTimeEntryTotalsCannotBeRead() {
+        // Reading the totals fails the way JdbcTimeEntryDAO does when the entry ID list was truncated
+        PayrollProcessor failingProcessor = processorWithTimeEntryMethod(
+            "getUnlockedTimeEntryTotalsForActiveEmployees", (proxy, method, args) -> null);
+
+        PayrollProcessingResult result = failingProcessor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END);
+
+        assertFalse(result.isSuccess());
+        assertTrue(storage.getPayrollRecordDAO().getPayrollRecordsByDateRange(PAY_PERIOD_START, PAY_PERIOD_END).isEmpty());
+        assertTrue(storage.getPayrollRunDAO().getCompletedEmployeeIds(PAY_PERIOD_START, PAY_PERIOD_END).isEmpty());
+    }
+
+    @Test
+    void testPipelineFailsWhenTimeEntryStreamFailsPartway() {
+        // The stream hands over the first employee's entries and then fails, like a dropped connection
+        PayrollProcessor failingProcessor = processorWithTimeEntryMethod(
+            "streamUnlockedTimeEntriesForActiveEmployees",
+            (proxy, method, args) -> {
+                @SuppressWarnings("unchecked")
+                BiConsumer<String, List<TimeEntry>> consumer = (BiConsumer<String, List<TimeEntry>>) args[2];
+                List<TimeEntry> entries = storage.getTimeEntryDAO().getTimeEntriesByEmployeeIdAndDateRange("EMP0001", PAY_PERIOD_START, PAY_PERIOD_END);
+                consumer.accept("EMP0001", entries);
+                return false;
+            }
+        );
+
+        PayrollProcessingResult result = assertTimeoutPreemptively(
+            Duration.ofSeconds(10),
+            () -> failingProcessor.processPayrollPipelined(PAY_PERIOD_START, PAY_PERIOD_END)
+        );
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getErrors().stream().anyMatch(error -> error.contains("Failed to read the time entries")),
+            () -> String.join("\n", result.getErrors()));
+        // EMP0002's entries were never read, so it must not be paid for zero hours or checkpointed
+        assertTrue(storage.getPayrollRecordDAO().getPayrollRecordsByEmployee("EMP0002").isEmpty());
+        assertEquals(null, storage.getPayrollRunDAO().getEmployeeStatus("EMP0002", PAY_PERIOD_START, PAY_PERIOD_END));
+        assertTrue(storage.getTimeEntryDAO().getTimeEntriesByEmployeeId("EMP0002").stream().noneMatch(TimeEntry::isLocked));
+    }
+
+    @Test
+    void testDeletingARecordReopensTheEmployee() {
+        assertTrue(processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END).isSuccess());
+
+        assertTrue(processor.deletePayrollRecord("EMP0001", PAY_PERIOD_START, PAY_PERIOD_END));
+        assertTrue(storage.getPayrollRecordDAO().getPayrollRecordsByEmployee("EMP0001").isEmpty());
+        assertEquals(null, storage.getPayrollRunDAO().getEmployeeStatus("EMP0001", PAY_PERIOD_START, PAY_PERIOD_END));
+        assertTrue(storage.getTimeEntryDAO().getTimeEntriesByEmployeeId("EMP0001").stream().noneMatch(TimeEntry::isLocked));
+
+        // With no record left to delete, nothing else changes either
+        assertTrue(processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END).isSuccess());
+        assertTrue(storage.getPayrollRecordDAO().deletePayrollRecord("EMP0001", PAY_PERIOD_START, PAY_PERIOD_END));
+        assertFalse(processor.deletePayrollRecord("EMP0001", PAY_PERIOD_START, PAY_PERIOD_END));
+        assertEquals(PayrollRunDAO.Status.COMPLETED,
+            storage.getPayrollRunDAO().getEmployeeStatus("EMP0001", PAY_PERIOD_START, PAY_PERIOD_END));
+        assertTrue(storage.getTimeEntryDAO().getTimeEntriesByEmployeeId("EMP0001").stream().allMatch(TimeEntry::isLocked));
+    }
+
+    @Test
+    void testReportsProgressForEveryEmployee() {
+        List<PayrollProgress> updates = new ArrayList<>();
+        PayrollProcessingResult result = processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END, new PayrollProgressListener() {
+            @Override
+            public void progressUpdated(PayrollProgress progress) {
+                updates.add(progress);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+        });
+
+        assertFalse(result.isCancelled());
+        assertEquals(3, updates.size());
+        assertEquals(0, updates.get(0).getEmployeesProcessed());
+        PayrollProgress last = updates.get(updates.size() - 1);
+        assertEquals(2, last.getTotalEmployees());
+        assertEquals(2, last.getEmployeesCompleted());
+        assertEquals(0, last.getEmployeesRemaining());
+        assertEquals(1.0, last.getFractionDone());
+    }
+
+    @Test
+    void testCancellationStopsBeforeTheNextBatch() {
+        processor.setBatchSize(1);
+        List<PayrollProgress> updates = new ArrayList<>();
+        PayrollProcessingResult result = processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END, new PayrollProgressListener() {
+            @Override
+            public void progressUpdated(PayrollProgress progress) {
+                updates.add(progress);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                // Cancel once the first batch has been processed
+                return updates.get(updates.size() - 1).getEmployeesProcessed() >= 1;
+            }
+        });
+
+        assertTrue(result.isCancelled());
+        assertEquals(1, result.getEmployeesProcessed());
+        assertEquals(1, storage.getPayrollRecordDAO().getPayrollRecordsByDateRange(PAY_PERIOD_START, PAY_PERIOD_END).size());
+        assertEquals(1, updates.get(updates.size() - 1).getEmployeesRemaining());
+    }
+
+    @Test
+    void testReportRowsCarryEmployeeNames() {
+        processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END);
+
+        List<PayrollReportRow> rows = processor.getPayrollReportRows(PAY_PERIOD_START, PAY_PERIOD_END);
+
+        assertEquals(2, rows.size());
+        for (PayrollReportRow row : rows) {
+            assertEquals("First " + row.getEmployeeId(), row.getEmployeeName());
+            assertEquals("IT", row.getDepartment());
+        }
+    }
+
+    @Test
+    void testHardDeleteRemovesEverythingForEmployee() {
+        processor.processPayroll(PAY_PERIOD_START, PAY_PERIOD_END);
+
+        assertTrue(storage.getEmployeeDAO().deleteEmployee("EMP0001", true));
+
+        assertEquals(null, storage.getEmployeeDAO().getEmployee("EMP0001"));
+        assertTrue(storage.getTimeEntryDAO().getTimeEntriesByEmployeeId("EMP0001").isEmpty());
+        assertTrue(storage.getPayrollRecordDAO().getPayrollRecordsByEmployee("EMP0001").isEmpty());
+        assertFalse(storage.getUserDAO().mustChangePassword("EMP0001"));
+        assertTrue(storage.getUserDAO().mustChangePassword("EMP0002"));
+    }
+}
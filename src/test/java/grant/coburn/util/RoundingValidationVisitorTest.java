@@ -0,0 +1,146 @@
+package grant.coburn.util;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import grant.coburn.util.PayrollCalculator.PayrollResult;
+
+class RoundingValidationVisitorTest {
+    private static final double DELTA = 0.001;
+    private RoundingValidationVisitor visitor;
+
+    @BeforeEach
+    void setUp() {
+        visitor = new RoundingValidationVisitor(ValidationMode.LENIENT);
+    }
+
+    private static PayrollResult validResult() {
+        PayrollResult result = new PayrollResult();
+        result.regularPay = 1000.00;
+        result.overtimePay = 150.00;
+        result.grossPay = 1150.00;
+        result.stateTax = result.grossPay * PayrollCalculator.STATE_TAX_RATE;
+        result.federalTax = result.grossPay * PayrollCalculator.FEDERAL_TAX_RATE;
+        result.socialSecurityTax = result.grossPay * PayrollCalculator.SOCIAL_SECURITY_RATE;
+        result.medicareTax = result.grossPay * PayrollCalculator.MEDICARE_RATE;
+        result.employerSocialSecurityTax = result.socialSecurityTax;
+        result.employerMedicareTax = result.medicareTax;
+        result.medicalDeduction = 50.00;
+        result.dependentStipend = 90.00;
+        result.netPay = result.grossPay
+            - result.stateTax
+            - result.federalTax
+            - result.socialSecurityTax
+            - result.medicareTax
+            - result.medicalDeduction
+            + result.dependentStipend;
+        result.payPeriodStart = LocalDate.of(2024, 1, 1);
+        result.payPeriodEnd = LocalDate.of(2024, 1, 14);
+        return result;
+    }
+
+    /** Asserts the fused visitor reports exactly what the original validator reports */
+    private void assertMatchesValidator(Consumer<PayrollResult> change) {
+        PayrollResult expected = validResult();
+        change.accept(expected);
+        PayrollResultValidationVisitor validator = new PayrollResultValidationVisitor();
+        validator.visit(expected);
+
+        PayrollResult actual = validResult();
+        change.accept(actual);
+        visitor.visit(actual);
+
+        assertEquals(validator.hasErrors(), visitor.hasErrors());
+        assertEquals(validator.getErrors(), visitor.getErrors());
+        assertEquals(visitor.getErrorCodes(), actual.validationErrors);
+    }
+
+    @Test
+    void testValidPayrollResult() {
+        PayrollResult result = validResult();
+        visitor.visit(result);
+        assertFalse(visitor.hasErrors());
+        assertTrue(visitor.getErrors().isEmpty());
+        assertEquals(0, result.validationErrors);
+    }
+
+    @Test
+    void testMatchesValidationVisitor() {
+        assertMatchesValidator(r -> r.grossPay = 1000.00);
+        assertMatchesValidator(r -> r.netPay = 1000.00);
+        assertMatchesValidator(r -> r.stateTax = r.grossPay * 0.04);
+        assertMatchesValidator(r -> r.federalTax = r.grossPay * 0.08);
+        assertMatchesValidator(r -> r.socialSecurityTax = r.grossPay * 0.07);
+        assertMatchesValidator(r -> r.medicareTax = r.grossPay * 0.02);
+        assertMatchesValidator(r -> r.employerSocialSecurityTax = r.socialSecurityTax + 1.00);
+        assertMatchesValidator(r -> r.employerMedicareTax = r.medicareTax + 1.00);
+        assertMatchesValidator(r -> r.payPeriodEnd = LocalDate.of(2023, 12, 31));
+        assertMatchesValidator(r -> r.regularPay = -100.00);
+        assertMatchesValidator(r -> r.medicalDeduction = -50.00);
+        assertMatchesValidator(r -> {
+            r.grossPay = 0;
+            r.dependentStipend = -1.00;
+        });
+    }
+
+    @Test
+    void testErrorCodes() {
+        PayrollResult result = validResult();
+        result.grossPay = 1000.00;
+        visitor.visit(result);
+        assertTrue((result.validationErrors & RoundingValidationVisitor.GROSS_PAY_MISMATCH) != 0);
+        assertTrue(RoundingValidationVisitor.describeErrors(result).contains("Gross pay does not match"));
+    }
+
+    @Test
+    void testRoundsToCents() {
+        PayrollResult result = new PayrollResult();
+        result.regularPay = 100.555;
+        result.overtimePay = 50.554;
+        result.grossPay = 151.109;
+        result.medicalDeduction = 50.005;
+        visitor.visit(result);
+        assertEquals(100.56, result.regularPay, DELTA);
+        assertEquals(50.55, result.overtimePay, DELTA);
+        assertEquals(151.11, result.grossPay, DELTA);
+        assertEquals(50.01, result.medicalDeduction, DELTA);
+    }
+
+    @Test
+    void testStrictModeThrows() {
+        visitor.setMode(ValidationMode.STRICT);
+        PayrollResult result = validResult();
+        result.netPay = 1000.00;
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> visitor.visit(result));
+        assertTrue(e.getMessage().contains("Net pay calculation is incorrect"));
+    }
+
+    @Test
+    void testOffModeOnlyRounds() {
+        visitor.setMode(ValidationMode.OFF);
+        PayrollResult result = validResult();
+        result.grossPay = -10.004;
+        visitor.visit(result);
+        assertFalse(visitor.hasErrors());
+        assertEquals(0, result.validationErrors);
+        assertEquals(-10.00, result.grossPay, DELTA);
+    }
+
+    @Test
+    void testReuseClearsPreviousErrors() {
+        PayrollResult invalid = validResult();
+        invalid.grossPay = 1000.00;
+        visitor.visit(invalid);
+        assertTrue(visitor.hasErrors());
+
+        visitor.visit(validResult());
+        assertFalse(visitor.hasErrors());
+    }
+}
@@ -0,0 +1,131 @@
+package grant.coburn.util;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SchemaMigratorTest {
+    private H2TestDatabase database;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        database = new H2TestDatabase("schema_migrator_test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testAppliesEachMigrationOnce() throws SQLException, IOException {
+        SchemaMigrator migrator = new SchemaMigrator(database.getDatabaseUtil());
+
+        assertEquals(SchemaMigrator.MIGRATIONS.size(), migrator.migrate());
+        assertEquals(0, migrator.migrate());
+
+        try (Connection conn = database.getDatabaseUtil().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, description FROM schema_migrations ORDER BY version")) {
+            rs.next();
+            assertEquals(1, rs.getInt("version"));
+            assertEquals("index time entry queries", rs.getString("description"));
+            rs.next();
+            assertEquals(2, rs.getInt("version"));
+        }
+    }
+
+    @Test
+    void testAppliesOnlyNewMigrations() throws SQLException, IOException {
+        assertEquals(1, new SchemaMigrator(database.getDatabaseUtil(), SchemaMigrator.MIGRATIONS.subList(0, 1)).migrate());
+        assertEquals(SchemaMigrator.MIGRATIONS.size() - 1, new SchemaMigrator(database.getDatabaseUtil()).migrate());
+    }
+
+    @Test
+    void testLedgerMigrationRefusesDuplicateRecords() throws SQLException, IOException {
+        new SchemaMigrator(database.getDatabaseUtil(), SchemaMigrator.MIGRATIONS.subList(0, 2)).migrate();
+
+        try (Connection conn = database.getDatabaseUtil().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(
+                "INSERT INTO employees (employee_id, department, job_title, first_name, last_name, status, " +
+                "date_of_birth, gender, pay_type, company_email, address_line1, city, state, zip, hire_date) " +
+                "VALUES ('EMP0001', 'IT', 'Engineer', 'First', 'Last', 'ACTIVE', '1990-01-01', 'FEMALE', 'HOURLY', " +
+                "'emp0001@example.com', '', '', '', '', '2020-01-01')");
+            // The real record, then a $0 record from re-running the pay period once the entries were locked
+            for (int grossPay : new int[] { 800, 0 }) {
+                stmt.executeUpdate("INSERT INTO payroll_records (employee_id, pay_period_start, pay_period_end, gross_pay, net_pay) " +
+                    "VALUES ('EMP0001', '2024-01-01', '2024-01-07', " + grossPay + ", 0)");
+            }
+        }
+
+        SchemaMigrator migrator = new SchemaMigrator(database.getDatabaseUtil());
+        SQLException e = assertThrows(SQLException.class, migrator::migrate);
+        assertTrue(e.getMessage().contains("employee_id=EMP0001"), e.getMessage());
+        assertTrue(e.getMessage().contains("pay_period_start=2024-01-01"), e.getMessage());
+
+        try (Connection conn = database.getDatabaseUtil().getConnection();
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM payroll_records")) {
+                rs.next();
+                assertEquals(2, rs.getInt(1));
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM schema_migrations WHERE version = 3")) {
+                rs.next();
+                assertEquals(0, rs.getInt(1));
+            }
+
+            // Resolved by hand: the later $0 record is the duplicate
+            stmt.executeUpdate("DELETE FROM payroll_records WHERE gross_pay = 0");
+        }
+
+        assertEquals(SchemaMigrator.MIGRATIONS.size() - 2, migrator.migrate());
+
+        try (Connection conn = database.getDatabaseUtil().getConnection();
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT gross_pay FROM payroll_records")) {
+                assertTrue(rs.next());
+                assertEquals(800, rs.getInt("gross_pay"));
+                assertFalse(rs.next());
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT employee_id, status FROM payroll_runs")) {
+                assertTrue(rs.next());
+                assertEquals("EMP0001", rs.getString("employee_id"));
+                assertEquals("COMPLETED", rs.getString("status"));
+            }
+        }
+    }
+
+    @Test
+    void testChangedMigrationIsRejected() throws SQLException, IOException {
+        SchemaMigrator migrator = new SchemaMigrator(database.getDatabaseUtil());
+        migrator.migrate();
+
+        try (Connection conn = database.getDatabaseUtil().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE schema_migrations SET checksum = '" + SchemaMigrator.checksum("changed") + "' WHERE version = 1");
+        }
+
+        assertThrows(IllegalStateException.class, migrator::migrate);
+    }
+
+    @Test
+    void testSplitsStatementsAndSkipsComments() {
+        List<String> statements = SchemaMigrator.splitStatements(
+            "-- First index\nCREATE INDEX a ON t (x);\n\nCREATE INDEX b\n  ON t (y);\n"
+        );
+
+        assertEquals(List.of("CREATE INDEX a ON t (x)", "CREATE INDEX b\n  ON t (y)"), statements);
+    }
+}